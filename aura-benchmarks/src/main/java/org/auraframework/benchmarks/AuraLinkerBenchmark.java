@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.impl.controller.AuraGlobalControllerDefRegistry;
+import org.auraframework.impl.linker.AccessChecker;
+import org.auraframework.impl.linker.AuraLinker;
+import org.auraframework.service.CachingService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.LoggingService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Linking a component and its dependency tree with {@link AuraLinker}.
+ *
+ * The definitions cache is warm, so this measures the walk, access checks and validation bookkeeping rather than
+ * parsing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class AuraLinkerBenchmark {
+    @Param({ "markup://ui:button", "markup://ui:inputDate", "markup://ui:autocomplete" })
+    public String component;
+
+    private AuraState aura;
+    private AuraContext context;
+    private DefDescriptor<ComponentDef> descriptor;
+    private CachingService cachingService;
+    private LoggingService loggingService;
+    private ConfigAdapter configAdapter;
+    private AccessChecker accessChecker;
+    private AuraGlobalControllerDefRegistry globalControllerDefRegistry;
+
+    @Setup(Level.Trial)
+    public void setup(AuraState aura) throws QuickFixException {
+        this.aura = aura;
+        context = aura.startContext(null);
+        DefinitionService definitionService = aura.getBean(DefinitionService.class);
+        descriptor = definitionService.getDefDescriptor(component, ComponentDef.class);
+        cachingService = aura.getBean(CachingService.class);
+        loggingService = aura.getBean(LoggingService.class);
+        configAdapter = aura.getBean(ConfigAdapter.class);
+        accessChecker = new AccessChecker(configAdapter);
+        globalControllerDefRegistry = aura.getBean(AuraGlobalControllerDefRegistry.class);
+        // compile once so that the definitions are cached.
+        definitionService.getDefinition(descriptor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aura.endContext();
+    }
+
+    @Benchmark
+    public Definition linkDefinition() throws QuickFixException {
+        AuraLinker linker = new AuraLinker(descriptor, cachingService.getDefsCache(),
+                cachingService.getDefDescriptorByNameCache(), loggingService, configAdapter, accessChecker,
+                context.getAuraLocalStore(), context.getAccessCheckCache(), context.getRegistries());
+        linker.addMap(globalControllerDefRegistry.getAll());
+        return linker.linkDefinition(descriptor);
+    }
+}
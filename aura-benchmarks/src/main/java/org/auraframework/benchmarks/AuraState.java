@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import org.auraframework.AuraConfiguration;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import test.org.auraframework.impl.adapter.ConfigAdapterImpl;
+
+/**
+ * The framework, started once per trial and shared by all benchmark threads.
+ *
+ * Services are wired as the AuraCompiler tool does them, with the components from aura-components on the classpath
+ * as fixtures. Each benchmark thread needs its own {@link AuraContext}, see {@link #startContext(String)}.
+ */
+@State(Scope.Benchmark)
+public class AuraState {
+    private AnnotationConfigApplicationContext applicationContext;
+
+    @SuppressWarnings("deprecation")
+    private static void initDeprecated(AnnotationConfigApplicationContext applicationContext) {
+        applicationContext.getBean(org.auraframework.AuraDeprecated.class);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        applicationContext = new AnnotationConfigApplicationContext(AuraConfiguration.class, ConfigAdapterImpl.class);
+        initDeprecated(applicationContext);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return applicationContext.getBean(type);
+    }
+
+    /**
+     * Start a production context on the current thread.
+     *
+     * @param application the qualified name of the application to load, or null for none.
+     * @return the new context, which must be ended on the same thread with {@link #endContext()}.
+     */
+    public AuraContext startContext(String application) {
+        DefDescriptor<ApplicationDef> appDesc = null;
+        if (application != null) {
+            appDesc = getBean(DefinitionService.class).getDefDescriptor(application, ApplicationDef.class);
+        }
+        return getBean(ContextService.class).startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED,
+                appDesc);
+    }
+
+    public void endContext() {
+        getBean(ContextService.class).endContext();
+    }
+}
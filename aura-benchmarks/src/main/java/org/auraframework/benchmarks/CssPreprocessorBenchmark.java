@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.adapter.StyleAdapter;
+import org.auraframework.css.ResolveStrategy;
+import org.auraframework.css.StyleContext;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.StyleDef;
+import org.auraframework.impl.css.parser.CssPreprocessor;
+import org.auraframework.impl.css.util.Styles;
+import org.auraframework.impl.factory.StyleParser;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.Source;
+import org.auraframework.system.TextSource;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * CSS preprocessing of component styles.
+ *
+ * {@link #initial()} is the compile time pass done by {@link StyleParser}, {@link #runtime()} is the token
+ * resolution done for every style when app.css is built.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CssPreprocessorBenchmark {
+    @Param({ "css://ui.button", "css://ui.inputDate", "css://ui.autocomplete" })
+    public String style;
+
+    private AuraState aura;
+    private StyleAdapter styleAdapter;
+    private StyleContext styleContext;
+    private DefDescriptor<StyleDef> descriptor;
+    private String source;
+    private String className;
+    private String compiled;
+
+    @Setup(Level.Trial)
+    public void setup(AuraState aura) throws QuickFixException {
+        this.aura = aura;
+        AuraContext context = aura.startContext(null);
+        DefinitionService definitionService = aura.getBean(DefinitionService.class);
+        styleAdapter = aura.getBean(StyleAdapter.class);
+        styleContext = context.getStyleContext();
+        descriptor = definitionService.getDefDescriptor(style, StyleDef.class);
+        Source<StyleDef> styleSource = definitionService.getSource(descriptor);
+        if (!(styleSource instanceof TextSource)) {
+            throw new IllegalStateException("No source for " + style);
+        }
+        source = ((TextSource<StyleDef>) styleSource).getContents();
+        className = Styles.buildClassName(descriptor);
+        compiled = initial();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aura.endContext();
+    }
+
+    @Benchmark
+    public String initial() throws QuickFixException {
+        return CssPreprocessor.initial(styleAdapter)
+                .source(source)
+                .resourceName(style)
+                .allowedConditions(Iterables.concat(StyleParser.ALLOWED_CONDITIONS,
+                        styleAdapter.getExtraAllowedConditions()))
+                .componentClass(className, true)
+                .tokens(descriptor, styleAdapter.getTokenValueProvider(descriptor, ResolveStrategy.PASSTHROUGH))
+                .parse()
+                .content();
+    }
+
+    @Benchmark
+    public String runtime() throws QuickFixException {
+        return CssPreprocessor.runtime(styleContext, styleAdapter)
+                .source(compiled)
+                .resourceName(style)
+                .tokens(descriptor, styleAdapter.getTokenValueProvider(descriptor, ResolveStrategy.RESOLVE_NORMAL))
+                .parse()
+                .content();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.system.DefDescriptorImpl;
+import org.auraframework.impl.system.DescriptorIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Answering {@link DescriptorFilter} queries with a {@link DescriptorIndex}, against the full scan it replaced.
+ *
+ * The descriptors are synthetic, spread over one namespace per hundred descriptors, with one application for every
+ * three components.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class DescriptorIndexBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int descriptors;
+
+    @Param({ "markup://ns7:cmp7", "markup://ns7:*", "markup://ns7:cmp1*", "markup://ns1*:*" })
+    public String filter;
+
+    private List<DefDescriptor<?>> all;
+    private DescriptorIndex index;
+    private DescriptorFilter matcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int namespaces = Math.max(1, descriptors / 100);
+        all = Lists.newArrayListWithCapacity(descriptors);
+        for (int i = 0; i < descriptors; i++) {
+            String namespace = "ns" + (i % namespaces);
+            if (i % 4 == 3) {
+                all.add(new DefDescriptorImpl<>("markup", namespace, "app" + i, ApplicationDef.class));
+            } else {
+                all.add(new DefDescriptorImpl<>("markup", namespace, "cmp" + i, ComponentDef.class));
+            }
+        }
+        index = new DescriptorIndex(all);
+        matcher = new DescriptorFilter(filter, DefType.COMPONENT);
+    }
+
+    @Benchmark
+    public Set<DefDescriptor<?>> index() {
+        return index.find(matcher);
+    }
+
+    @Benchmark
+    public Set<DefDescriptor<?>> scan() {
+        Set<DefDescriptor<?>> ret = Sets.newHashSet();
+        for (DefDescriptor<?> descriptor : all) {
+            if (matcher.matchDescriptor(descriptor)) {
+                ret.add(descriptor);
+            }
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.adapter.ConfigAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ConfigAdapter#getAuraFrameworkNonce()} as called by every action and framework resource request, from one
+ * thread and from many at once, to show contention between request threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class FrameworkNonceBenchmark {
+    private ConfigAdapter configAdapter;
+
+    @Setup(Level.Trial)
+    public void setup(AuraState aura) {
+        configAdapter = aura.getBean(ConfigAdapter.class);
+        configAdapter.getAuraFrameworkNonce();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String nonceSingleThread() {
+        return configAdapter.getAuraFrameworkNonce();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String nonceSixteenThreads() {
+        return configAdapter.getAuraFrameworkNonce();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String regenerateAndNonceSixteenThreads() {
+        configAdapter.regenerateAuraJS();
+        return configAdapter.getAuraFrameworkNonce();
+    }
+}
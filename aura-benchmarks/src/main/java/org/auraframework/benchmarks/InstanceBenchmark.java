@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.instance.Component;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.InstanceService;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creating server side instances of component trees with {@link InstanceService#getInstance}, which builds an
+ * attribute set for every component in the tree.
+ *
+ * The definitions are compiled in setup, so this measures instance creation only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class InstanceBenchmark {
+    @Param({ "markup://aura:template", "markup://ui:autocomplete", "markup://ui:inputDate" })
+    public String component;
+
+    private AuraState aura;
+    private InstanceService instanceService;
+    private ComponentDef def;
+
+    @Setup(Level.Trial)
+    public void setup(AuraState aura) throws QuickFixException {
+        this.aura = aura;
+        aura.startContext("markup://aura:application");
+        DefinitionService definitionService = aura.getBean(DefinitionService.class);
+        DefDescriptor<ComponentDef> descriptor = definitionService.getDefDescriptor(component, ComponentDef.class);
+        def = definitionService.getDefinition(descriptor);
+        instanceService = aura.getBean(InstanceService.class);
+        create();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aura.endContext();
+    }
+
+    @Benchmark
+    public Component create() throws QuickFixException {
+        return instanceService.getInstance(def);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.JsonEncoder;
+import org.auraframework.util.json.JsonSerializationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializing a component definition to JSON, as done for every definition sent to the client.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class JsonEncoderBenchmark {
+    @Param({ "markup://ui:button", "markup://ui:inputDate", "markup://ui:autocomplete" })
+    public String component;
+
+    private AuraState aura;
+    private ComponentDef def;
+    private JsonSerializationContext serializationContext;
+    private StringBuilder out;
+
+    @Setup(Level.Trial)
+    public void setup(AuraState aura) throws QuickFixException {
+        this.aura = aura;
+        AuraContext context = aura.startContext(null);
+        def = aura.getBean(DefinitionService.class).getDefinition(component, ComponentDef.class);
+        serializationContext = context.getJsonSerializationContext();
+        out = new StringBuilder(JsonEncoder.serialize(def, serializationContext).length());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aura.endContext();
+    }
+
+    @Benchmark
+    public int serialize() {
+        out.setLength(0);
+        JsonEncoder.serialize(def, out, serializationContext);
+        return out.length();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.util.json.JsonStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing an action message, as posted to /aura, through a Reader and from an in-memory buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class JsonStreamReaderBenchmark {
+    @Param({ "1", "20", "200" })
+    public int actions;
+
+    private String message;
+    private byte[] utf8;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"actions\":[");
+        for (int i = 0; i < actions; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":\"").append(i).append(";a\",");
+            sb.append("\"descriptor\":\"aura://ComponentController/ACTION$getComponent\",");
+            sb.append("\"callingDescriptor\":\"UNKNOWN\",");
+            sb.append("\"params\":{\"name\":\"markup://ui:button\",\"attributes\":{");
+            sb.append("\"label\":\"Save \\u00e9l\u00e9ment ").append(i).append("\",");
+            sb.append("\"disabled\":false,\"tabIndex\":").append(i % 10).append(",");
+            sb.append("\"ratio\":").append(i).append(".25,");
+            sb.append("\"class\":\"uiButton--default uiButton--brand\",");
+            sb.append("\"values\":[1,2,3,null,true]}}}");
+        }
+        sb.append("]}");
+        message = sb.toString();
+        utf8 = message.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object reader() throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(message));
+        reader.next();
+        return reader.getValue();
+    }
+
+    @Benchmark
+    public Object string() throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(message);
+        reader.next();
+        return reader.getValue();
+    }
+
+    @Benchmark
+    public Object utf8() throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(utf8, null);
+        reader.next();
+        return reader.getValue();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.util.json.JsonEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing string and date values, the leaves of every JSON response.
+ *
+ * Run with several threads, as the date format used to be shared under a lock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Threads(4)
+public class JsonStringBenchmark {
+    @Param({ "plain", "escaped" })
+    public String kind;
+
+    private String value;
+    private Date date;
+    private StringBuilder out;
+    private JsonEncoder json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 16; i++) {
+            sb.append("plain".equals(kind) ? "The quick brown fox " : "<a href=\"x\">\t</a>\n");
+        }
+        value = sb.toString();
+        date = new Date(1476601234567L);
+        out = new StringBuilder();
+        json = new JsonEncoder(out, false);
+    }
+
+    @Benchmark
+    public int writeString() throws IOException {
+        out.setLength(0);
+        json.writeString(value);
+        return out.length();
+    }
+
+    @Benchmark
+    public int writeDate() throws IOException {
+        out.setLength(0);
+        json.writeDate(date);
+        return out.length();
+    }
+}
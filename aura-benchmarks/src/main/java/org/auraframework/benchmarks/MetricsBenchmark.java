@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.impl.context.LoggingContextImpl;
+import org.auraframework.impl.metricsservice.MetricsRegistry;
+import org.auraframework.service.LoggingService;
+import org.auraframework.system.LoggingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The per-request cost of recording timers, actions and counters in {@link MetricsRegistry}.
+ *
+ * {@link #request()} runs the logging calls of a typical action request on a fresh {@link LoggingContextImpl}, which
+ * feeds the registry. {@link #recordContended()} records into one shared histogram from several threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class MetricsBenchmark {
+    private static final String[] TIMERS = { LoggingService.TIMER_TOTAL, LoggingService.TIMER_AURA,
+            LoggingService.TIMER_DESERIALIZATION, LoggingService.TIMER_SERIALIZATION,
+            LoggingService.TIMER_DEFINITION_CREATION, LoggingService.TIMER_COMPONENT_CREATION };
+
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    @Benchmark
+    public LoggingContext request() {
+        LoggingContext lc = new LoggingContextImpl(REGISTRY);
+        for (String timer : TIMERS) {
+            lc.startTimer(timer);
+        }
+        lc.startAction("java://ui.Controller/ACTION$getItems", null);
+        lc.incrementNum(LoggingService.CMP_COUNT);
+        lc.incrementNum(LoggingService.DEF_COUNT);
+        lc.stopAction("java://ui.Controller/ACTION$getItems", null);
+        for (int i = TIMERS.length - 1; i >= 0; i--) {
+            lc.stopTimer(TIMERS[i]);
+        }
+        return lc;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        REGISTRY.recordTimer("benchmark", 1500);
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        StringBuilder out = new StringBuilder();
+        REGISTRY.write(out);
+        return out.length();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.Source;
+import org.auraframework.system.TextSource;
+import org.auraframework.util.IOUtil;
+import org.auraframework.util.javascript.JavascriptWriter;
+import org.auraframework.util.javascript.MinifiedJavascriptCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Minifying the ui namespace's controllers, helpers and renderers, as a cold start does.
+ *
+ * {@link #closure()} is Closure alone, {@link #coldCache()} adds writing a fresh cache, and {@link #warmCache()} reads
+ * a cache left by an earlier run through a new cache instance, as a restarted server would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class MinifiedJavascriptCacheBenchmark {
+    private static final List<DefType> JS_TYPES = Arrays.asList(DefType.CONTROLLER, DefType.HELPER, DefType.RENDERER);
+
+    private final List<String[]> sources = Lists.newArrayList();
+    private Path warmDirectory;
+    private Path coldDirectory;
+
+    @Setup(Level.Trial)
+    public void setup(AuraState aura) throws IOException {
+        aura.startContext(null);
+        try {
+            DefinitionService definitionService = aura.getBean(DefinitionService.class);
+            for (DefDescriptor<?> descriptor : definitionService.find(new DescriptorFilter("js://ui.*", JS_TYPES))) {
+                Source<?> source = definitionService.getSource(descriptor);
+                if (source instanceof TextSource) {
+                    sources.add(new String[] { source.getSystemId(), ((TextSource<?>) source).getContents() });
+                }
+            }
+        } finally {
+            aura.endContext();
+        }
+        warmDirectory = Files.createTempDirectory("minifyCacheWarm");
+        minify(new MinifiedJavascriptCache(warmDirectory, Long.MAX_VALUE));
+    }
+
+    @Setup(Level.Invocation)
+    public void createColdDirectory() throws IOException {
+        coldDirectory = Files.createTempDirectory("minifyCacheCold");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteColdDirectory() {
+        IOUtil.delete(coldDirectory.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        IOUtil.delete(warmDirectory.toFile());
+    }
+
+    private int minify(MinifiedJavascriptCache cache) throws IOException {
+        int length = 0;
+        for (String[] source : sources) {
+            StringWriter out = new StringWriter();
+            if (cache == null) {
+                JavascriptWriter.CLOSURE_SIMPLE.compress(source[1], out, source[0]);
+            } else {
+                cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, source[1], out, source[0]);
+            }
+            length += out.getBuffer().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int closure() throws IOException {
+        return minify(null);
+    }
+
+    @Benchmark
+    public int coldCache() throws IOException {
+        return minify(new MinifiedJavascriptCache(coldDirectory, Long.MAX_VALUE));
+    }
+
+    @Benchmark
+    public int warmCache() throws IOException {
+        return minify(new MinifiedJavascriptCache(warmDirectory, Long.MAX_VALUE));
+    }
+}
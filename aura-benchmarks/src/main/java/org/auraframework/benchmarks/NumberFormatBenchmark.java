@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.util.date.DateService;
+import org.auraframework.util.date.DateServiceImpl;
+import org.auraframework.util.number.AuraNumberFormat;
+import org.auraframework.util.number.AuraNumberFormat.Style;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.icu.text.NumberFormat;
+
+/**
+ * Formatting single values, as done for every number and date rendered on the server, with a format looked up from the
+ * locale data each time against one from {@link AuraNumberFormat} and {@link DateServiceImpl}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class NumberFormatBenchmark {
+    @Param({ "en_US", "de_DE", "ja_JP" })
+    public String localeName;
+
+    private Locale locale;
+    private DateService dateService;
+    private Date date;
+    private TimeZone timeZone;
+    private double value;
+
+    @Setup
+    public void setup() {
+        String[] parts = localeName.split("_");
+        locale = new Locale(parts[0], parts[1]);
+        dateService = DateServiceImpl.get();
+        date = new Date(1338590234000L);
+        timeZone = TimeZone.getTimeZone("America/Los_Angeles");
+        value = 1234567.891;
+    }
+
+    @Benchmark
+    public String numberLookup() {
+        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        nf.setMinimumFractionDigits(2);
+        nf.setMaximumFractionDigits(2);
+        return nf.format(value);
+    }
+
+    @Benchmark
+    public String numberCached() {
+        return AuraNumberFormat.getInstance(locale, Style.NUMBER, 2, 2).format(value);
+    }
+
+    @Benchmark
+    public String currencyLookup() {
+        return NumberFormat.getCurrencyInstance(locale).format(value);
+    }
+
+    @Benchmark
+    public String currencyCached() {
+        return AuraNumberFormat.getInstance(locale, Style.CURRENCY).format(value);
+    }
+
+    @Benchmark
+    public Number parseLookup() throws Exception {
+        return AuraNumberFormat.parseStrict("1234", NumberFormat.getInstance(locale));
+    }
+
+    @Benchmark
+    public Number parseCached() throws Exception {
+        return AuraNumberFormat.parseStrict("1234", locale, Style.DEFAULT);
+    }
+
+    @Benchmark
+    public String dateTime() {
+        return dateService.getDateTimeStyleConverter(locale, DateFormat.MEDIUM, DateFormat.SHORT).format(date,
+                timeZone);
+    }
+}
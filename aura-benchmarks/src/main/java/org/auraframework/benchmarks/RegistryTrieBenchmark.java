@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.system.RegistryTrie;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.RegistrySet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Looking up the registry for a descriptor in the context's {@link RegistryTrie}.
+ *
+ * Each call resolves {@link #LOOKUPS} descriptors of every type found in the ui namespace, so the result is the
+ * time per lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RegistryTrieBenchmark {
+    private static final int LOOKUPS = 256;
+
+    private AuraState aura;
+    private RegistrySet registries;
+    private DefDescriptor<?>[] descriptors;
+
+    @Setup(Level.Trial)
+    public void setup(AuraState aura) {
+        this.aura = aura;
+        AuraContext context = aura.startContext(null);
+        registries = context.getRegistries();
+        List<DefDescriptor<?>> found = Lists.newArrayList(
+                aura.getBean(DefinitionService.class).find(new DescriptorFilter("*://ui:*", "*")));
+        if (found.isEmpty()) {
+            throw new IllegalStateException("No descriptors found in the ui namespace");
+        }
+        descriptors = new DefDescriptor<?>[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            descriptors[i] = found.get(i % found.size());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aura.endContext();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void getRegistryFor(Blackhole blackhole) {
+        for (DefDescriptor<?> descriptor : descriptors) {
+            blackhole.consume(registries.getRegistryFor(descriptor));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.auraframework.http.StreamingFormRequest;
+import org.auraframework.util.json.JsonStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading the action message of a form encoded POST to /aura.
+ *
+ * The parameter benchmark is the old path, where the container decodes the whole message into a parameter string
+ * that is then parsed. The others parse it straight from the body through {@link StreamingFormRequest}, with and
+ * without the buffered reader that AuraServlet puts in front of the streamed value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class StreamedMessageBenchmark {
+    @Param({ "1", "20", "200" })
+    public int actions;
+
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"actions\":[");
+        for (int i = 0; i < actions; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":\"").append(i).append(";a\",");
+            sb.append("\"descriptor\":\"aura://ComponentController/ACTION$getComponent\",");
+            sb.append("\"callingDescriptor\":\"UNKNOWN\",");
+            sb.append("\"params\":{\"name\":\"markup://ui:button\",\"attributes\":{");
+            sb.append("\"label\":\"Save \\u00e9l\u00e9ment ").append(i).append("\",");
+            sb.append("\"disabled\":false,\"tabIndex\":").append(i % 10).append(",");
+            sb.append("\"class\":\"uiButton--default uiButton--brand\",");
+            sb.append("\"values\":[1,2,3,null,true]}}}");
+        }
+        sb.append("]}");
+        String form = "aura.context=" + URLEncoder.encode("{\"mode\":\"PROD\",\"fwuid\":\"abc\"}", "UTF-8")
+                + "&message=" + URLEncoder.encode(sb.toString(), "UTF-8");
+        body = form.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object parameter() throws IOException {
+        // what the container does for getParameter("message"), decoding the whole body to strings first.
+        String form = new String(body, StandardCharsets.UTF_8);
+        String message = URLDecoder.decode(form.substring(form.indexOf("&message=") + 9), "UTF-8");
+        return parse(new JsonStreamReader(message));
+    }
+
+    @Benchmark
+    public Object streamed() throws IOException {
+        return parse(new JsonStreamReader(getStreamedReader()));
+    }
+
+    @Benchmark
+    public Object streamedBuffered() throws IOException {
+        return parse(new JsonStreamReader(new BufferedReader(getStreamedReader())));
+    }
+
+    private Reader getStreamedReader() {
+        StreamingFormRequest request = new StreamingFormRequest(createRequest(), "message", "aura.context",
+                Long.MAX_VALUE);
+        request.getParameter("aura.context");
+        return request.getStreamedReader();
+    }
+
+    private static Object parse(JsonStreamReader reader) throws IOException {
+        reader.next();
+        return reader.getValue();
+    }
+
+    /**
+     * A POST of the form body, which is all that StreamingFormRequest reads from the request.
+     */
+    private HttpServletRequest createRequest() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        ServletInputStream input = new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+        };
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getInputStream":
+                        return input;
+                    case "getMethod":
+                        return "POST";
+                    case "getContentType":
+                        return "application/x-www-form-urlencoded; charset=UTF-8";
+                    case "getCharacterEncoding":
+                        return "UTF-8";
+                    case "getContentLength":
+                        return body.length;
+                    default:
+                        return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.cache.Cache;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.service.CachingService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.ServerService;
+import org.auraframework.service.ServerService.HYDRATION_TYPE;
+import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing app.js for an application with {@link ServerService#writeDefinitions}.
+ *
+ * {@link #cached()} is the steady state, where the output is in the strings cache. {@link #build(ColdCaches)} clears
+ * the output caches before each call, so it measures generating the definitions from compiled defs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class WriteDefinitionsBenchmark {
+    @Param({ "markup://aura:application", "markup://uiExamples:gridExamples" })
+    public String application;
+
+    /**
+     * Drops everything that writeDefinitions caches, but not the compiled definitions.
+     */
+    @State(Scope.Thread)
+    public static class ColdCaches {
+        @Setup(Level.Invocation)
+        public void clear(AuraState aura) {
+            CachingService cachingService = aura.getBean(CachingService.class);
+            cachingService.getStringsCache().invalidateAll();
+            cachingService.getAltStringsCache().invalidateAll();
+            Cache<String, String> fragments = cachingService.getDefinitionFragmentCache();
+            if (fragments != null) {
+                fragments.invalidateAll();
+            }
+        }
+    }
+
+    private AuraState aura;
+    private ServerService serverService;
+    private Set<DefDescriptor<?>> dependencies;
+
+    @Setup(Level.Trial)
+    public void setup(AuraState aura) throws QuickFixException, IOException {
+        this.aura = aura;
+        AuraContext context = aura.startContext(application);
+        DefinitionService definitionService = aura.getBean(DefinitionService.class);
+        DefDescriptor<ApplicationDef> appDesc = definitionService.getDefDescriptor(application, ApplicationDef.class);
+        String uid = definitionService.getUid(null, appDesc);
+        context.addLoaded(appDesc, uid);
+        dependencies = definitionService.getDependencies(uid);
+        serverService = aura.getBean(ServerService.class);
+        write();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aura.endContext();
+    }
+
+    /**
+     * Write the definitions part of app.js, as AppJs does.
+     */
+    private int write() throws IOException, QuickFixException {
+        StringWriter out = new StringWriter();
+        serverService.writeDefinitions(dependencies, out, true, 1, HYDRATION_TYPE.all);
+        return out.getBuffer().length();
+    }
+
+    @Benchmark
+    public int cached() throws IOException, QuickFixException {
+        return write();
+    }
+
+    @Benchmark
+    public int build(ColdCaches cold) throws IOException, QuickFixException {
+        return write();
+    }
+}
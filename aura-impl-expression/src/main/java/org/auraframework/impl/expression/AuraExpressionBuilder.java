@@ -18,6 +18,7 @@ package org.auraframework.impl.expression;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.List;
 
 import org.antlr.runtime.ANTLRReaderStream;
 import org.antlr.runtime.BaseRecognizer;
@@ -37,6 +38,10 @@ import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.AuraValidationException;
 import org.auraframework.throwable.quickfix.InvalidExpressionException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
 /**
  * adapter that calls our expression factory
  */
@@ -44,11 +49,50 @@ public class AuraExpressionBuilder implements ExpressionBuilder {
 
     public static final AuraExpressionBuilder INSTANCE = new AuraExpressionBuilder();
 
+    /**
+     * Parsed expressions by source, with no location.
+     *
+     * The same expressions, such as {!v.body}, appear throughout markup, so each is parsed once and copied to its
+     * location. The copies share the immutable parts of the tree, and the cached trees are never handed out, as
+     * expressions can be changed once built.
+     */
+    private static final Cache<String, Expression> PARSED = CacheBuilder.newBuilder().maximumSize(10000).build();
+
     private AuraExpressionBuilder() {
     }
 
     @Override
     public Expression buildExpression(String s, Location l) throws AuraValidationException {
+        Expression parsed = PARSED.getIfPresent(s);
+        if (parsed == null) {
+            parsed = parse(s, l);
+            PARSED.put(s, relocate(parsed, null));
+            return parsed;
+        }
+        return relocate(parsed, l);
+    }
+
+    /**
+     * Copy a parsed expression to a new location.
+     */
+    private static Expression relocate(Expression e, Location l) {
+        if (e instanceof PropertyReferenceImpl) {
+            return new PropertyReferenceImpl((PropertyReferenceImpl) e, l);
+        } else if (e instanceof LiteralImpl) {
+            return new LiteralImpl(((LiteralImpl) e).getValue(), l);
+        } else if (e instanceof FunctionCallImpl) {
+            FunctionCallImpl call = (FunctionCallImpl) e;
+            List<Expression> args = call.getArguments();
+            ImmutableList.Builder<Expression> copies = ImmutableList.builder();
+            for (Expression arg : args) {
+                copies.add(relocate(arg, l));
+            }
+            return new FunctionCallImpl(call.getFunction(), copies.build(), l);
+        }
+        throw new AuraRuntimeException("Unexpected expression type: " + e.getClass().getName(), l);
+    }
+
+    private Expression parse(String s, Location l) throws AuraValidationException {
         ExpressionLexer lexer;
         try {
             lexer = new ExpressionLexer(new CaseInsensitiveReaderStream(new StringReader(s)));
@@ -26,6 +26,8 @@ import org.auraframework.expression.Expression;
 import org.auraframework.expression.ExpressionType;
 import org.auraframework.expression.FunctionCall;
 import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.expression.functions.BaseBinaryFunction;
+import org.auraframework.impl.expression.functions.BaseUnaryFunction;
 import org.auraframework.impl.expression.functions.Function;
 import org.auraframework.instance.ValueProvider;
 import org.auraframework.system.Location;
@@ -45,15 +47,28 @@ public class FunctionCallImpl implements FunctionCall {
     private static final long serialVersionUID = -6285228439395661727L;
     private final List<Expression> args;
     private final Function f;
+    // f, when it can be called directly with the arguments, without building a list.
+    private final BaseUnaryFunction unary;
+    private final BaseBinaryFunction binary;
     private final Location l;
     private boolean byValue = false;
 
     public FunctionCallImpl(Function f, List<Expression> args, Location l) {
         this.args = args;
         this.f = f;
+        this.unary = (f instanceof BaseUnaryFunction && args.size() == 1) ? (BaseUnaryFunction) f : null;
+        this.binary = (f instanceof BaseBinaryFunction && args.size() == 2) ? (BaseBinaryFunction) f : null;
         this.l = l;
     }
 
+    Function getFunction() {
+        return f;
+    }
+
+    List<Expression> getArguments() {
+        return args;
+    }
+
     @Override
     public final Location getLocation() {
         return l;
@@ -66,6 +81,13 @@ public class FunctionCallImpl implements FunctionCall {
 
     @Override
     public Object evaluate(ValueProvider vp) throws QuickFixException {
+        if (unary != null) {
+            return unary.evaluate(args.get(0).evaluate(vp));
+        }
+        if (binary != null) {
+            Object arg1 = args.get(0).evaluate(vp);
+            return binary.evaluate(arg1, args.get(1).evaluate(vp));
+        }
         List<Object> list = new ArrayList<>(args.size());
         for (Expression e : args) {
             list.add(e.evaluate(vp));
@@ -26,7 +26,6 @@ import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.json.Json;
 import org.auraframework.util.json.JsonSerializers.NoneSerializer;
-import org.json.JSONObject;
 
 import java.io.IOException;
 import java.util.Set;
@@ -64,7 +63,14 @@ public class LiteralImpl implements Literal {
         if (value == null) {
             out.append("null");
         } else if (value instanceof String) {
-            out.append(JSONObject.quote(AuraTextUtil.escapeForJSONString(value.toString())));
+            String s = value.toString();
+            if (out instanceof StringBuilder) {
+                AuraTextUtil.appendQuotedJSONString(out, s);
+            } else {
+                StringBuilder quoted = new StringBuilder(s.length() + 2);
+                AuraTextUtil.appendQuotedJSONString(quoted, s);
+                out.append(quoted);
+            }
         } else if (value instanceof Number) {
             out.append(value.toString());
         } else if (value instanceof Boolean) {
@@ -64,6 +64,15 @@ public class PropertyReferenceImpl implements PropertyReference {
         this.stringValue = String.join(".", pieces);
     }
 
+    /**
+     * A copy of a parsed reference at another location, sharing its path.
+     */
+    PropertyReferenceImpl(PropertyReferenceImpl parsed, Location l) {
+        this.pieces = parsed.pieces;
+        this.l = l;
+        this.stringValue = parsed.stringValue;
+    }
+
     @Override
     public final Location getLocation() {
         return l;
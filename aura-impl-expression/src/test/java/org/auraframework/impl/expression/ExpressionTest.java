@@ -78,6 +78,32 @@ public class ExpressionTest extends AuraImplExpressionTestCase {
         assertEquals(((314.0 + 235325) - (314 + 314)) - 17, o);
     }
 
+    @Test
+    public void testRepeatedExpressionIsCopiedToEachLocation() throws Exception {
+        Location first = new Location("first", 1);
+        Location second = new Location("second", 2);
+        String source = "v.count + 1 > v.max ? 'over' : v.label";
+
+        Expression e1 = AuraExpressionBuilder.INSTANCE.buildExpression(source, first);
+        Expression e2 = AuraExpressionBuilder.INSTANCE.buildExpression(source, second);
+
+        assertNotSame(e1, e2);
+        assertSame(first, e1.getLocation());
+        assertSame(second, e2.getLocation());
+        StringBuilder code1 = new StringBuilder();
+        StringBuilder code2 = new StringBuilder();
+        e1.compile(code1);
+        e2.compile(code2);
+        assertEquals(code1.toString(), code2.toString());
+
+        PropertyReference ref1 = (PropertyReference) AuraExpressionBuilder.INSTANCE.buildExpression("v.body", first);
+        PropertyReference ref2 = (PropertyReference) AuraExpressionBuilder.INSTANCE.buildExpression("v.body", second);
+        ref1.setByValue(true);
+        assertFalse(ref2.isByValue());
+        assertSame(second, ref2.getLocation());
+        assertEquals(ref1, ref2);
+    }
+
     @Test
     public void testBooleanComplex() throws Exception {
         Expression e;
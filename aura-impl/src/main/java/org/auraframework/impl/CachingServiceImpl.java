@@ -23,12 +23,17 @@ import org.auraframework.cache.Cache;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.impl.cache.CacheImpl;
+import org.auraframework.impl.cache.DependencyIndex;
 import org.auraframework.impl.cache.HardCacheImpl;
 import org.auraframework.service.CachingService;
+import org.auraframework.system.CachedActionResponse;
+import org.auraframework.system.CachedStaticResource;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.EncodedContent;
 import org.auraframework.system.RegistrySet;
 import org.auraframework.system.RegistrySet.RegistrySetKey;
 import org.auraframework.system.SourceListener;
+import org.auraframework.util.AuraTextUtil;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
@@ -36,8 +41,11 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -64,17 +72,38 @@ public class CachingServiceImpl implements CachingService {
     private final static int ALT_STRINGS_CACHE_SIZE = 100;
     private final static int CSS_STRINGS_CACHE_SIZE = 50;
 
+    /** Default size of the app.js fragment cache, in number of entries */
+    private final static int DEFINITION_FRAGMENT_CACHE_SIZE = 16 * 1024;
+
+    /** Default size of the encoded response cache, in bytes held off-heap */
+    private final static long ENCODED_CONTENT_CACHE_BYTES = 64L * 1024 * 1024;
+
+    /** Default size of the public action response cache, in number of entries */
+    private final static int ACTION_RESPONSE_CACHE_SIZE = 512;
+
+    /** Default size of the /auraCmpDef response cache, in number of entries */
+    private final static int COMPONENT_DEFINITION_CACHE_SIZE = 512;
+
+    /** Default size of the framework static resource cache, in bytes held off-heap */
+    private final static long STATIC_RESOURCE_CACHE_BYTES = 64L * 1024 * 1024;
+
     /** Default size of client lib caches, in number of entries */
     private final static int CLIENT_LIB_CACHE_SIZE = 30;
     
     /** Default size of registry sets, in number of entries */
     private final static int REGISTRY_SET_CACHE_SIZE = 100;
-    
+
     private LoggingAdapter loggingAdapter;
 
     private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final WriteLock wLock = rwLock.writeLock();
 
+    /**
+     * Reverse dependency index used to evict only what depends on a changed source. It is enabled on the first
+     * source change, so that servers without a file monitor never pay for it.
+     */
+    private final DependencyIndex dependencyIndex = new DependencyIndex();
+
     @Override
     public <K, T> CacheBuilder<K, T> getCacheBuilder() {
         return new CacheImpl.Builder<>();
@@ -85,6 +114,11 @@ public class CachingServiceImpl implements CachingService {
     private Cache<String, String> stringsCache;
     private Cache<String, String> altStringsCache;
     private Cache<String, String> cssStringsCache;
+    private Cache<String, EncodedContent> encodedContentCache;
+    private Cache<String, String> definitionFragmentCache;
+    private Cache<String, CachedActionResponse> actionResponseCache;
+    private Cache<String, EncodedContent> componentDefinitionCache;
+    private Cache<String, CachedStaticResource> staticResourceCache;
     private Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache;
     /**
      * depsCache contains multiple entries for dependencies.
@@ -130,13 +164,25 @@ public class CachingServiceImpl implements CachingService {
                 .setSoftValues(true).build();
 
         size = getCacheSize("aura.cache.altStringsCacheSize", ALT_STRINGS_CACHE_SIZE);
-        altStringsCache = new HardCacheImpl.Builder<String,String>()
-                .setInitialSize(size)
-                .setLoggingAdapter(loggingAdapter)
-                .setMaximumSize(size)
-                .setRecordStats(true)
-                .setName("altStringsCache")
-                .setSoftValues(true).build();
+        if (useSecondaryStorage("aura.cache.altStringsCacheSecondaryStorage", true)) {
+            altStringsCache = new CacheImpl.Builder<String, String>()
+                    .setSecondaryStorageMaxBytes(getSecondaryStorageBytes("aura.cache.altStringsCacheSecondaryBytes"))
+                    .setUseSecondaryStorage(true)
+                    .setInitialSize(size)
+                    .setLoggingAdapter(loggingAdapter)
+                    .setMaximumSize(size)
+                    .setRecordStats(true)
+                    .setName("altStringsCache")
+                    .setSoftValues(true).build();
+        } else {
+            altStringsCache = new HardCacheImpl.Builder<String,String>()
+                    .setInitialSize(size)
+                    .setLoggingAdapter(loggingAdapter)
+                    .setMaximumSize(size)
+                    .setRecordStats(true)
+                    .setName("altStringsCache")
+                    .setSoftValues(true).build();
+        }
         
         size = getCacheSize("aura.cache.cssStringsCacheSize", CSS_STRINGS_CACHE_SIZE);
         cssStringsCache = this.<String, String>getCacheBuilder()
@@ -147,6 +193,47 @@ public class CachingServiceImpl implements CachingService {
                 .setName("cssStringsCache")
                 .setSoftValues(true).build();      
 
+        encodedContentCache = this.<String, EncodedContent>getCacheBuilder()
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumWeight(getCacheBytes("aura.cache.encodedContentCacheBytes", ENCODED_CONTENT_CACHE_BYTES),
+                        content -> (int) content.getByteSize())
+                .setRecordStats(true)
+                .setName("encodedContentCache").build();
+
+        size = getCacheSize("aura.cache.definitionFragmentCacheSize", DEFINITION_FRAGMENT_CACHE_SIZE);
+        definitionFragmentCache = this.<String, String>getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("definitionFragmentCache")
+                .setSoftValues(true).build();
+
+        size = getCacheSize("aura.cache.actionResponseCacheSize", ACTION_RESPONSE_CACHE_SIZE);
+        actionResponseCache = this.<String, CachedActionResponse>getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("actionResponseCache")
+                .setSoftValues(true).build();
+
+        size = getCacheSize("aura.cache.componentDefinitionCacheSize", COMPONENT_DEFINITION_CACHE_SIZE);
+        componentDefinitionCache = this.<String, EncodedContent>getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("componentDefinitionCache")
+                .setSoftValues(true).build();
+
+        staticResourceCache = this.<String, CachedStaticResource>getCacheBuilder()
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumWeight(getCacheBytes("aura.cache.staticResourceCacheBytes", STATIC_RESOURCE_CACHE_BYTES),
+                        resource -> (int) resource.getContent().getByteSize())
+                .setRecordStats(true)
+                .setName("staticResourceCache").build();
+
         size = getCacheSize("aura.cache.filterCacheSize", FILTER_CACHE_SIZE);
         descriptorFilterCache = this
                 .<String, Set<DefDescriptor<?>>> getCacheBuilder()
@@ -167,7 +254,9 @@ public class CachingServiceImpl implements CachingService {
                 .setSoftValues(true).build();
 
         size = getCacheSize("aura.cache.clientLibraryOutputCacheSize", CLIENT_LIB_CACHE_SIZE);
-        clientLibraryOutputCache = this.<String, String> getCacheBuilder()
+        clientLibraryOutputCache = new CacheImpl.Builder<String, String>()
+                .setSecondaryStorageMaxBytes(getSecondaryStorageBytes("aura.cache.clientLibraryOutputCacheSecondaryBytes"))
+                .setUseSecondaryStorage(useSecondaryStorage("aura.cache.clientLibraryOutputCacheSecondaryStorage", true))
                 .setInitialSize(size)
                 .setLoggingAdapter(loggingAdapter)
                 .setMaximumSize(size)
@@ -223,6 +312,31 @@ public class CachingServiceImpl implements CachingService {
         return cssStringsCache;
     }
 
+    @Override
+    public Cache<String, EncodedContent> getEncodedContentCache() {
+        return encodedContentCache;
+    }
+
+    @Override
+    public Cache<String, String> getDefinitionFragmentCache() {
+        return definitionFragmentCache;
+    }
+
+    @Override
+    public Cache<String, CachedActionResponse> getActionResponseCache() {
+        return actionResponseCache;
+    }
+
+    @Override
+    public Cache<String, EncodedContent> getComponentDefinitionCache() {
+        return componentDefinitionCache;
+    }
+
+    @Override
+    public Cache<String, CachedStaticResource> getStaticResourceCache() {
+        return staticResourceCache;
+    }
+
     @Override
     public final Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache() {
         return descriptorFilterCache;
@@ -248,6 +362,16 @@ public class CachingServiceImpl implements CachingService {
         return registrySetCache;
     }
     
+    @Override
+    public void addDependencyEntry(String key, DependencyEntry de) {
+        dependencyIndex.addDependencyEntry(key, de);
+    }
+
+    @Override
+    public void addUidDerivedKey(String uid, String key) {
+        dependencyIndex.addUidDerivedKey(uid, key);
+    }
+
     @Override
     public Lock getReadLock() {
         return rwLock.readLock();
@@ -263,10 +387,14 @@ public class CachingServiceImpl implements CachingService {
      * all registered listeners while write blocking, then invalidate it's own caches. If this routine can't acquire the
      * lock , it will log it as an non-fatal error, as it only results in staleness.
      *
+     * A change to the contents of a file whose definitions are known to the dependency index only evicts the
+     * definitions from that bundle and those depending on them, the dependency entries containing them, and the
+     * strings derived from those entries, along with the small caches that are not indexed. Anything else (creation,
+     * deletion, unknown files, an overflowed index) clears all source related caches.
+     *
      * @param listeners - collections of listeners to notify of source changes
-     * @param source - DefDescriptor that changed - for granular cache clear (currently not considered here, but other
-     *            listeners may make use of it)
      * @param event - what type of event triggered the change
+     * @param filePath - the file that changed, or null if unknown
      */
     @Override
     public void notifyDependentSourceChange(
@@ -288,7 +416,9 @@ public class CachingServiceImpl implements CachingService {
             }
 
             // successfully acquired the lock, start clearing caches
-            invalidateSourceRelatedCaches();
+            if (!invalidateDependentCaches(event, filePath)) {
+                invalidateSourceRelatedCaches();
+            }
 
             // notify provided listeners, presumably to clear caches
             if (listeners != null) {
@@ -312,11 +442,125 @@ public class CachingServiceImpl implements CachingService {
         }
     }
 
+    /**
+     * The batched form of {@link #notifyDependentSourceChange(Collection, SourceListener.SourceMonitorEvent, String)}.
+     * The lock is taken once for the whole batch, and if any change needs all source related caches to be cleared,
+     * they are cleared once.
+     *
+     * @param listeners - collections of listeners to notify of source changes
+     * @param changes - what happened to each file, by path, or null if changes were missed
+     */
+    @Override
+    public void notifyDependentSourceChanges(
+            Collection<WeakReference<SourceListener>> listeners,
+            Map<String, SourceListener.SourceMonitorEvent> changes) {
+        boolean haveLock = false;
+
+        try {
+            haveLock = wLock.tryLock(5, TimeUnit.SECONDS);
+            if (!haveLock) {
+                logger.error("Couldn't acquire cache clear lock in a reasonable time.  Cache may be stale until next clear.");
+                return;
+            }
+
+            if (!invalidateDependentCaches(changes)) {
+                invalidateSourceRelatedCaches();
+            }
+
+            if (listeners != null) {
+                for (WeakReference<SourceListener> i : listeners) {
+                    SourceListener sl = i.get();
+
+                    if (sl != null) {
+                        try {
+                            sl.onSourcesChanged(changes);
+                        } catch (Exception e) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+        } finally {
+            if (haveLock) {
+                wLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Evict only the entries derived from a batch of changed files.
+     *
+     * @return true if every change was handled, false if all source related caches must be cleared.
+     */
+    private boolean invalidateDependentCaches(Map<String, SourceListener.SourceMonitorEvent> changes) {
+        if (changes == null) {
+            dependencyIndex.setEnabled(true);
+            return false;
+        }
+        for (Map.Entry<String, SourceListener.SourceMonitorEvent> change : changes.entrySet()) {
+            if (!invalidateDependentCaches(change.getValue(), change.getKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evict only the entries derived from a changed file.
+     *
+     * @return true if the change was handled, false if all source related caches must be cleared.
+     */
+    private boolean invalidateDependentCaches(SourceListener.SourceMonitorEvent event, String filePath) {
+        if (!dependencyIndex.isEnabled()) {
+            // first change seen, start tracking dependencies from here on.
+            dependencyIndex.setEnabled(true);
+            return false;
+        }
+        // creation and deletion change the set of known descriptors, so filters and registries are affected too.
+        if (event != SourceListener.SourceMonitorEvent.CHANGED || filePath == null) {
+            return false;
+        }
+        String canonicalPath;
+        try {
+            canonicalPath = new File(filePath).getCanonicalPath();
+        } catch (IOException ioe) {
+            return false;
+        }
+        DependencyIndex.Invalidation invalidation = dependencyIndex.remove(canonicalPath);
+        if (invalidation == null) {
+            return false;
+        }
+        defsCache.invalidate(invalidation.descriptors);
+        existsCache.invalidate(invalidation.descriptors);
+        depsCache.invalidate(invalidation.depsKeys);
+        stringsCache.invalidate(invalidation.stringKeys);
+        altStringsCache.invalidate(invalidation.stringKeys);
+        cssStringsCache.invalidate(invalidation.stringKeys);
+        encodedContentCache.invalidate(invalidation.stringKeys);
+        // registry sets hold the changed state of their source loaders, so a kept set would hide the change.
+        registrySetCache.invalidateAll();
+        // these are small, and are built from definitions without going through the index.
+        descriptorFilterCache.invalidateAll();
+        clientLibraryOutputCache.invalidateAll();
+        componentDefinitionCache.invalidateAll();
+        // fragments include inherited definitions, which are not tracked.
+        definitionFragmentCache.invalidateAll();
+        // action responses are not tracked either.
+        actionResponseCache.invalidateAll();
+        return true;
+    }
+
     private void invalidateSourceRelatedCaches() {
+        dependencyIndex.clear();
         depsCache.invalidateAll();
         descriptorFilterCache.invalidateAll();
         stringsCache.invalidateAll();
         altStringsCache.invalidateAll();
+        encodedContentCache.invalidateAll();
+        definitionFragmentCache.invalidateAll();
+        actionResponseCache.invalidateAll();
+        componentDefinitionCache.invalidateAll();
         clientLibraryOutputCache.invalidateAll();
         registrySetCache.invalidateAll();
         defsCache.invalidateAll();
@@ -333,17 +577,39 @@ public class CachingServiceImpl implements CachingService {
      * with system properties.
      */
     private int getCacheSize(String propName, int defaultSize) {
-        String prop = System.getProperty(propName);
-        if (prop == null) {
-            prop = System.getProperty("aura.cache.defaultCacheSize");
+        if (System.getProperty(propName) == null) {
+            propName = "aura.cache.defaultCacheSize";
         }
+        return AuraTextUtil.getIntProperty(propName, defaultSize);
+    }
+
+    /**
+     * Computes a byte limit for a given cache. The default can be overridden with a system property.
+     */
+    private long getCacheBytes(String propName, long defaultBytes) {
+        return AuraTextUtil.getLongProperty(propName, defaultBytes);
+    }
+
+    /**
+     * Decides whether a given cache keeps its values in off-heap secondary storage. The default can be overridden
+     * with a system property.
+     */
+    private boolean useSecondaryStorage(String propName, boolean defaultValue) {
+        String prop = System.getProperty(propName);
         if (prop != null && !prop.isEmpty()) {
-            try {
-                return Integer.parseInt(prop);
-            } catch (NumberFormatException e) {
-                // ne'ermind, use the default
-            }
+            return Boolean.parseBoolean(prop);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Computes the off-heap byte limit for a cache using secondary storage. The default can be overridden with
+     * system properties.
+     */
+    private long getSecondaryStorageBytes(String propName) {
+        if (System.getProperty(propName) == null) {
+            propName = "aura.cache.defaultSecondaryBytes";
         }
-        return defaultSize;
+        return AuraTextUtil.getLongProperty(propName, CacheImpl.DEFAULT_SECONDARY_STORAGE_BYTES);
     }
 }
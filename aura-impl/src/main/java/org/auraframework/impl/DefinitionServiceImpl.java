@@ -21,6 +21,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -80,10 +85,12 @@ import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.InvalidExpressionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil;
+import org.auraframework.util.javascript.MinifiedJavascriptCache;
 import org.auraframework.util.text.GlobMatcher;
 import org.auraframework.util.text.Hash;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -1128,11 +1135,15 @@ public class DefinitionServiceImpl implements DefinitionService {
             // that have already been put in cache, and have the UID on the client.
             // This behaviour is the same as historical behaviour, and we will not change it at the
             // moment. Note that it also helps perf markedly.
-            depsCache.put(makeGlobalKey(de.uid, descriptor), de);
+            String globalKey = makeGlobalKey(de.uid, descriptor);
+            depsCache.put(globalKey, de);
+            cachingService.addDependencyEntry(globalKey, de);
 
             if (linker.getShouldCacheDependencies()) {
                 // put unqualified descriptor key for dependency
-                depsCache.put(makeNonUidGlobalKey(descriptor), de);
+                String nonUidKey = makeNonUidGlobalKey(descriptor);
+                depsCache.put(nonUidKey, de);
+                cachingService.addDependencyEntry(nonUidKey, de);
             }
 
             // See localDependencies comment
@@ -1207,33 +1218,25 @@ public class DefinitionServiceImpl implements DefinitionService {
 
     private final ThreadLocal<AuraLinker> threadLinker = new ThreadLocal<>();
 
+    /** System property for the number of threads used to warm caches, 1 (the default) warms on the calling thread */
+    private static final String WARM_CACHES_THREADS_PROPERTY = "aura.warmCaches.threads";
+
+    private static final DefType [] WARM_CACHES_TYPES = new DefType [] {
+        DefType.LIBRARY, DefType.COMPONENT, DefType.MODULE, DefType.APPLICATION
+    };
+
     @Override
     public void warmCaches() {
         AuraContext context = contextService.getCurrentContext();
-        Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache = cachingService.getDefsCache();
-        AuraLinker linker = new AuraLinker(null, defsCache,
-                cachingService.getDefDescriptorByNameCache(),
-                loggingService, configAdapter, accessChecker, context.getAuraLocalStore(),
-                context.getAccessCheckCache(), context.getRegistries());
-        linker.addMap(globalControllerDefRegistry.getAll());
         long startTime = System.currentTimeMillis();
-        long incremental;
-
-        DefType [] types = new DefType [] { DefType.LIBRARY, DefType.COMPONENT, DefType.MODULE, DefType.APPLICATION };
+        List<Map.Entry<DefRegistry, String>> work = Lists.newArrayList();
 
         for (DefRegistry registry : context.getRegistries().getAllRegistries()) {
             if (registry instanceof CompilingDefRegistry
                     || (registry instanceof BundleAwareDefRegistry && registry.isCacheable())) {
-                incremental = System.currentTimeMillis();
                 for (String namespace : registry.getNamespaces()) {
-                    for (DefType type : types) {
-                        DescriptorFilter filter = new DescriptorFilter(namespace+":*", type);
-                        linker.warmDefinitions(registry.find(filter));
-                    }
+                    work.add(Maps.immutableEntry(registry, namespace));
                 }
-                incremental = System.currentTimeMillis() - incremental;
-                loggingService.info("warmCaches: PROCESSED CompilingDefRegistry with namespaces = "+registry.getNamespaces()
-                        +", time = "+incremental);
             } else {
                 loggingService.warn("warmCaches: SKIP "+registry.getClass().getSimpleName()
                             +" with prefixes="+registry.getPrefixes()
@@ -1241,8 +1244,90 @@ public class DefinitionServiceImpl implements DefinitionService {
                             +" with defTypes="+registry.getDefTypes());
             }
         }
+
+        int threads = Math.min(getWarmCachesThreads(), work.size());
+        if (threads <= 1) {
+            AuraLinker linker = createWarmingLinker(context);
+            for (Map.Entry<DefRegistry, String> entry : work) {
+                warmNamespace(linker, entry.getKey(), entry.getValue());
+            }
+        } else {
+            warmCachesInParallel(context, work, threads);
+        }
         long elapsedTime = System.currentTimeMillis() - startTime;
-        loggingService.info("warmCaches(END): Total time ="+elapsedTime);
+        loggingService.info("warmCaches(END): namespaces="+work.size()+", threads="+Math.max(threads, 1)
+                +", elapsed time="+elapsedTime);
+        MinifiedJavascriptCache minifyCache = MinifiedJavascriptCache.getInstance();
+        if (minifyCache != null) {
+            loggingService.info("warmCaches(END): " + minifyCache);
+        }
+    }
+
+    /**
+     * Warm namespaces on a bounded pool of daemon threads.
+     *
+     * Each namespace is warmed in its own context with its own linker, all of them publish into the shared defs
+     * cache. The calling thread waits for all of them to finish.
+     */
+    private void warmCachesInParallel(AuraContext context, List<Map.Entry<DefRegistry, String>> work, int threads) {
+        final AuraContext.Mode mode = context.getMode();
+        final AuraContext.Format format = context.getFormat();
+        final Authentication access = context.getAccess();
+        final AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "aura-warmCaches-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = Lists.newArrayListWithCapacity(work.size());
+            for (Map.Entry<DefRegistry, String> entry : work) {
+                futures.add(executor.submit(() -> {
+                    AuraContext workerContext = contextService.startContext(mode, format, access);
+                    try {
+                        warmNamespace(createWarmingLinker(workerContext), entry.getKey(), entry.getValue());
+                    } finally {
+                        contextService.endContext();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ee) {
+                    // just like the serial warmup, failures only mean a colder cache.
+                    loggingService.warn("warmCaches: worker failed", ee.getCause());
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AuraLinker createWarmingLinker(AuraContext context) {
+        AuraLinker linker = new AuraLinker(null, cachingService.getDefsCache(),
+                cachingService.getDefDescriptorByNameCache(),
+                loggingService, configAdapter, accessChecker, context.getAuraLocalStore(),
+                context.getAccessCheckCache(), context.getRegistries());
+        linker.addMap(globalControllerDefRegistry.getAll());
+        return linker;
+    }
+
+    private void warmNamespace(AuraLinker linker, DefRegistry registry, String namespace) {
+        long startTime = System.currentTimeMillis();
+        for (DefType type : WARM_CACHES_TYPES) {
+            DescriptorFilter filter = new DescriptorFilter(namespace+":*", type);
+            linker.warmDefinitions(registry.find(filter));
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        loggingService.info("warmCaches: PROCESSED namespace = "+namespace+" in "+registry.getClass().getSimpleName()
+                +", time = "+elapsedTime);
+    }
+
+    private int getWarmCachesThreads() {
+        return Math.max(1, AuraTextUtil.getIntProperty(WARM_CACHES_THREADS_PROPERTY, 1));
     }
 
     private UsageMap<PropertyReference> getReferenceUsageMap(String root,
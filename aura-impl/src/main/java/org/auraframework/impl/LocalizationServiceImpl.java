@@ -32,6 +32,7 @@ import org.auraframework.util.AuraLocale;
 import org.auraframework.util.date.DateService;
 import org.auraframework.util.date.DateServiceImpl;
 import org.auraframework.util.number.AuraNumberFormat;
+import org.auraframework.util.number.AuraNumberFormat.Style;
 
 import com.ibm.icu.text.DecimalFormat;
 import com.ibm.icu.text.DecimalFormatSymbols;
@@ -258,7 +259,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.NUMBER);
         return nf.format(number);
     }
 
@@ -267,7 +268,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.NUMBER);
         return nf.format(number);
     }
 
@@ -276,7 +277,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.NUMBER);
         return nf.format(number);
     }
 
@@ -312,9 +313,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
-        nf.setMinimumFractionDigits(minFractionDigits);
-        nf.setMaximumFractionDigits(maxFractionDigits);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.NUMBER, minFractionDigits, maxFractionDigits);
         return nf.format(number);
     }
 
@@ -333,7 +332,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.PERCENT);
         return nf.format(percent);
     }
 
@@ -342,9 +341,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
-        nf.setMinimumFractionDigits(minFractionDigits);
-        nf.setMaximumFractionDigits(maxFractionDigits);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.PERCENT, minFractionDigits, maxFractionDigits);
         return nf.format(percent);
     }
 
@@ -363,8 +360,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
-        return df.format(currency);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.CURRENCY);
+        return nf.format(currency);
     }
 
     @Override
@@ -381,13 +378,9 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (currency == null) {
             currency = Currency.getInstance(locale);
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
-        // setCurrency will set fraction digits based on locale so that statement needs to happen before if we
-        // want to set fraction digits ourselves
-        df.setCurrency(currency);
-        df.setMinimumFractionDigits(minFractionDigits);
-        df.setMaximumFractionDigits(maxFractionDigits);
-        return df.format(value);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.CURRENCY, minFractionDigits, maxFractionDigits,
+                currency, false);
+        return nf.format(value);
     }
 
     @Override
@@ -405,9 +398,9 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
-        df.setParseBigDecimal(true);
-        return df.format(currency);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.CURRENCY,
+                AuraNumberFormat.DEFAULT_FRACTION_DIGITS, AuraNumberFormat.DEFAULT_FRACTION_DIGITS, null, true);
+        return nf.format(currency);
     }
 
     @Override
@@ -424,12 +417,9 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (currency == null) {
             currency = Currency.getInstance(locale);
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
-        df.setParseBigDecimal(true);
-        df.setCurrency(currency);
-        df.setMinimumFractionDigits(minFractionDigits);
-        df.setMaximumFractionDigits(maxFractionDigits);
-        return df.format(value);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.CURRENCY, minFractionDigits, maxFractionDigits,
+                currency, true);
+        return nf.format(value);
     }
 
     @Override
@@ -683,8 +673,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getInstance(locale);
-        return AuraNumberFormat.parseStrict(number, nf);
+        return AuraNumberFormat.parseStrict(number, locale, Style.DEFAULT);
     }
 
     @Override
@@ -700,8 +689,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
-        return AuraNumberFormat.parseStrict(percent, nf).doubleValue();
+        return AuraNumberFormat.parseStrict(percent, locale, Style.PERCENT).doubleValue();
     }
 
     @Override
@@ -717,10 +705,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getCurrencyLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
-        df.setParseBigDecimal(true);
         // TODO: use parseStrict when ICU4J is updated >= 51.2
-        return ((com.ibm.icu.math.BigDecimal) AuraNumberFormat.parse(currency, df, false)).toBigDecimal();
+        return AuraNumberFormat.parseBigDecimal(currency, locale, Style.CURRENCY, false);
     }
 
     @Override
@@ -741,7 +727,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.NUMBER);
         return nf.format(number);
     }
 
@@ -753,9 +739,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
-        nf.setMinimumFractionDigits(minFractionDigits);
-        nf.setMaximumFractionDigits(maxFractionDigits);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.NUMBER, minFractionDigits, maxFractionDigits);
         return nf.format(number);
     }
 
@@ -777,13 +761,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getInstance(locale);
-        df.setParseBigDecimal(true);
-        // icu BigDecimal to java BigDecimal
-        if (strict) {
-            return ((com.ibm.icu.math.BigDecimal) AuraNumberFormat.parseStrict(number, df)).toBigDecimal();
-        }
-        return ((com.ibm.icu.math.BigDecimal) AuraNumberFormat.parse(number, df, false)).toBigDecimal();
+        return AuraNumberFormat.parseBigDecimal(number, locale, Style.DEFAULT, strict);
     }
 
     @Override
@@ -799,7 +777,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.NUMBER);
         return nf.format(number);
     }
 
@@ -812,9 +790,7 @@ public class LocalizationServiceImpl implements LocalizationService {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
 
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
-        nf.setMinimumFractionDigits(minFractionDigits);
-        nf.setMaximumFractionDigits(maxFractionDigits);
+        NumberFormat nf = AuraNumberFormat.getInstance(locale, Style.NUMBER, minFractionDigits, maxFractionDigits);
         return nf.format(number);
     }
 
@@ -870,7 +846,7 @@ public class LocalizationServiceImpl implements LocalizationService {
     @Override
     public String getPercentFormatPattern() {
         AuraLocale auraLocale = this.localizationAdapter.getAuraLocale();
-        DecimalFormat pdf = (DecimalFormat) NumberFormat.getPercentInstance(auraLocale.getNumberLocale());
+        DecimalFormat pdf = (DecimalFormat) AuraNumberFormat.getInstance(auraLocale.getNumberLocale(), Style.PERCENT);
         return pdf.toPattern();
     }
 
@@ -897,7 +873,7 @@ public class LocalizationServiceImpl implements LocalizationService {
     private DecimalFormat getDecimalFormatForNumber() {
         AuraLocale auraLocale = this.localizationAdapter.getAuraLocale();
         // Why do we use ICU for numbers and java for Dates ?
-        return (DecimalFormat) NumberFormat.getNumberInstance(auraLocale.getNumberLocale());
+        return (DecimalFormat) AuraNumberFormat.getInstance(auraLocale.getNumberLocale(), Style.NUMBER);
     }
 
     private DecimalFormatSymbols getDecimalFormatSymbolsForNumber() {
@@ -907,7 +883,7 @@ public class LocalizationServiceImpl implements LocalizationService {
 
     private DecimalFormat getDecimalFormatForCurrency() {
         AuraLocale auraLocale = this.localizationAdapter.getAuraLocale();
-        return (DecimalFormat) NumberFormat.getCurrencyInstance(auraLocale.getCurrencyLocale());
+        return (DecimalFormat) AuraNumberFormat.getInstance(auraLocale.getCurrencyLocale(), Style.CURRENCY);
     }
 
     private DecimalFormatSymbols getDecimalFormatSymbolsForCurrency() {
@@ -15,9 +15,12 @@
  */
 package org.auraframework.impl;
 
+import javax.inject.Inject;
+
 import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.impl.context.LoggingContextImpl;
+import org.auraframework.impl.metricsservice.MetricsRegistry;
 import org.auraframework.system.LoggingContext;
 
 /**
@@ -28,9 +31,16 @@ public class LoggingAdapterImpl implements LoggingAdapter {
 
     private static ThreadLocal<LoggingContext> currentContext = new ThreadLocal<>();
 
+    private MetricsRegistry metricsRegistry;
+
+    @Inject
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
     @Override
     public LoggingContext establish() {
-        LoggingContext lc = new LoggingContextImpl();
+        LoggingContext lc = new LoggingContextImpl(metricsRegistry);
         currentContext.set(lc);
         return lc;
     }
@@ -45,6 +55,11 @@ public class LoggingAdapterImpl implements LoggingAdapter {
         currentContext.set(null);
     }
 
+    @Override
+    public void attach(LoggingContext loggingContext) {
+        currentContext.set(loggingContext);
+    }
+
     @Override
     public LoggingContext getLoggingContext() {
         return currentContext.get();
@@ -77,6 +77,14 @@ public class LoggingServiceImpl implements LoggingService {
         }
     }
 
+    @Override
+    public void stopAction(String actionName, Action action) {
+        LoggingContext lc = getLoggingContext();
+        if (lc != null) {
+            lc.stopAction(actionName, action);
+        }
+    }
+
     @Override
     public void stopTimer(String name) {
         LoggingContext lc = getLoggingContext();
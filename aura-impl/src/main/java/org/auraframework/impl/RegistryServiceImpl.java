@@ -19,12 +19,16 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -47,6 +51,7 @@ import org.auraframework.impl.controller.AuraGlobalControllerDefRegistry;
 import org.auraframework.impl.java.JavaSourceLoader;
 import org.auraframework.impl.source.file.FileBundleSourceLoader;
 import org.auraframework.impl.source.file.ModuleFileBundleSourceLoader;
+import org.auraframework.impl.system.BinaryRegistryFormat;
 import org.auraframework.impl.system.BundleAwareDefRegistry;
 import org.auraframework.impl.system.CompilingDefRegistry;
 import org.auraframework.impl.system.NonCachingDefRegistryImpl;
@@ -195,10 +200,29 @@ public class RegistryServiceImpl implements RegistryService, SourceListener {
         if (pkg == null) {
             return null;
         }
-        try (InputStream ris = location.getClass().getClassLoader().getResourceAsStream(pkg + "/.registries")) {
-            if (ris == null) {
-                return null;
+        URL url = location.getClass().getClassLoader().getResource(pkg + "/.registries");
+        if (url == null) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = BinaryRegistryFormat.map(url);
+        } catch (Exception e) {
+            loggingService.warn("Unable to read registries file", e);
+            return null;
+        }
+        if (BinaryRegistryFormat.isBinaryFormat(buffer)) {
+            // a registries file in the binary format is never also in the older one, so there is nothing to fall
+            // back to, and acting as if there were no registries would silently lose its components.
+            try {
+                List<DefRegistry> l = BinaryRegistryFormat.read(buffer);
+                return l.toArray(new DefRegistry[l.size()]);
+            } catch (IOException | RuntimeException e) {
+                throw new AuraRuntimeException("Unable to read registries file " + url, e);
             }
+        }
+        // Fall back to the older, fully serialized, format.
+        try (InputStream ris = url.openStream()) {
             try (ObjectInputStream ois = new ObjectInputStream(ris)) {
                 Object o = ois.readObject();
                 if (o instanceof List) {
@@ -463,6 +487,44 @@ public class RegistryServiceImpl implements RegistryService, SourceListener {
         }
     }
 
+    /**
+     * Reset each affected location once for the whole batch, rather than once per file, as a reset rescans the
+     * location's directory. If changes were missed, every location with a directory is reset.
+     */
+    @Override
+    public void onSourcesChanged(Map<String, SourceMonitorEvent> changes) {
+        synchronized (this) {
+            Set<SourceLocationInfo> affected = new LinkedHashSet<>();
+            if (changes == null) {
+                for (SourceLocationInfo sli : locationMap.values()) {
+                    if (sli.baseDir != null) {
+                        affected.add(sli);
+                    }
+                }
+            } else {
+                for (String filePath : changes.keySet()) {
+                    String canonical;
+                    try {
+                        canonical = new File(filePath).getCanonicalPath();
+                    } catch (IOException ioe) {
+                        continue;
+                    }
+                    for (SourceLocationInfo sli : locationMap.values()) {
+                        if (sli.baseDir != null && canonical.startsWith(sli.baseDir)) {
+                            affected.add(sli);
+                        }
+                    }
+                }
+            }
+            for (SourceLocationInfo sli : affected) {
+                sli.setChanged(true);
+                for (DefRegistry registry : sli.markupRegistries) {
+                    registry.reset();
+                }
+            }
+        }
+    }
+
     /**
      * @return the fileMonitor
      */
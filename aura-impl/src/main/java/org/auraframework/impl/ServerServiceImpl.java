@@ -25,13 +25,21 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ExceptionAdapter;
+import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
 import org.auraframework.adapter.StyleAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponentApplicationInitializer;
@@ -55,6 +63,7 @@ import org.auraframework.def.module.ModuleDef;
 import org.auraframework.http.BootstrapUtil;
 import org.auraframework.http.ManifestUtil;
 import org.auraframework.impl.cache.ApplicationInitializerCache;
+import org.auraframework.impl.context.SynchronizedLoggingContext;
 import org.auraframework.impl.css.CssVariableWriter;
 import org.auraframework.impl.css.StyleDefWriter;
 import org.auraframework.impl.util.TemplateUtil;
@@ -75,10 +84,14 @@ import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.EncodedContent;
+import org.auraframework.system.LoggingContext;
 import org.auraframework.system.LoggingContext.KeyValueLogger;
 import org.auraframework.system.Message;
 import org.auraframework.throwable.AuraExecutionException;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.AuraTextUtil.JSONEscapedFunctionStringBuilder;
 import org.auraframework.util.javascript.Literal;
 import org.auraframework.util.json.JsonEncoder;
@@ -97,6 +110,9 @@ public class ServerServiceImpl implements ServerService {
     @Inject
     private LoggingService loggingService;
 
+    @Inject
+    private LoggingAdapter loggingAdapter;
+
     @Inject
     private MetricsService metricsService;
 
@@ -150,6 +166,39 @@ public class ServerServiceImpl implements ServerService {
 
     private Cache<String, String> cssStringsCache;
 
+    /** System property for the number of threads used to run independent actions, 1 (the default) runs them serially */
+    private static final String ACTION_THREADS_PROPERTY = "aura.actions.threads";
+
+    /** Number of actions that may wait for a worker, per thread, before further actions run on the request thread */
+    private static final int ACTION_QUEUE_PER_THREAD = 4;
+
+    private ExecutorService actionExecutor;
+
+    @PostConstruct
+    private void createActionExecutor() {
+        int threads = getActionThreads();
+        if (threads > 1) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            actionExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(threads * ACTION_QUEUE_PER_THREAD), runnable -> {
+                        Thread thread = new Thread(runnable, "aura-action-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    @PreDestroy
+    private void shutdownActionExecutor() {
+        if (actionExecutor != null) {
+            actionExecutor.shutdown();
+        }
+    }
+
+    private int getActionThreads() {
+        return Math.max(1, AuraTextUtil.getIntProperty(ACTION_THREADS_PROPERTY, 1));
+    }
+
     @PostConstruct
     private void setCaches() {
         this.stringsCache = cachingService.getStringsCache();
@@ -216,73 +265,279 @@ public class ServerServiceImpl implements ServerService {
 
     private int run(List<Action> actions, JsonEncoder json, int idx) throws IOException {
         AuraContext context = contextService.getCurrentContext();
-        for (Action action : actions) {
-            StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
-            KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
-            if (logger != null) {
-                action.logParams(logger);
-            }
-            String aap = String.valueOf(++idx)+"$"+actionAndParams.toString();
-            loggingService.startAction(aap, action);
-            Action oldAction = context.setCurrentAction(action);
-            boolean earlyCleanup = false;
-            try {
-                DefDescriptor<ComponentDef> callingDescriptor = action.getCallingDescriptor();
-                if (callingDescriptor != null && !context.getPreloadedDefinitions().contains(callingDescriptor)) {
-                    // we can assume that if the client is calling an action from a particular component, it has the component and we won't need to serialize it back
-                    // components referenced in the action will be added to the context and thus serialized back to the client
+        int i = 0;
+        while (i < actions.size()) {
+            int end = i + 1;
+            if (actionExecutor != null) {
+                while (end < actions.size() && actions.get(i).isIndependent() && actions.get(end).isIndependent()) {
+                    end++;
+                }
+            }
+            if (end - i > 1) {
+                idx = runConcurrently(context, actions.subList(i, end), json, idx);
+            } else {
+                idx = run(context, actions.get(i), json, idx);
+            }
+            i = end;
+        }
+        return idx;
+    }
+
+    private int run(AuraContext context, Action action, JsonEncoder json, int idx) throws IOException {
+        String aap = startAction(action, ++idx);
+        Action oldAction = context.setCurrentAction(action);
+        boolean earlyCleanup = false;
+        try {
+            setupAction(context, action);
+            action.run();
+        } catch (AuraExecutionException x) {
+            earlyCleanup = true;
+            exceptionAdapter.handleException(x, action);
+        } finally {
+            if (earlyCleanup){
+                action.cleanup();
+            }
+            context.setCurrentAction(oldAction);
+            loggingService.stopAction(aap, action);
+        }
+        return finishAction(action, json, idx, earlyCleanup);
+    }
+
+    /**
+     * Run a sequence of independent actions concurrently.
+     *
+     * Every action is set up on the request thread before any of them runs, as setup writes to the context, which
+     * the workers then only read. Only {@link Action#run()} is handed to the executor, with the context attached to
+     * the worker, or run on the request thread if the executor is saturated. Serialization and cleanup stay on the
+     * request thread, in order. While the actions run, the request's logging context is shared through a
+     * {@link SynchronizedLoggingContext}, so that timers and counters inside them are kept.
+     */
+    private int runConcurrently(AuraContext context, List<Action> actions, JsonEncoder json, int idx)
+            throws IOException {
+        int count = actions.size();
+        String[] aaps = new String[count];
+        boolean[] earlyCleanup = new boolean[count];
+        int started = 0;
+        int stopped = 0;
+
+        try {
+            for (int i = 0; i < count; i++) {
+                Action action = actions.get(i);
+                aaps[i] = startAction(action, ++idx);
+                started++;
+                Action oldAction = context.setCurrentAction(action);
+                try {
+                    setupAction(context, action);
+                } catch (AuraExecutionException x) {
+                    earlyCleanup[i] = true;
+                    exceptionAdapter.handleException(x, action);
+                } finally {
+                    context.setCurrentAction(oldAction);
+                }
+            }
+
+            Throwable[] failures = runAll(context, actions, earlyCleanup);
+
+            for (int i = 0; i < count; i++) {
+                Action action = actions.get(i);
+                Action oldAction = context.setCurrentAction(action);
+                try {
+                    if (failures[i] instanceof AuraExecutionException) {
+                        earlyCleanup[i] = true;
+                        exceptionAdapter.handleException((AuraExecutionException)failures[i], action);
+                    } else if (failures[i] != null) {
+                        Throwables.propagateIfPossible(failures[i]);
+                        throw new AuraRuntimeException(failures[i]);
+                    }
+                } finally {
+                    if (earlyCleanup[i]) {
+                        action.cleanup();
+                    }
+                    context.setCurrentAction(oldAction);
+                    loggingService.stopAction(aaps[i], action);
+                    stopped++;
+                }
+                idx = finishAction(action, json, idx, earlyCleanup[i]);
+            }
+        } finally {
+            // on failure, don't leave the timers of the actions after the failed one running.
+            for (int i = stopped; i < started; i++) {
+                loggingService.stopAction(aaps[i], actions.get(i));
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * Hand every action that was set up to the executor, and wait for all of them.
+     *
+     * Nothing is left running against the context when this returns, even if submitting fails part way.
+     *
+     * @return the failure of each action, if any.
+     */
+    private Throwable[] runAll(AuraContext context, List<Action> actions, boolean[] skip) {
+        int count = actions.size();
+        Throwable[] failures = new Throwable[count];
+        List<Future<?>> futures = Lists.newArrayListWithCapacity(count);
+        Thread requestThread = Thread.currentThread();
+        LoggingContext loggingContext = loggingAdapter.getLoggingContext();
+        LoggingContext sharedLoggingContext = null;
+        if (loggingContext != null) {
+            sharedLoggingContext = new SynchronizedLoggingContext(loggingContext);
+            loggingAdapter.attach(sharedLoggingContext);
+        }
+        try {
+            for (int i = 0; i < count; i++) {
+                Action action = actions.get(i);
+                LoggingContext workerLoggingContext = sharedLoggingContext;
+                futures.add(skip[i] ? null : actionExecutor.submit(
+                        () -> runAttached(context, action, requestThread, workerLoggingContext)));
+            }
+        } finally {
+            boolean interrupted = false;
+            for (int i = 0; i < futures.size(); i++) {
+                Future<?> future = futures.get(i);
+                while (future != null) {
                     try {
-                        context.addPreloadedDefinitions(definitionService.getDependencies(definitionService.getUid(null, callingDescriptor)));
-                    } catch (QuickFixException e) {
-                        // we assumed thed calling descriptor was a component, but it could be an application
-                        DefDescriptor<ApplicationDef> callingAppDescriptor = definitionService.getDefDescriptor(callingDescriptor.getQualifiedName(), ApplicationDef.class);
-                        try {
-                            context.addPreloadedDefinitions(definitionService.getDependencies(definitionService.getUid(null, callingAppDescriptor)));
-                        } catch (QuickFixException qfe) {
-                            // well, it's not a component, it's not an app... give up trying to exclude it from the set being serialized
-                        }
-                    } catch (Exception e) {
-                        // ignore other exceptions that may surface from trying to get the definition, like from layouts
+                        future.get();
+                        break;
+                    } catch (ExecutionException ee) {
+                        failures[i] = ee.getCause();
+                        break;
+                    } catch (InterruptedException ie) {
+                        interrupted = true;
                     }
                 }
-                action.setup();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (loggingContext != null) {
+                loggingAdapter.attach(loggingContext);
+            }
+        }
+        return failures;
+    }
+
+    private void runAttached(AuraContext context, Action action, Thread requestThread,
+            LoggingContext loggingContext) {
+        if (Thread.currentThread() == requestThread) {
+            // the executor was saturated, and handed the action back to the request thread.
+            Action oldAction = context.setCurrentAction(action);
+            try {
                 action.run();
-            } catch (AuraExecutionException x) {
-                earlyCleanup = true;
-                exceptionAdapter.handleException(x, action);
             } finally {
-                if (earlyCleanup){
-                    action.cleanup();
-                }
                 context.setCurrentAction(oldAction);
-                loggingService.stopAction(aap);
             }
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            return;
+        }
+        contextService.attachContext(context);
+        if (loggingContext != null) {
+            loggingAdapter.attach(loggingContext);
+        }
+        try {
+            context.setCurrentAction(action);
+            action.run();
+        } finally {
+            // pooled threads outlive the request, so leave nothing of it behind.
+            context.releaseCurrentThread();
+            if (loggingContext != null) {
+                loggingAdapter.release();
+            }
+            contextService.detachContext();
+        }
+    }
+
+    private String startAction(Action action, int idx) {
+        StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
+        KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
+        if (logger != null) {
+            action.logParams(logger);
+        }
+        String aap = String.valueOf(idx)+"$"+actionAndParams.toString();
+        loggingService.startAction(aap, action);
+        return aap;
+    }
+
+    private void setupAction(AuraContext context, Action action) {
+        DefDescriptor<ComponentDef> callingDescriptor = action.getCallingDescriptor();
+        if (callingDescriptor != null && !context.getPreloadedDefinitions().contains(callingDescriptor)) {
+            // we can assume that if the client is calling an action from a particular component, it has the component and we won't need to serialize it back
+            // components referenced in the action will be added to the context and thus serialized back to the client
             try {
-                json.writeArrayEntry(action);
-            } finally {
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
-                if (!earlyCleanup){
-                    action.cleanup();
+                context.addPreloadedDefinitions(definitionService.getDependencies(definitionService.getUid(null, callingDescriptor)));
+            } catch (QuickFixException e) {
+                // we assumed thed calling descriptor was a component, but it could be an application
+                DefDescriptor<ApplicationDef> callingAppDescriptor = definitionService.getDefDescriptor(callingDescriptor.getQualifiedName(), ApplicationDef.class);
+                try {
+                    context.addPreloadedDefinitions(definitionService.getDependencies(definitionService.getUid(null, callingAppDescriptor)));
+                } catch (QuickFixException qfe) {
+                    // well, it's not a component, it's not an app... give up trying to exclude it from the set being serialized
                 }
+            } catch (Exception e) {
+                // ignore other exceptions that may surface from trying to get the definition, like from layouts
             }
+        }
+        action.setup();
+    }
 
-            List<Action> additionalActions = action.getActions();
-
-            // Recursively process any additional actions created by the
-            // action
-            if (additionalActions != null && !additionalActions.isEmpty()) {
-                idx = run(additionalActions, json, idx);
+    private int finishAction(Action action, JsonEncoder json, int idx, boolean earlyCleanup) throws IOException {
+        loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
+        loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+        try {
+            json.writeArrayEntry(action);
+        } finally {
+            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
+            if (!earlyCleanup){
+                action.cleanup();
             }
         }
+
+        List<Action> additionalActions = action.getActions();
+
+        // Recursively process any additional actions created by the
+        // action
+        if (additionalActions != null && !additionalActions.isEmpty()) {
+            idx = run(additionalActions, json, idx);
+        }
         return idx;
     }
 
     @Override
     public void writeAppCss(final Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException {
         AuraContext context = contextService.getCurrentContext();
+        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
+        final String uid = context.getUid(appDesc);
+        final String key = getAppCssKey(context, uid);
+        context.setPreloading(true);
+
+        String cached = getCachedString(cssStringsCache, uid, appDesc, key,
+                new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return getAppCssString(dependencies);
+                    }
+                });
+
+        if (out != null) {
+            out.append(cached);
+        }
+    }
+
+    @Override
+    public EncodedContent getEncodedAppCss(final Set<DefDescriptor<?>> dependencies)
+            throws IOException, QuickFixException {
+        AuraContext context = contextService.getCurrentContext();
+        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
+        final String uid = context.getUid(appDesc);
+        final String key = getAppCssKey(context, uid);
+        context.setPreloading(true);
+
+        return getEncodedContent(cssStringsCache, uid, appDesc, key, "", "", () -> getAppCssString(dependencies));
+    }
+
+    private String getAppCssKey(AuraContext context, String uid) {
         boolean minify = context.getMode().minify();
 
         StyleContext styleContext = context.getStyleContext();
@@ -315,24 +570,9 @@ public class ServerServiceImpl implements ServerService {
         keyBuilder.append(mKey);
 
         // app uid
-        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
-        final String uid = context.getUid(appDesc);
         keyBuilder.append(uid);
 
-        final String key = keyBuilder.toString();
-        context.setPreloading(true);
-
-        String cached = getCachedString(cssStringsCache, uid, appDesc, key,
-                new Callable<String>() {
-                    @Override
-                    public String call() throws Exception {
-                        return getAppCssString(dependencies);
-                    }
-                });
-
-        if (out != null) {
-            out.append(cached);
-        }
+        return keyBuilder.toString();
     }
 
     @Inject
@@ -404,23 +644,13 @@ public class ServerServiceImpl implements ServerService {
     public void writeDefinitions(final Set<DefDescriptor<?>> dependencies, Writer out, boolean hasParts, int partIndex, HYDRATION_TYPE hydrationType, boolean preloading)
             throws IOException, QuickFixException {
         AuraContext context = contextService.getCurrentContext();
-        final boolean minify = context.getMode().minify();
 
         context.setPreloading(preloading);
         DefDescriptor<? extends BaseComponentDef> appDesc = context.getLoadingApplicationDescriptor();
 
-        final String mKey = minify ? "MIN:" : "DEV:";
         final String uid = context.getUid(appDesc);
-        final String lockerService = configAdapter.isLockerServiceEnabled() ? ":ls" : "";
-        final String compat = context.useCompatSource() ? ":c" : "";
-        final String key = "JS:" + mKey + uid + (hasParts ? ":" + partIndex : "") + ":" + lockerService + compat;
-
-        final Callable<String> buildFunction = () -> {
-            String res = getDefinitionsString(dependencies, hydrationType);
-            //log the cache miss here
-            cachingService.getAltStringsCache().logCacheStatus("cache miss for key: "+key+";");
-            return res;
-        };
+        final String key = getDefinitionsKey(context, uid, hasParts, partIndex);
+        final Callable<String> buildFunction = getDefinitionsLoader(dependencies, hydrationType, key);
         String cached;
         //
         // Careful here. We want to be sure that it is safe to 'permanently' cache the app.js
@@ -437,6 +667,41 @@ public class ServerServiceImpl implements ServerService {
         }
     }
 
+    @Override
+    public EncodedContent getEncodedDefinitions(final Set<DefDescriptor<?>> dependencies, boolean hasParts,
+            int partIndex, HYDRATION_TYPE hydrationType, String prefix, String suffix)
+            throws IOException, QuickFixException {
+        AuraContext context = contextService.getCurrentContext();
+
+        context.setPreloading(true);
+        DefDescriptor<? extends BaseComponentDef> appDesc = context.getLoadingApplicationDescriptor();
+
+        final String uid = context.getUid(appDesc);
+        final String key = getDefinitionsKey(context, uid, hasParts, partIndex);
+        final Callable<String> buildFunction = getDefinitionsLoader(dependencies, hydrationType, key);
+        // The same choice of strings cache as writeDefinitions, see above.
+        Cache<String, String> cache = definitionService.isDependencySetCacheable(uid) ? altStringsCache : stringsCache;
+
+        return getEncodedContent(cache, uid, appDesc, key, prefix, suffix, buildFunction);
+    }
+
+    private String getDefinitionsKey(AuraContext context, String uid, boolean hasParts, int partIndex) {
+        final String mKey = context.getMode().minify() ? "MIN:" : "DEV:";
+        final String lockerService = configAdapter.isLockerServiceEnabled() ? ":ls" : "";
+        final String compat = context.useCompatSource() ? ":c" : "";
+        return "JS:" + mKey + uid + (hasParts ? ":" + partIndex : "") + ":" + lockerService + compat;
+    }
+
+    private Callable<String> getDefinitionsLoader(final Set<DefDescriptor<?>> dependencies,
+            HYDRATION_TYPE hydrationType, String key) {
+        return () -> {
+            String res = getDefinitionsString(dependencies, hydrationType);
+            //log the cache miss here
+            cachingService.getAltStringsCache().logCacheStatus("cache miss for key: "+key+";");
+            return res;
+        };
+    }
+
     private String getDefinitionsString (Set<DefDescriptor<?>> dependencies, HYDRATION_TYPE hydrationType)
             throws QuickFixException, IOException {
 
@@ -447,7 +712,6 @@ public class ServerServiceImpl implements ServerService {
         serializationContext.pushFormatRootItems();
 
         StringBuilder sb = new StringBuilder();
-        JSONEscapedFunctionStringBuilder escapedHydrationFunctionStringBuilder = new JSONEscapedFunctionStringBuilder(sb);
 
         Set<String> serverSideDescriptor = new HashSet<>();
 
@@ -456,11 +720,13 @@ public class ServerServiceImpl implements ServerService {
         for (LibraryDef libraryDef : libraryDefs) {
             List<IncludeDefRef> includeDefs = libraryDef.getIncludes();
             for (IncludeDefRef defRef : includeDefs) {
-                sb.append("$A.componentService.addLibraryExporter(\"" + defRef.getClientDescriptor() + "\", (function (){/*");
+                appendFragment(sb, getFragmentKey(defRef, false, context), (fsb) -> {
+                    fsb.append("$A.componentService.addLibraryExporter(\"" + defRef.getClientDescriptor() + "\", (function (){/*");
 
-                escapedHydrationFunctionStringBuilder.append(defRef.getCode(minify));
+                    new JSONEscapedFunctionStringBuilder(fsb).append(defRef.getCode(minify));
 
-                sb.append("*/}));");
+                    fsb.append("*/}));");
+                });
 
                 context.setClientClassLoaded(defRef.getDescriptor(), true);
             }
@@ -480,32 +746,11 @@ public class ServerServiceImpl implements ServerService {
                     context.getRestrictedNamespaces().contains(def.getDescriptor().getNamespace());
 
             if (hydrationEnabled) {
-                sb.append("$A.componentService.addComponent(\"")
-                    .append(def.getDescriptor())
-                    .append("\", ")
-                    .append("(function (){/*");
-
                 // Mark class as loaded in the client
                 context.setClientClassLoaded(def.getDescriptor(), true);
-
-                // Component Class
-                escapedHydrationFunctionStringBuilder.append(def.getCode(minify));
-
-                // Component definition
-                sb.append("return ");
-                JsonEncoder.serialize(def, escapedHydrationFunctionStringBuilder, context.getJsonSerializationContext());
-                sb.append(";");
-
-                sb.append("*/}));\n");
-            } else {
-                sb.append(def.getCode(minify));
-
-                sb.append("$A.componentService.addComponent(\"")
-                        .append(def.getDescriptor())
-                        .append("\", ");
-                JsonEncoder.serialize(def, sb, context.getJsonSerializationContext());
-                sb.append(");\n");
             }
+            appendFragment(sb, getFragmentKey(def, hydrationEnabled, context),
+                    (fsb) -> writeComponent(def, hydrationEnabled, context, minify, fsb));
         }
 
         // Append event definitions
@@ -539,6 +784,88 @@ public class ServerServiceImpl implements ServerService {
         return sb.toString();
     }
 
+    private void writeComponent(BaseComponentDef def, boolean hydrationEnabled, AuraContext context, boolean minify,
+            StringBuilder sb) throws IOException {
+        if (hydrationEnabled) {
+            JSONEscapedFunctionStringBuilder escapedHydrationFunctionStringBuilder = new JSONEscapedFunctionStringBuilder(sb);
+
+            sb.append("$A.componentService.addComponent(\"")
+                .append(def.getDescriptor())
+                .append("\", ")
+                .append("(function (){/*");
+
+            // Component Class
+            escapedHydrationFunctionStringBuilder.append(def.getCode(minify));
+
+            // Component definition
+            sb.append("return ");
+            JsonEncoder.serialize(def, escapedHydrationFunctionStringBuilder, context.getJsonSerializationContext());
+            sb.append(";");
+
+            sb.append("*/}));\n");
+        } else {
+            sb.append(def.getCode(minify));
+
+            sb.append("$A.componentService.addComponent(\"")
+                    .append(def.getDescriptor())
+                    .append("\", ");
+            JsonEncoder.serialize(def, sb, context.getJsonSerializationContext());
+            sb.append(");\n");
+        }
+    }
+
+    /**
+     * Writes a fragment of app.js into a builder.
+     */
+    private static interface FragmentWriter {
+        public void write(StringBuilder sb) throws IOException;
+    }
+
+    /**
+     * Append a per-definition fragment of app.js, from the fragment cache if possible.
+     *
+     * @param sb the builder to append to.
+     * @param key the fragment cache key, or null if the fragment cannot be cached.
+     * @param writer the writer for the fragment on a cache miss.
+     */
+    private void appendFragment(StringBuilder sb, String key, FragmentWriter writer) throws IOException {
+        Cache<String, String> fragmentCache = cachingService.getDefinitionFragmentCache();
+        if (key == null || fragmentCache == null) {
+            writer.write(sb);
+            return;
+        }
+        String fragment = fragmentCache.getIfPresent(key);
+        if (fragment == null) {
+            StringBuilder fsb = new StringBuilder();
+            writer.write(fsb);
+            fragment = fsb.toString();
+            fragmentCache.put(key, fragment);
+        }
+        sb.append(fragment);
+    }
+
+    /**
+     * Get the fragment cache key for a definition.
+     *
+     * Everything that the serialized form depends on must be in here. The own hash does not cover inherited
+     * definitions, so the fragment cache is cleared on any source change.
+     *
+     * @return the key, or null if the fragment should not be cached.
+     */
+    private String getFragmentKey(Definition def, boolean hydrationEnabled, AuraContext context) {
+        String ownHash = def.getOwnHash();
+        // Outside of preloading, serialization depends on what the client already has.
+        if (ownHash == null || !context.isPreloading()) {
+            return null;
+        }
+        DefDescriptor<?> descriptor = def.getDescriptor();
+        return Joiner.on(':').join(descriptor.getDefType(), descriptor.getQualifiedName().toLowerCase(), ownHash,
+                context.getMode(), configAdapter.isLockerServiceEnabled() ? "ls" : "",
+                context.useCompatSource() ? "c" : "", hydrationEnabled ? "h" : "",
+                Boolean.TRUE.equals(context.getClientClassLoaded(descriptor)) ? "cl" : "",
+                context.getJsonSerializationContext().format() ? "f" : "");
+    }
+
     private void writeDefinitionStringToBuilder(Class defType, Set<DefDescriptor<?>> dependencies, TempFilter extraFilter,
                                                 AuraContext context, StringBuilder sb, String prefix, Set<String> serverSideDescriptor) {
         Collection<Definition> definitions = filterAndLoad(defType, dependencies, extraFilter);
@@ -647,8 +974,13 @@ public class ServerServiceImpl implements ServerService {
             DependencyEntry de = context.getLocalDependencyEntry(uid);
 
             if (de != null) {
+                String cacheKey = getKey(de, descriptor, key);
                 try {
-                    return cache.get(getKey(de, descriptor, key), loader);
+                    // only index the key when it is loaded, not on every lookup.
+                    return cache.get(cacheKey, () -> {
+                        cachingService.addUidDerivedKey(de.uid, cacheKey);
+                        return loader.call();
+                    });
                 } catch (ExecutionException e) {
                     // Don't interfere if the callable caused these exceptions.
                     Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
@@ -673,6 +1005,48 @@ public class ServerServiceImpl implements ServerService {
         return null;
     }
 
+    /**
+     * Get a string, wrapped in a prefix and suffix, as encoded content from the encoded content cache.
+     *
+     * The string is taken from the given strings cache if the writer based methods already put it there, but is not
+     * added to it, so that a response served encoded is held only once.
+     *
+     * @return the encoded content, or null if caching is bypassed.
+     */
+    private EncodedContent getEncodedContent(Cache<String, String> cache, String uid, DefDescriptor<?> descriptor,
+            String key, String prefix, String suffix, Callable<String> loader) throws QuickFixException, IOException {
+        Cache<String, EncodedContent> encodedContentCache = cachingService.getEncodedContentCache();
+        if (uid == null || encodedContentCache == null) {
+            return null;
+        }
+        AuraContext context = contextService.getCurrentContext();
+        DependencyEntry de = context.getLocalDependencyEntry(uid);
+        if (de == null) {
+            return null;
+        }
+        String cacheKey = String.format("%s$ENC:%x:%x", getKey(de, descriptor, key), prefix.hashCode(),
+                suffix.hashCode());
+        try {
+            return encodedContentCache.get(cacheKey, () -> {
+                cachingService.addUidDerivedKey(de.uid, cacheKey);
+                String content = cache.getIfPresent(getKey(de, descriptor, key));
+                if (content == null) {
+                    content = loader.call();
+                }
+                StringBuilder sb = new StringBuilder(prefix.length() + content.length() + suffix.length());
+                sb.append(prefix).append(content).append(suffix);
+                return EncodedContent.encode(sb);
+            });
+        } catch (ExecutionException e) {
+            // Don't interfere if the callable caused these exceptions.
+            Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.propagateIfInstanceOf(e.getCause(), QuickFixException.class);
+            // Propagates as-is if RuntimeException, or wraps with a RuntimeException.
+            Throwables.propagate(e);
+        }
+        return null;
+    }
+
     private String getKey(DependencyEntry de, DefDescriptor<?> descriptor, String key) {
         return String.format("%s@%s@%s", de.uid, descriptor.getQualifiedName().toLowerCase(), key);
     }
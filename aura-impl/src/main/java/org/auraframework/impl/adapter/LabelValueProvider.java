@@ -15,7 +15,6 @@
  */
 package org.auraframework.impl.adapter;
 
-import com.google.common.collect.Maps;
 import org.auraframework.adapter.LocalizationAdapter;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.TypeDef;
@@ -27,9 +26,9 @@ import org.auraframework.service.DefinitionService;
 import org.auraframework.throwable.quickfix.InvalidExpressionException;
 import org.auraframework.util.AuraTextUtil;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Value provider for $Label
@@ -37,13 +36,14 @@ import java.util.Map;
 public class LabelValueProvider implements GlobalValueProvider {
 
     // MapValueProvider...
+    // concurrent, as independent actions may resolve labels from several threads.
     private final Map<String, Map<String, String>> labels;
 
     private final LocalizationAdapter localizationAdapter;
     private final DefinitionService definitionService;
 
     public LabelValueProvider(LocalizationAdapter localizationAdapter, DefinitionService definitionService) {
-        this.labels = Maps.newHashMap();
+        this.labels = new ConcurrentHashMap<>();
         this.localizationAdapter = localizationAdapter;
         this.definitionService = definitionService;
     }
@@ -53,18 +53,16 @@ public class LabelValueProvider implements GlobalValueProvider {
         List<String> parts = expr.getList();
         String section = parts.get(0);
         String param = parts.get(1);
-        Map<String, String> m = labels.get(section);
-        if (m == null) {
-            m = new HashMap<>();
-            labels.put(section, m);
-        }
+        Map<String, String> m = labels.computeIfAbsent(section, k -> new ConcurrentHashMap<>());
         String ret = m.get(param);
         if (ret == null) {
             String label = localizationAdapter.getLabel(section, param);
             // people escape stuff like &copy; in the labels, aura doesn't need
             // that.
             ret = AuraTextUtil.unescapeOutput(label, false);
-            m.put(param, ret);
+            if (ret != null) {
+                m.put(param, ret);
+            }
         }
         return ret;
     }
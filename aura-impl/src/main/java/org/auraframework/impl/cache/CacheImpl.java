@@ -25,6 +25,9 @@ import java.util.ArrayList;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.function.ToIntFunction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class CacheImpl<K, T> implements Cache<K, T> {
     private LoggingAdapter loggingAdapter;
@@ -38,39 +41,87 @@ public class CacheImpl<K, T> implements Cache<K, T> {
     /** Shortest interval at which to log cache stats in "normal" operation */
     private static final long ONE_MINUTE = 1000 * 60;
 
+    /** Default limit on bytes held in secondary storage */
+    public static final long DEFAULT_SECONDARY_STORAGE_BYTES = 256L * 1024 * 1024;
+
+    /** The on-heap front is this fraction of the maximum size when secondary storage is in use */
+    private static final int SECONDARY_STORAGE_FRONT_RATIO = 8;
+
     private com.google.common.cache.Cache<K, T> cache;
     private String name;
+    private final boolean recordStats;
+
+    /**
+     * Off-heap tier behind the guava cache, or null if secondary storage was not requested. Only string values are
+     * kept here, anything else lives only in the front.
+     */
+    private final OffHeapStringStore<K> secondaryStorage;
+
+    /**
+     * Writing both tiers, on a put or when copying a value from secondary storage to the front, is done under the read
+     * lock, and invalidation under the write lock, so that an invalidation can never land between the two writes and
+     * leave a stale value in either tier.
+     */
+    private final ReadWriteLock tierLock = new ReentrantReadWriteLock();
 
     CacheImpl(com.google.common.cache.Cache<K, T> cache) {
         this.cache = cache;
         this.name = UNNAMED;
+        this.secondaryStorage = null;
+        this.recordStats = false;
     }
 
     @Override
     public void logCacheStatus(String extraMessage) {
         LoggingContext loggingCtx = this.loggingAdapter.getLoggingContext();
         CacheStats stats = cache.stats();
-        loggingCtx.logCacheInfo(name,
-                String.format(extraMessage+"hit rate=%.3f", stats.hitRate()),
-                cache.size(), stats);
+        if (secondaryStorage == null) {
+            loggingCtx.logCacheInfo(name,
+                    String.format(extraMessage+"hit rate=%.3f", stats.hitRate()),
+                    cache.size(), stats);
+        } else {
+            loggingCtx.logCacheInfo(name,
+                    String.format(extraMessage+"hit rate=%.3f, secondary hit rate=%.3f, secondary size=%d, secondary bytes=%d",
+                            stats.hitRate(), secondaryStorage.getHitRate(), secondaryStorage.size(),
+                            secondaryStorage.getByteSize()),
+                    cache.size(), stats);
+        }
     }
 
     public CacheImpl(Builder<K, T> builder) {
         this.loggingAdapter = builder.loggingAdapter;
-        
-        // if builder.useSecondaryStorage is true, we should try to use a
-        // non-quava secondary-storage cache with streaming ability
+
+        long frontSize = builder.maximumSize;
+        if (builder.useSecondaryStorage) {
+            // keep a small on-heap LRU front, everything else is served from the off-heap tier.
+            frontSize = Math.max(1, builder.maximumSize / SECONDARY_STORAGE_FRONT_RATIO);
+            secondaryStorage = new OffHeapStringStore<>(builder.maximumSize, builder.secondaryStorageMaxBytes);
+        } else {
+            secondaryStorage = null;
+        }
 
         com.google.common.cache.CacheBuilder<Object, Object> cb = com.google.common.cache.CacheBuilder
-                .newBuilder().initialCapacity(builder.initialCapacity)
-                .maximumSize(builder.maximumSize)
+                .newBuilder().initialCapacity((int)Math.min(builder.initialCapacity, frontSize))
                 .concurrencyLevel(builder.concurrencyLevel);
+        boolean weighted = builder.weigher != null && secondaryStorage == null;
+        if (weighted) {
+            @SuppressWarnings("unchecked")
+            ToIntFunction<Object> weigher = (ToIntFunction<Object>) builder.weigher;
+            cb = cb.maximumWeight(builder.maximumWeight)
+                    .weigher((Object key, Object value) -> weigher.applyAsInt(value));
+        } else {
+            cb = cb.maximumSize(frontSize);
+        }
 
-        if (builder.recordStats) {
+        recordStats = builder.recordStats;
+        if (recordStats) {
             cb = cb.recordStats();
         }
 
-        if (builder.softValues) {
+        // soft values would defeat the point of a small front, the secondary tier is the overflow, and a weight
+        // bound is a limit of its own. The latter matters for values held off-heap, as heap pressure never
+        // clears their soft references.
+        if (builder.softValues && secondaryStorage == null && !weighted) {
             cb = cb.softValues();
         }
         if (builder.name == null) {
@@ -89,40 +140,167 @@ public class CacheImpl<K, T> implements Cache<K, T> {
 
     @Override
     public T getIfPresent(K key) {
-        return cache.getIfPresent(key);
+        T value = cache.getIfPresent(key);
+        if (value == null && secondaryStorage != null) {
+            value = promoteFromSecondaryStorage(key);
+        }
+        return value;
     }
 
     @Override
     public T get(K key, Callable<T> loader) throws ExecutionException {
-        return cache.get(key, loader);
+        if (secondaryStorage == null) {
+            return cache.get(key, loader);
+        }
+        T value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        // only a freshly loaded value is ever stored by the loader, never one read from secondary storage.
+        return cache.get(key, () -> {
+            T loaded = loader.call();
+            putToSecondaryStorage(key, loaded);
+            return loaded;
+        });
     }
 
     @Override
     public void put(K key, T data) {
-        cache.put(key, data);
+        if (secondaryStorage == null) {
+            cache.put(key, data);
+            return;
+        }
+        tierLock.readLock().lock();
+        try {
+            cache.put(key, data);
+            putToSecondaryStorage(key, data);
+        } finally {
+            tierLock.readLock().unlock();
+        }
     }
 
     @Override
     public void invalidate(K key) {
-        cache.invalidate(key);
-
+        if (secondaryStorage == null) {
+            cache.invalidate(key);
+            return;
+        }
+        tierLock.writeLock().lock();
+        try {
+            cache.invalidate(key);
+            secondaryStorage.invalidate(key);
+        } finally {
+            tierLock.writeLock().unlock();
+        }
     }
 
     @Override
     public void invalidate(Iterable<K> keys) {
-        cache.invalidateAll(keys);
+        if (secondaryStorage == null) {
+            cache.invalidateAll(keys);
+            return;
+        }
+        tierLock.writeLock().lock();
+        try {
+            cache.invalidateAll(keys);
+            for (K key : keys) {
+                secondaryStorage.invalidate(key);
+            }
+        } finally {
+            tierLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean invalidate(K key, T value) {
+        if (secondaryStorage == null) {
+            return cache.asMap().remove(key, value);
+        }
+        tierLock.writeLock().lock();
+        try {
+            boolean removed = cache.asMap().remove(key, value);
+            if (!removed && cache.getIfPresent(key) == null) {
+                // the front may have evicted it, leaving only the copy in secondary storage.
+                removed = value.equals(secondaryStorage.get(key));
+            }
+            if (removed) {
+                secondaryStorage.invalidate(key);
+            }
+            return removed;
+        } finally {
+            tierLock.writeLock().unlock();
+        }
     }
 
     @Override
     public void invalidateAll() {
-        cache.invalidateAll();
+        if (secondaryStorage == null) {
+            cache.invalidateAll();
+            return;
+        }
+        tierLock.writeLock().lock();
+        try {
+            cache.invalidateAll();
+            secondaryStorage.invalidateAll();
+        } finally {
+            tierLock.writeLock().unlock();
+        }
     }
 
     @Override
     public Set<K> getKeySet() {
-        return cache.asMap().keySet();
+        if (secondaryStorage == null) {
+            return cache.asMap().keySet();
+        }
+        Set<K> keys = secondaryStorage.getKeySet();
+        keys.addAll(cache.asMap().keySet());
+        return keys;
+    }
+
+    /**
+     * @return true if hits, misses and evictions are counted, otherwise the stats of the cache are all zero.
+     */
+    public boolean isRecordingStats() {
+        return recordStats;
     }
 
+    /**
+     * @return the off-heap tier of this cache, or null if secondary storage is not in use.
+     */
+    public OffHeapStringStore<K> getSecondaryStorage() {
+        return secondaryStorage;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T promoteFromSecondaryStorage(K key) {
+        tierLock.readLock().lock();
+        try {
+            // only strings are ever put in secondary storage, so the cast is safe.
+            T value = (T) secondaryStorage.get(key);
+            if (value != null) {
+                // a value put by another thread since the front missed is newer than this copy.
+                T current = cache.asMap().putIfAbsent(key, value);
+                if (current != null) {
+                    return current;
+                }
+            }
+            return value;
+        } finally {
+            tierLock.readLock().unlock();
+        }
+    }
+
+    private void putToSecondaryStorage(K key, T data) {
+        if (secondaryStorage != null) {
+            if (data instanceof String) {
+                secondaryStorage.put(key, (String) data);
+            } else {
+                secondaryStorage.invalidate(key);
+            }
+        }
+    }
+
+    @Deprecated
     @Override
     public void invalidatePartial(String keyBeginsWith) {
         // everything is a match if the match length is zero
@@ -142,7 +320,7 @@ public class CacheImpl<K, T> implements Cache<K, T> {
 
         // invalidate collected items
         if (!invalidItems.isEmpty()) {
-            cache.invalidate(invalidItems);
+            invalidate(invalidItems);
         }
     }
 
@@ -165,6 +343,9 @@ public class CacheImpl<K, T> implements Cache<K, T> {
         boolean recordStats = false;
         boolean softValues = true;
         boolean useSecondaryStorage = false;
+        long secondaryStorageMaxBytes = DEFAULT_SECONDARY_STORAGE_BYTES;
+        long maximumWeight;
+        ToIntFunction<? super T> weigher;
         String name;
 
         public Builder() {
@@ -190,12 +371,30 @@ public class CacheImpl<K, T> implements Cache<K, T> {
             return this;
         };
 
+        @Override
+        public Builder<K, T> setMaximumWeight(long maximumWeight, ToIntFunction<? super T> weigher) {
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
         @Override
         public Builder<K, T> setUseSecondaryStorage(boolean useSecondaryStorage) {
             this.useSecondaryStorage = useSecondaryStorage;
             return this;
         }
 
+        /**
+         * Set the limit on bytes held off-heap when secondary storage is in use.
+         *
+         * @param secondaryStorageMaxBytes the maximum number of UTF-8 bytes to hold.
+         * @return the same Builder with this property set
+         */
+        public Builder<K, T> setSecondaryStorageMaxBytes(long secondaryStorageMaxBytes) {
+            this.secondaryStorageMaxBytes = secondaryStorageMaxBytes;
+            return this;
+        }
+
         @Override
         public Builder<K, T> setRecordStats(boolean recordStats) {
             this.recordStats = recordStats;
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.Location;
+
+/**
+ * A reverse dependency index over the source related caches.
+ *
+ * The index maps the directory of each definition's source to the descriptors compiled from it, each descriptor to
+ * the descriptors that directly depend on it, each descriptor to the deps cache keys whose entry contains it, and each
+ * entry uid to the string cache keys built from it. This allows a single changed file to evict only what was derived
+ * from it.
+ *
+ * The index is only maintained once enabled, so that servers which never see a source change pay nothing for it. It
+ * is also bounded. Once it has tracked more keys than its limit it drops everything and reports every change as
+ * unknown, so that the next change clears all source related caches and starts it afresh. This also takes care of
+ * keys for entries that the caches have since evicted.
+ */
+public class DependencyIndex {
+    /** Default number of keys tracked before the index gives up */
+    public static final int DEFAULT_MAXIMUM_KEYS = 256 * 1024;
+
+    private final int maximumKeys;
+    private final AtomicInteger keyCount = new AtomicInteger();
+    private volatile boolean enabled;
+    private volatile boolean overflowed;
+
+    private final Map<String, Set<DefDescriptor<?>>> descriptorsByDirectory = new ConcurrentHashMap<>();
+    private final Set<DefDescriptor<?>> linkedDescriptors = ConcurrentHashMap.newKeySet();
+    private final Map<DefDescriptor<?>, Set<DefDescriptor<?>>> dependentsByDescriptor = new ConcurrentHashMap<>();
+    private final Map<DefDescriptor<?>, Set<String>> depsKeysByDescriptor = new ConcurrentHashMap<>();
+    private final Map<String, Set<DefDescriptor<?>>> descriptorsByDepsKey = new ConcurrentHashMap<>();
+    private final Map<String, String> uidByDepsKey = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> stringKeysByUid = new ConcurrentHashMap<>();
+
+    /**
+     * The set of cache entries to evict for a source change.
+     */
+    public static class Invalidation {
+        public final Set<DefDescriptor<?>> descriptors;
+        public final Set<String> depsKeys;
+        public final Set<String> stringKeys;
+
+        Invalidation(Set<DefDescriptor<?>> descriptors, Set<String> depsKeys, Set<String> stringKeys) {
+            this.descriptors = descriptors;
+            this.depsKeys = depsKeys;
+            this.stringKeys = stringKeys;
+        }
+    }
+
+    public DependencyIndex() {
+        this(DEFAULT_MAXIMUM_KEYS);
+    }
+
+    public DependencyIndex(int maximumKeys) {
+        this.maximumKeys = maximumKeys;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Record a dependency entry that has been put in the deps cache under the given key.
+     *
+     * @param depsKey the key used in the deps cache.
+     * @param de the entry.
+     */
+    public void addDependencyEntry(String depsKey, DependencyEntry de) {
+        if (!enabled || overflowed || de.dependencyMap == null) {
+            return;
+        }
+        Set<DefDescriptor<?>> descriptors = Collections.unmodifiableSet(
+                new HashSet<DefDescriptor<?>>(de.dependencyMap.keySet()));
+        if (descriptorsByDepsKey.put(depsKey, descriptors) == null && !track(1 + descriptors.size())) {
+            return;
+        }
+        if (de.uid != null) {
+            uidByDepsKey.put(depsKey, de.uid);
+        }
+        for (Map.Entry<DefDescriptor<? extends Definition>, Definition> entry : de.dependencyMap.entrySet()) {
+            depsKeysByDescriptor.computeIfAbsent(entry.getKey(), k -> ConcurrentHashMap.newKeySet()).add(depsKey);
+            if (linkedDescriptors.add(entry.getKey())) {
+                if (!link(entry.getKey(), entry.getValue())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Record the source directory of a definition and the definitions it directly depends on.
+     *
+     * @return false if the index overflowed.
+     */
+    private boolean link(DefDescriptor<?> descriptor, Definition def) {
+        String directory = getSourceDirectory(def);
+        if (directory != null) {
+            descriptorsByDirectory.computeIfAbsent(directory, k -> ConcurrentHashMap.newKeySet()).add(descriptor);
+        }
+        if (def == null) {
+            return track(1);
+        }
+        Set<DefDescriptor<?>> dependencies = new HashSet<>();
+        try {
+            def.appendDependencies(dependencies);
+        } catch (RuntimeException e) {
+            // without the dependencies we cannot know what a change affects, so give up until the next full clear.
+            overflow();
+            return false;
+        }
+        for (DefDescriptor<?> dependency : dependencies) {
+            dependentsByDescriptor.computeIfAbsent(dependency, k -> ConcurrentHashMap.newKeySet()).add(descriptor);
+        }
+        return track(1 + dependencies.size());
+    }
+
+    /**
+     * Record a string cache key that was built from the output of a dependency entry.
+     *
+     * @param uid the uid of the dependency entry.
+     * @param key the key used in the string cache.
+     */
+    public void addUidDerivedKey(String uid, String key) {
+        if (!enabled || overflowed || uid == null) {
+            return;
+        }
+        if (stringKeysByUid.computeIfAbsent(uid, k -> ConcurrentHashMap.newKeySet()).add(key)) {
+            track(1);
+        }
+    }
+
+    /**
+     * Count newly tracked keys against the limit.
+     *
+     * @return false if the index overflowed.
+     */
+    private boolean track(int added) {
+        if (keyCount.addAndGet(added) > maximumKeys) {
+            overflow();
+            return false;
+        }
+        return true;
+    }
+
+    private void overflow() {
+        overflowed = true;
+        clearMaps();
+    }
+
+    public boolean isOverflowed() {
+        return overflowed;
+    }
+
+    /**
+     * Remove and return everything derived from sources in the same directory as the given file, including the
+     * definitions that depend on them, directly or not.
+     *
+     * @param canonicalPath the canonical path of the changed file.
+     * @return the entries to evict, or null if nothing is known about the file or the index overflowed.
+     */
+    public Invalidation remove(String canonicalPath) {
+        if (overflowed) {
+            return null;
+        }
+        String directory = new File(canonicalPath).getParent();
+        Set<DefDescriptor<?>> changed = (directory != null) ? descriptorsByDirectory.remove(directory) : null;
+        if (changed == null) {
+            return null;
+        }
+        Set<DefDescriptor<?>> descriptors = new HashSet<>(changed);
+        Deque<DefDescriptor<?>> pending = new ArrayDeque<>(changed);
+        while (!pending.isEmpty()) {
+            Set<DefDescriptor<?>> dependents = dependentsByDescriptor.get(pending.poll());
+            if (dependents != null) {
+                for (DefDescriptor<?> dependent : dependents) {
+                    if (descriptors.add(dependent)) {
+                        pending.add(dependent);
+                    }
+                }
+            }
+        }
+        // evicted definitions are linked again when they are next compiled.
+        linkedDescriptors.removeAll(descriptors);
+        Set<String> depsKeys = new HashSet<>();
+        for (DefDescriptor<?> descriptor : descriptors) {
+            Set<String> keys = depsKeysByDescriptor.remove(descriptor);
+            if (keys != null) {
+                depsKeys.addAll(keys);
+            }
+        }
+        Set<String> stringKeys = new HashSet<>();
+        for (String depsKey : depsKeys) {
+            // prune the entries that other descriptors hold for this key.
+            Set<DefDescriptor<?>> contained = descriptorsByDepsKey.remove(depsKey);
+            if (contained != null) {
+                for (DefDescriptor<?> other : contained) {
+                    Set<String> keys = depsKeysByDescriptor.get(other);
+                    if (keys != null) {
+                        keys.remove(depsKey);
+                    }
+                }
+            }
+            String uid = uidByDepsKey.remove(depsKey);
+            if (uid != null) {
+                Set<String> keys = stringKeysByUid.remove(uid);
+                if (keys != null) {
+                    stringKeys.addAll(keys);
+                }
+            }
+        }
+        return new Invalidation(descriptors, depsKeys, stringKeys);
+    }
+
+    public void clear() {
+        clearMaps();
+        keyCount.set(0);
+        overflowed = false;
+    }
+
+    private void clearMaps() {
+        descriptorsByDirectory.clear();
+        linkedDescriptors.clear();
+        dependentsByDescriptor.clear();
+        depsKeysByDescriptor.clear();
+        descriptorsByDepsKey.clear();
+        uidByDepsKey.clear();
+        stringKeysByUid.clear();
+    }
+
+    private String getSourceDirectory(Definition def) {
+        if (def == null) {
+            return null;
+        }
+        Location location = def.getLocation();
+        if (location == null || location.getFileName() == null) {
+            return null;
+        }
+        File file = new File(location.getFileName());
+        if (!file.isAbsolute()) {
+            return null;
+        }
+        return file.getParent();
+    }
+}
@@ -28,6 +28,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
 
 /**
  * A 'hard' cache, which is actually a map that looks like a cache.
@@ -145,6 +146,11 @@ public class HardCacheImpl<K, T> implements Cache<K, T> {
         }
     }
 
+    @Override
+    public boolean invalidate(K key, T value) {
+        return map.remove(key, value);
+    }
+
     @Override
     public void invalidateAll() {
         map.clear();
@@ -155,6 +161,7 @@ public class HardCacheImpl<K, T> implements Cache<K, T> {
         return map.keySet();
     }
 
+    @Deprecated
     @Override
     public void invalidatePartial(String keyBeginsWith) {
         // everything is a match if the match length is zero
@@ -218,6 +225,12 @@ public class HardCacheImpl<K, T> implements Cache<K, T> {
             return this;
         };
 
+        @Override
+        public Builder<K, T> setMaximumWeight(long maximumWeight, ToIntFunction<? super T> weigher) {
+            // a hard cache never evicts, so there is nothing to bound.
+            return this;
+        }
+
         @Override
         public Builder<K, T> setUseSecondaryStorage(boolean useSecondaryStorage) {
             this.useSecondaryStorage = useSecondaryStorage;
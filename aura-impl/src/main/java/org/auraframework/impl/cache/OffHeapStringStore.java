@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A secondary storage tier for large strings.
+ *
+ * Values are stored as UTF-8 bytes off-heap, so that large, stable strings such as app.js and app.css do not sit in
+ * the old generation. The store is bounded both by number of entries and by total bytes, and evicts in
+ * least-recently-used order when either limit is exceeded.
+ *
+ * Off-heap memory is carved into fixed size blocks from direct slabs that are allocated as needed and then reused,
+ * rather than allocating a direct buffer per value that only the garbage collector can free. Since each value wastes
+ * at most part of one block, the slabs never grow beyond the byte limit plus one block per entry.
+ *
+ * All structural access is synchronized, this store is only consulted on a miss in the on-heap front of the cache, so
+ * it is not expected to be contended.
+ */
+public class OffHeapStringStore<K> {
+    /** Size of the unit of allocation */
+    static final int BLOCK_SIZE = 4 * 1024;
+
+    /** Number of blocks in each direct slab, so slabs are 1MB */
+    private static final int BLOCKS_PER_SLAB = 256;
+
+    private static final int[] NO_BLOCKS = new int[0];
+
+    private static final class Entry {
+        private final int length;
+        private final int[] blocks;
+
+        private Entry(int length, int[] blocks) {
+            this.length = length;
+            this.blocks = blocks;
+        }
+    }
+
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private final long maximumEntries;
+    private final long maximumBytes;
+    private long currentBytes;
+
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final int maximumBlocks;
+    private int carvedBlocks;
+    private int[] freeBlocks = NO_BLOCKS;
+    private int freeCount;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Create a new store.
+     *
+     * @param maximumEntries the maximum number of entries held before evicting.
+     * @param maximumBytes the maximum number of bytes held before evicting.
+     */
+    public OffHeapStringStore(long maximumEntries, long maximumBytes) {
+        this.maximumEntries = maximumEntries;
+        this.maximumBytes = maximumBytes;
+        this.maximumBlocks = (int) Math.min(Integer.MAX_VALUE,
+                (maximumBytes + BLOCK_SIZE - 1) / BLOCK_SIZE + maximumEntries);
+    }
+
+    /**
+     * Fetch a value, decoding it back onto the heap.
+     *
+     * @param key the key to look up.
+     * @return the value, or null if it is not present.
+     */
+    public String get(K key) {
+        byte[] bytes;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            bytes = (entry != null) ? read(entry) : null;
+        }
+        if (bytes == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Store a value.
+     *
+     * Values larger than the byte limit for the entire store are not kept.
+     *
+     * @param key the key for the value.
+     * @param value the value to store.
+     */
+    public void put(K key, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maximumBytes) {
+            invalidate(key);
+            return;
+        }
+        synchronized (this) {
+            remove(key);
+            currentBytes += bytes.length;
+            evict(1);
+            Entry entry = new Entry(bytes.length, allocate((bytes.length + BLOCK_SIZE - 1) / BLOCK_SIZE));
+            write(entry, bytes);
+            entries.put(key, entry);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        for (Entry entry : entries.values()) {
+            release(entry);
+        }
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * @return a snapshot of the keys currently held.
+     */
+    public synchronized Set<K> getKeySet() {
+        return new HashSet<>(entries.keySet());
+    }
+
+    public synchronized long size() {
+        return entries.size();
+    }
+
+    public synchronized long getByteSize() {
+        return currentBytes;
+    }
+
+    /**
+     * @return the number of off-heap bytes allocated in slabs, whether in use or free.
+     */
+    public synchronized long getAllocatedBytes() {
+        long allocated = 0;
+        for (ByteBuffer slab : slabs) {
+            allocated += slab.capacity();
+        }
+        return allocated;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long requests = hits + missCount.get();
+        return (requests == 0) ? 1.0 : (double) hits / requests;
+    }
+
+    /**
+     * Drop least recently used entries until we are within both limits, leaving room for the given number of new
+     * entries. Must be called holding the lock.
+     */
+    private void evict(int adding) {
+        Iterator<Map.Entry<K, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() + adding > maximumEntries || currentBytes > maximumBytes) && iterator.hasNext()) {
+            Map.Entry<K, Entry> eldest = iterator.next();
+            currentBytes -= eldest.getValue().length;
+            release(eldest.getValue());
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Must be called holding the lock.
+     */
+    private void remove(K key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            currentBytes -= previous.length;
+            release(previous);
+        }
+    }
+
+    /**
+     * Take blocks from the free list, carving new ones from slabs once it is empty. The limits on entries and bytes
+     * guarantee that there are always enough. Must be called holding the lock.
+     */
+    private int[] allocate(int count) {
+        int[] blocks = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (freeCount > 0) {
+                blocks[i] = freeBlocks[--freeCount];
+            } else {
+                if (carvedBlocks % BLOCKS_PER_SLAB == 0) {
+                    int slabBlocks = Math.min(BLOCKS_PER_SLAB, maximumBlocks - carvedBlocks);
+                    slabs.add(ByteBuffer.allocateDirect(slabBlocks * BLOCK_SIZE));
+                }
+                blocks[i] = carvedBlocks++;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Must be called holding the lock.
+     */
+    private void release(Entry entry) {
+        if (freeBlocks.length < freeCount + entry.blocks.length) {
+            int[] grown = new int[Math.max(freeBlocks.length * 2, freeCount + entry.blocks.length)];
+            System.arraycopy(freeBlocks, 0, grown, 0, freeCount);
+            freeBlocks = grown;
+        }
+        for (int block : entry.blocks) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+
+    private ByteBuffer getBlock(int block) {
+        ByteBuffer slab = slabs.get(block / BLOCKS_PER_SLAB).duplicate();
+        slab.position((block % BLOCKS_PER_SLAB) * BLOCK_SIZE);
+        return slab;
+    }
+
+    /**
+     * Must be called holding the lock, as blocks are reused once released.
+     */
+    private void write(Entry entry, byte[] bytes) {
+        for (int i = 0, offset = 0; i < entry.blocks.length; i++, offset += BLOCK_SIZE) {
+            getBlock(entry.blocks[i]).put(bytes, offset, Math.min(BLOCK_SIZE, bytes.length - offset));
+        }
+    }
+
+    /**
+     * Must be called holding the lock, as blocks are reused once released.
+     */
+    private byte[] read(Entry entry) {
+        byte[] bytes = new byte[entry.length];
+        for (int i = 0, offset = 0; i < entry.blocks.length; i++, offset += BLOCK_SIZE) {
+            getBlock(entry.blocks[i]).get(bytes, offset, Math.min(BLOCK_SIZE, bytes.length - offset));
+        }
+        return bytes;
+    }
+}
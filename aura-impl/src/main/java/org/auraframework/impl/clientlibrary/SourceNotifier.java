@@ -21,6 +21,7 @@ import org.auraframework.system.SourceListener;
 import org.auraframework.util.FileMonitor;
 
 import javax.inject.Inject;
+import java.util.Map;
 
 /**
  * Invalidate caches on source changes
@@ -39,5 +40,10 @@ class SourceNotifier implements SourceListener {
     public void onSourceChanged(SourceMonitorEvent event, String filePath) {
         cachingService.getClientLibraryOutputCache().invalidateAll();
     }
+
+    @Override
+    public void onSourcesChanged(Map<String, SourceMonitorEvent> changes) {
+        cachingService.getClientLibraryOutputCache().invalidateAll();
+    }
 }
 
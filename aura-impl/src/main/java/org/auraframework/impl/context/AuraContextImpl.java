@@ -28,6 +28,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 import org.auraframework.adapter.ConfigAdapter;
@@ -80,7 +82,7 @@ public class AuraContextImpl implements AuraContext {
 
     private static final Logger logger = Logger.getLogger(AuraContextImpl.class);
 
-    private final Set<DefDescriptor<?>> staleChecks = new HashSet<>();
+    private final Set<DefDescriptor<?>> staleChecks = Sets.newConcurrentHashSet();
 
     private final Mode mode;
 
@@ -88,15 +90,20 @@ public class AuraContextImpl implements AuraContext {
 
     private final JsonSerializationContext jsonContext;
 
-    private BaseComponent<?, ?> currentComponent;
+    //
+    // The current component, action, calling descriptors and system mode are per thread, so that independent
+    // actions can run concurrently in the same context (see ServerServiceImpl). The rest of the state that those
+    // actions write while running (local store, globals, loaded and client lists) is synchronized or concurrent.
+    //
+    private final ThreadLocal<BaseComponent<?, ?>> currentComponent = new ThreadLocal<>();
 
-    private Action currentAction;
+    private final ThreadLocal<Action> currentAction = new ThreadLocal<>();
 
     private final Map<DefType, String> defaultPrefixes;
 
     private String num;
 
-    private final Set<String> dynamicNamespaces = Sets.newLinkedHashSet();
+    private final Set<String> dynamicNamespaces = Collections.synchronizedSet(Sets.newLinkedHashSet());
 
     private Set<DefDescriptor<?>> preloadedDefinitions = null;
     private Set<DefDescriptor<?>> unmodifiablePreloadedDefinitions = null;
@@ -106,8 +113,8 @@ public class AuraContextImpl implements AuraContext {
 
     private final Map<String, GlobalValueProvider> globalProviders;
 
-    private final Map<DefDescriptor<?>, String> loaded = Maps.newLinkedHashMap();
-    private final Map<DefDescriptor<?>, String> clientLoaded = Maps.newLinkedHashMap();
+    private final Map<DefDescriptor<?>, String> loaded = Collections.synchronizedMap(Maps.newLinkedHashMap());
+    private final Map<DefDescriptor<?>, String> clientLoaded = Collections.synchronizedMap(Maps.newLinkedHashMap());
 
     private String contextPath = "";
 
@@ -123,7 +130,7 @@ public class AuraContextImpl implements AuraContext {
 
     private Client client = Client.OTHER;
 
-    private final List<Event> clientEvents = Lists.newArrayList();
+    private final List<Event> clientEvents = Collections.synchronizedList(Lists.newArrayList());
 
     private String fwUID;
 
@@ -131,10 +138,11 @@ public class AuraContextImpl implements AuraContext {
 
     private StyleContext styleContext;
 
-    private Deque<DefDescriptor<?>> callingDescriptorStack = Lists.newLinkedList();
+    private final ThreadLocal<Deque<DefDescriptor<?>>> callingDescriptorStack =
+            ThreadLocal.withInitial(() -> Lists.newLinkedList());
 
     private static final int MAX_COMPONENT_COUNT = 10000;
-    private int componentCount;
+    private final AtomicInteger componentCount = new AtomicInteger();
 
     private static final Map<String, GlobalValue> allowedGlobalValues = new HashMap<>();
     private Map<String, AuraContext.GlobalValue> globalValues;
@@ -143,7 +151,7 @@ public class AuraContextImpl implements AuraContext {
     private final ConfigAdapter configAdapter;
     private final TestContextAdapter testContextAdapter;
 
-    private boolean isSystem = false;
+    private final ThreadLocal<Boolean> isSystem = ThreadLocal.withInitial(() -> Boolean.FALSE);
 
     private boolean useCompatSource = false;
     private boolean forceCompat = false;
@@ -177,21 +185,21 @@ public class AuraContextImpl implements AuraContext {
         this.configAdapter = configAdapter;
         this.definitionService = definitionService;
         this.testContextAdapter = testContextAdapter;
-        this.globalValues = new HashMap<>();
+        this.globalValues = new ConcurrentHashMap<>();
         this.localStore = new AuraLocalStoreImpl();
-        this.clientClassesLoaded = new HashMap<>();
-        this.accessCheckCache = new HashMap<>();
+        this.clientClassesLoaded = new ConcurrentHashMap<>();
+        this.accessCheckCache = Collections.synchronizedMap(new HashMap<>());
     }
 
     @Override
     public void setSystemMode(boolean systemMode) {
-        isSystem = systemMode;
+        isSystem.set(systemMode);
         localStore.setSystemMode(systemMode);
     }
 
     @Override
     public boolean isSystemMode() {
-        return this.isSystem;
+        return this.isSystem.get();
     }
 
     @Override
@@ -293,17 +301,17 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public Action getCurrentAction() {
-        return currentAction;
+        return currentAction.get();
     }
 
     @Override
     public BaseComponent<?, ?> getCurrentComponent() {
-        return currentComponent;
+        return currentComponent.get();
     }
 
     @Override
     public DefDescriptor<?> getCurrentCallingDescriptor() {
-        return callingDescriptorStack.peekFirst();
+        return callingDescriptorStack.get().peekFirst();
     }
 
     @Override
@@ -460,27 +468,46 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public Action setCurrentAction(Action nextAction) {
-        Action old = currentAction;
-        currentAction = nextAction;
+        Action old = currentAction.get();
+        if (nextAction == null) {
+            // don't leave the action behind on pooled threads.
+            currentAction.remove();
+        } else {
+            currentAction.set(nextAction);
+        }
         return old;
     }
 
     @Override
     public BaseComponent<?, ?> setCurrentComponent(BaseComponent<?, ?> nextComponent) {
-        BaseComponent<?, ?> old = currentComponent;
-        currentComponent = nextComponent;
+        BaseComponent<?, ?> old = currentComponent.get();
+        if (nextComponent == null) {
+            currentComponent.remove();
+        } else {
+            currentComponent.set(nextComponent);
+        }
         return old;
     }
 
+    @Override
+    public void releaseCurrentThread() {
+        currentAction.remove();
+        currentComponent.remove();
+        callingDescriptorStack.remove();
+        isSystem.remove();
+        localStore.setSystemMode(false);
+    }
+
     @Override
     public void pushCallingDescriptor(DefDescriptor<?> descriptor) {
-        callingDescriptorStack.push(descriptor);
+        callingDescriptorStack.get().push(descriptor);
     }
 
     @Override
     public void popCallingDescriptor() {
-        if (callingDescriptorStack.size() > 0) {
-            callingDescriptorStack.pop();
+        Deque<DefDescriptor<?>> stack = callingDescriptorStack.get();
+        if (stack.size() > 0) {
+            stack.pop();
         } else {
             logger.warn("Trying to pop a calling descriptor from an empty stack");
         }
@@ -584,8 +611,9 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public InstanceStack getInstanceStack() {
-        if (currentAction != null) {
-            return currentAction.getInstanceStack();
+        Action action = currentAction.get();
+        if (action != null) {
+            return action.getInstanceStack();
         } else {
             if (fakeInstanceStack == null) {
                 fakeInstanceStack = new InstanceStack();
@@ -616,7 +644,7 @@ public class AuraContextImpl implements AuraContext {
     public void registerComponent(BaseComponent<?, ?> component) {
         InstanceStack iStack = getInstanceStack();
         if (iStack.isExternal()) {
-            if (componentCount++ > MAX_COMPONENT_COUNT) {
+            if (componentCount.getAndIncrement() > MAX_COMPONENT_COUNT) {
                 //
                 // This is bad, try to give the poor user an idea of what happened.
                 //
@@ -706,8 +734,9 @@ public class AuraContextImpl implements AuraContext {
         if (!validateGlobal(approvedName)) {
             throw new AuraRuntimeException("Attempt to retrieve unknown $Global variable: " + approvedName);
         }
-        if (globalValues.containsKey(approvedName)) {
-            return globalValues.get(approvedName);
+        GlobalValue global = globalValues.get(approvedName);
+        if (global != null) {
+            return global;
         }
         return allowedGlobalValues.get(approvedName);
     }
@@ -717,8 +746,9 @@ public class AuraContextImpl implements AuraContext {
         if (!validateGlobal(approvedName)) {
             throw new AuraRuntimeException("Attempt to retrieve unknown $Global variable: " + approvedName);
         }
-        if (globalValues.containsKey(approvedName)) {
-            return globalValues.get(approvedName).getValue();
+        GlobalValue global = globalValues.get(approvedName);
+        if (global != null) {
+            return global.getValue();
         }
         return allowedGlobalValues.get(approvedName).getValue();
     }
@@ -729,18 +759,19 @@ public class AuraContextImpl implements AuraContext {
             throw new AuraRuntimeException("Attempt to set unknown $Global variable: " + approvedName);
         }
 
-        if (globalValues.containsKey(approvedName)) {
-            (globalValues.get(approvedName)).setDefaultValue(value);
-        }
-        else {
+        globalValues.compute(approvedName, (name, global) -> {
+            if (global != null) {
+                global.setDefaultValue(value);
+                return global;
+            }
             // copy the registered record to globals, replacing value with supplied value
-            GlobalValue temp = allowedGlobalValues.get(approvedName);
+            GlobalValue temp = allowedGlobalValues.get(name);
 
             // You could add "if (temp.defaultValue.equals(value)) return;"
             // if you wished to store values sparsely (not re-storing default even if explicitly set)
             // But you would lose the ability to test whether the value was explicitly set
-            globalValues.put(approvedName, new GlobalValue(temp.isWritable(), value));
-        }
+            return new GlobalValue(temp.isWritable(), value);
+        });
     }
 
     @Override
@@ -749,20 +780,19 @@ public class AuraContextImpl implements AuraContext {
             throw new AuraRuntimeException("Attempt to set unknown $Global variable: " + approvedName);
         }
 
-        if (globalValues.containsKey(approvedName)) {
-            (globalValues.get(approvedName)).setValue(clientValue);
-        }
-        else {
-            // copy the registered record to globals, replacing value with supplied value
-            GlobalValue temp = allowedGlobalValues.get(approvedName);
+        globalValues.compute(approvedName, (name, global) -> {
+            if (global == null) {
+                // copy the registered record to globals, replacing value with supplied value
+                GlobalValue temp = allowedGlobalValues.get(name);
 
-            // You could add "if (temp.defaultValue.equals(value)) return;"
-            // if you wished to store values sparsely (not re-storing default even if explicitly set)
-            // But you would lose the ability to test whether the value was explicitly set
-            GlobalValue newGlobal = new GlobalValue(temp.isWritable(), null);
-            newGlobal.setValue(clientValue);
-            globalValues.put(approvedName, newGlobal);
-        }
+                // You could add "if (temp.defaultValue.equals(value)) return;"
+                // if you wished to store values sparsely (not re-storing default even if explicitly set)
+                // But you would lose the ability to test whether the value was explicitly set
+                global = new GlobalValue(temp.isWritable(), null);
+            }
+            global.setValue(clientValue);
+            return global;
+        });
     }
 
     @Override
@@ -929,7 +959,8 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public String getAccessVersion() throws QuickFixException {
-        return this.currentAction == null ? null : this.currentAction.getCallerVersion();
+        Action action = this.currentAction.get();
+        return action == null ? null : action.getCallerVersion();
     }
 
     @Override
@@ -144,6 +144,16 @@ public class AuraContextServiceImpl implements ContextService {
         }
     }
 
+    @Override
+    public void attachContext(AuraContext context) {
+        contextAdapter.attach(context);
+    }
+
+    @Override
+    public void detachContext() {
+        contextAdapter.release();
+    }
+
     @Override
     public AuraContext pushSystemContext() {
         assertEstablished();
@@ -32,6 +32,12 @@ import org.auraframework.throwable.AuraRuntimeException;
 
 import com.google.common.base.Optional;
 
+/**
+ * The local store for a context.
+ *
+ * Access is synchronized, as independent actions in a request may be run concurrently against the same context.
+ * System mode is per thread, so an action in system mode does not switch the store used by another.
+ */
 public class AuraLocalStoreImpl implements AuraLocalStore {
     private static class LocalInfo {
         public final Map<DefDescriptor<? extends Definition>, Definition> defs;
@@ -49,46 +55,50 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
         }
     };
 
-    private boolean systemMode;
+    private final ThreadLocal<Boolean> systemMode = ThreadLocal.withInitial(() -> Boolean.FALSE);
     private final LocalInfo userStore;
     private LocalInfo systemStore;
-    private LocalInfo currentStore;
 
     public AuraLocalStoreImpl() {
         this.userStore = new LocalInfo();
         this.systemStore = null;
-        this.systemMode = false;
-        this.currentStore = this.userStore;
     }
 
     @Override
-    public void setSystemMode(boolean value) {
-        this.systemMode = value;
+    public synchronized void setSystemMode(boolean value) {
         if (value) {
+            this.systemMode.set(Boolean.TRUE);
             if (this.systemStore == null) {
                 this.systemStore = new LocalInfo();
             }
-            this.currentStore = this.systemStore;
         } else {
-            this.currentStore = this.userStore;
+            this.systemMode.remove();
         }
     }
 
+    private boolean isSystemMode() {
+        return systemMode.get();
+    }
+
+    private LocalInfo getCurrentStore() {
+        return isSystemMode() ? systemStore : userStore;
+    }
+
     @Override
-    public void setDefNotCacheable(DefDescriptor<?> descriptor) {
-        currentStore.defNotCacheable.add(descriptor);
+    public synchronized void setDefNotCacheable(DefDescriptor<?> descriptor) {
+        getCurrentStore().defNotCacheable.add(descriptor);
     }
 
     @Override
-    public boolean isDefNotCacheable(DefDescriptor<?> descriptor) {
-        return currentStore.defNotCacheable.contains(descriptor)
-            || (systemMode && userStore.defNotCacheable.contains(descriptor));
+    public synchronized boolean isDefNotCacheable(DefDescriptor<?> descriptor) {
+        return getCurrentStore().defNotCacheable.contains(descriptor)
+            || (isSystemMode() && userStore.defNotCacheable.contains(descriptor));
     }
 
     @Override
-    public void addDefinition(DefDescriptor<?> descriptor, Definition def) {
+    public synchronized void addDefinition(DefDescriptor<?> descriptor, Definition def) {
         if (def == null) {
-            currentStore.nulledDefs.add(descriptor);
+            getCurrentStore().nulledDefs.add(descriptor);
         } else {
             //
             // DANGER!!!DANGER!!!DANGER!!!
@@ -98,7 +108,7 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
             // This code must change soon, as it violates every rule in the book,
             // and a few that are not even there...
             //
-            currentStore.defs.putIfAbsent(descriptor, def);
+            getCurrentStore().defs.putIfAbsent(descriptor, def);
             //
             // DANGER!!!DANGER!!!DANGER!!!
             //
@@ -107,13 +117,14 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
 
 
     @Override
-    public <D extends Definition> Optional<D> getDefinition(DefDescriptor<D> descriptor) {
+    public synchronized <D extends Definition> Optional<D> getDefinition(DefDescriptor<D> descriptor) {
+        LocalInfo current = getCurrentStore();
         @SuppressWarnings("unchecked")
-        D def = (D) currentStore.defs.get(descriptor);
-        if (def != null || currentStore.nulledDefs.contains(descriptor)) {
+        D def = (D) current.defs.get(descriptor);
+        if (def != null || current.nulledDefs.contains(descriptor)) {
             return Optional.fromNullable(def);
         }
-        if (systemMode) {
+        if (isSystemMode()) {
             @SuppressWarnings("unchecked")
             D udef = (D) userStore.defs.get(descriptor);
             if (udef != null || userStore.nulledDefs.contains(descriptor)) {
@@ -124,32 +135,33 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
     }
 
     @Override
-    public void addDependencyEntry(String key, DependencyEntry de) {
+    public synchronized void addDependencyEntry(String key, DependencyEntry de) {
+        LocalInfo current = getCurrentStore();
         if (de.uid != null) {
-            currentStore.dependencies.put(de.uid, de);
+            current.dependencies.put(de.uid, de);
         }
-        currentStore.dependencies.put(key, de);
+        current.dependencies.put(key, de);
     }
 
     @Override
-    public DependencyEntry getDependencyEntry(String key) {
+    public synchronized DependencyEntry getDependencyEntry(String key) {
         DependencyEntry entry;
 
-        entry = currentStore.dependencies.get(key);
-        if (entry == null && systemMode) {
+        entry = getCurrentStore().dependencies.get(key);
+        if (entry == null && isSystemMode()) {
             entry = userStore.dependencies.get(key);
         }
         return entry;
     }
 
     @Override
-    public DependencyEntry findDependencyEntry(DefDescriptor<?> descriptor) {
-        for (DependencyEntry det : currentStore.dependencies.values()) {
+    public synchronized DependencyEntry findDependencyEntry(DefDescriptor<?> descriptor) {
+        for (DependencyEntry det : getCurrentStore().dependencies.values()) {
             if (det.dependencyMap != null && det.dependencyMap.containsKey(descriptor)) {
                 return det;
             }
         }
-        if (systemMode) {
+        if (isSystemMode()) {
             for (DependencyEntry det : userStore.dependencies.values()) {
                 if (det.dependencyMap != null && det.dependencyMap.containsKey(descriptor)) {
                     return det;
@@ -160,23 +172,24 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
     }
 
     @Override
-    public <D extends Definition> void addDynamicDefinition(@Nonnull D def) {
+    public synchronized <D extends Definition> void addDynamicDefinition(@Nonnull D def) {
         DefDescriptor<? extends Definition> desc = def.getDescriptor();
 
         if (desc == null) {
             throw new AuraRuntimeException("Invalid def has no descriptor");
         }
-        currentStore.defs.put(desc, def);
-        currentStore.defNotCacheable.add(desc);
-        currentStore.dynamicDescs.add(desc);
+        LocalInfo current = getCurrentStore();
+        current.defs.put(desc, def);
+        current.defNotCacheable.add(desc);
+        current.dynamicDescs.add(desc);
     }
 
     @Override
-    public void addDynamicMatches(Set<DefDescriptor<?>> matched, DescriptorFilter matcher) {
-        currentStore.dynamicDescs.stream()
+    public synchronized void addDynamicMatches(Set<DefDescriptor<?>> matched, DescriptorFilter matcher) {
+        getCurrentStore().dynamicDescs.stream()
             .filter(desc -> matcher.matchDescriptor(desc))
             .forEach(desc -> matched.add(desc));
-        if (systemMode) {
+        if (isSystemMode()) {
             userStore.dynamicDescs.stream()
                 .filter(desc -> matcher.matchDescriptor(desc))
                 .forEach(desc -> matched.add(desc));
@@ -184,7 +197,7 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
     }
 
     @Override
-    public Map<DefDescriptor<? extends Definition>, Definition> getDefinitions() {
+    public synchronized Map<DefDescriptor<? extends Definition>, Definition> getDefinitions() {
         return Collections.unmodifiableMap(userStore.defs);
     }
 }
@@ -15,11 +15,13 @@
  */
 package org.auraframework.impl.context;
 
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.impl.metricsservice.MetricsRegistry;
 import org.auraframework.instance.Action;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.LoggingContext;
@@ -43,9 +45,30 @@ public class LoggingContextImpl implements LoggingContext {
     private final Map<String, Object> values = Maps.newHashMap();
 
     private final Map<String, Map<String, Long>> actionStats = Maps.newHashMap();
+    private final Map<Action, Long> actionStarts = new IdentityHashMap<>();
+    private final MetricsRegistry metricsRegistry;
+
+    public LoggingContextImpl() {
+        this(null);
+    }
+
+    /**
+     * @param metricsRegistry the registry that timers, actions and counters are also recorded in, across requests,
+     *            may be null.
+     */
+    public LoggingContextImpl(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    protected MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
 
     @Override
     public void startAction(String actionName, Action action) {
+        if (action != null) {
+            actionStarts.put(action, System.nanoTime());
+        }
         Map<String, Long> actionStatMap = Maps.newHashMap();
         actionStats.put(actionName, actionStatMap);
         for (Map.Entry<String, Timer> timerEntry : timers.entrySet()) {
@@ -93,6 +116,21 @@ public class LoggingContextImpl implements LoggingContext {
         }
     }
 
+    /**
+     * Also records the action in the metrics registry, by its descriptor rather than by the action name, which holds
+     * its position and parameters.
+     */
+    @Override
+    public void stopAction(String actionName, Action action) {
+        Long start = (action != null) ? actionStarts.remove(action) : null;
+        long end = System.nanoTime();
+        stopAction(actionName);
+        MetricsRegistry registry = getMetricsRegistry();
+        if (start != null && registry != null && action.getDescriptor() != null) {
+            registry.recordAction(action.getDescriptor().getQualifiedName(), end - start);
+        }
+    }
+
     protected void stopActionTimer(String actionName) {
         stopTimer(LoggingService.TIMER_ACTION + actionName);
     }
@@ -122,7 +160,12 @@ public class LoggingContextImpl implements LoggingContext {
     public void stopTimer(String name) {
         Timer t = timers.get(name);
         if (t != null) {
-            t.stop();
+            long elapsed = t.stop();
+            // actions are recorded by descriptor in stopAction.
+            MetricsRegistry registry = getMetricsRegistry();
+            if (registry != null && elapsed >= 0L && !name.startsWith(LoggingService.TIMER_ACTION)) {
+                registry.recordTimer(name, elapsed);
+            }
         }
     }
 
@@ -159,6 +202,10 @@ public class LoggingContextImpl implements LoggingContext {
 
     @Override
     public void incrementNumBy(String key, long num) {
+        MetricsRegistry registry = getMetricsRegistry();
+        if (registry != null) {
+            registry.incrementCounter(key, num);
+        }
         Counter origNum = this.counters.get(key);
         if (origNum == null) {
             counters.put(key, new Counter(num));
@@ -337,13 +384,19 @@ public class LoggingContextImpl implements LoggingContext {
             }
         }
 
-        public void stop() {
+        /**
+         * @return the nanoseconds since the matching start, or -1 if the timer is still running.
+         */
+        public long stop() {
             startCount--;
             if (startCount == 0L && startTime >= 0L) {
                 long curr = System.nanoTime();
-                totalTime = ((totalTime > 0L) ? totalTime : 0L)  + curr - startTime;
+                long elapsed = curr - startTime;
+                totalTime = ((totalTime > 0L) ? totalTime : 0L)  + elapsed;
                 startTime = -1;
+                return elapsed;
             }
+            return -1L;
         }
 
         /**
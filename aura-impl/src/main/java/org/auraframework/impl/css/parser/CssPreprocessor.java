@@ -30,6 +30,7 @@ import org.auraframework.def.BaseStyleDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.FlavoredStyleDef;
 import org.auraframework.impl.css.parser.plugin.FlavorCollectorPlugin;
+import org.auraframework.impl.css.parser.plugin.FlavorOverridePlugin;
 import org.auraframework.impl.css.parser.plugin.FlavorPlugin;
 import org.auraframework.impl.css.parser.plugin.SelectorScopingPlugin;
 import org.auraframework.impl.css.parser.plugin.TokenFunctionPlugin;
@@ -71,6 +72,16 @@ public final class CssPreprocessor {
         return new ParserConfiguration(styleAdapter, true).styleContext(styleContext);
     }
 
+    /**
+     * For running contextual plugins over the output of a runtime pass. Only the conditionals are added, as plugins
+     * such as {@link FlavorOverridePlugin} look up the true conditions from them.
+     */
+    public static ParserConfiguration contextual(StyleContext styleContext, StyleAdapter styleAdapter) {
+        return new ParserConfiguration(styleAdapter, true, false)
+                .extra(new UnquotedIEFilterPlugin())
+                .styleContext(styleContext);
+    }
+
     /** For parsing css without any of the default plugins */
     public static ParserConfiguration raw() {
         return new ParserConfiguration(Aura.getStyleAdapter());
@@ -83,6 +94,7 @@ public final class CssPreprocessor {
         private final boolean runtime;
         private final List<Plugin> plugins = new ArrayList<>();
         private StyleAdapter styleAdapter;
+        private boolean annotatedComments;
         
         private static Plugin prefixerPlugin;
         private static Plugin autoRefinePlugin;
@@ -117,9 +129,17 @@ public final class CssPreprocessor {
         }
 
         public ParserConfiguration(StyleAdapter styleAdapter, boolean runtime) {
+            this(styleAdapter, runtime, true);
+        }
+
+        private ParserConfiguration(StyleAdapter styleAdapter, boolean runtime, boolean defaultPlugins) {
             this.runtime = runtime;
             this.styleAdapter = styleAdapter;
 
+            if (!defaultPlugins) {
+                return;
+            }
+
             if (!runtime) {
                 plugins.addAll(styleAdapter.getCompilationPlugins());
                 plugins.add(new UrlContextPathPlugin());
@@ -201,12 +221,22 @@ public final class CssPreprocessor {
             return this;
         }
 
+        /** keep annotated comments in the output of a runtime pass, for the plugins of a later contextual pass */
+        public ParserConfiguration annotatedComments(boolean annotatedComments) {
+            this.annotatedComments = annotatedComments;
+            return this;
+        }
+
         /** parses the CSS according to the current configuration */
         public ParserResult parse() throws StyleParserException {
             // determine the output compression level based on the aura mode
             Mode mode = Aura.getContextService().getCurrentContext().getMode();
             StyleWriter writer = mode.prettyPrint() ? StyleWriter.inline() : StyleWriter.compressed();
 
+            if (annotatedComments) {
+                writer.writeAnnotatedComments(true);
+            }
+
             if (!runtime) {
                 // write annotated comments out on the compilation pass, in case the runtime pass needs them
                 writer.writeAnnotatedComments(true);
@@ -40,6 +40,8 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.throwable.quickfix.StyleParserException;
 import org.auraframework.validation.ReferenceValidationContext;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -50,11 +52,13 @@ import java.util.Set;
  */
 public abstract class AbstractStyleDef<D extends BaseStyleDef> extends DefinitionImpl<D> implements BaseStyleDef {
     private static final long serialVersionUID = -7239904547091800250L;
+    private static final String ANNOTATED = "\u0000annotated";
     private static final String TOKEN_PROPERTY_VALIDATION_ERROR_MSG = "the '%s' token cannot be used with the %s property.\nAllowed properties: %s";
 
     private final String content;
     private final Set<String> expressions;
     private final Map<String, Set<String>> tokensInCssProperties;
+    private transient volatile StyleVariants variants;
 
     protected AbstractStyleDef(Builder<D> builder) {
         super(builder);
@@ -68,18 +72,45 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
         return getCode(ImmutableList.<Plugin>of());
     }
 
+    /**
+     * Gets the code for the current style context.
+     *
+     * The runtime pass is only run once for each variant of this def, see {@link StyleVariants}. Plugins that may act
+     * on this def run in a separate contextual pass over the output of the runtime pass, which keeps annotated
+     * comments for them. Most defs have no such plugins, and skip that pass.
+     */
     @Override
     public String getCode(List<Plugin> plugins) {
-        StyleContext styleContext = Aura.getContextService().getCurrentContext().getStyleContext();
+        AuraContext context = Aura.getContextService().getCurrentContext();
+        StyleContext styleContext = context.getStyleContext();
         StyleAdapter styleAdapter = Aura.getStyleAdapter();        
         TokenValueProvider tvp = styleAdapter.getTokenValueProvider(descriptor, ResolveStrategy.RESOLVE_NORMAL);
         
         try {
-            return CssPreprocessor.runtime(styleContext, styleAdapter)
-                    .source(content)
+            StyleVariants current = getVariants();
+            List<Plugin> applicable = current.getApplicablePlugins(plugins);
+            String key = getVariantKey(current, context, styleContext, tvp, styleAdapter);
+            if (key == null) {
+                // let the parser report the problem, or run runtime plugins that cannot be reused
+                return runtime(styleContext, styleAdapter, tvp, false).extras(applicable).parse().content();
+            }
+
+            boolean annotated = !applicable.isEmpty();
+            if (annotated) {
+                key += ANNOTATED;
+            }
+            String code = current.get(key);
+            if (code == null) {
+                code = runtime(styleContext, styleAdapter, tvp, annotated).parse().content();
+                current.put(key, code);
+            }
+            if (!annotated) {
+                return code;
+            }
+            return CssPreprocessor.contextual(styleContext, styleAdapter)
+                    .source(code)
                     .resourceName(descriptor.getQualifiedName())
-                    .tokens(descriptor, tvp)
-                    .extras(plugins)
+                    .extras(applicable)
                     .parse()
                     .content();
         } catch (QuickFixException e) {
@@ -87,6 +118,48 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
         }
     }
 
+    private CssPreprocessor.ParserConfiguration runtime(StyleContext styleContext, StyleAdapter styleAdapter,
+            TokenValueProvider tvp, boolean annotated) {
+        return CssPreprocessor.runtime(styleContext, styleAdapter)
+                .source(content)
+                .resourceName(descriptor.getQualifiedName())
+                .tokens(descriptor, tvp)
+                .annotatedComments(annotated);
+    }
+
+    private StyleVariants getVariants() {
+        StyleVariants current = variants;
+        if (current == null) {
+            // a race here only costs a second, equivalent instance
+            current = new StyleVariants(content);
+            variants = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return the key of the current variant, or null if a token could not be resolved or the output of the runtime
+     *         plugins cannot be reused.
+     */
+    private String getVariantKey(StyleVariants current, AuraContext context, StyleContext styleContext,
+            TokenValueProvider tvp, StyleAdapter styleAdapter) {
+        String runtimePluginsKey = styleAdapter.getRuntimePluginsCacheKey();
+        if (runtimePluginsKey == null) {
+            return null;
+        }
+        List<String> tokenValues = new ArrayList<>(expressions.size());
+        for (String expression : expressions) {
+            try {
+                tokenValues.add(String.valueOf(tvp.getValue(expression, getLocation())));
+            } catch (QuickFixException e) {
+                return null;
+            }
+        }
+        Set<String> trueConditions = (styleContext != null) ? styleContext.getAllTrueConditions()
+                : Collections.<String>emptySet();
+        return current.getKey(context.getMode(), trueConditions, tokenValues, runtimePluginsKey);
+    }
+
     @Override
     public String getRawCode() {
         return content;
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.css.style;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
+import org.auraframework.system.AuraContext.Mode;
+
+import com.salesforce.omakase.plugin.Plugin;
+
+/**
+ * The runtime output of a single style def, kept per variant.
+ *
+ * The runtime pass over the compiled CSS of a style def only depends on the context mode, on which of the conditions
+ * named in its {@code @if} blocks are true, on the values of the tokens that it references, and on the runtime plugins
+ * of the style adapter. Any browser and theme combinations that agree on those produce the same CSS, so the pass is run
+ * once per variant rather than once per app.css.
+ */
+final class StyleVariants {
+    /**
+     * The most variants kept for one style def. Beyond this, the code is computed but not kept.
+     */
+    static final int MAX_VARIANTS = 32;
+
+    private static final Pattern CONDITIONAL = Pattern.compile("@if\\s*\\(([^)]*)\\)");
+    private static final Pattern CONDITION = Pattern.compile("[\\w-]+");
+    private static final char SEPARATOR = '\u0000';
+
+    private final Set<String> conditions;
+    private final boolean hasFontFace;
+    private final Map<String, String> variants = new ConcurrentHashMap<>();
+
+    StyleVariants(String content) {
+        this.conditions = findConditions(content);
+        this.hasFontFace = content != null && content.toLowerCase(Locale.ENGLISH).contains("@font-face");
+    }
+
+    /**
+     * Drop the contextual plugins that cannot act on this style def, so that most defs are not parsed again for them.
+     * A {@link DuplicateFontFacePlugin} only looks at {@code @font-face} rules, which tokens and conditions cannot add.
+     *
+     * @param plugins the contextual plugins.
+     * @return the plugins that may act on this style def.
+     */
+    List<Plugin> getApplicablePlugins(List<Plugin> plugins) {
+        if (plugins.isEmpty() || hasFontFace) {
+            return plugins;
+        }
+        List<Plugin> applicable = new ArrayList<>(plugins.size());
+        for (Plugin plugin : plugins) {
+            if (!(plugin instanceof DuplicateFontFacePlugin)) {
+                applicable.add(plugin);
+            }
+        }
+        return applicable;
+    }
+
+    /**
+     * Find the names of all conditions used in {@code @if} blocks.
+     *
+     * @param content the compiled CSS.
+     * @return the condition names, in lower case, as that is how they are matched.
+     */
+    static Set<String> findConditions(String content) {
+        if (content == null || !content.contains("@if")) {
+            return Collections.emptySet();
+        }
+        Set<String> found = new TreeSet<>();
+        Matcher conditional = CONDITIONAL.matcher(content);
+        while (conditional.find()) {
+            Matcher condition = CONDITION.matcher(conditional.group(1));
+            while (condition.find()) {
+                found.add(condition.group().toLowerCase(Locale.ENGLISH));
+            }
+        }
+        return Collections.unmodifiableSet(found);
+    }
+
+    Set<String> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Get the key for a variant.
+     *
+     * @param mode the context mode, which decides formatting and url cache busting.
+     * @param trueConditions all conditions that are true in the style context, only those used here are part of the key.
+     * @param tokenValues the resolved value of each token expression, in the same order for every call.
+     * @param runtimePluginsKey the style adapter's key for its runtime plugins.
+     * @return a key for {@link #get(String)} and {@link #put(String, String)}.
+     */
+    String getKey(Mode mode, Set<String> trueConditions, List<String> tokenValues, String runtimePluginsKey) {
+        StringBuilder key = new StringBuilder(mode.name());
+        key.append(SEPARATOR).append(runtimePluginsKey);
+        if (!conditions.isEmpty()) {
+            Set<String> used = new TreeSet<>();
+            for (String condition : trueConditions) {
+                String lower = condition.toLowerCase(Locale.ENGLISH);
+                if (conditions.contains(lower)) {
+                    used.add(lower);
+                }
+            }
+            for (String condition : used) {
+                key.append(SEPARATOR).append(condition);
+            }
+        }
+        key.append(SEPARATOR);
+        for (String value : tokenValues) {
+            key.append(SEPARATOR).append(value);
+        }
+        return key.toString();
+    }
+
+    String get(String key) {
+        return variants.get(key);
+    }
+
+    void put(String key, String code) {
+        if (variants.size() < MAX_VARIANTS) {
+            variants.put(key, code);
+        }
+    }
+
+    int size() {
+        return variants.size();
+    }
+}
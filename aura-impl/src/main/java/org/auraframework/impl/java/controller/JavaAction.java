@@ -174,6 +174,11 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         }
     }
 
+    @Override
+    public boolean isIndependent() {
+        return this.actionDef != null && this.actionDef.isIndependent();
+    }
+
     @Override
     public Object getReturnValue() {
         return returnValue;
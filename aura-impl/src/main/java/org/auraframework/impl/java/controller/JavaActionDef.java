@@ -41,6 +41,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     private final Method method;
     private final boolean background;
     private final boolean caboose;
+    private final boolean independent;
     private String actionGroup;
     private final boolean publicCachingEnabled;
     private final int publicCachingExpiration;
@@ -54,6 +55,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         this.method = builder.method;
         this.background = builder.background;
         this.caboose = builder.caboose;
+        this.independent = builder.independent;
         this.actionGroup = builder.actionGroup;
         this.publicCachingEnabled = builder.publicCachingEnabled;
         this.publicCachingExpiration = builder.publicCachingExpiration;
@@ -99,6 +101,10 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     public boolean isCaboose() {
         return caboose;
     }
+
+    public boolean isIndependent() {
+        return independent;
+    }
     
     public String getActionGroup() {
         return this.actionGroup;
@@ -155,6 +161,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         private Method method;
         private boolean background = false;
         private boolean caboose = false;
+        private boolean independent = false;
         private String actionGroup;
         private boolean publicCachingEnabled = false;
         private int publicCachingExpiration = -1;
@@ -211,6 +218,10 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         public void setCaboose(boolean caboose) {
             this.caboose = caboose;
         }
+
+        public void setIndependent(boolean independent) {
+            this.independent = independent;
+        }
         
         public void setActionGroup(String actionGroup) {
             this.actionGroup = actionGroup;
@@ -42,6 +42,7 @@ import org.auraframework.system.Annotations.AuraEnabled;
 import org.auraframework.system.Annotations.ActionGroup;
 import org.auraframework.system.Annotations.BackgroundAction;
 import org.auraframework.system.Annotations.CabooseAction;
+import org.auraframework.system.Annotations.IndependentAction;
 import org.auraframework.system.Annotations.Key;
 import org.auraframework.system.Annotations.PublicCachingEnabled;
 import org.auraframework.system.AuraContext;
@@ -147,6 +148,7 @@ public class JavaControllerDefFactory implements DefinitionFactory<JavaSourceImp
         
         actionBuilder.setBackground(method.isAnnotationPresent(BackgroundAction.class));
         actionBuilder.setCaboose(method.isAnnotationPresent(CabooseAction.class));
+        actionBuilder.setIndependent(method.isAnnotationPresent(IndependentAction.class));
 
         ActionGroup actionGrouAnnotation = method.getAnnotation(ActionGroup.class);
         String actionGroup = (actionGrouAnnotation != null && actionGrouAnnotation.value() != null && !(actionGrouAnnotation.value().isEmpty())) ? actionGrouAnnotation.value() : null;
@@ -18,6 +18,7 @@ package org.auraframework.impl.javascript;
 import java.io.File;
 import java.io.IOException;
 import java.util.EnumSet;
+import java.util.Map;
 
 import org.auraframework.impl.source.AuraResourcesHashingGroup;
 import org.auraframework.impl.util.AuraImplFiles;
@@ -38,7 +39,7 @@ public class AuraJavascriptGroup extends DirectiveBasedJavascriptGroup implement
     public static final File ROOT_DIR = AuraImplFiles.AuraJavascriptSourceDirectory.asFile();
     public static final File ENGINE_DIR = AuraImplFiles.EngineSourceDirectory.asFile();
     public static final File AURALOCKER_DIR = AuraImplFiles.AuraLockerSourceDirectory.asFile();
-    private boolean isStale = true;
+    private volatile boolean isStale = true;
 
     public AuraJavascriptGroup(FileMonitor fileMonitor) throws IOException {
         this(fileMonitor, false);
@@ -87,6 +88,18 @@ public class AuraJavascriptGroup extends DirectiveBasedJavascriptGroup implement
         super.regenerate(destRoot);
     }
 
+    @Override
+    public void onSourcesChanged(Map<String, SourceMonitorEvent> changes) {
+        if (changes == null) {
+            // changes were missed, so any of the javascript may have changed.
+            isStale = true;
+            AuraResourcesHashingGroup.updateResources(ENGINE_DIR, JS_FILTER, resourceLoader);
+            AuraResourcesHashingGroup.updateResources(AURALOCKER_DIR, JS_FILTER, resourceLoader);
+            return;
+        }
+        SourceListener.super.onSourcesChanged(changes);
+    }
+
     @Override
     public void onSourceChanged(SourceMonitorEvent event, String filePath) {
         if (filePath != null && (filePath.startsWith(ROOT_DIR.getPath()) || filePath.startsWith(ENGINE_DIR.getPath()) || filePath.startsWith(AURALOCKER_DIR.getPath()))) {
@@ -27,6 +27,7 @@ import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.javascript.JavascriptProcessingError;
 import org.auraframework.util.javascript.JavascriptWriter;
+import org.auraframework.util.javascript.MinifiedJavascriptCache;
 
 public abstract class BaseJavascriptClass implements Serializable {
     private static final long serialVersionUID = 7445974179103021929L;
@@ -100,8 +101,8 @@ public abstract class BaseJavascriptClass implements Serializable {
             if (minify && hasCode()) {
                 try {
                     StringWriter sw = new StringWriter();
-                    List<JavascriptProcessingError> codeErrors = JavascriptWriter.CLOSURE_SIMPLE.compress(code, sw,
-                            getFilename());
+                    List<JavascriptProcessingError> codeErrors = MinifiedJavascriptCache.compress(
+                            JavascriptWriter.CLOSURE_SIMPLE, code, sw, getFilename());
                     validateCodeErrors(codeErrors);
                     minifiedCode = sw.toString();
                     // only do this for PROD as other modes would be taken care of in the client
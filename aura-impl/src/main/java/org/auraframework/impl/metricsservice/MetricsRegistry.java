@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.metricsservice;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.auraframework.annotations.Annotations.ServiceComponent;
+
+/**
+ * Process wide metrics, aggregated across requests.
+ *
+ * The per-request timers, actions and counters of {@link org.auraframework.impl.context.LoggingContextImpl} are also
+ * recorded here, as latency histograms by timer and action name and as counters by counter name. Names come from code,
+ * not from requests, but to keep a stray dynamic name from growing the registry without bound, each kind of metric is
+ * limited to {@link #MAX_NAMES} names, after which new names are dropped.
+ */
+@ServiceComponent
+public class MetricsRegistry {
+    static final int MAX_NAMES = 1000;
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final String[] QUANTILE_LABELS = { "0.5", "0.9", "0.99", "0.999" };
+
+    private final ConcurrentMap<String, Histogram> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> actions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Record the duration of one run of a named timer.
+     */
+    public void recordTimer(String name, long nanos) {
+        Histogram histogram = get(timers, name);
+        if (histogram != null) {
+            histogram.record(nanos);
+        }
+    }
+
+    /**
+     * Record the duration of one run of a named action.
+     */
+    public void recordAction(String name, long nanos) {
+        Histogram histogram = get(actions, name);
+        if (histogram != null) {
+            histogram.record(nanos);
+        }
+    }
+
+    public void incrementCounter(String name, long delta) {
+        LongAdder counter = counters.get(name);
+        if (counter == null) {
+            if (counters.size() >= MAX_NAMES) {
+                return;
+            }
+            counter = counters.computeIfAbsent(name, k -> new LongAdder());
+        }
+        counter.add(delta);
+    }
+
+    private static Histogram get(ConcurrentMap<String, Histogram> histograms, String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null && histograms.size() < MAX_NAMES) {
+            histogram = histograms.computeIfAbsent(name, k -> new Histogram());
+        }
+        return histogram;
+    }
+
+    Histogram getTimer(String name) {
+        return timers.get(name);
+    }
+
+    Histogram getAction(String name) {
+        return actions.get(name);
+    }
+
+    long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return (counter == null) ? 0 : counter.sum();
+    }
+
+    /**
+     * Write all metrics in the Prometheus text exposition format, with durations in seconds.
+     */
+    public void write(Appendable out) throws IOException {
+        writeSummaries(out, "aura_timer_seconds", "Duration of named timers.", "name", timers);
+        writeSummaries(out, "aura_action_seconds", "Duration of server actions.", "action", actions);
+
+        writeHeader(out, "aura_counter_total", "counter", "Named counters, summed across requests.");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            writeSample(out, "aura_counter_total", "name", entry.getKey(), null, entry.getValue().sum());
+        }
+    }
+
+    private static void writeSummaries(Appendable out, String metric, String help, String label,
+            Map<String, Histogram> histograms) throws IOException {
+        writeHeader(out, metric, "summary", help);
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            long[] values = histogram.getQuantiles(QUANTILES);
+            for (int i = 0; i < values.length; i++) {
+                writeSample(out, metric, label, entry.getKey(), QUANTILE_LABELS[i], values[i] / 1e6);
+            }
+            writeSample(out, metric + "_sum", label, entry.getKey(), null, histogram.getSumNanos() / 1e9);
+            writeSample(out, metric + "_count", label, entry.getKey(), null, histogram.getCount());
+        }
+    }
+
+    static void writeHeader(Appendable out, String metric, String type, String help) throws IOException {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+    }
+
+    static void writeSample(Appendable out, String metric, String label, String labelValue, String quantile,
+            Object value) throws IOException {
+        out.append(metric).append('{').append(label).append("=\"");
+        escapeLabelValue(out, labelValue);
+        out.append('"');
+        if (quantile != null) {
+            out.append(",quantile=\"").append(quantile).append('"');
+        }
+        out.append("} ").append(String.valueOf(value)).append('\n');
+    }
+
+    private static void escapeLabelValue(Appendable out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
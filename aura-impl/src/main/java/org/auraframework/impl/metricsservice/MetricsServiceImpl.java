@@ -16,12 +16,20 @@
 package org.auraframework.impl.metricsservice;
 
 import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.cache.Cache;
+import org.auraframework.impl.cache.CacheImpl;
+import org.auraframework.impl.cache.OffHeapStringStore;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.service.MetricsService;
 import org.auraframework.util.json.Json;
 
+import com.google.common.cache.CacheStats;
+
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * ResourceDef handler.
@@ -31,6 +39,10 @@ public class MetricsServiceImpl implements MetricsService {
 
     private LoggingService loggingService;
 
+    private CachingService cachingService;
+
+    private MetricsRegistry metricsRegistry;
+
     /**
      *
      */
@@ -60,6 +72,104 @@ public class MetricsServiceImpl implements MetricsService {
         this.loggingService = service;
     }
 
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
+
+    @Inject
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public void writeAggregateMetrics(Appendable out) throws IOException {
+        metricsRegistry.write(out);
+        writeCacheMetrics(out, getCaches());
+    }
+
+    private Map<String, Cache<?, ?>> getCaches() {
+        Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+        caches.put("exists", cachingService.getExistsCache());
+        caches.put("defs", cachingService.getDefsCache());
+        caches.put("strings", cachingService.getStringsCache());
+        caches.put("altStrings", cachingService.getAltStringsCache());
+        caches.put("cssStrings", cachingService.getCssStringsCache());
+        caches.put("encodedContent", cachingService.getEncodedContentCache());
+        caches.put("definitionFragments", cachingService.getDefinitionFragmentCache());
+        caches.put("actionResponses", cachingService.getActionResponseCache());
+        caches.put("componentDefinitions", cachingService.getComponentDefinitionCache());
+        caches.put("staticResources", cachingService.getStaticResourceCache());
+        caches.put("descriptorFilters", cachingService.getDescriptorFilterCache());
+        caches.put("deps", cachingService.getDepsCache());
+        caches.put("clientLibraryOutput", cachingService.getClientLibraryOutputCache());
+        caches.put("defDescriptorByName", cachingService.getDefDescriptorByNameCache());
+        caches.put("registrySets", cachingService.getRegistrySetCache());
+        return caches;
+    }
+
+    /**
+     * Write size gauges for all caches, and hit, miss and eviction counts for those that record stats.
+     *
+     * Caches with secondary storage are counted across both tiers. Values are written through to the secondary tier,
+     * so the larger of the two tiers is the size of the cache. Every lookup that misses the front goes on to the
+     * secondary tier, so a lookup hits if either tier hits, and misses only if the secondary tier misses too. An entry
+     * leaving the front is still in the secondary tier, so only evictions from the latter are counted.
+     */
+    static void writeCacheMetrics(Appendable out, Map<String, Cache<?, ?>> caches) throws IOException {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, Cache<?, ?>> entry : caches.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            Object underlying = entry.getValue().getPrivateUnderlyingCache();
+            if (underlying instanceof com.google.common.cache.Cache) {
+                com.google.common.cache.Cache<?, ?> cache = (com.google.common.cache.Cache<?, ?>) underlying;
+                CacheImpl<?, ?> impl = (entry.getValue() instanceof CacheImpl) ? (CacheImpl<?, ?>) entry.getValue()
+                        : null;
+                OffHeapStringStore<?> secondary = (impl != null) ? impl.getSecondaryStorage() : null;
+                if (secondary == null) {
+                    sizes.put(entry.getKey(), cache.size());
+                } else {
+                    sizes.put(entry.getKey(), Math.max(cache.size(), secondary.size()));
+                }
+                if (impl != null && impl.isRecordingStats()) {
+                    CacheStats front = cache.stats();
+                    if (secondary == null) {
+                        stats.put(entry.getKey(), front);
+                    } else {
+                        stats.put(entry.getKey(), new CacheStats(front.hitCount() + secondary.getHitCount(),
+                                secondary.getMissCount(), front.loadSuccessCount(), front.loadExceptionCount(),
+                                front.totalLoadTime(), secondary.getEvictionCount()));
+                    }
+                }
+            } else if (underlying instanceof Map) {
+                sizes.put(entry.getKey(), (long) ((Map<?, ?>) underlying).size());
+            }
+        }
+
+        MetricsRegistry.writeHeader(out, "aura_cache_size", "gauge", "Number of entries in each cache.");
+        for (Map.Entry<String, Long> entry : sizes.entrySet()) {
+            MetricsRegistry.writeSample(out, "aura_cache_size", "cache", entry.getKey(), null, entry.getValue());
+        }
+        MetricsRegistry.writeHeader(out, "aura_cache_hits_total", "counter", "Cache lookups that found an entry.");
+        for (Map.Entry<String, CacheStats> entry : stats.entrySet()) {
+            MetricsRegistry.writeSample(out, "aura_cache_hits_total", "cache", entry.getKey(), null,
+                    entry.getValue().hitCount());
+        }
+        MetricsRegistry.writeHeader(out, "aura_cache_misses_total", "counter", "Cache lookups that found no entry.");
+        for (Map.Entry<String, CacheStats> entry : stats.entrySet()) {
+            MetricsRegistry.writeSample(out, "aura_cache_misses_total", "cache", entry.getKey(), null,
+                    entry.getValue().missCount());
+        }
+        MetricsRegistry.writeHeader(out, "aura_cache_evictions_total", "counter", "Entries evicted from each cache.");
+        for (Map.Entry<String, CacheStats> entry : stats.entrySet()) {
+            MetricsRegistry.writeSample(out, "aura_cache_evictions_total", "cache", entry.getKey(), null,
+                    entry.getValue().evictionCount());
+        }
+    }
+
     @Override
     public void serializeMetricsSummary(Json json) {
         try {
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.auraframework.def.AttributeDef;
+import org.auraframework.def.AttributeDefRef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.RootDefinition;
+import org.auraframework.def.TypeDef;
+import org.auraframework.impl.java.type.JavaTypeDef;
+import org.auraframework.instance.Attribute;
+import org.auraframework.throwable.quickfix.InvalidExpressionException;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+/**
+ * The attributes of a root definition, each given a fixed slot, so that an {@link AttributeSetImpl} can hold its
+ * values in an array rather than a map.
+ *
+ * Defaults that are plain literals do not depend on the instance, so they are built once, on first use, and shared by
+ * every attribute set until it sets its own value. All other defaults are initialized per instance as before.
+ */
+final class AttributeLayout {
+    private final Map<DefDescriptor<AttributeDef>, Integer> slotsByDescriptor;
+    private final Map<String, Integer> slotsByName;
+    private final AttributeDef[] attributeDefs;
+    private final int[] requiredSlots;
+    private final int[] instanceDefaultSlots;
+    private final int[] sharedDefaultSlots;
+    private volatile Attribute[] sharedDefaults;
+
+    AttributeLayout(RootDefinition def) throws QuickFixException {
+        Map<DefDescriptor<AttributeDef>, AttributeDef> defs = def.getAttributeDefs();
+        int size = defs.size();
+        this.slotsByDescriptor = new HashMap<>(size * 2);
+        this.slotsByName = new HashMap<>(size * 4);
+        this.attributeDefs = new AttributeDef[size];
+        List<Integer> required = new ArrayList<>();
+        List<Integer> instanceDefaults = new ArrayList<>();
+        List<Integer> sharedDefaults = new ArrayList<>();
+
+        int slot = 0;
+        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> entry : defs.entrySet()) {
+            AttributeDef attributeDef = entry.getValue();
+            String name = entry.getKey().getName();
+            attributeDefs[slot] = attributeDef;
+            slotsByDescriptor.put(entry.getKey(), slot);
+            slotsByName.put(name, slot);
+            slotsByName.put(name.toLowerCase(Locale.ENGLISH), slot);
+            if (attributeDef.isRequired()) {
+                required.add(slot);
+            }
+            AttributeDefRef defaultValue = attributeDef.getDefaultValue();
+            if (defaultValue != null) {
+                if (isShareable(attributeDef.getTypeDef(), defaultValue.getValue())) {
+                    sharedDefaults.add(slot);
+                } else {
+                    instanceDefaults.add(slot);
+                }
+            }
+            slot++;
+        }
+        this.requiredSlots = toArray(required);
+        this.instanceDefaultSlots = toArray(instanceDefaults);
+        this.sharedDefaultSlots = toArray(sharedDefaults);
+    }
+
+    /**
+     * A default can be shared if it is a literal string or boolean, as neither is converted with the locale nor
+     * initialized against the component it is set on. Numbers and dates are converted with the locale, so they are not.
+     */
+    private static boolean isShareable(TypeDef typeDef, Object value) {
+        if (!(typeDef instanceof JavaTypeDef)) {
+            return false;
+        }
+        Object clazz = typeDef.getExternalType("java");
+        if (clazz != String.class && clazz != Boolean.class) {
+            return false;
+        }
+        return value == null || value instanceof String || value instanceof Boolean;
+    }
+
+    private static int[] toArray(List<Integer> slots) {
+        int[] array = new int[slots.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = slots.get(i);
+        }
+        return array;
+    }
+
+    int size() {
+        return attributeDefs.length;
+    }
+
+    /**
+     * @return the slot for the attribute, or -1 if it is not an attribute of the definition.
+     */
+    int getSlot(DefDescriptor<AttributeDef> descriptor) {
+        Integer slot = slotsByDescriptor.get(descriptor);
+        return (slot == null) ? -1 : slot;
+    }
+
+    /**
+     * @return the slot for the attribute name, in any case, or -1 if it is not an attribute of the definition.
+     */
+    int getSlot(String name) {
+        Integer slot = slotsByName.get(name);
+        if (slot == null) {
+            slot = slotsByName.get(name.toLowerCase(Locale.ENGLISH));
+        }
+        return (slot == null) ? -1 : slot;
+    }
+
+    AttributeDef getAttributeDef(int slot) {
+        return attributeDefs[slot];
+    }
+
+    int[] getRequiredSlots() {
+        return requiredSlots;
+    }
+
+    /**
+     * @return the slots with defaults that must be initialized for each instance.
+     */
+    int[] getInstanceDefaultSlots() {
+        return instanceDefaultSlots;
+    }
+
+    int[] getSharedDefaultSlots() {
+        return sharedDefaultSlots;
+    }
+
+    /**
+     * The shared default attributes, by slot, with null in every other slot.
+     *
+     * The array and its attributes are shared, so callers must copy the array before writing to it, and must never
+     * change or mark dirty the attributes in it.
+     */
+    Attribute[] getSharedDefaults() throws QuickFixException {
+        Attribute[] defaults = sharedDefaults;
+        if (defaults == null) {
+            defaults = new Attribute[attributeDefs.length];
+            for (int slot : sharedDefaultSlots) {
+                AttributeDef attributeDef = attributeDefs[slot];
+                AttributeDefRef defaultValue = attributeDef.getDefaultValue();
+                TypeDef typeDef = attributeDef.getTypeDef();
+                try {
+                    defaultValue.parseValue(typeDef);
+                } catch (InvalidExpressionException exception) {
+                    // As for other defaults, the unparsed value is used.
+                }
+                AttributeImpl attribute = new AttributeImpl(attributeDef.getDescriptor());
+                attribute.setValue(typeDef.initialize(defaultValue.getValue(), null));
+                defaults[slot] = attribute;
+            }
+            sharedDefaults = defaults;
+        }
+        return defaults;
+    }
+}
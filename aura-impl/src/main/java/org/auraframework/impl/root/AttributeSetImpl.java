@@ -15,6 +15,9 @@
  */
 package org.auraframework.impl.root;
 
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.auraframework.Aura;
 import org.auraframework.def.AttributeDef;
@@ -57,6 +60,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -70,7 +74,14 @@ public class AttributeSetImpl implements AttributeSet {
     private DefDescriptor<? extends RootDefinition> rootDefDescriptor;
     private boolean trackDirty = false;
     
-    private final Map<DefDescriptor<AttributeDef>, Attribute> attributes = Maps.newHashMap();
+    // Attributes by slot in the layout of the root definition. Until an attribute is set, this is the layout's
+    // shared defaults array, which must be copied before it is written.
+    private AttributeLayout layout;
+    private Attribute[] attributes;
+    private boolean sharedAttributes;
+    // Attributes that are not in the layout, which only happens while the root definition is being changed.
+    private Map<DefDescriptor<AttributeDef>, Attribute> otherAttributes;
+    private int size;
     private final Map<DefDescriptor<EventHandlerDef>, EventHandler> events = Maps.newHashMap();
     private final BaseComponent<?, ?> valueProvider;
     private final Instance<?> parent;
@@ -104,13 +115,69 @@ public class AttributeSetImpl implements AttributeSet {
     }
 
     private void setDefaults() throws QuickFixException {
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = getRootDefinition().getAttributeDefs();
-        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> attr : attrs.entrySet()) {
-            AttributeDefRef ref = attr.getValue().getDefaultValue();
-            if (ref != null && !attributes.containsKey(attr.getKey())) {
-                set(ref);
+        AttributeLayout rootLayout = getLayout(getRootDefinition());
+        if (layout == null) {
+            layout = rootLayout;
+            attributes = layout.getSharedDefaults();
+            sharedAttributes = true;
+            size = layout.getSharedDefaultSlots().length;
+        } else if (layout != rootLayout) {
+            List<Attribute> existing = Lists.newArrayList(this);
+            layout = rootLayout;
+            attributes = new Attribute[layout.size()];
+            sharedAttributes = false;
+            otherAttributes = null;
+            size = 0;
+            for (Attribute attribute : existing) {
+                put(attribute);
             }
+            Attribute[] sharedDefaults = layout.getSharedDefaults();
+            for (int slot : layout.getSharedDefaultSlots()) {
+                if (attributes[slot] == null) {
+                    if (trackDirty) {
+                        // the shared attribute must not be marked dirty, so copy it.
+                        AttributeImpl attribute = new AttributeImpl(sharedDefaults[slot].getDescriptor());
+                        attribute.setValue(sharedDefaults[slot].getValue());
+                        set(attribute);
+                    } else {
+                        put(sharedDefaults[slot]);
+                    }
+                }
+            }
+        }
+        for (int slot : layout.getInstanceDefaultSlots()) {
+            if (attributes[slot] == null) {
+                set(layout.getAttributeDef(slot).getDefaultValue());
+            }
+        }
+    }
+
+    private static AttributeLayout getLayout(RootDefinition def) throws QuickFixException {
+        if (def instanceof RootDefinitionImpl) {
+            return ((RootDefinitionImpl<?>) def).getAttributeLayout();
+        }
+        return new AttributeLayout(def);
+    }
+
+    private void put(Attribute attribute) {
+        int slot = layout.getSlot(attribute.getDescriptor());
+        if (slot < 0) {
+            if (otherAttributes == null) {
+                otherAttributes = Maps.newLinkedHashMap();
+            }
+            if (otherAttributes.put(attribute.getDescriptor(), attribute) == null) {
+                size++;
+            }
+            return;
+        }
+        if (sharedAttributes) {
+            attributes = attributes.clone();
+            sharedAttributes = false;
+        }
+        if (attributes[slot] == null) {
+            size++;
         }
+        attributes[slot] = attribute;
     }
 
     private void set(EventHandler eventHandler) {
@@ -121,20 +188,18 @@ public class AttributeSetImpl implements AttributeSet {
         if (trackDirty) {
             attribute.markDirty();
         }
-        attributes.put(attribute.getDescriptor(), attribute);
+        put(attribute);
     }
 
     private void set(AttributeDefRef attributeDefRef) throws QuickFixException {
-        RootDefinition def = getRootDefinition();
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs = def.getAttributeDefs();
-
-        AttributeDef attributeDef = attributeDefs.get(attributeDefRef.getDescriptor());
+        int slot = layout.getSlot(attributeDefRef.getDescriptor());
+        AttributeDef attributeDef = (slot < 0) ? null : layout.getAttributeDef(slot);
         // setAndValidateAttribute should be merged with creating the
         // AttributeImpl here
         AttributeImpl attribute;
 
         if (attributeDef == null) {
-            Map<String, RegisterEventDef> events = def.getRegisterEventDefs();
+            Map<String, RegisterEventDef> events = getRootDefinition().getRegisterEventDefs();
             if (events.containsKey(attributeDefRef.getDescriptor().getName())) {
                 EventHandlerImpl eh = new EventHandlerImpl(attributeDefRef.getDescriptor().getName());
                 Object o = attributeDefRef.getValue();
@@ -194,8 +259,6 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public void set(Collection<AttributeDefRef> facetDefRefs, AttributeSet attributeSet) throws QuickFixException {
-        RootDefinition rootDef = getRootDefinition();
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDef.getAttributeDefs();
         Map<DefDescriptor<?>, Object> lookup = Maps.newHashMap();
 
         for (Attribute attribute : attributeSet) {
@@ -206,8 +269,8 @@ public class AttributeSetImpl implements AttributeSet {
             lookup.put(attributeDefRef.getDescriptor(), attributeDefRef);
         }
 
-        for (DefDescriptor<AttributeDef> desc : attrs.keySet()) {
-            Object val = lookup.get(desc);
+        for (int slot = 0; slot < layout.size(); slot++) {
+            Object val = lookup.get(layout.getAttributeDef(slot).getDescriptor());
             if (val != null) {
                 if (val instanceof Attribute) {
                     Attribute attribute = (Attribute) val;
@@ -223,11 +286,10 @@ public class AttributeSetImpl implements AttributeSet {
     @Override
     public void set(Map<String, Object> attributeMap) throws QuickFixException {
         if (attributeMap != null) {
-            Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = getRootDefinition().getAttributeDefs();
             for (Map.Entry<String, Object> entry : attributeMap.entrySet()) {
                 try {
-                    DefDescriptor<AttributeDef> desc = Aura.getDefinitionService().getDefDescriptor(entry.getKey(), AttributeDef.class);
-                    if (attrs.containsKey(desc)) {
+                    if (layout.getSlot(entry.getKey()) >= 0) {
+                        DefDescriptor<AttributeDef> desc = Aura.getDefinitionService().getDefDescriptor(entry.getKey(), AttributeDef.class);
                         setExpression(desc, entry.getValue());
                     }
                 } catch (AuraRuntimeException arex) {
@@ -272,9 +334,15 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Object getExpression(String name) {
-        DefDescriptor<AttributeDef> desc = Aura.getDefinitionService().getDefDescriptor(name, AttributeDef.class);
-
-        Attribute at = attributes.get(desc);
+        int slot = layout.getSlot(name);
+        Attribute at;
+        if (slot >= 0) {
+            at = attributes[slot];
+        } else if (otherAttributes != null) {
+            at = otherAttributes.get(Aura.getDefinitionService().getDefDescriptor(name, AttributeDef.class));
+        } else {
+            at = null;
+        }
         if (at != null) {
             return at.getValue();
         }
@@ -282,13 +350,13 @@ public class AttributeSetImpl implements AttributeSet {
     }
 
     private void setExpression(DefDescriptor<AttributeDef> desc, Object value) throws QuickFixException {
-        RootDefinition rd = getRootDefinition();
-        AttributeDef ad = rd.getAttributeDefs().get(desc);
-        if (ad == null) {
+        int slot = layout.getSlot(desc);
+        if (slot < 0) {
             // this location isn't even close to right...
             throw new InvalidDefinitionException(String.format("Attribute %s not defined on %s", desc.getName(),
-                    rootDefDescriptor.getName()), rd.getLocation());
+                    rootDefDescriptor.getName()), getRootDefinition().getLocation());
         }
+        AttributeDef ad = layout.getAttributeDef(slot);
 
         AttributeImpl att = new AttributeImpl(desc);
         if (value instanceof Expression) {
@@ -301,7 +369,7 @@ public class AttributeSetImpl implements AttributeSet {
             if (valueProvider != null) {
                 iStack.pushAccess(valueProvider);
             }
-            att.setValue(getRootDefinition().getAttributeDef(att.getName()).getTypeDef().initialize(value, null));
+            att.setValue(ad.getTypeDef().initialize(value, null));
             if (valueProvider != null) {
                 iStack.popAccess(valueProvider);
             }
@@ -341,12 +409,12 @@ public class AttributeSetImpl implements AttributeSet {
         if (value instanceof ValueProvider && stem != null) {
             value = ((ValueProvider) value).getValue(stem);
         } else if (stem != null) {
-            AttributeDef attributeDef = getRootDefinition().getAttributeDef(expr.getRoot());
-            if (attributeDef == null) {
+            int slot = layout.getSlot(expr.getRoot());
+            if (slot < 0) {
                 // no such attribute.
                 throw new NoAccessException("No attribute "+expr.getRoot()+" in "+rootDefDescriptor);
             }
-            value = attributeDef.getTypeDef().wrap(value);
+            value = layout.getAttributeDef(slot).getTypeDef().wrap(value);
             if (value instanceof ValueProvider) {
                 value = ((ValueProvider) value).getValue(stem);
             }
@@ -362,17 +430,17 @@ public class AttributeSetImpl implements AttributeSet {
         try {
             json.writeMapBegin();
             json.writeMapEntry("valueProvider", valueProvider);
-            if (!attributes.isEmpty()) {
-                RootDefinition def = getRootDefinition();
+            if (size > 0) {
                 json.writeMapKey("values");
                 json.writeMapBegin();
 
-                for (Attribute attribute : attributes.values()) {
+                for (Attribute attribute : this) {
                     String name = attribute.getName();
-                    AttributeDef attributeDef = def.getAttributeDef(name);
-                    if (attributeDef == null) {
-                        throw new AttributeNotFoundException(rootDefDescriptor, name, def.getLocation());
+                    int slot = layout.getSlot(attribute.getDescriptor());
+                    if (slot < 0) {
+                        throw new AttributeNotFoundException(rootDefDescriptor, name, getRootDefinition().getLocation());
                     }
+                    AttributeDef attributeDef = layout.getAttributeDef(slot);
 
                     if (attributeDef.getSerializeTo() == AttributeDef.SerializeToType.BOTH) {
                         TypeDef typeDef = attributeDef.getTypeDef();
@@ -398,7 +466,7 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public int size() {
-        return attributes.size();
+        return size;
     }
 
     /**
@@ -411,12 +479,16 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Iterator<Attribute> iterator() {
-        return attributes.values().iterator();
+        Iterator<Attribute> slotted = Iterators.filter(Iterators.forArray(attributes), Predicates.notNull());
+        if (otherAttributes == null) {
+            return slotted;
+        }
+        return Iterators.concat(slotted, Iterators.unmodifiableIterator(otherAttributes.values().iterator()));
     }
 
     @Override
     public boolean isEmpty() {
-        return attributes.isEmpty() && events.isEmpty();
+        return size == 0 && events.isEmpty();
     }
 
     @Override
@@ -435,15 +507,14 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Set<AttributeDef> getMissingAttributes() throws QuickFixException {
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = getRootDefinition().getAttributeDefs();
         Set<AttributeDef> missingAttributes = null;
-        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> attr : attrs.entrySet()) {
-            if (attr.getValue().isRequired() && !attributes.containsKey(attr.getKey())) {
+        for (int slot : layout.getRequiredSlots()) {
+            if (attributes[slot] == null) {
                 if (missingAttributes == null) {
-                    missingAttributes = new HashSet<>(attrs.entrySet().size());
+                    missingAttributes = new HashSet<>(layout.getRequiredSlots().length);
                 }
 
-                missingAttributes.add(attr.getValue());
+                missingAttributes.add(layout.getAttributeDef(slot));
             }
         }
 
@@ -46,6 +46,7 @@ public abstract class RootDefinitionImpl<T extends RootDefinition> extends Platf
     protected final List<DefDescriptor<ProviderDef>> providerDescriptors;
     protected final DocumentationDef documentationDef;
     private final int hashCode;
+    private transient volatile AttributeLayout attributeLayout;
 
     protected RootDefinitionImpl(Builder<T> builder) {
         super(builder);
@@ -77,6 +78,18 @@ public abstract class RootDefinitionImpl<T extends RootDefinition> extends Platf
         }
     }
 
+    /**
+     * @return the slot layout for attribute sets of this definition, built on first use.
+     */
+    AttributeLayout getAttributeLayout() throws QuickFixException {
+        AttributeLayout layout = attributeLayout;
+        if (layout == null) {
+            layout = new AttributeLayout(this);
+            attributeLayout = layout;
+        }
+        return layout;
+    }
+
     @Override
     public Map<DefDescriptor<AttributeDef>, AttributeDef> getDeclaredAttributeDefs() {
         return attributeDefs;
@@ -29,6 +29,7 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.javascript.JavascriptProcessingError;
 import org.auraframework.util.javascript.JavascriptWriter;
+import org.auraframework.util.javascript.MinifiedJavascriptCache;
 
 public class JavascriptIncludeClass extends BaseJavascriptClass {
     private static final long serialVersionUID = -5018742964727407807L;
@@ -133,8 +134,8 @@ public class JavascriptIncludeClass extends BaseJavascriptClass {
 
             try {
                 StringWriter sw = new StringWriter();
-                List<JavascriptProcessingError> codeErrors = JavascriptWriter.CLOSURE_LIBRARY.compress(include, sw,
-                        getFilename());
+                List<JavascriptProcessingError> codeErrors = MinifiedJavascriptCache.compress(
+                        JavascriptWriter.CLOSURE_LIBRARY, include, sw, getFilename());
                 validateCodeErrors(codeErrors);
                 StringBuffer sb = sw.getBuffer();
                 sb.deleteCharAt(sb.length() - 1);
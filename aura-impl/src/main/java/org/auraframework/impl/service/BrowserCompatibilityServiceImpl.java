@@ -42,7 +42,7 @@ public class BrowserCompatibilityServiceImpl implements BrowserCompatibilityServ
             return false;
         }
 
-        BrowserInfo bi = new BrowserInfo(userAgent);
+        BrowserInfo bi = BrowserInfo.get(userAgent);
 
         return bi.isBrowser(UserAgent.CHROME, 56, true) ||
                 bi.isBrowser(UserAgent.FIREFOX, 53, true) ||
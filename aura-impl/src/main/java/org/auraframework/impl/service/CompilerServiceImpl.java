@@ -42,7 +42,7 @@ public class CompilerServiceImpl implements CompilerService {
     @Inject
     private List<DefinitionFactory<?, ?>> factories;
 
-    private final Map<String, DefinitionFactory<?,?>> factoryMap = Maps.newHashMap();
+    private final Map<String, DefinitionFactory<?,?>> factoryMap = Maps.newConcurrentMap();
 
     private <S extends Source<D>, D extends Definition> DefinitionFactory<S,D> findFactory(S source, Class<D> type) {
         DefinitionFactory<S,D> found = null;
@@ -74,11 +74,11 @@ public class CompilerServiceImpl implements CompilerService {
         DefinitionFactory<S,D> factory = (DefinitionFactory<S,D>)factoryMap.get(key);
         if (factory == null) {
             factory = findFactory(source, type);
+            if (factory == null) {
+                return null;
+            }
             factoryMap.put(key, factory);
         }
-        if (factory == null) {
-            return null;
-        }
         D def = factory.getDefinition(descriptor, source);
         if (def != null) {
             def.validateDefinition();
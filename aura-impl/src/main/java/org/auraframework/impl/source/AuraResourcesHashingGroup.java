@@ -28,6 +28,7 @@ import org.auraframework.util.resource.ResourceLoader;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * Aura resources wrapper containing constants for the resources group
@@ -38,7 +39,7 @@ public class AuraResourcesHashingGroup extends HashingGroup implements SourceLis
     public static final String GROUP_NAME = "aura-resources";
     public static final String FILE_NAME = "resourcesuid.properties";
     public static final File ROOT_DIR = AuraImplFiles.AuraResourcesSourceDirectory.asFile();
-    private boolean isStale = true;
+    private volatile boolean isStale = true;
 
     public static final FileFilter FILE_FILTER = new FileFilter() {
         @Override
@@ -73,6 +74,34 @@ public class AuraResourcesHashingGroup extends HashingGroup implements SourceLis
         super.reset();
     }
 
+    @Override
+    public void onSourcesChanged(Map<String, SourceMonitorEvent> changes) {
+        if (changes == null) {
+            // changes were missed, so any resource may have changed.
+            isStale = true;
+            updateResources(ROOT_DIR, FILE_FILTER, Aura.getConfigAdapter().getResourceLoader());
+            return;
+        }
+        SourceListener.super.onSourcesChanged(changes);
+    }
+
+    /**
+     * Updates every matching resource under a directory, for when changes to it were missed.
+     *
+     * @param directory a directory under the resources source directory
+     * @param filter the resources to update
+     */
+    public static void updateResources(File directory, FileFilter filter, ResourceLoader loader) {
+        if (directory == null || !directory.isDirectory() || loader == null) {
+            return;
+        }
+        for (File file : FileUtils.listFiles(directory, null, true)) {
+            if (filter.accept(file)) {
+                updateResource(file, loader);
+            }
+        }
+    }
+
     /**
      * Updates resources in generated classes and refreshes resources cache for updated file
      *
@@ -20,6 +20,7 @@ import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.ControllerDef;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.DocumentationDef;
 import org.auraframework.def.FlavorBundleDef;
 import org.auraframework.def.FlavoredStyleDef;
@@ -50,6 +51,11 @@ public class ApplicationDefFileBundleBuilder implements FileBundleSourceBuilder
         return ".app";
     }
 
+    @Override
+    public DefType getBundleType() {
+        return DefType.APPLICATION;
+    }
+
     @Override
     public BundleSource<?> buildBundle(File base) {
         Map<DefDescriptor<?>, Source<?>> sourceMap = Maps.newHashMap();
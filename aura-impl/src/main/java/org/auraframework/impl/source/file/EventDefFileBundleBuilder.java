@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.DocumentationDef;
 import org.auraframework.def.EventDef;
 import org.auraframework.def.SVGDef;
@@ -41,6 +42,11 @@ public class EventDefFileBundleBuilder implements FileBundleSourceBuilder {
         return ".evt";
     }
 
+    @Override
+    public DefType getBundleType() {
+        return DefType.EVENT;
+    }
+
     @Override
     public BundleSource<?> buildBundle(File base) {
         Map<DefDescriptor<?>, Source<?>> sourceMap = Maps.newHashMap();
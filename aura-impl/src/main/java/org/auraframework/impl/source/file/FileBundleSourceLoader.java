@@ -16,13 +16,8 @@
 package org.auraframework.impl.source.file;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.JarURLConnection;
-import java.net.URLConnection;
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,16 +35,13 @@ import org.auraframework.system.InternalNamespaceSourceLoader;
 import org.auraframework.system.Source;
 import org.auraframework.system.SourceListener;
 import org.auraframework.throwable.AuraRuntimeException;
-import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.FileMonitor;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.Sets;
 
-import org.auraframework.util.IOUtil;
 import org.auraframework.util.resource.ResourceLoader;
-import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 public class FileBundleSourceLoader implements BundleSourceLoader, InternalNamespaceSourceLoader, SourceListener {
@@ -62,6 +54,8 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
         public String name;
         public String qualified;
         public BundleSource<?> source;
+        // the jar bundle to copy to file before building, if any
+        public ResourceBundleIndex.Bundle bundle;
 
         @Override
         public String toString() {
@@ -70,11 +64,30 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
     }
 
     private final File base;
+    // the bundles in a jar package, copied under base on first use, or null if base is a source directory
+    private final ResourceBundleIndex resources;
     private Set<String> namespaces;
     protected Map<String,FileEntry> fileMap;
     private final Collection<FileBundleSourceBuilder> builders;
 
     private void updateFileMap() {
+        if (resources != null) {
+            // the jar does not change, so there is no need to look at the directory.
+            Map<String,FileEntry> tfileMap = new ConcurrentHashMap<>();
+            for (ResourceBundleIndex.Bundle bundle : resources.getBundles()) {
+                FileEntry entry = new FileEntry();
+                entry.namespace = bundle.getNamespace();
+                entry.name = bundle.getName();
+                entry.qualified = entry.namespace+":"+entry.name;
+                entry.file = bundle.getDirectory();
+                entry.source = null;
+                entry.bundle = bundle;
+                tfileMap.put(entry.qualified.toLowerCase(), entry);
+            }
+            namespaces = resources.getNamespaces();
+            fileMap = tfileMap;
+            return;
+        }
     	Builder<String> namespacesBuilder = ImmutableSet.builder();
         Map<String,FileEntry> tfileMap = new ConcurrentHashMap<>();
         for (File namespace : base.listFiles()) {
@@ -96,17 +109,27 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
     }
 
     /**
-     * Copies jar resources into file system to be used as sources from jar
+     * Uses jar resources as sources. The bundles are indexed from the jar entries, and each bundle is copied into the
+     * file system when it is first used.
      *
      * @param resourcePackage resource location ins jar
      * @param fileMonitor file monitor
      * @param builders bundle builders
      */
     public FileBundleSourceLoader(String resourcePackage, FileMonitor fileMonitor, Collection<FileBundleSourceBuilder> builders) {
-        this(copyResourcesToDir(resourcePackage), fileMonitor, builders);
+        this(indexResources(resourcePackage), fileMonitor, builders);
+    }
+
+    public FileBundleSourceLoader(ResourceBundleIndex resources, FileMonitor fileMonitor, Collection<FileBundleSourceBuilder> builders) {
+        this(resources.getDirectory(), resources, fileMonitor, builders);
     }
 
     public FileBundleSourceLoader(File base, FileMonitor fileMonitor, Collection<FileBundleSourceBuilder> builders) {
+        this(base, null, fileMonitor, builders);
+    }
+
+    private FileBundleSourceLoader(File base, ResourceBundleIndex resources, FileMonitor fileMonitor,
+            Collection<FileBundleSourceBuilder> builders) {
         if (base == null || !base.exists() || !base.isDirectory()) {
             throw new AuraRuntimeException(String.format("Base directory %s does not exist", base == null ? "null"
                     : base.getAbsolutePath()));
@@ -118,6 +141,7 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
                     base.getAbsolutePath()), ioe);
         }
         this.builders = builders;
+        this.resources = resources;
         updateFileMap();
         // add the namespace root to the file monitor
         if (fileMonitor != null) {
@@ -199,6 +223,9 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
         if (entry.source != null) {
             return entry.source;
         }
+        if (entry.bundle != null) {
+            entry.bundle.extract();
+        }
         if (!entry.file.exists() || !entry.file.isDirectory()) {
             return null;
         }
@@ -225,6 +252,26 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
         return null;
     }
 
+    /**
+     * Check whether a bundle from the jar could be found by a filter, using only the names of its files, so that
+     * bundles which cannot match are not copied out and built. The first builder that claims the bundle is the one
+     * that will build it, as in {@link #createSource(FileEntry)}. Bundles that may match are still built and matched
+     * on their real descriptor.
+     */
+    private boolean mayMatch(FileEntry entry, DescriptorFilter matcher) {
+        if (entry.source != null || entry.bundle == null || entry.bundle.isExtracted()) {
+            return true;
+        }
+        Set<String> fileNames = entry.bundle.getFileNames();
+        for (FileBundleSourceBuilder builder : builders) {
+            if (builder.isBundleMatch(entry.name, fileNames)) {
+                DefType type = builder.getBundleType();
+                return type == null || matcher.matchType(type);
+            }
+        }
+        return false;
+    }
+
     @Override
     public Set<DefDescriptor<?>> find(DescriptorFilter matcher) {
         rwLock.readLock().lock();
@@ -234,13 +281,15 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
                 String ns = matcher.getNamespaceMatch().toString();
                 String name = matcher.getNameMatch().toString();
                 String lookup = ns + ":" + name;
-                DefDescriptor<?> descriptor = getDescriptor(fileMap.get(lookup.toLowerCase()));
+                FileEntry entry = fileMap.get(lookup.toLowerCase());
+                DefDescriptor<?> descriptor = entry != null && mayMatch(entry, matcher) ? getDescriptor(entry) : null;
                 if (descriptor != null && matcher.matchDescriptor(descriptor)) {
                     ret.add(descriptor);
                 }
             } else {
                 for (FileEntry entry : fileMap.values()) {
-                    if (matcher.matchNamespace(entry.namespace) && matcher.matchName(entry.name)) {
+                    if (matcher.matchNamespace(entry.namespace) && matcher.matchName(entry.name)
+                            && mayMatch(entry, matcher)) {
                         BundleSource<?> source = createSource(entry);
                         if (source != null) {
                             if (matcher.matchDescriptor(source.getDescriptor())) {
@@ -301,78 +350,13 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
     }
 
     /**
-     * Copies sources from jars into file system
+     * Index the sources in a package in the jars
      *
      * @param basePackage source location in jar
-     * @return base folder of copied resources from jar
+     * @return the index of bundles in the package
      */
-    protected static File copyResourcesToDir(String basePackage) {
+    protected static ResourceBundleIndex indexResources(String basePackage) {
         ResourceLoader resourceLoader = Aura.getConfigAdapter().getResourceLoader();
-        File directory = new File(IOUtil.newTempDir("resources"));
-
-        try {
-            PathMatchingResourcePatternResolver p = new PathMatchingResourcePatternResolver(resourceLoader);
-            Resource[] res = p.getResources("classpath*:/" + basePackage + "/**/*.*");
-            for (Resource r : res) {
-                //
-                // TOTAL HACK: Move this to getAllDescriptors later.
-                //
-                /**
-                 * r.getURL().toString(); and then tokenizing it on "/" and looking for basePackage name is hacky. It depends
-                 * on the location of the jar file on the file system. Changing this to use relative paths for files
-                 * within jar files to remove the above mentioned vulnerability.
-                 */
-                String filename;
-                try {
-                    URLConnection conn = r.getURL().openConnection();
-                    if (conn instanceof JarURLConnection) {
-                        filename = ((JarURLConnection) conn).getEntryName();
-                    } else {
-                        filename = r.getURL().toString();
-                    }
-                } catch (Exception e) {
-                    filename = r.getURL().toString();
-                }
-                List<String> names = AuraTextUtil.splitSimple("/", filename);
-
-                int namesSize = names.size();
-                int packagePosition = names.indexOf(basePackage);
-
-                if (namesSize < 3 || packagePosition == -1 || namesSize - 1 < packagePosition + 3) {
-                    // ensure resource has at least namespace folder, bundle folder, bundle file
-                    continue;
-                }
-
-                String ns = names.get(packagePosition + 1);
-                File nsDir = new File(directory, ns);
-                if (!nsDir.exists()) {
-                    nsDir.mkdir();
-                }
-
-                File parent = nsDir;
-                for (int i = packagePosition + 2; i < namesSize - 1; i++) {
-                    // create nested folders
-                    String folder = names.get(i);
-                    File dir = new File(parent, folder);
-                    if (!dir.exists()) {
-                        dir.mkdir();
-                    }
-                    parent = dir;
-                }
-
-                String file = names.get(namesSize - 1);
-                File target = new File(parent, file);
-                try (
-                    InputStream resourceStream = r.getInputStream();
-                    FileOutputStream targetStream = new FileOutputStream(target)
-                    // automatically calls close() after code block
-                ) {
-                    IOUtil.copyStream(resourceStream, targetStream);
-                }
-            }
-        } catch (IOException x) {
-            throw new AuraRuntimeException(x);
-        }
-        return directory;
+        return new ResourceBundleIndex(basePackage, new PathMatchingResourcePatternResolver(resourceLoader));
     }
 }
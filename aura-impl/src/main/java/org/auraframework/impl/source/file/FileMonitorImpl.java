@@ -19,7 +19,7 @@ import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.service.CachingService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.SourceListener;
-import org.auraframework.util.FileChangeEvent;
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.auraframework.util.FileListener;
 import org.auraframework.util.FileMonitor;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -44,10 +44,12 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
@@ -58,6 +60,11 @@ import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 /**
  * File monitor allowing to ability to add watched directory. Used to update files and clear caches on source changes
  * during development
+ *
+ * Changes are not passed on as they are seen. They are collected by path until the file system has been quiet for
+ * aura.fileMonitor.quietMillis (250ms by default), or at most ten times that while it stays busy, and then passed on
+ * as one batch. A branch switch that touches thousands of files then clears the caches once, rather than thousands of
+ * times. If the WatchService overflows, the batch is replaced by a reset of everything.
  */
 @Lazy
 @Component
@@ -82,6 +89,18 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
     // for the purpose of reporting with the same directory root as the original
     private final Map<WatchKey, Path> monitoredKeys;
 
+    // how long the file system must be quiet before changes are passed on
+    private final long quietNanos;
+
+    // the longest a change is held while the file system stays busy
+    private final long maxDelayNanos;
+
+    // changes since the last batch, by path, in the order first seen. Only used on the watch thread.
+    private Map<String, SourceMonitorEvent> pending = new LinkedHashMap<>();
+    private boolean overflowed;
+    private long firstPendingNanos;
+    private long lastPendingNanos;
+
     private WatchService watchService;
     private Thread watchServiceThread;
     private boolean terminateThread;
@@ -98,6 +117,8 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
         this.listener = listener;
         this.monitoredDirs = new HashSet<>();
         this.monitoredKeys = new HashMap<>();
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, Long.getLong("aura.fileMonitor.quietMillis", 250)));
+        this.maxDelayNanos = quietNanos * 10;
         this.setTerminateThread(false);
     }
 
@@ -116,6 +137,7 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
      * Register the given directory, and all its sub-directories, with the WatchService.
      */
     private void registerAll(final Path start, Long registryCreationTime) throws IOException {
+        Map<String, SourceMonitorEvent> changed = new LinkedHashMap<>();
         // register directory and sub-directories
         // follow links: the uitier workspace component folders are symbolic links to the core workspace component folders
         Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS),
@@ -134,14 +156,72 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                         // this is going to fall flat on it's face if someone deleted something that was in the registry
                         if (registryCreationTime != null && !Files.isDirectory(file)) {
                             if (Files.getLastModifiedTime(file).toMillis() > registryCreationTime) {
-                                try {
-                                    listener.fileChanged(new FileChangeEvent(file));
-                                } catch (Exception e) {}
+                                changed.put(file.toString(), SourceMonitorEvent.CHANGED);
                             }
                         }
                         return FileVisitResult.CONTINUE;
                     }
                 });
+        if (!changed.isEmpty()) {
+            try {
+                listener.filesChanged(changed);
+            } catch (Exception e) {}
+        }
+    }
+
+    /**
+     * Combine two changes to the same file within a batch.
+     *
+     * A file that is created and then changed is still new, and one that is deleted and created again, as some
+     * editors save, has only changed. Otherwise the later change wins.
+     */
+    static SourceMonitorEvent coalesce(SourceMonitorEvent previous, SourceMonitorEvent next) {
+        if (previous == SourceMonitorEvent.CREATED && next == SourceMonitorEvent.CHANGED) {
+            return SourceMonitorEvent.CREATED;
+        }
+        if (previous == SourceMonitorEvent.DELETED && next == SourceMonitorEvent.CREATED) {
+            return SourceMonitorEvent.CHANGED;
+        }
+        return next;
+    }
+
+    private boolean hasPending() {
+        return overflowed || !pending.isEmpty();
+    }
+
+    /**
+     * Add a change to the pending batch.
+     *
+     * @param path the file that changed, or null if changes were missed.
+     * @param event what happened to the file.
+     */
+    private void addPending(Path path, SourceMonitorEvent event) {
+        long now = System.nanoTime();
+        if (!hasPending()) {
+            firstPendingNanos = now;
+        }
+        lastPendingNanos = now;
+        if (path == null) {
+            // everything will be reset, so there is no need to track individual files.
+            overflowed = true;
+            pending.clear();
+        } else if (!overflowed) {
+            pending.merge(path.toString(), event, FileMonitorImpl::coalesce);
+        }
+    }
+
+    /**
+     * Pass the pending batch on to the listener, and start a new one.
+     */
+    private void flushPending() {
+        Map<String, SourceMonitorEvent> changes = overflowed ? null : pending;
+        pending = new LinkedHashMap<>();
+        overflowed = false;
+        try {
+            listener.filesChanged(changes);
+        } catch (Exception ex) {
+            loggingService.info("[FileMonitorImpl] Unable to signal source changes due to exception: " + ex.getMessage());
+        }
     }
 
     @Override
@@ -149,10 +229,16 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
         // loop forever, waiting on monitor for watchService, unless isTerminateThread
         for (;;) {
 
-            // wait for watchService to become signaled
+            // wait for watchService to become signaled, or for the end of the quiet window if changes are pending
             WatchKey key;
             try {
-                key = watchService.take();
+                if (!hasPending()) {
+                    key = watchService.take();
+                } else {
+                    long deadline = Math.min(lastPendingNanos + quietNanos, firstPendingNanos + maxDelayNanos);
+                    long wait = deadline - System.nanoTime();
+                    key = (wait > 0) ? watchService.poll(wait, TimeUnit.NANOSECONDS) : null;
+                }
                 if (isTerminateThread()) {
                     return;
                 }
@@ -160,6 +246,11 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                 return;
             }
 
+            if (key == null) {
+                flushPending();
+                continue;
+            }
+
             Path dir = monitoredKeys.get(key);
             if (dir == null) {
                 loggingService.info("[FileMonitorImpl] did not recognize the requested WatchKey!");
@@ -172,9 +263,8 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                 WatchEvent.Kind<?> kind = event.kind();
 
                 if (kind == OVERFLOW) {
-                    // TODO - perhaps notify a special event to clear all caches,
-                    // if file changes overflow the monitor
-                    loggingService.info("[FileMonitorImpl] WatchService for aura file changes has overflowed.  Changes may have been missed.");
+                    loggingService.info("[FileMonitorImpl] WatchService for aura file changes has overflowed.  All sources will be treated as changed.");
+                    addPending(null, null);
                     continue;
                 }
 
@@ -188,20 +278,16 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                 // isDir is true is file exists and is directory
                 boolean isDir = Files.isDirectory(child, NOFOLLOW_LINKS);
 
-                // signal appropriate handlers
+                // collect the change for the next batch
                 if (!isDir) {
-                    try {
-                        if (kind == ENTRY_CREATE) {
-                            listener.fileCreated(new FileChangeEvent(child));
-                        }
-                        else if (kind == ENTRY_MODIFY) {
-                            listener.fileChanged(new FileChangeEvent(child));
-                        }
-                        else if (kind == ENTRY_DELETE) {
-                            listener.fileDeleted(new FileChangeEvent(child));
-                        }
-                    } catch (Exception ex) {
-                        loggingService.info("[FileMonitorImpl] Unable to signal source change due to exception: " + ex.getMessage());
+                    if (kind == ENTRY_CREATE) {
+                        addPending(child, SourceMonitorEvent.CREATED);
+                    }
+                    else if (kind == ENTRY_MODIFY) {
+                        addPending(child, SourceMonitorEvent.CHANGED);
+                    }
+                    else if (kind == ENTRY_DELETE) {
+                        addPending(child, SourceMonitorEvent.DELETED);
                     }
                 }
                 // recursively add any new directories created
@@ -222,6 +308,9 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
 
                 // all directories are inaccessible
                 if (monitoredKeys.isEmpty()) {
+                    if (hasPending()) {
+                        flushPending();
+                    }
                     break;
                 }
             }
@@ -308,12 +397,22 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
 
     @Override
     public void onSourceChanged(SourceListener.SourceMonitorEvent event, String filePath) {
+        removeClearedListeners();
+        cachingService.notifyDependentSourceChange(listeners, event, filePath);
+    }
+
+    @Override
+    public void onSourcesChanged(Map<String, SourceMonitorEvent> changes) {
+        removeClearedListeners();
+        cachingService.notifyDependentSourceChanges(listeners, changes);
+    }
+
+    private void removeClearedListeners() {
         for (WeakReference<SourceListener> i : listeners) {
             if (i.get() == null) {
                 listeners.remove(i);
             }
         }
-        cachingService.notifyDependentSourceChange(listeners, event, filePath);
     }
 
     @Override
@@ -22,6 +22,8 @@ import org.auraframework.util.FileChangeEvent;
 import org.auraframework.util.FileListener;
 
 import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Used by many things to monitor and notify when file has changed.
@@ -52,6 +54,35 @@ public class FileSourceListener implements FileListener {
         notifySourceChanges(event, SourceMonitorEvent.CHANGED);
     }
 
+    @Override
+    public void filesChanged(Map<String, SourceMonitorEvent> changes) {
+        if (changes == null) {
+            LOG.info("File changes were missed, treating all sources as changed");
+        } else {
+            logChanges(changes);
+        }
+        if (sourceListener != null) {
+            sourceListener.onSourcesChanged(changes);
+        }
+    }
+
+    /**
+     * Log one line for the batch, with the first file as an example, and each file only at debug.
+     */
+    private static void logChanges(Map<String, SourceMonitorEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<SourceMonitorEvent, Integer> counts = new EnumMap<>(SourceMonitorEvent.class);
+        for (Map.Entry<String, SourceMonitorEvent> change : changes.entrySet()) {
+            counts.merge(change.getValue(), 1, Integer::sum);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("File " + change.getKey() + " changed due to: " + change.getValue());
+            }
+        }
+        LOG.info(changes.size() + " files changed " + counts + ", first: " + changes.keySet().iterator().next());
+    }
+
     public void onSourceChanged(SourceListener.SourceMonitorEvent smEvent, String filePath) {
         if (sourceListener != null) {
             sourceListener.onSourceChanged(smEvent, filePath);
@@ -18,6 +18,7 @@ package org.auraframework.impl.source.file;
 import com.google.common.collect.Maps;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.FlavorBundleDef;
 import org.auraframework.def.FlavoredStyleDef;
 import org.auraframework.impl.source.BundleSourceImpl;
@@ -28,16 +29,26 @@ import org.auraframework.system.Parser.Format;
 import org.auraframework.system.Source;
 
 import java.io.File;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @ServiceComponent
 public class FlavorBundleFileBundleBuilder implements FileBundleSourceBuilder {
 
     @Override
     public boolean isBundleMatch(File base) {
-        boolean ok = false;
+        Set<String> fileNames = new HashSet<>();
         for (File content : base.listFiles()) {
-            String name = content.getName();
+            fileNames.add(content.getName());
+        }
+        return isBundleMatch(base.getName(), fileNames);
+    }
+
+    @Override
+    public boolean isBundleMatch(String bundleName, Set<String> fileNames) {
+        boolean ok = false;
+        for (String name : fileNames) {
             if (name.endsWith("Flavors.css")) {
                 ok = true;
             } else if (name.endsWith(".app")) {
@@ -49,6 +60,11 @@ public class FlavorBundleFileBundleBuilder implements FileBundleSourceBuilder {
         return ok;
     }
 
+    @Override
+    public DefType getBundleType() {
+        return DefType.FLAVOR_BUNDLE;
+    }
+
     @Override
     public BundleSource<?> buildBundle(File base) {
         Map<DefDescriptor<?>, Source<?>> sourceMap = Maps.newHashMap();
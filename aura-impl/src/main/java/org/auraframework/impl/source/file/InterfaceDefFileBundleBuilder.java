@@ -18,6 +18,7 @@ package org.auraframework.impl.source.file;
 import com.google.common.collect.Maps;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.DocumentationDef;
 import org.auraframework.def.InterfaceDef;
 import org.auraframework.def.SVGDef;
@@ -40,6 +41,11 @@ public class InterfaceDefFileBundleBuilder implements FileBundleSourceBuilder {
         return ".intf";
     }
 
+    @Override
+    public DefType getBundleType() {
+        return DefType.INTERFACE;
+    }
+
     @Override
     public BundleSource<?> buildBundle(File base) {
         Map<DefDescriptor<?>, Source<?>> sourceMap = Maps.newHashMap();
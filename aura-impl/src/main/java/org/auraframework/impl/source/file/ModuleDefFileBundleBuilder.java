@@ -18,11 +18,13 @@ package org.auraframework.impl.source.file;
 import java.io.File;
 import java.io.IOException;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.module.ModuleDef;
 import org.auraframework.impl.source.BundleSourceImpl;
 import org.auraframework.impl.system.DefDescriptorImpl;
@@ -69,6 +71,22 @@ public class ModuleDefFileBundleBuilder implements FileBundleSourceBuilder {
         // also check for cmp/app bundles that has stray js with the same name
         return (baseHtml.exists() || baseJs.exists()) && !baseCmp.exists() && !baseApp.exists() && !baseLib.exists();
     }
+
+    /**
+     * The same check as {@link #isBundleMatch(File)}, on the names of the files in the bundle.
+     */
+    @Override
+    public boolean isBundleMatch(String name, Set<String> fileNames) {
+        return (fileNames.contains(name + ".html") || fileNames.contains(name + ".js"))
+                && !fileNames.contains(name + ".cmp") && !fileNames.contains(name + ".app")
+                && !fileNames.contains(name + ".lib");
+    }
+
+    @Override
+    public DefType getBundleType() {
+        return DefType.MODULE;
+    }
+
     /**
      * Processes module bundle and creates BundleSource of all files.
      * .js or .html (if .js doesn't exist) of the same name is associated with ModuleDef descriptor
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.source.file;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URLConnection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.util.AuraTextUtil;
+import org.auraframework.util.IOUtil;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+/**
+ * The bundles under a package on the classpath, indexed by namespace and name from the entries of the jars, without
+ * reading any of their contents.
+ *
+ * The bundle builders work on directories, so a bundle's files are copied to a temporary directory the first time it
+ * is used. Bundles that are never used are never copied.
+ */
+public class ResourceBundleIndex {
+    /**
+     * A bundle folder in the package.
+     */
+    public static final class Bundle {
+        private final String namespace;
+        private final String name;
+        private final File directory;
+        // path within the bundle folder, to the resource
+        private final Map<String, Resource> files = new LinkedHashMap<>();
+        private volatile boolean extracted;
+
+        private Bundle(String namespace, String name, File directory) {
+            this.namespace = namespace;
+            this.name = name;
+            this.directory = directory;
+        }
+
+        public String getNamespace() {
+            return namespace;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the directory the bundle is copied to, which only exists once {@link #extract()} has been called.
+         */
+        public File getDirectory() {
+            return directory;
+        }
+
+        /**
+         * @return the names of the files directly in the bundle folder, which are known without copying the bundle.
+         */
+        public Set<String> getFileNames() {
+            Set<String> names = new HashSet<>();
+            for (String path : files.keySet()) {
+                if (path.indexOf('/') == -1) {
+                    names.add(path);
+                }
+            }
+            return names;
+        }
+
+        public boolean isExtracted() {
+            return extracted;
+        }
+
+        /**
+         * Copy the bundle's files to its directory, if that has not been done already.
+         *
+         * @return the directory.
+         */
+        public File extract() {
+            if (extracted) {
+                return directory;
+            }
+            synchronized (this) {
+                if (!extracted) {
+                    try {
+                        for (Map.Entry<String, Resource> file : files.entrySet()) {
+                            File target = new File(directory, file.getKey());
+                            target.getParentFile().mkdirs();
+                            try (
+                                InputStream resourceStream = file.getValue().getInputStream();
+                                FileOutputStream targetStream = new FileOutputStream(target)
+                                // automatically calls close() after code block
+                            ) {
+                                IOUtil.copyStream(resourceStream, targetStream);
+                            }
+                        }
+                    } catch (IOException x) {
+                        throw new AuraRuntimeException(x);
+                    }
+                    extracted = true;
+                }
+            }
+            return directory;
+        }
+    }
+
+    private final File directory;
+    private final Set<String> namespaces;
+    // by lower case namespace:name
+    private final Map<String, Bundle> bundles;
+
+    /**
+     * Index the bundles in a package.
+     *
+     * @param basePackage the package that holds the namespace folders.
+     * @param resolver the resolver for the classpath to search.
+     */
+    public ResourceBundleIndex(String basePackage, ResourcePatternResolver resolver) {
+        this.directory = new File(IOUtil.newTempDir("resources"));
+        Set<String> namespaces = new TreeSet<>();
+        Map<String, Bundle> bundles = new LinkedHashMap<>();
+        try {
+            Resource[] res = resolver.getResources("classpath*:/" + basePackage + "/**/*.*");
+            for (Resource r : res) {
+                List<String> names = AuraTextUtil.splitSimple("/", getEntryName(r));
+
+                int namesSize = names.size();
+                int packagePosition = names.indexOf(basePackage);
+
+                if (namesSize < 3 || packagePosition == -1 || namesSize - 1 < packagePosition + 3) {
+                    // ensure resource has at least namespace folder, bundle folder, bundle file
+                    continue;
+                }
+
+                String ns = names.get(packagePosition + 1);
+                String name = names.get(packagePosition + 2);
+                namespaces.add(ns);
+                String qualified = (ns + ":" + name).toLowerCase(Locale.ENGLISH);
+                Bundle bundle = bundles.get(qualified);
+                if (bundle == null) {
+                    bundle = new Bundle(ns, name, new File(new File(directory, ns), name));
+                    bundles.put(qualified, bundle);
+                }
+                bundle.files.put(String.join("/", names.subList(packagePosition + 3, namesSize)), r);
+            }
+        } catch (IOException x) {
+            throw new AuraRuntimeException(x);
+        }
+        this.namespaces = Collections.unmodifiableSet(namespaces);
+        this.bundles = Collections.unmodifiableMap(bundles);
+    }
+
+    /**
+     * The path of a resource within its jar, or its URL if it is not in a jar.
+     */
+    private static String getEntryName(Resource r) throws IOException {
+        /**
+         * r.getURL().toString(); and then tokenizing it on "/" and looking for basePackage name is hacky. It depends
+         * on the location of the jar file on the file system. Use relative paths for files within jar files to remove
+         * the above mentioned vulnerability.
+         */
+        try {
+            URLConnection conn = r.getURL().openConnection();
+            if (conn instanceof JarURLConnection) {
+                return ((JarURLConnection) conn).getEntryName();
+            }
+        } catch (Exception e) {
+            // fall through to the URL.
+        }
+        return r.getURL().toString();
+    }
+
+    /**
+     * @return the directory that bundles are copied into, under a folder per namespace.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the namespaces in the package.
+     */
+    public Set<String> getNamespaces() {
+        return namespaces;
+    }
+
+    /**
+     * @return all bundles in the package.
+     */
+    public Collection<Bundle> getBundles() {
+        return bundles.values();
+    }
+
+    /**
+     * @return the number of bundles that have been copied out.
+     */
+    int getExtractedCount() {
+        int count = 0;
+        for (Bundle bundle : bundles.values()) {
+            if (bundle.isExtracted()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
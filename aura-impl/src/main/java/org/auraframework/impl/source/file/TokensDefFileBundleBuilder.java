@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.DocumentationDef;
 import org.auraframework.def.SVGDef;
 import org.auraframework.def.TokensDef;
@@ -41,6 +42,11 @@ public class TokensDefFileBundleBuilder implements FileBundleSourceBuilder {
         return ".tokens";
     }
 
+    @Override
+    public DefType getBundleType() {
+        return DefType.TOKENS;
+    }
+
     @Override
     public BundleSource<?> buildBundle(File base) {
         Map<DefDescriptor<?>, Source<?>> sourceMap = Maps.newHashMap();
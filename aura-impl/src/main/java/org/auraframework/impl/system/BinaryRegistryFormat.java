@@ -0,0 +1,575 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.auraframework.def.BundleDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.def.PlatformDef;
+import org.auraframework.system.DefRegistry;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * A versioned binary container for a set of static registries.
+ *
+ * The layout is a header (magic, version, registry count), followed by each registry's types, prefixes, namespaces
+ * and descriptor index, followed by the definition payloads. Every index entry either points at its own payload by
+ * offset and length, or at the bundle definition that contains it, and carries the tags of platform definitions so
+ * that tag queries need not decode anything. Descriptors are written as plain strings, and each payload is a
+ * separately serialized definition.
+ *
+ * When read, the registries hold on to the (memory mapped where possible) buffer, and a definition is only decoded
+ * the first time it is asked for, so that startup and heap scale with the definitions actually used.
+ */
+public final class BinaryRegistryFormat {
+    static final int MAGIC = 0x41524547; // "AREG"
+    static final int VERSION = 2;
+
+    private static final byte DESCRIPTOR_FIELDS = 0;
+    private static final byte DESCRIPTOR_SERIALIZED = 1;
+
+    private static final byte ENTRY_PAYLOAD = 0;
+    private static final byte ENTRY_BUNDLED = 1;
+
+    private static final DescriptorFilter ALL = new DescriptorFilter("*://*:*", "*");
+
+    private BinaryRegistryFormat() {
+    }
+
+    /**
+     * Write out a set of registries.
+     *
+     * @param registries the registries to write, all of which must support find.
+     * @param out the stream to write to, which is not closed.
+     * @throws IOException if a definition cannot be fetched or serialized.
+     */
+    public static void write(List<? extends DefRegistry> registries, OutputStream out) throws IOException {
+        ByteArrayOutputStream payloads = new ByteArrayOutputStream();
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(registries.size());
+        for (DefRegistry registry : registries) {
+            writeRegistry(registry, header, payloads);
+        }
+        header.writeInt(payloads.size());
+        header.flush();
+        headerBytes.writeTo(out);
+        payloads.writeTo(out);
+        out.flush();
+    }
+
+    private static void writeRegistry(DefRegistry registry, DataOutputStream header, ByteArrayOutputStream payloads)
+            throws IOException {
+        Set<String> typeNames = null;
+        if (registry.getDefTypes() != null) {
+            typeNames = new HashSet<>();
+            for (DefType defType : registry.getDefTypes()) {
+                typeNames.add(defType.name());
+            }
+        }
+        writeStrings(header, typeNames);
+        writeStrings(header, registry.getPrefixes());
+        writeStrings(header, registry.getNamespaces());
+
+        List<DefDescriptor<?>> descriptors = new ArrayList<>(registry.find(ALL));
+        List<Definition> defs = new ArrayList<>(descriptors.size());
+        Map<DefDescriptor<?>, Integer> positions = new HashMap<>();
+        for (DefDescriptor<?> descriptor : descriptors) {
+            try {
+                defs.add(registry.getDef(descriptor));
+            } catch (QuickFixException qfe) {
+                throw new IOException("Unable to fetch " + descriptor, qfe);
+            }
+            positions.put(descriptor, positions.size());
+        }
+
+        // Definitions that are bundled into a root are written once, as part of the root.
+        int[] bundledIn = new int[descriptors.size()];
+        for (int i = 0; i < bundledIn.length; i++) {
+            bundledIn[i] = -1;
+        }
+        for (int i = 0; i < descriptors.size(); i++) {
+            if (!(defs.get(i) instanceof BundleDef)) {
+                continue;
+            }
+            Map<DefDescriptor<?>, Definition> bundled = ((BundleDef) defs.get(i)).getBundledDefs();
+            if (bundled == null) {
+                continue;
+            }
+            for (Map.Entry<DefDescriptor<?>, Definition> entry : bundled.entrySet()) {
+                Integer position = positions.get(entry.getKey());
+                if (position != null && position != i && defs.get(position) == entry.getValue()
+                        && !(entry.getValue() instanceof BundleDef)) {
+                    bundledIn[position] = i;
+                }
+            }
+        }
+
+        header.writeInt(descriptors.size());
+        for (int i = 0; i < descriptors.size(); i++) {
+            writeDescriptor(header, descriptors.get(i));
+            Definition def = defs.get(i);
+            writeStrings(header, (def instanceof PlatformDef) ? ((PlatformDef) def).getTags() : null);
+            if (bundledIn[i] >= 0) {
+                header.writeByte(ENTRY_BUNDLED);
+                header.writeInt(bundledIn[i]);
+            } else {
+                int offset = payloads.size();
+                try (ObjectOutputStream oos = new ObjectOutputStream(new NonClosingOutputStream(payloads))) {
+                    oos.writeObject(defs.get(i));
+                }
+                header.writeByte(ENTRY_PAYLOAD);
+                header.writeInt(offset);
+                header.writeInt(payloads.size() - offset);
+            }
+        }
+    }
+
+    /**
+     * Check whether a buffer holds this format, without moving its position.
+     */
+    public static boolean isBinaryFormat(ByteBuffer buffer) {
+        return buffer.remaining() >= 4 && buffer.getInt(buffer.position()) == MAGIC;
+    }
+
+    /**
+     * Get a read only buffer over a resource, memory mapping it if it is a plain file.
+     *
+     * Resources inside an archive cannot be mapped, so they are read once into a single buffer.
+     *
+     * @param url the resource.
+     * @return a buffer positioned at the start of the resource.
+     */
+    public static ByteBuffer map(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            File file;
+            try {
+                file = new File(url.toURI());
+            } catch (URISyntaxException use) {
+                file = new File(url.getPath());
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            return ByteBuffer.wrap(ByteStreams.toByteArray(in)).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Read the registries from a buffer.
+     *
+     * Only the header and descriptor index are decoded here, definitions are decoded on first use.
+     *
+     * @param buffer the buffer, which must not be modified afterwards.
+     * @return the list of registries.
+     * @throws IOException if the buffer is not in this format, or is of an unknown version.
+     */
+    public static List<DefRegistry> read(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.duplicate();
+        if (in.remaining() < 8 || in.getInt() != MAGIC) {
+            throw new IOException("Not a binary registries file");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported registries file version " + version);
+        }
+        int count = in.getInt();
+        List<RegistryHeader> headers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            headers.add(readRegistry(in));
+        }
+        int payloadLength = in.getInt();
+        if (in.remaining() < payloadLength) {
+            throw new IOException("Truncated registries file");
+        }
+        in.limit(in.position() + payloadLength);
+        ByteBuffer payloads = in.slice();
+
+        List<DefRegistry> registries = new ArrayList<>(count);
+        for (RegistryHeader header : headers) {
+            registries.add(new StaticDefRegistryImpl(header.defTypes, header.prefixes, header.namespaces,
+                    new LazyDefinitionMap(payloads, header.descriptors, header.tags, header.offsets, header.lengths)));
+        }
+        return registries;
+    }
+
+    private static class RegistryHeader {
+        private Set<DefType> defTypes;
+        private Set<String> prefixes;
+        private Set<String> namespaces;
+        private DefDescriptor<?>[] descriptors;
+        private Set<String>[] tags;
+        private int[] offsets;
+        private int[] lengths;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RegistryHeader readRegistry(ByteBuffer in) throws IOException {
+        RegistryHeader header = new RegistryHeader();
+        Set<String> typeNames = readStrings(in);
+        if (typeNames != null) {
+            header.defTypes = new HashSet<>();
+            for (String name : typeNames) {
+                header.defTypes.add(DefType.valueOf(name));
+            }
+        }
+        header.prefixes = readStrings(in);
+        header.namespaces = readStrings(in);
+
+        int size = in.getInt();
+        header.descriptors = new DefDescriptor<?>[size];
+        header.tags = new Set[size];
+        header.offsets = new int[size];
+        header.lengths = new int[size];
+        for (int i = 0; i < size; i++) {
+            header.descriptors[i] = readDescriptor(in);
+            header.tags[i] = readStrings(in);
+            byte kind = in.get();
+            if (kind == ENTRY_BUNDLED) {
+                header.offsets[i] = in.getInt();
+                header.lengths[i] = -1;
+            } else if (kind == ENTRY_PAYLOAD) {
+                header.offsets[i] = in.getInt();
+                header.lengths[i] = in.getInt();
+            } else {
+                throw new IOException("Invalid registry entry for " + header.descriptors[i]);
+            }
+        }
+        return header;
+    }
+
+    /**
+     * Write a descriptor as its fields when they rebuild an equal descriptor, otherwise serialize it.
+     */
+    private static void writeDescriptor(DataOutputStream out, DefDescriptor<?> descriptor) throws IOException {
+        DefDescriptor<?> bundle = descriptor.getBundle();
+        if (isRebuildable(descriptor) && (bundle == null || (isRebuildable(bundle) && bundle.getBundle() == null))) {
+            out.writeByte(DESCRIPTOR_FIELDS);
+            writeDescriptorFields(out, descriptor);
+            out.writeBoolean(bundle != null);
+            if (bundle != null) {
+                writeDescriptorFields(out, bundle);
+            }
+        } else {
+            out.writeByte(DESCRIPTOR_SERIALIZED);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(descriptor);
+            }
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+
+    private static boolean isRebuildable(DefDescriptor<?> descriptor) {
+        if (descriptor.getClass() != DefDescriptorImpl.class || descriptor.getName() == null) {
+            return false;
+        }
+        DefDescriptor<?> rebuilt = createDescriptor(descriptor.getPrefix(), descriptor.getNamespace(),
+                descriptor.getName(), descriptor.getDefType(), null);
+        return rebuilt.getDefType() == descriptor.getDefType()
+                && rebuilt.getQualifiedName().equals(descriptor.getQualifiedName());
+    }
+
+    private static void writeDescriptorFields(DataOutputStream out, DefDescriptor<?> descriptor) throws IOException {
+        writeString(out, descriptor.getPrefix());
+        writeString(out, descriptor.getNamespace());
+        writeString(out, descriptor.getName());
+        writeString(out, descriptor.getDefType().name());
+    }
+
+    private static DefDescriptor<?> readDescriptor(ByteBuffer in) throws IOException {
+        byte kind = in.get();
+        if (kind == DESCRIPTOR_FIELDS) {
+            String prefix = readString(in);
+            String namespace = readString(in);
+            String name = readString(in);
+            DefType defType = DefType.valueOf(readString(in));
+            DefDescriptor<?> bundle = null;
+            if (in.get() != 0) {
+                bundle = createDescriptor(readString(in), readString(in), readString(in),
+                        DefType.valueOf(readString(in)), null);
+            }
+            return createDescriptor(prefix, namespace, name, defType, bundle);
+        } else if (kind == DESCRIPTOR_SERIALIZED) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return (DefDescriptor<?>) ois.readObject();
+            } catch (ClassNotFoundException cnfe) {
+                throw new IOException("Unable to read descriptor", cnfe);
+            }
+        }
+        throw new IOException("Invalid descriptor entry");
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static DefDescriptor<?> createDescriptor(String prefix, String namespace, String name, DefType defType,
+            DefDescriptor<?> bundle) {
+        return new DefDescriptorImpl(prefix, namespace, name, defType.getPrimaryInterface(), bundle);
+    }
+
+    private static void writeStrings(DataOutputStream out, Set<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static Set<String> readStrings(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Each payload gets its own object stream, which must not close the shared payload buffer.
+     */
+    private static class NonClosingOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        NonClosingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * An immutable map from descriptor to definition that decodes each definition on first access.
+     *
+     * Lookups and key iteration never decode, iterating over values decodes everything. If serialized, this is
+     * replaced by a plain map.
+     */
+    static class LazyDefinitionMap extends AbstractMap<DefDescriptor<?>, Definition> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ByteBuffer payloads;
+        private final transient DefDescriptor<?>[] descriptors;
+        private final transient Set<String>[] tags;
+        private final transient int[] offsets;
+        private final transient int[] lengths;
+        private final transient Map<DefDescriptor<?>, Integer> positions;
+        private final transient AtomicReferenceArray<Definition> decoded;
+
+        LazyDefinitionMap(ByteBuffer payloads, DefDescriptor<?>[] descriptors, Set<String>[] tags, int[] offsets,
+                int[] lengths) {
+            this.payloads = payloads;
+            this.descriptors = descriptors;
+            this.tags = tags;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.decoded = new AtomicReferenceArray<>(descriptors.length);
+            Map<DefDescriptor<?>, Integer> map = new HashMap<>();
+            for (int i = 0; i < descriptors.length; i++) {
+                map.put(descriptors[i], i);
+            }
+            this.positions = Collections.unmodifiableMap(map);
+        }
+
+        @Override
+        public Definition get(Object key) {
+            Integer position = positions.get(key);
+            return (position == null) ? null : decode(position);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return positions.containsKey(key);
+        }
+
+        @Override
+        public Set<DefDescriptor<?>> keySet() {
+            return positions.keySet();
+        }
+
+        @Override
+        public int size() {
+            return descriptors.length;
+        }
+
+        /**
+         * Find the platform definitions with any of the given tags, from the tags written with the index.
+         *
+         * @param wanted the tags to look for.
+         * @return a new, mutable set of matching descriptors.
+         */
+        Set<DefDescriptor<?>> findByTags(Set<String> wanted) {
+            Set<DefDescriptor<?>> ret = new HashSet<>();
+            for (int i = 0; i < descriptors.length; i++) {
+                if (tags[i] != null && !Collections.disjoint(tags[i], wanted)) {
+                    ret.add(descriptors[i]);
+                }
+            }
+            return ret;
+        }
+
+        /**
+         * @return the number of definitions decoded so far.
+         */
+        int getDecodedCount() {
+            int count = 0;
+            for (int i = 0; i < descriptors.length; i++) {
+                if (decoded.get(i) != null) {
+                    count += 1;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public Set<Map.Entry<DefDescriptor<?>, Definition>> entrySet() {
+            return new AbstractSet<Map.Entry<DefDescriptor<?>, Definition>>() {
+                @Override
+                public Iterator<Map.Entry<DefDescriptor<?>, Definition>> iterator() {
+                    return new Iterator<Map.Entry<DefDescriptor<?>, Definition>>() {
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < descriptors.length;
+                        }
+
+                        @Override
+                        public Map.Entry<DefDescriptor<?>, Definition> next() {
+                            int current = next++;
+                            return new AbstractMap.SimpleImmutableEntry<DefDescriptor<?>, Definition>(
+                                    descriptors[current], decode(current));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return descriptors.length;
+                }
+            };
+        }
+
+        private Definition decode(int position) {
+            Definition def = decoded.get(position);
+            if (def != null) {
+                return def;
+            }
+            if (lengths[position] < 0) {
+                Definition root = decode(offsets[position]);
+                Map<DefDescriptor<?>, Definition> bundled = (root instanceof BundleDef)
+                        ? ((BundleDef) root).getBundledDefs() : null;
+                def = (bundled != null) ? bundled.get(descriptors[position]) : null;
+                if (def == null) {
+                    throw new AuraRuntimeException("Unable to read definition " + descriptors[position]
+                            + ", it is missing from its bundle " + descriptors[offsets[position]]);
+                }
+            } else {
+                byte[] bytes = new byte[lengths[position]];
+                ByteBuffer in = payloads.duplicate();
+                in.position(offsets[position]);
+                in.get(bytes);
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    def = (Definition) ois.readObject();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new AuraRuntimeException("Unable to read definition " + descriptors[position], e);
+                }
+            }
+            decoded.compareAndSet(position, null, def);
+            return decoded.get(position);
+        }
+
+        private Object writeReplace() {
+            return new HashMap<>(this);
+        }
+    }
+}
@@ -39,6 +39,7 @@ public class CompilingDefRegistry implements DefRegistry {
     private final Set<String> prefixes;
     private final Set<String> namespaces;
     private final Map<DefDescriptor<?>, DefHolder> registry;
+    private transient volatile DescriptorIndex index;
     private final CompilerService compilerService;
     private String name;
     private final long creationTime;
@@ -50,7 +51,8 @@ public class CompilingDefRegistry implements DefRegistry {
         public final DefDescriptor<?> descriptor;
         public Definition def;
         public QuickFixException qfe;
-        public boolean initialized;
+        // volatile so that def and qfe are visible to readers that skip the lock.
+        public volatile boolean initialized;
     }
 
     public CompilingDefRegistry(SourceLoader sourceLoader, Set<String> prefixes, Set<DefType> defTypes,
@@ -82,6 +84,7 @@ public class CompilingDefRegistry implements DefRegistry {
         for (DefDescriptor<?> descriptor : descriptors) {
             registry.put(descriptor, new DefHolder(descriptor));
         }
+        this.index = new DescriptorIndex(registry.keySet());
         this.name = getClass().getSimpleName()+defTypes+prefixes+namespaces;
     }
 
@@ -93,7 +96,20 @@ public class CompilingDefRegistry implements DefRegistry {
         if (holder == null) {
             return null;
         }
-        synchronized (holder) { 
+        // Only compiles of the same descriptor wait on each other, and once compiled there is no locking at all.
+        if (!holder.initialized) {
+            compile(holder);
+        }
+        if (holder.qfe != null) {
+            throw holder.qfe;
+        }
+        @SuppressWarnings("unchecked")
+        T def = (T)holder.def;
+        return def;
+    }
+
+    private void compile(DefHolder holder) {
+        synchronized (holder) {
             if (!holder.initialized) {
                 try {
                     @SuppressWarnings("unchecked")
@@ -105,12 +121,6 @@ public class CompilingDefRegistry implements DefRegistry {
                 holder.initialized = true;
             }
         }
-        if (holder.qfe != null) {
-            throw holder.qfe;
-        }
-        @SuppressWarnings("unchecked")
-        T def = (T)holder.def;
-        return def;
     }
 
     @Override
@@ -120,14 +130,19 @@ public class CompilingDefRegistry implements DefRegistry {
 
     @Override
     public Set<DefDescriptor<?>> find(DescriptorFilter matcher) {
-        Set<DefDescriptor<?>> ret = Sets.newHashSet();
+        return getIndex().find(matcher);
+    }
 
-        for (DefDescriptor<?> key : registry.keySet()) {
-            if (matcher.matchDescriptor(key)) {
-                ret.add(key);
-            }
+    /**
+     * Get the index over our descriptors, rebuilding it if we were deserialized.
+     */
+    private DescriptorIndex getIndex() {
+        DescriptorIndex current = index;
+        if (current == null) {
+            current = new DescriptorIndex(registry.keySet());
+            index = current;
         }
-        return ret;
+        return current;
     }
 
     @Override
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.util.text.GlobMatcher;
+
+/**
+ * An immutable index of descriptors for answering {@link DescriptorFilter} queries without a full scan.
+ *
+ * Descriptors are bucketed by (prefix, namespace, type), and each bucket holds its names in sorted order. A filter
+ * with a constant prefix, namespace and types goes straight to its buckets, otherwise only the bucket keys are
+ * scanned. Within a bucket, constant names are a direct lookup, and globs with a literal start are a range lookup.
+ *
+ * All keys are lower case, as {@link GlobMatcher} is case insensitive.
+ */
+public class DescriptorIndex {
+    private final Map<BucketKey, NavigableMap<String, List<DefDescriptor<?>>>> buckets = new HashMap<>();
+
+    private static final class BucketKey {
+        private final String prefix;
+        private final String namespace;
+        private final DefType defType;
+        private final int hashCode;
+
+        BucketKey(String prefix, String namespace, DefType defType) {
+            this.prefix = prefix;
+            this.namespace = namespace;
+            this.defType = defType;
+            this.hashCode = Objects.hash(prefix, namespace, defType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof BucketKey)) {
+                return false;
+            }
+            BucketKey other = (BucketKey) obj;
+            return defType == other.defType && Objects.equals(prefix, other.prefix)
+                    && Objects.equals(namespace, other.namespace);
+        }
+    }
+
+    public DescriptorIndex(Collection<DefDescriptor<?>> descriptors) {
+        for (DefDescriptor<?> descriptor : descriptors) {
+            BucketKey key = new BucketKey(lower(descriptor.getPrefix()), lower(descriptor.getNamespace()),
+                    descriptor.getDefType());
+            NavigableMap<String, List<DefDescriptor<?>>> names = buckets.get(key);
+            if (names == null) {
+                names = new TreeMap<>();
+                buckets.put(key, names);
+            }
+            String name = lower(descriptor.getName());
+            if (name == null) {
+                continue;
+            }
+            List<DefDescriptor<?>> matches = names.get(name);
+            if (matches == null) {
+                matches = new ArrayList<>(1);
+                names.put(name, matches);
+            }
+            matches.add(descriptor);
+        }
+    }
+
+    /**
+     * Find all descriptors that match the filter.
+     *
+     * @param matcher the filter to match.
+     * @return a new, mutable set of matching descriptors.
+     */
+    public Set<DefDescriptor<?>> find(DescriptorFilter matcher) {
+        Set<DefDescriptor<?>> ret = new HashSet<>();
+        GlobMatcher prefixMatch = matcher.getPrefixMatch();
+        GlobMatcher namespaceMatch = matcher.getNamespaceMatch();
+        List<DefType> defTypes = matcher.getDefTypes();
+
+        if (prefixMatch.isConstant() && namespaceMatch.isConstant() && defTypes != null) {
+            String prefix = lower(prefixMatch.toString());
+            String namespace = lower(namespaceMatch.toString());
+            for (DefType defType : defTypes) {
+                addMatches(buckets.get(new BucketKey(prefix, namespace, defType)), matcher, ret);
+            }
+        } else {
+            for (Map.Entry<BucketKey, NavigableMap<String, List<DefDescriptor<?>>>> entry : buckets.entrySet()) {
+                BucketKey key = entry.getKey();
+                if (matcher.matchType(key.defType) && matches(prefixMatch, key.prefix)
+                        && matches(namespaceMatch, key.namespace)) {
+                    addMatches(entry.getValue(), matcher, ret);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private void addMatches(NavigableMap<String, List<DefDescriptor<?>>> names, DescriptorFilter matcher,
+            Set<DefDescriptor<?>> ret) {
+        if (names == null) {
+            return;
+        }
+        GlobMatcher nameMatch = matcher.getNameMatch();
+        if (nameMatch.isAll()) {
+            for (List<DefDescriptor<?>> matches : names.values()) {
+                ret.addAll(matches);
+            }
+        } else if (nameMatch.isConstant()) {
+            List<DefDescriptor<?>> matches = names.get(lower(nameMatch.toString()));
+            if (matches != null) {
+                ret.addAll(matches);
+            }
+        } else {
+            String literal = lower(nameMatch.getLiteralPrefix());
+            Map<String, List<DefDescriptor<?>>> range = names;
+            if (!literal.isEmpty()) {
+                range = names.subMap(literal, true, literal + Character.MAX_VALUE, true);
+            }
+            for (List<DefDescriptor<?>> matches : range.values()) {
+                for (DefDescriptor<?> descriptor : matches) {
+                    if (nameMatch.match(descriptor.getName())) {
+                        ret.add(descriptor);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean matches(GlobMatcher glob, String value) {
+        if (value == null) {
+            return glob.isAll();
+        }
+        return glob.match(value);
+    }
+
+    private static String lower(String value) {
+        return (value == null) ? null : value.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -17,7 +17,6 @@ package org.auraframework.impl.system;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -42,6 +41,7 @@ public class StaticDefRegistryImpl extends DefRegistryImpl {
     private static final long serialVersionUID = 1L;
     protected final Map<DefDescriptor<?>, Definition> defs;
     private transient SourceLoader sourceLoader = null;
+    private transient volatile DescriptorIndex index;
     private String name;
 
     public StaticDefRegistryImpl(Set<DefType> defTypes, Set<String> prefixes, Set<String> namespaces,
@@ -77,18 +77,27 @@ public class StaticDefRegistryImpl extends DefRegistryImpl {
 
     @Override
     public Set<DefDescriptor<?>> find(DescriptorFilter matcher) {
-        Set<DefDescriptor<?>> ret = new HashSet<>();
+        return getIndex().find(matcher);
+    }
 
-        for (DefDescriptor<?> key : defs.keySet()) {
-            if (matcher.matchDescriptor(key)) {
-                ret.add(key);
-            }
+    /**
+     * Get the index over our descriptors, building it on first use (including after deserialization).
+     */
+    private DescriptorIndex getIndex() {
+        DescriptorIndex current = index;
+        if (current == null) {
+            current = new DescriptorIndex(defs.keySet());
+            index = current;
         }
-        return ret;
+        return current;
     }
 
     @Override
     public Set<DefDescriptor<?>> findByTags(@Nonnull Set<String> tags) {
+        if (defs instanceof BinaryRegistryFormat.LazyDefinitionMap) {
+            // answered from the tags stored with the index, without decoding any definitions.
+            return ((BinaryRegistryFormat.LazyDefinitionMap) defs).findByTags(tags);
+        }
         return defs.entrySet().stream().filter(m ->
                 m.getValue() instanceof PlatformDef
                 && !Collections.disjoint(((PlatformDef)m.getValue()).getTags(), tags))
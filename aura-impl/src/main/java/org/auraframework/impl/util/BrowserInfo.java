@@ -50,8 +50,24 @@ import static org.auraframework.impl.util.UserAgent.VERSIONED_CUTOFF;
 import org.apache.commons.lang3.StringUtils;
 import org.auraframework.impl.util.UserAgent.UA;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
 // user-agent parser to provide browser information
 public class BrowserInfo {
+    /**
+     * The number of distinct user agents kept parsed, which is far more than any real mix of clients.
+     */
+    private static final int MAX_CACHED_USER_AGENTS = 4096;
+
+    /**
+     * Longer user agents are parsed every time rather than kept, real ones are well under this.
+     */
+    private static final int MAX_CACHED_USER_AGENT_LENGTH = 1024;
+
+    private static final Cache<String, BrowserInfo> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_USER_AGENTS).recordStats().build();
 
     /**
      * Form factors for browser client devices.
@@ -135,6 +151,37 @@ public class BrowserInfo {
     private boolean isWindowsTablet;
     private boolean isBlackBerry;
     private ViewportFormFactor viewportFormFactor;
+    private FormFactor hardwareFormFactor;
+    private volatile Boolean isMobileClient;
+
+    /**
+     * Get the browser information for a user agent.
+     *
+     * The result is shared by everyone asking about the same user agent, and is not modified after it is parsed, so
+     * this should be used in place of the constructor.
+     *
+     * @param userAgentString the user agent, may be null.
+     * @return the parsed browser information.
+     */
+    public static BrowserInfo get(String userAgentString) {
+        String key = (userAgentString == null) ? "" : userAgentString;
+        if (key.length() > MAX_CACHED_USER_AGENT_LENGTH) {
+            return new BrowserInfo(key);
+        }
+        BrowserInfo info = CACHE.getIfPresent(key);
+        if (info == null) {
+            info = new BrowserInfo(key);
+            CACHE.put(key, info);
+        }
+        return info;
+    }
+
+    /**
+     * @return the hit and miss counts for {@link #get(String)}.
+     */
+    public static CacheStats getCacheStats() {
+        return CACHE.stats();
+    }
 
     public BrowserInfo(String userAgentString) {
         if (userAgentString == null) {
@@ -215,6 +262,20 @@ public class BrowserInfo {
         return isIE11;
     }
 
+    /**
+     * @return the browser type, as returned by {@link BrowserUserAgent#parseBrowser(String)}.
+     */
+    public int getBrowserType() {
+        return browserType;
+    }
+
+    /**
+     * @return the platform type, as returned by {@link BrowserUserAgent#parsePlatform(String)}.
+     */
+    public int getPlatformType() {
+        return platformType;
+    }
+
     private void parseUserAgent() {
         // set initial values
         isTablet = false;
@@ -228,6 +289,7 @@ public class BrowserInfo {
         isWindowsTablet = false;
         formFactor = FormFactor.DESKTOP.toString();
         viewportFormFactor = ViewportFormFactor.LARGE;
+        hardwareFormFactor = FormFactor.DESKTOP;
         platformType = 0;
         browserType = 0;
 
@@ -252,7 +314,8 @@ public class BrowserInfo {
 
         // Calculate viewportFormFactor 1st.  It may directly override what getHardwareFormFactor() returns
         viewportFormFactor = ViewportFormFactor.fromUserAgent(userAgentString);
-        formFactor = getHardwareFormFactor().toString();
+        hardwareFormFactor = parseHardwareFormFactor();
+        formFactor = hardwareFormFactor.toString();
 
         isTablet = isTabletClient();
         isPhone = isSmartPhoneClient();
@@ -572,7 +635,12 @@ public class BrowserInfo {
         // TODO: see if this can be replaced by BrowserInfo.isBrowserMobile()
         // It is easier to maintain with no third party dependencies and ~7x
         // faster.
-        return isMobileClient(userAgentString);
+        Boolean mobile = isMobileClient;
+        if (mobile == null) {
+            mobile = isMobileClient(userAgentString);
+            isMobileClient = mobile;
+        }
+        return mobile;
     }
 
     /**
@@ -606,6 +674,10 @@ public class BrowserInfo {
      * @return a FormFactor value
      */
     public FormFactor getHardwareFormFactor() {
+        return hardwareFormFactor;
+    }
+
+    private FormFactor parseHardwareFormFactor() {
         if (viewportFormFactor!=null) {
             return viewportFormFactor.getFormFactor();
         }
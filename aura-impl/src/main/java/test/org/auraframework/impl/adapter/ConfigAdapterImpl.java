@@ -110,15 +110,14 @@ public class ConfigAdapterImpl implements ConfigAdapter {
     private final Map<String, String> moduleNamespaceAliases = Maps.newConcurrentMap();
 
     protected final Set<Mode> allModes = EnumSet.allOf(Mode.class);
-    private JavascriptGroup jsGroup;
-    private FileGroup resourcesGroup;
-    private String jsUid = "";
-    private String resourcesUid = "";
-    private String fwUid = "";
+    private volatile JavascriptGroup jsGroup;
+    private volatile FileGroup resourcesGroup;
+    private volatile FrameworkUids frameworkUids;
     private ResourceLoader resourceLoader;
     private Long buildTimestamp;
     private String auraVersionString;
-    private boolean lastGenerationHadCompilationErrors = false;
+    private volatile boolean lastGenerationHadCompilationErrors = false;
+    private volatile boolean regenerating = false;
     private Boolean validateCss;
 
     @Inject
@@ -172,7 +171,31 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         contextService.registerGlobal("dynamicTypeSize", true, "");
     }
 
+    /**
+     * The framework uid and the group hashes it was made from, published as a whole so that readers never see a
+     * framework uid that does not match its parts.
+     */
+    private static final class FrameworkUids {
+        private final String jsUid;
+        private final String resourcesUid;
+        private final String fwUid;
+
+        private FrameworkUids(String jsUid, String resourcesUid, String fwUid) {
+            this.jsUid = jsUid;
+            this.resourcesUid = resourcesUid;
+            this.fwUid = fwUid;
+        }
+
+        private boolean matches(String jsHash, String resourcesHash) {
+            return jsUid.equals(jsHash) && resourcesUid.equals(resourcesHash);
+        }
+    }
+
     private JavascriptGroup getJSGroup() {
+        JavascriptGroup group = jsGroup;
+        if (group != null) {
+            return group;
+        }
         synchronized (this) {
             if (jsGroup != null) {
                 return jsGroup;
@@ -199,6 +222,10 @@ public class ConfigAdapterImpl implements ConfigAdapter {
     }
 
     private FileGroup getResourcesGroup() {
+        FileGroup group = resourcesGroup;
+        if (group != null) {
+            return group;
+        }
         synchronized (this) {
             if (resourcesGroup != null) {
                 return resourcesGroup;
@@ -276,13 +303,28 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         return false;
     }
 
+    /**
+     * Staleness is flagged by the file monitor, so the check here is only a read of that flag, and the lock is taken
+     * only when there is something to regenerate, or a regeneration is running and has to be waited for.
+     *
+     * The group clears its stale flag when it starts regenerating, well before the files are copied, so the
+     * regenerating flag is set first and read last: a caller that sees the group as fresh while it is being
+     * regenerated also sees the regeneration, and waits for it on the lock.
+     */
     @Override
-    public synchronized void regenerateAuraJS() {
+    public void regenerateAuraJS() {
         /*
          * If we're missing source, jsGroup will be an AuraResourceGroup and isStale() is always false. If we're in
          * production, we're using the resources too. But if we have source, regenerate from it if it's changed:
          */
-        if (!isProduction() && (getJSGroup().isStale() || lastGenerationHadCompilationErrors)) {
+        if (isProduction() || !(getJSGroup().isStale() || lastGenerationHadCompilationErrors || regenerating)) {
+            return;
+        }
+        synchronized (this) {
+            if (!(jsGroup.isStale() || lastGenerationHadCompilationErrors)) {
+                return;
+            }
+            regenerating = true;
             try {
                 logger.info("Regenerating framework javascript");
                 File dest = AuraImplFiles.AuraResourceJavascriptDirectory.asFile();
@@ -308,6 +350,8 @@ public class ConfigAdapterImpl implements ConfigAdapter {
             } catch (Exception x) {
                 lastGenerationHadCompilationErrors = true;
                 throw new AuraRuntimeException("Unable to regenerate aura javascript", x);
+            } finally {
+                regenerating = false;
             }
         }
     }
@@ -572,33 +616,39 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         return validateCss;
     }
 
+    /**
+     * The framework uid is published as an immutable snapshot. In production nothing can change once it is known, so
+     * requests only read it. Otherwise the group hashes are compared against it, and a new snapshot is made under the
+     * lock only when one of them has changed. The hashes are read again under the lock, which regeneration also holds,
+     * so a snapshot is only made from the latest hashes, once the javascript for them is in place. A thread that read
+     * the hashes before a change can then not replace the newer snapshot with an older one.
+     */
     @Override
     public final String getAuraFrameworkNonce() {
+        FrameworkUids uids = frameworkUids;
+        if (uids != null && isProduction()) {
+            return uids.fwUid;
+        }
         regenerateAuraJS();
         try {
             // framework nonce now consists of Aura JS and resources files (CSS and JS) and if locker service is enabled
             String jsHash = getJSGroup().getGroupHash().toString();
             String resourcesHash = getAuraResourcesNonce();
 
-            /*
-             * don't want to makeHash every time so store results and return appropriately
-             *
-             * Be VERY careful here.
-             *
-             * because fwUid is set along with jsUid and resourcesUid, there is a race condition
-             * whereby the condition can fail (i.e. both js & resources match), but fwUid is not
-             * yet set. This is very bad, as it causes an empty fwUid, which breaks everyone with
-             * a COOS
-             */
-            synchronized (this) {
-                if (!jsHash.equals(this.jsUid) || !resourcesHash.equals(this.resourcesUid)) {
-                    this.jsUid = jsHash;
-                    this.resourcesUid = resourcesHash;
-                    this.fwUid = makeHash(this.jsUid, this.resourcesUid);
+            uids = frameworkUids;
+            if (uids == null || !uids.matches(jsHash, resourcesHash)) {
+                // don't want to makeHash every time, so only one thread makes it for a given pair of hashes
+                synchronized (this) {
+                    jsHash = getJSGroup().getGroupHash().toString();
+                    resourcesHash = getAuraResourcesNonce();
+                    uids = frameworkUids;
+                    if (uids == null || !uids.matches(jsHash, resourcesHash)) {
+                        uids = new FrameworkUids(jsHash, resourcesHash, makeHash(jsHash, resourcesHash));
+                        frameworkUids = uids;
+                    }
                 }
             }
-
-            return this.fwUid;
+            return uids.fwUid;
 
         } catch (IOException e) {
             throw new AuraRuntimeException("Can't read framework files", e);
@@ -614,7 +664,11 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         try {
             FileGroup rg = getResourcesGroup();
             if (!isProduction() && rg.isStale()) {
-                rg.reset();
+                synchronized (rg) {
+                    if (rg.isStale()) {
+                        rg.reset();
+                    }
+                }
             }
             return rg.getGroupHash().toString();
         } catch (IOException e) {
@@ -798,7 +852,7 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         // 4 for mobile, 6 for desktop
         AuraContext context = contextService.getCurrentContext();
         String ua = context != null ? context.getClient().getUserAgent() : null;
-        BrowserInfo b = new BrowserInfo(ua);
+        BrowserInfo b = BrowserInfo.get(ua);
         return b.isBrowserMobile() ? 4 : 6;
     }
 
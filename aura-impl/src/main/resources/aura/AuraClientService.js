@@ -1200,9 +1200,10 @@ AuraClientService.prototype.showErrorDialogWithReload = function(e, additionalLo
                 context = $A.util.json.encode({"fwuid": AuraClientService.UNKNOWN_FRAMEWORK_UID});
             }
 
+            // message goes last so that the server can parse it straight from the request body
             var params = {
-                    "message": $A.util.json.encode(payload),
-                    "aura.context": context
+                    "aura.context": context,
+                    "message": $A.util.json.encode(payload)
             };
             var queryString = this.buildParams(params);
             xhr.send(queryString);
@@ -2993,7 +2994,6 @@ AuraClientService.prototype.send = function(auraXHR, actions, method, options) {
     var loc = window.location;
     try {
         var params = {
-            "message"      : $A.util.json.encode({ "actions" : actionsToSend }),
             "aura.context" : context.encodeForServer(method === "POST", method === "GET")
         };
 
@@ -3007,6 +3007,10 @@ AuraClientService.prototype.send = function(auraXHR, actions, method, options) {
             params["aura.token"] = this._token;
         }
 
+        // message goes last so that the server can parse it straight from the request body, after reading
+        // the other params.
+        params["message"] = $A.util.json.encode({ "actions" : actionsToSend });
+
         qs = this.buildParams(params);
     } catch (e) {
         for (i = 0; i < actions.length; i++) {
@@ -3104,10 +3108,11 @@ AuraClientService.prototype.send = function(auraXHR, actions, method, options) {
 * Prepares the request
 */
 AuraClientService.prototype.prepareRequest = function (actions) {
+    // message goes last so that the server can parse it straight from the request body
     var params = {
-        "message"      : $A.util.json.encode({ "actions" : actions }),
         "aura.context" : $A.getContext().encodeForServer(true),
-        "aura.token"   : this._token
+        "aura.token"   : this._token,
+        "message"      : $A.util.json.encode({ "actions" : actions })
     };
 
     return this.buildParams(params);
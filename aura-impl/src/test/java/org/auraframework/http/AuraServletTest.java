@@ -15,6 +15,7 @@
  */
 package org.auraframework.http;
 
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.List;
 
@@ -257,6 +258,60 @@ public class AuraServletTest extends UnitTestCase {
         assertSame("should get expected exception", expected, actual);
     }
 
+    @Test
+    public void testReadMessageStreamEmpty() throws Exception {
+        Message test = originalServlet.readMessageStream(new StringReader(""));
+        assertNull("Empty message should result in a null", test);
+    }
+
+    @Test
+    public void testReadMessageStreamEmptyActions() throws Exception {
+        Message test = originalServlet.readMessageStream(new StringReader("{other:{a:[1,2]}, 'actions':[]}"));
+        assertNotNull("Empty message actions should result in a message", test);
+        assertEquals(0, test.getActions().size());
+    }
+
+    @Test
+    public void testReadMessageStreamBadJSON() throws Exception {
+        JsonParseException expected = null;
+        try {
+            originalServlet.readMessageStream(new StringReader("{actions:[{}"));
+        } catch (JsonParseException jpe) {
+            expected = jpe;
+        }
+        assertNotNull("Truncated JSON should result in an exception", expected);
+    }
+
+    @Test
+    public void testReadMessageStreamActionQFE() throws Exception {
+        String actionName = "myAction";
+        QuickFixException expected = Mockito.mock(QuickFixException.class);
+        Mockito.doThrow(expected).when(definitionService).getDefinition(actionName, ActionDef.class);
+
+        Message message = originalServlet.readMessageStream(new StringReader(
+                "{'actions':[{'descriptor':'" + actionName + "'}, null, {'id':'1'}]}"));
+
+        assertNotNull(message);
+        assertEquals(0, message.getActions().size());
+    }
+
+    @Test
+    public void testReadMessageStreamAction() throws Exception {
+        String actionName = "myAction";
+        ActionDef myActionDef = getActionDef(actionName);
+        Action action = Mockito.mock(Action.class);
+        Mockito.doReturn(myActionDef).when(definitionService).getDefinition(actionName, ActionDef.class);
+        Mockito.doReturn(action).when(instanceService).getInstance(Matchers.eq(myActionDef), Matchers.any());
+
+        Message message = originalServlet.readMessageStream(new StringReader(
+                "{\"actions\":[{\"id\":\"1;a\",\"descriptor\":\"" + actionName
+                + "\",\"params\":{\"x\":[1]},\"storable\":true}]}"));
+
+        assertEquals(Arrays.asList(action), message.getActions());
+        Mockito.verify(action).setId("1;a");
+        Mockito.verify(action).setStorable();
+    }
+
     /*
      * This test verify that we do definitionService.updateLoaded before message read, 
      * when action from client arrives, if the client is running out-dated code, we will throw COOS to force it reload, 
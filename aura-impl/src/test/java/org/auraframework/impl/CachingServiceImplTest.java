@@ -17,6 +17,7 @@ package org.auraframework.impl;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Level;
@@ -36,17 +37,21 @@ import org.auraframework.def.StyleDef;
 import org.auraframework.impl.system.DefDescriptorImpl;
 import org.auraframework.service.CachingService;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.EncodedContent;
+import org.auraframework.system.Location;
 import org.auraframework.system.SourceListener;
 import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.inject.Inject;
+import java.io.File;
 import java.io.StringWriter;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
@@ -144,6 +149,40 @@ public class CachingServiceImplTest extends AuraImplTestCase {
         }
     }
 
+    @Test
+    public void testNotifyDependentSourceChanges_NotifiesListenersOnceWithBatch() {
+        Map<String, SourceMonitorEvent> changes = Maps.newLinkedHashMap();
+        changes.put("firstFilePath", SourceMonitorEvent.CHANGED);
+        changes.put("secondFilePath", SourceMonitorEvent.CREATED);
+        SourceListener listener = Mockito.mock(SourceListener.class);
+        Collection<WeakReference<SourceListener>> listeners = Sets.newHashSet();
+        listeners.add(new WeakReference<>(listener));
+
+        CachingServiceImpl cachingService = new CachingServiceImpl();
+        cachingService.setLoggingAdapter(loggingAdapter);
+        cachingService.initializeCaches();
+        cachingService.getStringsCache().put("key", "value");
+        cachingService.notifyDependentSourceChanges(listeners, changes);
+
+        Mockito.verify(listener, Mockito.times(1)).onSourcesChanged(changes);
+        Mockito.verify(listener, Mockito.never()).onSourceChanged(Mockito.any(), Mockito.any());
+        assertNull(cachingService.getStringsCache().getIfPresent("key"));
+    }
+
+    @Test
+    public void testNotifyDependentSourceChanges_MissedChangesInvalidateAll() {
+        CachingServiceImpl cachingService = new CachingServiceImpl();
+        cachingService.setLoggingAdapter(loggingAdapter);
+        cachingService.initializeCaches();
+        cachingService.getStringsCache().put("key", "value");
+        cachingService.getClientLibraryOutputCache().put("key", "value");
+
+        cachingService.notifyDependentSourceChanges(Collections.<WeakReference<SourceListener>> emptySet(), null);
+
+        assertNull(cachingService.getStringsCache().getIfPresent("key"));
+        assertNull(cachingService.getClientLibraryOutputCache().getIfPresent("key"));
+    }
+
     @Test
     public void testNotifyDependentSourceChange_NotifiesNoListeners() {
         SourceMonitorEvent event = SourceMonitorEvent.CHANGED;
@@ -357,4 +396,92 @@ public class CachingServiceImplTest extends AuraImplTestCase {
                 cachingService.getExistsCache(),
                 key -> true, keys);
     }
+
+    private Definition mockDefinitionAt(String fileName) {
+        Definition def = Mockito.mock(Definition.class);
+        Mockito.doReturn(new Location(fileName, 0)).when(def).getLocation();
+        return def;
+    }
+
+    @Test
+    public void testNotifyDependentSourceChange_InvalidatesOnlyDependentsOfChangedFile() throws Exception {
+        String base = new File(System.getProperty("java.io.tmpdir")).getCanonicalPath();
+        String changedFile = base + "/some/changed/changed.cmp";
+        DefDescriptor<?> changed = definitionService.getDefDescriptor(
+                getAuraTestingUtil().getNonce("some:changed"), ComponentDef.class);
+        DefDescriptor<?> other = definitionService.getDefDescriptor(
+                getAuraTestingUtil().getNonce("some:other"), ComponentDef.class);
+
+        Map<DefDescriptor<? extends Definition>, Definition> dependentMap = Maps.newLinkedHashMap();
+        dependentMap.put(changed, mockDefinitionAt(changedFile));
+        dependentMap.put(other, mockDefinitionAt(base + "/some/other/other.cmp"));
+        DependencyEntry dependent = new DependencyEntry("dependentUid", dependentMap,
+                Collections.emptyList(), true, null);
+
+        Map<DefDescriptor<? extends Definition>, Definition> unrelatedMap = Maps.newLinkedHashMap();
+        unrelatedMap.put(other, dependentMap.get(other));
+        DependencyEntry unrelated = new DependencyEntry("unrelatedUid", unrelatedMap,
+                Collections.emptyList(), true, null);
+
+        CachingServiceImpl cachingService = new CachingServiceImpl();
+        cachingService.setLoggingAdapter(loggingAdapter);
+        cachingService.initializeCaches();
+        // the first change clears everything and starts tracking dependencies.
+        cachingService.notifyDependentSourceChange(
+                Collections.<WeakReference<SourceListener>> emptySet(), null, null);
+
+        cachingService.getDefsCache().put(changed, Optional.of(dependentMap.get(changed)));
+        cachingService.getDefsCache().put(other, Optional.of(dependentMap.get(other)));
+        cachingService.getDepsCache().put("dependentUid/key", dependent);
+        cachingService.addDependencyEntry("dependentUid/key", dependent);
+        cachingService.getDepsCache().put("unrelatedUid/key", unrelated);
+        cachingService.addDependencyEntry("unrelatedUid/key", unrelated);
+        cachingService.getStringsCache().put("dependentUid@app", "dependent");
+        cachingService.addUidDerivedKey("dependentUid", "dependentUid@app");
+        cachingService.getStringsCache().put("unrelatedUid@app", "unrelated");
+        cachingService.addUidDerivedKey("unrelatedUid", "unrelatedUid@app");
+        cachingService.getDefinitionFragmentCache().put("COMPONENT:some:other", "fragment");
+
+        cachingService.notifyDependentSourceChange(
+                Collections.<WeakReference<SourceListener>> emptySet(), SourceMonitorEvent.CHANGED, changedFile);
+
+        assertNull(cachingService.getDefsCache().getIfPresent(changed));
+        assertNotNull(cachingService.getDefsCache().getIfPresent(other));
+        assertNull(cachingService.getDepsCache().getIfPresent("dependentUid/key"));
+        assertNotNull(cachingService.getDepsCache().getIfPresent("unrelatedUid/key"));
+        assertNull(cachingService.getStringsCache().getIfPresent("dependentUid@app"));
+        assertNotNull(cachingService.getStringsCache().getIfPresent("unrelatedUid@app"));
+        // fragments include inherited definitions, so they are always cleared.
+        assertNull(cachingService.getDefinitionFragmentCache().getIfPresent("COMPONENT:some:other"));
+    }
+
+    @Test
+    public void testNotifyDependentSourceChange_TargetedChangeClearsUnindexedCaches() throws Exception {
+        String base = new File(System.getProperty("java.io.tmpdir")).getCanonicalPath();
+        String changedFile = base + "/some/changed/changed.cmp";
+        DefDescriptor<?> changed = definitionService.getDefDescriptor(
+                getAuraTestingUtil().getNonce("some:changed"), ComponentDef.class);
+        Map<DefDescriptor<? extends Definition>, Definition> map = Maps.newLinkedHashMap();
+        map.put(changed, mockDefinitionAt(changedFile));
+        DependencyEntry entry = new DependencyEntry("uid", map, Collections.emptyList(), true, null);
+
+        CachingServiceImpl cachingService = new CachingServiceImpl();
+        cachingService.setLoggingAdapter(loggingAdapter);
+        cachingService.initializeCaches();
+        cachingService.notifyDependentSourceChange(
+                Collections.<WeakReference<SourceListener>> emptySet(), null, null);
+
+        cachingService.addDependencyEntry("uid/key", entry);
+        String filterKey = getAuraTestingUtil().getNonce("filter");
+        cachingService.getDescriptorFilterCache().put(filterKey, Collections.emptySet());
+        cachingService.getClientLibraryOutputCache().put("clientLib", "output");
+        cachingService.getComponentDefinitionCache().put("cmpDef", EncodedContent.encode("defs"));
+
+        cachingService.notifyDependentSourceChange(
+                Collections.<WeakReference<SourceListener>> emptySet(), SourceMonitorEvent.CHANGED, changedFile);
+
+        assertNull(cachingService.getDescriptorFilterCache().getIfPresent(filterKey));
+        assertNull(cachingService.getClientLibraryOutputCache().getIfPresent("clientLib"));
+        assertNull(cachingService.getComponentDefinitionCache().getIfPresent("cmpDef"));
+    }
 }
@@ -181,4 +181,145 @@ public class CacheImplTest {
         Mockito.verify(backingCache, Mockito.never()).invalidate(
                 Matchers.anyCollection());
     }
+
+    @Test
+    public void testSecondaryStorageServesEntriesEvictedFromFront() {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setUseSecondaryStorage(true)
+                .setMaximumSize(16)
+                .setRecordStats(true)
+                .build();
+
+        for (int i = 0; i < 16; i++) {
+            cache.put("key" + i, "value\u00e9" + i);
+        }
+
+        for (int i = 0; i < 16; i++) {
+            Assert.assertEquals("value\u00e9" + i, cache.getIfPresent("key" + i));
+        }
+        Assert.assertEquals(16, cache.getKeySet().size());
+        Assert.assertTrue(cache.getSecondaryStorage().getHitCount() > 0);
+    }
+
+    @Test
+    public void testSecondaryStorageLoaderNotCalledForSecondaryHit() throws Exception {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setUseSecondaryStorage(true)
+                .setMaximumSize(8)
+                .build();
+        cache.put("key", "value");
+        ((com.google.common.cache.Cache<?, ?>) cache.getPrivateUnderlyingCache()).invalidateAll();
+
+        String actual = cache.get("key", () -> { throw new AssertionError("loader should not be called"); });
+        Assert.assertEquals("value", actual);
+    }
+
+    @Test
+    public void testSecondaryStorageInvalidateRemovesBothTiers() {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setUseSecondaryStorage(true)
+                .setMaximumSize(8)
+                .build();
+        cache.put("key", "value");
+        cache.invalidate("key");
+
+        Assert.assertNull(cache.getIfPresent("key"));
+        Assert.assertEquals(0, cache.getSecondaryStorage().size());
+    }
+
+    @Test
+    public void testSecondaryStorageInvalidateIsNotUndoneByConcurrentRead() throws Exception {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setUseSecondaryStorage(true)
+                .setMaximumSize(8)
+                .build();
+        com.google.common.cache.Cache<?, ?> front = (com.google.common.cache.Cache<?, ?>) cache
+                .getPrivateUnderlyingCache();
+
+        for (int i = 0; i < 500; i++) {
+            cache.put("key", "value" + i);
+            front.invalidateAll();
+            Thread reader = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    cache.getIfPresent("key");
+                }
+            });
+            reader.start();
+            cache.invalidate("key");
+            reader.join();
+
+            Assert.assertNull("invalidated value came back on iteration " + i, cache.getIfPresent("key"));
+        }
+    }
+
+    @Test
+    public void testSecondaryStoragePutAndInvalidateLeaveTiersInStep() throws Exception {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setUseSecondaryStorage(true)
+                .setMaximumSize(8)
+                .build();
+        com.google.common.cache.Cache<?, ?> front = (com.google.common.cache.Cache<?, ?>) cache
+                .getPrivateUnderlyingCache();
+
+        for (int i = 0; i < 500; i++) {
+            String value = "value" + i;
+            Thread writer = new Thread(() -> cache.put("key", value));
+            writer.start();
+            cache.invalidate("key");
+            writer.join();
+
+            Assert.assertEquals("tiers differ on iteration " + i, front.getIfPresent("key") == null,
+                    cache.getSecondaryStorage().get("key") == null);
+        }
+    }
+
+    @Test
+    public void testSecondaryStoragePromotionDoesNotOverwriteNewerPut() throws Exception {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setUseSecondaryStorage(true)
+                .setMaximumSize(8)
+                .build();
+        com.google.common.cache.Cache<?, ?> front = (com.google.common.cache.Cache<?, ?>) cache
+                .getPrivateUnderlyingCache();
+
+        for (int i = 0; i < 500; i++) {
+            cache.put("key", "old" + i);
+            front.invalidateAll();
+            Thread reader = new Thread(() -> cache.getIfPresent("key"));
+            reader.start();
+            cache.put("key", "new" + i);
+            reader.join();
+
+            Assert.assertEquals("promotion overwrote a newer value on iteration " + i, "new" + i,
+                    cache.getIfPresent("key"));
+        }
+    }
+
+    @Test
+    public void testSecondaryStorageGetLoadsAfterInvalidate() throws Exception {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setUseSecondaryStorage(true)
+                .setMaximumSize(8)
+                .build();
+        cache.put("key", "old");
+        cache.invalidate("key");
+
+        Assert.assertEquals("new", cache.get("key", () -> "new"));
+        ((com.google.common.cache.Cache<?, ?>) cache.getPrivateUnderlyingCache()).invalidateAll();
+        Assert.assertEquals("new", cache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testMaximumWeightEvictsByWeight() {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setMaximumWeight(100, String::length)
+                .setConcurrencyLevel(1)
+                .build();
+
+        cache.put("small", "0123456789");
+        cache.put("large", new String(new char[95]));
+
+        Assert.assertNull(cache.getIfPresent("small"));
+        Assert.assertNotNull(cache.getIfPresent("large"));
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.impl.system.DefDescriptorImpl;
+import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.Location;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class DependencyIndexTest {
+    private static final String BASE = "/src/components/test";
+
+    private DefDescriptor<ComponentDef> descriptor(String name) {
+        return new DefDescriptorImpl<>("markup", "test", name, ComponentDef.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Definition definition(String name, DefDescriptor<?>... dependencies) {
+        Definition def = Mockito.mock(Definition.class);
+        Mockito.doReturn(new Location(BASE + "/" + name + "/" + name + ".cmp", 0)).when(def).getLocation();
+        Mockito.doAnswer(invocation -> {
+            Set<DefDescriptor<?>> set = (Set<DefDescriptor<?>>) invocation.getArguments()[0];
+            Collections.addAll(set, dependencies);
+            return null;
+        }).when(def).appendDependencies(Mockito.any());
+        return def;
+    }
+
+    private DependencyEntry entry(String uid, Map<DefDescriptor<? extends Definition>, Definition> map) {
+        return new DependencyEntry(uid, map, Collections.emptyList(), true, null);
+    }
+
+    @Test
+    public void testRemoveIncludesTransitiveDependents() {
+        DefDescriptor<ComponentDef> base = descriptor("base");
+        DefDescriptor<ComponentDef> middle = descriptor("middle");
+        DefDescriptor<ComponentDef> top = descriptor("top");
+        DefDescriptor<ComponentDef> unrelated = descriptor("unrelated");
+        Map<DefDescriptor<? extends Definition>, Definition> map = new LinkedHashMap<>();
+        map.put(base, definition("base"));
+        map.put(middle, definition("middle", base));
+        map.put(top, definition("top", middle));
+        map.put(unrelated, definition("unrelated"));
+
+        DependencyIndex index = new DependencyIndex();
+        index.setEnabled(true);
+        index.addDependencyEntry("uid/top", entry("uid", map));
+        index.addUidDerivedKey("uid", "uid@app.js");
+
+        DependencyIndex.Invalidation invalidation = index.remove(BASE + "/base/base.cmp");
+
+        Assert.assertEquals(3, invalidation.descriptors.size());
+        Assert.assertFalse(invalidation.descriptors.contains(unrelated));
+        Assert.assertTrue(invalidation.descriptors.contains(top));
+        Assert.assertEquals(Collections.singleton("uid/top"), invalidation.depsKeys);
+        Assert.assertEquals(Collections.singleton("uid@app.js"), invalidation.stringKeys);
+    }
+
+    @Test
+    public void testOverflowReportsUnknownUntilCleared() {
+        DefDescriptor<ComponentDef> base = descriptor("base");
+        Map<DefDescriptor<? extends Definition>, Definition> map = new LinkedHashMap<>();
+        map.put(base, definition("base"));
+
+        DependencyIndex index = new DependencyIndex(4);
+        index.setEnabled(true);
+        index.addDependencyEntry("uid/base", entry("uid", map));
+        for (int i = 0; i < 4; i++) {
+            index.addUidDerivedKey("uid", "key" + i);
+        }
+
+        Assert.assertTrue(index.isOverflowed());
+        Assert.assertNull(index.remove(BASE + "/base/base.cmp"));
+
+        index.clear();
+        Assert.assertFalse(index.isOverflowed());
+        index.addDependencyEntry("uid/base", entry("uid", map));
+        Assert.assertNotNull(index.remove(BASE + "/base/base.cmp"));
+    }
+
+    @Test
+    public void testRepeatedLookupsDoNotGrowIndex() {
+        DependencyIndex index = new DependencyIndex(2);
+        index.setEnabled(true);
+        for (int i = 0; i < 10; i++) {
+            index.addUidDerivedKey("uid", "key");
+        }
+
+        Assert.assertFalse(index.isOverflowed());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapStringStoreTest {
+    @Test
+    public void testGetReturnsPutValue() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(10, 1024);
+        String expected = "var x = 'é中';";
+
+        store.put("key", expected);
+
+        Assert.assertEquals(expected, store.get("key"));
+        Assert.assertEquals(1, store.getHitCount());
+        Assert.assertEquals(0, store.getMissCount());
+    }
+
+    @Test
+    public void testGetMissingCountsMiss() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(10, 1024);
+
+        Assert.assertNull(store.get("notHere"));
+        Assert.assertEquals(1, store.getMissCount());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedOnEntryLimit() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(2, 1024);
+        store.put("a", "1");
+        store.put("b", "2");
+        store.get("a");
+        store.put("c", "3");
+
+        Assert.assertEquals("1", store.get("a"));
+        Assert.assertNull(store.get("b"));
+        Assert.assertEquals("3", store.get("c"));
+        Assert.assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void testEvictsOnByteLimit() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(10, 10);
+        store.put("a", "12345");
+        store.put("b", "12345");
+        store.put("c", "12345");
+
+        Assert.assertEquals(2, store.size());
+        Assert.assertEquals(10, store.getByteSize());
+        Assert.assertNull(store.get("a"));
+    }
+
+    @Test
+    public void testValueLargerThanLimitIsNotKept() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(10, 4);
+        store.put("a", "123");
+        store.put("a", "12345");
+
+        Assert.assertNull(store.get("a"));
+        Assert.assertEquals(0, store.getByteSize());
+    }
+
+    @Test
+    public void testReplaceAdjustsByteSize() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(10, 1024);
+        store.put("a", "12345");
+        store.put("a", "12");
+
+        Assert.assertEquals(2, store.getByteSize());
+        Assert.assertEquals("12", store.get("a"));
+    }
+
+    @Test
+    public void testValueSpanningBlocksRoundTrips() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(10, 1024 * 1024);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 3 * OffHeapStringStore.BLOCK_SIZE; i++) {
+            sb.append(i).append('\u00e9');
+        }
+        String expected = sb.toString();
+
+        store.put("key", expected);
+
+        Assert.assertEquals(expected, store.get("key"));
+    }
+
+    @Test
+    public void testBlocksAreReused() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(2, 64 * 1024);
+        char[] chars = new char[10000];
+        Arrays.fill(chars, 'x');
+        String value = new String(chars);
+
+        store.put("a", value);
+        store.put("b", value);
+        long allocated = store.getAllocatedBytes();
+        for (int i = 0; i < 100; i++) {
+            store.put("key" + i, value);
+        }
+        store.invalidateAll();
+        store.put("c", value);
+
+        Assert.assertEquals(allocated, store.getAllocatedBytes());
+        Assert.assertEquals(value, store.get("c"));
+    }
+
+    @Test
+    public void testAllocationIsBoundedByLimits() {
+        OffHeapStringStore<String> store = new OffHeapStringStore<>(4, 10);
+        for (int i = 0; i < 100; i++) {
+            store.put("key" + i, "12345");
+        }
+
+        Assert.assertTrue(store.getAllocatedBytes() <= (1 + 4) * OffHeapStringStore.BLOCK_SIZE);
+        Assert.assertEquals("12345", store.get("key99"));
+    }
+}
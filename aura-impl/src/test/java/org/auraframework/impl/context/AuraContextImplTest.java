@@ -18,6 +18,7 @@ package org.auraframework.impl.context;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
@@ -26,6 +27,7 @@ import org.auraframework.def.DefinitionAccess;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.impl.AuraImplTestCase;
 import org.auraframework.impl.system.RegistryTrie;
+import org.auraframework.instance.Action;
 import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
@@ -517,4 +519,26 @@ public class AuraContextImplTest extends AuraImplTestCase {
         impl.setSystemMode(false);
         assertFalse(impl.isSystemMode());
     }
+
+    @Test
+    public void testCurrentActionIsPerThread() throws Exception {
+        AuraContextImpl impl = new AuraContextImpl(null, null, null, null, null, null, null, null, null, null);
+        Action mine = Mockito.mock(Action.class);
+        Action theirs = Mockito.mock(Action.class);
+        AtomicReference<Action> seen = new AtomicReference<>();
+        impl.setCurrentAction(mine);
+
+        Thread thread = new Thread(() -> {
+            seen.set(impl.getCurrentAction());
+            impl.setCurrentAction(theirs);
+            impl.setCurrentAction(null);
+        });
+        thread.start();
+        thread.join();
+
+        assertNull(seen.get());
+        assertSame(mine, impl.getCurrentAction());
+        assertSame(mine, impl.setCurrentAction(null));
+        assertNull(impl.getCurrentAction());
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.context;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.impl.metricsservice.MetricsRegistry;
+import org.auraframework.instance.Action;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class LoggingContextImplTest extends UnitTestCase {
+    private static Action mockAction(String qualifiedName) {
+        DefDescriptor<?> descriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.when(descriptor.getQualifiedName()).thenReturn(qualifiedName);
+        Action action = Mockito.mock(Action.class);
+        Mockito.doReturn(descriptor).when(action).getDescriptor();
+        return action;
+    }
+
+    private static String write(MetricsRegistry registry) throws Exception {
+        StringBuilder out = new StringBuilder();
+        registry.write(out);
+        return out.toString();
+    }
+
+    @Test
+    public void testActionsAreTimedByInstance() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        LoggingContextImpl lc = new LoggingContextImpl(registry);
+        Action first = mockAction("java://test.Controller/ACTION$run");
+        Action second = mockAction("java://test.Controller/ACTION$run");
+
+        lc.startAction("run", first);
+        lc.startAction("run", second);
+        lc.stopAction("run", first);
+        lc.stopAction("run", second);
+
+        String text = write(registry);
+        assertTrue(text, text.contains("aura_action_seconds_count{action=\"java://test.Controller/ACTION$run\"} 2\n"));
+    }
+
+    @Test
+    public void testActionsAreRecordedByDescriptor() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        LoggingContextImpl lc = new LoggingContextImpl(registry);
+        Action action = mockAction("java://test.Controller/ACTION$run");
+
+        lc.startAction("1$java://test.Controller/ACTION$run{secret=1}", action);
+        lc.stopAction("1$java://test.Controller/ACTION$run{secret=1}", action);
+
+        String text = write(registry);
+        assertTrue(text, text.contains("aura_action_seconds_count{action=\"java://test.Controller/ACTION$run\"} 1\n"));
+        assertFalse(text, text.contains("secret"));
+    }
+
+    @Test
+    public void testWithoutRegistry() throws Exception {
+        LoggingContextImpl lc = new LoggingContextImpl();
+        Action action = mockAction("java://test.Controller/ACTION$run");
+
+        lc.startTimer("timer");
+        lc.stopTimer("timer");
+        lc.incrementNum("counter");
+        lc.startAction("run", action);
+        lc.stopAction("run", action);
+
+        assertEquals(1, lc.getNum("counter"));
+    }
+}
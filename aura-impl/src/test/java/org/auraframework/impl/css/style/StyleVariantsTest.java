@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.css.style;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
+import org.auraframework.system.AuraContext.Mode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.salesforce.omakase.plugin.Plugin;
+
+public class StyleVariantsTest {
+    private static final String CSS = ".a{color:red}@if(IE7 || !webkit){.a{color:blue}}@if (FIREFOX){.b{margin:0}}";
+    private static final List<String> NO_TOKENS = Collections.emptyList();
+
+    @Test
+    public void testFindConditions() {
+        Assert.assertEquals(ImmutableSet.of("ie7", "webkit", "firefox"), StyleVariants.findConditions(CSS));
+        Assert.assertTrue(StyleVariants.findConditions(".a{color:red}").isEmpty());
+        Assert.assertTrue(StyleVariants.findConditions(null).isEmpty());
+    }
+
+    @Test
+    public void testUnusedConditionsShareKey() {
+        StyleVariants variants = new StyleVariants(CSS);
+        Set<String> chrome = ImmutableSet.of("googlechrome", "webkit", "desktop");
+        Set<String> safari = ImmutableSet.of("desktop", "safari", "WEBKIT");
+
+        Assert.assertEquals(variants.getKey(Mode.PROD, chrome, NO_TOKENS, ""),
+                variants.getKey(Mode.PROD, safari, NO_TOKENS, ""));
+        Assert.assertNotEquals(variants.getKey(Mode.PROD, chrome, NO_TOKENS, ""),
+                variants.getKey(Mode.PROD, ImmutableSet.of("firefox"), NO_TOKENS, ""));
+    }
+
+    @Test
+    public void testConditionsIgnoredWithoutConditionals() {
+        StyleVariants variants = new StyleVariants(".a{color:red}");
+
+        Assert.assertEquals(variants.getKey(Mode.PROD, ImmutableSet.of("ie7"), NO_TOKENS, ""),
+                variants.getKey(Mode.PROD, ImmutableSet.of("firefox"), NO_TOKENS, ""));
+    }
+
+    @Test
+    public void testKeyIncludesModeAndTokenValues() {
+        StyleVariants variants = new StyleVariants(".a{color:token(color)}");
+        Set<String> none = Collections.emptySet();
+
+        Assert.assertNotEquals(variants.getKey(Mode.PROD, none, ImmutableList.of("red"), ""),
+                variants.getKey(Mode.DEV, none, ImmutableList.of("red"), ""));
+        Assert.assertNotEquals(variants.getKey(Mode.PROD, none, ImmutableList.of("red"), ""),
+                variants.getKey(Mode.PROD, none, ImmutableList.of("blue"), ""));
+        Assert.assertNotEquals(variants.getKey(Mode.PROD, none, ImmutableList.of("a", ""), ""),
+                variants.getKey(Mode.PROD, none, ImmutableList.of("", "a"), ""));
+    }
+
+    @Test
+    public void testKeyIncludesRuntimePluginsKey() {
+        StyleVariants variants = new StyleVariants(".a{color:red}");
+        Set<String> none = Collections.emptySet();
+
+        Assert.assertNotEquals(variants.getKey(Mode.PROD, none, NO_TOKENS, ""),
+                variants.getKey(Mode.PROD, none, NO_TOKENS, "rtl"));
+    }
+
+    @Test
+    public void testFontFacePluginOnlyAppliesToFontFaces() {
+        Plugin fontFace = new DuplicateFontFacePlugin();
+        Plugin other = new Plugin() {
+        };
+        List<Plugin> plugins = ImmutableList.of(fontFace, other);
+
+        Assert.assertEquals(ImmutableList.of(other), new StyleVariants(".a{color:red}").getApplicablePlugins(plugins));
+        Assert.assertEquals(plugins,
+                new StyleVariants("@FONT-FACE{font-family:Custom}").getApplicablePlugins(plugins));
+        Assert.assertTrue(new StyleVariants(".a{color:red}").getApplicablePlugins(ImmutableList.of(fontFace))
+                .isEmpty());
+    }
+
+    @Test
+    public void testVariantsAreBounded() {
+        StyleVariants variants = new StyleVariants(".a{color:token(color)}");
+        Set<String> none = Collections.emptySet();
+
+        for (int i = 0; i <= StyleVariants.MAX_VARIANTS; i++) {
+            variants.put(variants.getKey(Mode.PROD, none, ImmutableList.of("#" + i), ""), "code" + i);
+        }
+
+        Assert.assertEquals(StyleVariants.MAX_VARIANTS, variants.size());
+        Assert.assertEquals("code0", variants.get(variants.getKey(Mode.PROD, none, ImmutableList.of("#0"), "")));
+        Assert.assertNull(variants.get(variants.getKey(Mode.PROD, none, ImmutableList.of("#" + StyleVariants.MAX_VARIANTS), "")));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.metricsservice;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+    @Test
+    public void testBucketLimitsCoverEveryValue() {
+        for (long micros = 0; micros < 100000; micros++) {
+            int bucket = Histogram.getBucket(micros);
+            Assert.assertTrue("value above its bucket: " + micros, micros <= Histogram.getBucketLimit(bucket));
+            if (bucket > 0) {
+                Assert.assertTrue("value in too high a bucket: " + micros,
+                        micros > Histogram.getBucketLimit(bucket - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testBucketErrorIsBounded() {
+        for (long micros = 1; micros < Long.MAX_VALUE / 4; micros = micros * 3 + 1) {
+            long limit = Histogram.getBucketLimit(Histogram.getBucket(micros));
+            if (micros < (1L << 39)) {
+                Assert.assertTrue("error too large for " + micros, limit - micros <= micros / 16);
+            }
+        }
+        Assert.assertEquals(Histogram.BUCKET_COUNT - 1, Histogram.getBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testQuantiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        long[] quantiles = histogram.getQuantiles(0.5, 0.99);
+
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(500500), histogram.getSumNanos());
+        Assert.assertEquals(500, quantiles[0], 500 / 16);
+        Assert.assertEquals(990, quantiles[1], 990 / 16);
+    }
+
+    @Test
+    public void testEmptyAndNegative() {
+        Histogram histogram = new Histogram();
+        histogram.record(-1);
+
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertArrayEquals(new long[] { 0, 0 }, histogram.getQuantiles(0.5, 0.99));
+    }
+}
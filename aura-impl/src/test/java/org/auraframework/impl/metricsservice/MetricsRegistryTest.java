@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.metricsservice;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+    @Test
+    public void testWritesPrometheusText() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.recordTimer("serialization", TimeUnit.MILLISECONDS.toNanos(2));
+        registry.recordAction("java://ui.Controller/ACTION$\"run\"", TimeUnit.MILLISECONDS.toNanos(4));
+        registry.incrementCounter("defCount", 3);
+        registry.incrementCounter("defCount", 2);
+
+        StringBuilder out = new StringBuilder();
+        registry.write(out);
+        String text = out.toString();
+
+        Assert.assertTrue(text, text.contains("# TYPE aura_timer_seconds summary\n"));
+        Assert.assertTrue(text, text.contains("aura_timer_seconds_count{name=\"serialization\"} 1\n"));
+        Assert.assertTrue(text, text.contains("aura_timer_seconds_sum{name=\"serialization\"} 0.002\n"));
+        Assert.assertTrue(text, text.contains("aura_timer_seconds{name=\"serialization\",quantile=\"0.5\"} "));
+        Assert.assertTrue(text,
+                text.contains("aura_action_seconds_count{action=\"java://ui.Controller/ACTION$\\\"run\\\"\"} 1\n"));
+        Assert.assertTrue(text, text.contains("aura_counter_total{name=\"defCount\"} 5\n"));
+    }
+
+    @Test
+    public void testNamesAreLimited() {
+        MetricsRegistry registry = new MetricsRegistry();
+        for (int i = 0; i < MetricsRegistry.MAX_NAMES; i++) {
+            registry.incrementCounter("counter" + i, 1);
+            registry.recordTimer("timer" + i, 1);
+        }
+
+        registry.incrementCounter("extra", 1);
+        registry.recordTimer("extra", 1);
+        registry.incrementCounter("counter0", 1);
+
+        Assert.assertEquals(0, registry.getCounter("extra"));
+        Assert.assertNull(registry.getTimer("extra"));
+        Assert.assertEquals(2, registry.getCounter("counter0"));
+    }
+}
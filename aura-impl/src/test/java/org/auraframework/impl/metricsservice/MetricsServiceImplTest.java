@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.metricsservice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.auraframework.cache.Cache;
+import org.auraframework.impl.cache.CacheImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsServiceImplTest {
+    @Test
+    public void testCacheMetricsIncludeSecondaryStorage() throws Exception {
+        CacheImpl<String, String> tiered = new CacheImpl.Builder<String, String>()
+                .setUseSecondaryStorage(true)
+                .setMaximumSize(16)
+                .setRecordStats(true)
+                .build();
+        for (int i = 0; i < 16; i++) {
+            tiered.put("key" + i, "value" + i);
+        }
+        // evicted from the front long ago, so this is served by the secondary tier.
+        Assert.assertEquals("value0", tiered.getIfPresent("key0"));
+        Assert.assertNull(tiered.getIfPresent("missing"));
+
+        Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+        caches.put("tiered", tiered);
+        StringBuilder out = new StringBuilder();
+        MetricsServiceImpl.writeCacheMetrics(out, caches);
+        String text = out.toString();
+
+        Assert.assertTrue(text, text.contains("aura_cache_size{cache=\"tiered\"} 16\n"));
+        Assert.assertTrue(text, text.contains("aura_cache_hits_total{cache=\"tiered\"} 1\n"));
+        Assert.assertTrue(text, text.contains("aura_cache_misses_total{cache=\"tiered\"} 1\n"));
+    }
+
+    @Test
+    public void testCacheMetricsSkipStatsWhenNotRecorded() throws Exception {
+        CacheImpl<String, String> untracked = new CacheImpl.Builder<String, String>()
+                .setMaximumSize(16)
+                .build();
+        untracked.put("key", "value");
+        untracked.getIfPresent("key");
+        untracked.getIfPresent("missing");
+
+        Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+        caches.put("untracked", untracked);
+        StringBuilder out = new StringBuilder();
+        MetricsServiceImpl.writeCacheMetrics(out, caches);
+        String text = out.toString();
+
+        Assert.assertTrue(text, text.contains("aura_cache_size{cache=\"untracked\"} 1\n"));
+        Assert.assertFalse(text, text.contains("aura_cache_hits_total{cache=\"untracked\"}"));
+        Assert.assertFalse(text, text.contains("aura_cache_misses_total{cache=\"untracked\"}"));
+        Assert.assertFalse(text, text.contains("aura_cache_evictions_total{cache=\"untracked\"}"));
+    }
+}
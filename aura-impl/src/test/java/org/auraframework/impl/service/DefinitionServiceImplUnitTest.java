@@ -39,6 +39,7 @@ import org.auraframework.impl.AuraImplTestCase;
 import org.auraframework.impl.DefinitionServiceImpl;
 import org.auraframework.impl.context.AuraContextImpl;
 import org.auraframework.impl.controller.AuraGlobalControllerDefRegistry;
+import org.auraframework.impl.system.CompilingDefRegistry;
 import org.auraframework.impl.util.mock.MockDefinition;
 import org.auraframework.impl.util.mock.MockRegistrySet;
 import org.auraframework.instance.AuraValueProviderType;
@@ -823,6 +824,67 @@ public class DefinitionServiceImplUnitTest extends AuraImplTestCase {
         Mockito.when(contextService.getCurrentContext()).thenReturn(mockedContext);
         assertNotNull(definitionService.getGlobalReferences("testUID", AuraValueProviderType.LABEL.getPrefix()));
     }
+
+    /**
+     * Warming on several threads still warms every namespace of every warmable registry, skips the namespaces whose
+     * registry fails with a warning, and leaves no warming threads behind.
+     */
+    @Test
+    public void testWarmCachesInParallel() throws Exception {
+        DefinitionService definitionService = createDefinitionServiceWithMocks();
+        setupContext(definitionService);
+        Mockito.when(contextService.startContext(Matchers.any(Mode.class), Matchers.any(Format.class),
+                Matchers.any(Authentication.class))).thenAnswer(invocation -> new AuraContextImpl(
+                        (Mode) invocation.getArguments()[0], registries, null, (Format) invocation.getArguments()[1],
+                        (Authentication) invocation.getArguments()[2], null, null, configAdapter, definitionService,
+                        null));
+
+        CompilingDefRegistry warmed = Mockito.mock(CompilingDefRegistry.class);
+        Mockito.when(warmed.getNamespaces()).thenReturn(Sets.newHashSet("warmedOne", "warmedTwo"));
+        Mockito.when(warmed.find(Matchers.any())).thenReturn(Sets.newHashSet());
+        CompilingDefRegistry failing = Mockito.mock(CompilingDefRegistry.class);
+        RuntimeException failure = new RuntimeException("expected failure");
+        Mockito.when(failing.getNamespaces()).thenReturn(Sets.newHashSet("failing"));
+        Mockito.when(failing.find(Matchers.any())).thenThrow(failure);
+        registries.addFilterFor(new DescriptorFilter("warmedOne:*"), warmed);
+        registries.addFilterFor(new DescriptorFilter("failing:*"), failing);
+        registries.addFilterFor(new DescriptorFilter("skipped:*"), registry1);
+
+        System.setProperty("aura.warmCaches.threads", "4");
+        try {
+            definitionService.warmCaches();
+        } finally {
+            System.clearProperty("aura.warmCaches.threads");
+        }
+
+        ArgumentCaptor<DescriptorFilter> filters = ArgumentCaptor.forClass(DescriptorFilter.class);
+        Mockito.verify(warmed, Mockito.times(8)).find(filters.capture());
+        Set<String> namespaces = Sets.newHashSet();
+        for (DescriptorFilter filter : filters.getAllValues()) {
+            namespaces.add(filter.getNamespaceMatch().toString());
+        }
+        assertEquals(Sets.newHashSet("warmedOne", "warmedTwo"), namespaces);
+        Mockito.verify(failing, Mockito.times(1)).find(Matchers.any());
+        Mockito.verify(registry1, Mockito.never()).find(Matchers.any());
+        Mockito.verify(loggingService, Mockito.times(1)).warn("warmCaches: worker failed", failure);
+        Mockito.verify(contextService, Mockito.times(3)).endContext();
+
+        // the pool is shut down once the warmup is done, so its threads end shortly after.
+        long deadline = System.currentTimeMillis() + 10000;
+        while (hasWarmCachesThreads() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse("warmCaches left threads running", hasWarmCachesThreads());
+    }
+
+    private boolean hasWarmCachesThreads() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("aura-warmCaches-")) {
+                return true;
+            }
+        }
+        return false;
+    }
     
 //void updateLoaded(DefDescriptor<?> loading) throws QuickFixException, ClientOutOfSyncException;
 
@@ -17,12 +17,17 @@ package org.auraframework.impl.source.file;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.def.EventDef;
 import org.auraframework.def.InterfaceDef;
@@ -40,6 +45,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import com.google.common.collect.Sets;
 
@@ -303,6 +309,84 @@ public class FileBundleSourceLoaderTest {
         Assert.assertEquals(1,  descriptors.size());
     }
     
+    @Test
+    public void testJarBundlesAreCopiedOnFirstUse() throws Exception {
+        File jar = new File(getWorkingDirectory(), "components.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            // classpath* searches need the directory entries, as jar tools write them.
+            for (String directory : new String[] { "components/", "components/test/", "components/test/component/",
+                    "components/test/otherComponent/", "components/otherNamespace/",
+                    "components/otherNamespace/component/" }) {
+                out.putNextEntry(new JarEntry(directory));
+                out.closeEntry();
+            }
+            addJarEntry(out, "components/test/component/component.cmp", "<aura:component/>");
+            addJarEntry(out, "components/test/otherComponent/otherComponent.cmp", "<aura:component>other</aura:component>");
+            addJarEntry(out, "components/otherNamespace/component/component.cmp", "<aura:component/>");
+            addJarEntry(out, "components/readme.txt", "not a bundle");
+        }
+        ClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null);
+        ResourceBundleIndex resources = new ResourceBundleIndex("components",
+                new PathMatchingResourcePatternResolver(classLoader));
+        Collection<FileBundleSourceBuilder> builders = Sets.newHashSet(new ComponentDefFileBundleBuilder());
+
+        FileBundleSourceLoader loader = new FileBundleSourceLoader(resources, null, builders);
+
+        Assert.assertEquals(Sets.newHashSet("test", "otherNamespace"), loader.getNamespaces());
+        Assert.assertEquals(0, resources.getExtractedCount());
+
+        DefDescriptor<?> descriptor = new DefDescriptorImpl<>("markup", "test", "otherComponent", ComponentDef.class);
+        BundleSource<?> bundleSource = loader.getBundle(descriptor);
+        Assert.assertEquals("markup://test:otherComponent", bundleSource.getDescriptor().getQualifiedName());
+        Assert.assertEquals("<aura:component>other</aura:component>",
+                ((TextSource<?>)bundleSource.getBundledParts().get(descriptor)).getContents());
+        Assert.assertEquals(1, resources.getExtractedCount());
+
+        Set<DefDescriptor<?>> descriptors = loader.find(new DescriptorFilter("markup://test:*"));
+        Assert.assertEquals(2, descriptors.size());
+        Assert.assertEquals(2, resources.getExtractedCount());
+    }
+
+    @Test
+    public void testFindInJarOnlyCopiesBundlesThatCanMatch() throws Exception {
+        File jar = new File(getWorkingDirectory(), "components.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (String directory : new String[] { "components/", "components/test/", "components/test/component/",
+                    "components/test/otherComponent/", "components/test/event/" }) {
+                out.putNextEntry(new JarEntry(directory));
+                out.closeEntry();
+            }
+            addJarEntry(out, "components/test/component/component.cmp", "<aura:component/>");
+            addJarEntry(out, "components/test/otherComponent/otherComponent.cmp", "<aura:component/>");
+            addJarEntry(out, "components/test/event/event.evt", "<aura:event type='APPLICATION'/>");
+        }
+        ClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null);
+        ResourceBundleIndex resources = new ResourceBundleIndex("components",
+                new PathMatchingResourcePatternResolver(classLoader));
+        Collection<FileBundleSourceBuilder> builders = Sets.newHashSet(new ComponentDefFileBundleBuilder(),
+                new EventDefFileBundleBuilder());
+        FileBundleSourceLoader loader = new FileBundleSourceLoader(resources, null, builders);
+
+        Set<DefDescriptor<?>> descriptors = loader.find(new DescriptorFilter("markup://test:*", DefType.EVENT));
+        Assert.assertEquals(Sets.newHashSet(new DefDescriptorImpl<>("markup", "test", "event", EventDef.class)),
+                descriptors);
+        Assert.assertEquals(1, resources.getExtractedCount());
+
+        descriptors = loader.find(new DescriptorFilter("markup://test:component", DefType.EVENT));
+        Assert.assertEquals(0, descriptors.size());
+        Assert.assertEquals(1, resources.getExtractedCount());
+
+        descriptors = loader.find(new DescriptorFilter("markup://test:*", DefType.COMPONENT));
+        Assert.assertEquals(2, descriptors.size());
+        Assert.assertEquals(3, resources.getExtractedCount());
+    }
+
+    private void addJarEntry(JarOutputStream out, String name, String contents) throws Exception {
+        out.putNextEntry(new JarEntry(name));
+        out.write(contents.getBytes("UTF-8"));
+        out.closeEntry();
+    }
+
     private File getWorkingDirectory() {
         if (workingDirectory == null){
             workingDirectory = new File(IOUtil.newTempDir(getClass().getSimpleName()));
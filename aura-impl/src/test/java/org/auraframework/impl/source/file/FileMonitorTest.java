@@ -17,6 +17,8 @@ package org.auraframework.impl.source.file;
 
 import org.auraframework.impl.AuraImplTestCase;
 import org.auraframework.service.LoggingService;
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
+import org.auraframework.util.FileChangeEvent;
 import org.auraframework.util.FileListener;
 import org.auraframework.util.IOUtil;
 import org.junit.After;
@@ -27,7 +29,15 @@ import org.mockito.*;
 import test.org.auraframework.impl.adapter.MockConfigAdapterImpl;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class tests the FileMonitorImpl class... but it cheats, it relies on the base classes that do a bunch of spring setup for us.
@@ -68,7 +78,12 @@ public class FileMonitorTest extends AuraImplTestCase {
 
         assertEquals("Should not have any errors or warnings", Arrays.asList(), argumentCaptor.getAllValues());
 
-        Mockito.verify(listenerMock, Mockito.atLeastOnce()).fileChanged(Matchers.anyObject());
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        ArgumentCaptor<Map<String, SourceMonitorEvent>> changes = ArgumentCaptor.forClass((Class) Map.class);
+        Mockito.verify(listenerMock, Mockito.atLeastOnce()).filesChanged(changes.capture());
+        Map<String, SourceMonitorEvent> walked = changes.getAllValues().get(0);
+        assertEquals(1, walked.size());
+        assertEquals(SourceMonitorEvent.CHANGED, walked.values().iterator().next());
     }
 
     @Test
@@ -84,6 +99,7 @@ public class FileMonitorTest extends AuraImplTestCase {
         fileMonitor.addDirectory(tmpDir.toString(), System.currentTimeMillis() + 10);
 
         Mockito.verify(listenerMock, Mockito.never()).fileChanged(Matchers.anyObject());
+        Mockito.verify(listenerMock, Mockito.never()).filesChanged(Matchers.anyMapOf(String.class, SourceMonitorEvent.class));
     }
 
     @Test
@@ -98,5 +114,71 @@ public class FileMonitorTest extends AuraImplTestCase {
         fileMonitor.addDirectory(tmpDir.toString(), null);
 
         Mockito.verify(listenerMock, Mockito.never()).fileChanged(Matchers.anyObject());
+        Mockito.verify(listenerMock, Mockito.never()).filesChanged(Matchers.anyMapOf(String.class, SourceMonitorEvent.class));
+    }
+
+    @Test
+    public void testFileMonitorBatchesChanges() throws Exception {
+        File tmpDir = new File(IOUtil.newTempDir("testFileMonitorBatchesChanges"));
+        int count = 20;
+        Set<String> expected = new HashSet<>();
+        List<Map<String, SourceMonitorEvent>> batches = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        ((FileMonitorImpl)fileMonitor).listener = new FileListener() {
+            @Override
+            public void fileCreated(FileChangeEvent event) {
+            }
+
+            @Override
+            public void fileDeleted(FileChangeEvent event) {
+            }
+
+            @Override
+            public void fileChanged(FileChangeEvent event) {
+            }
+
+            @Override
+            public void filesChanged(Map<String, SourceMonitorEvent> changes) {
+                synchronized (batches) {
+                    batches.add(changes);
+                    if (changes != null) {
+                        seen.addAll(changes.keySet());
+                    }
+                    batches.notifyAll();
+                }
+            }
+        };
+        fileMonitor.addDirectory(tmpDir.toString(), null);
+
+        for (int i = 0; i < count; i++) {
+            File file = new File(tmpDir, "sample" + i + ".txt");
+            Files.write(file.toPath(), "sample file".getBytes(StandardCharsets.UTF_8));
+            expected.add(file.toPath().toString());
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        synchronized (batches) {
+            while (!seen.containsAll(expected) && System.nanoTime() < deadline) {
+                batches.wait(1000);
+            }
+            assertTrue("Missing changes, saw " + seen, seen.containsAll(expected));
+            assertTrue("Changes should have been batched, got " + batches.size() + " batches",
+                    batches.size() < count);
+        }
+    }
+
+    @Test
+    public void testCoalesce() {
+        assertEquals(SourceMonitorEvent.CREATED,
+                FileMonitorImpl.coalesce(SourceMonitorEvent.CREATED, SourceMonitorEvent.CHANGED));
+        assertEquals(SourceMonitorEvent.DELETED,
+                FileMonitorImpl.coalesce(SourceMonitorEvent.CREATED, SourceMonitorEvent.DELETED));
+        assertEquals(SourceMonitorEvent.CHANGED,
+                FileMonitorImpl.coalesce(SourceMonitorEvent.DELETED, SourceMonitorEvent.CREATED));
+        assertEquals(SourceMonitorEvent.DELETED,
+                FileMonitorImpl.coalesce(SourceMonitorEvent.CHANGED, SourceMonitorEvent.DELETED));
+        assertEquals(SourceMonitorEvent.CHANGED,
+                FileMonitorImpl.coalesce(SourceMonitorEvent.CHANGED, SourceMonitorEvent.CHANGED));
     }
 }
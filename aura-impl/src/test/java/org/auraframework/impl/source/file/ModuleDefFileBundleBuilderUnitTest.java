@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.Map;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
@@ -543,4 +544,20 @@ public class ModuleDefFileBundleBuilderUnitTest {
         when(mock.getName()).thenReturn(fileName);
         when(mock.isDirectory()).thenReturn(false);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBundleMatchOnFileNames() {
+        ModuleDefFileBundleBuilder moduleDefFileBundleBuilder = new ModuleDefFileBundleBuilder();
+
+        assertTrue("bundle with .js file should match", moduleDefFileBundleBuilder.isBundleMatch("module-cmp",
+                Sets.newHashSet("module-cmp.js", "module-cmp.css")));
+        assertTrue("bundle with only .html file should match", moduleDefFileBundleBuilder.isBundleMatch("module-cmp",
+                Sets.newHashSet("module-cmp.html")));
+        assertFalse("bundle containing .lib file should not match", moduleDefFileBundleBuilder.isBundleMatch(
+                "module-cmp", Sets.newHashSet("module-cmp.js", "module-cmp.lib")));
+        assertFalse("bundle containing .cmp file should not match", moduleDefFileBundleBuilder.isBundleMatch(
+                "module-cmp", Sets.newHashSet("module-cmp.js", "module-cmp.cmp")));
+        assertFalse("bundle without base file should not match", moduleDefFileBundleBuilder.isBundleMatch(
+                "module-cmp", Sets.newHashSet("utils.js")));
+    }
+}
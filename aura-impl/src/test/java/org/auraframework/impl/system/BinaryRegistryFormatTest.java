@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.def.EventDef;
+import org.auraframework.def.RegisterEventDef;
+import org.auraframework.impl.DefinitionAccessImpl;
+import org.auraframework.impl.root.event.RegisterEventDefImpl;
+import org.auraframework.system.DefRegistry;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class BinaryRegistryFormatTest {
+    private RegisterEventDef createDef(String name) throws Exception {
+        RegisterEventDefImpl.Builder builder = new RegisterEventDefImpl.Builder();
+        builder.setDescriptor(new DefDescriptorImpl<>("markup", "test", name, RegisterEventDef.class));
+        builder.setReference(new DefDescriptorImpl<>("markup", "test", name + "Event", EventDef.class));
+        builder.setParentDescriptor(new DefDescriptorImpl<>("markup", "test", "cmp", ComponentDef.class));
+        builder.setAccess(new DefinitionAccessImpl(null, "public", false));
+        return builder.build();
+    }
+
+    private ByteBuffer write(DefRegistry... registries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryRegistryFormat.write(Lists.newArrayList(registries), out);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        RegisterEventDef first = createDef("first");
+        RegisterEventDef second = createDef("second");
+        StaticDefRegistryImpl registry = new StaticDefRegistryImpl(Sets.newHashSet(DefType.REGISTEREVENT),
+                Sets.newHashSet("markup"), Sets.newHashSet("test"), Lists.newArrayList(first, second));
+
+        ByteBuffer buffer = write(registry);
+        Assert.assertTrue(BinaryRegistryFormat.isBinaryFormat(buffer));
+        List<DefRegistry> read = BinaryRegistryFormat.read(buffer);
+
+        Assert.assertEquals(1, read.size());
+        DefRegistry copy = read.get(0);
+        Assert.assertEquals(registry.getDefTypes(), copy.getDefTypes());
+        Assert.assertEquals(registry.getPrefixes(), copy.getPrefixes());
+        Assert.assertEquals(registry.getNamespaces(), copy.getNamespaces());
+        Assert.assertTrue(copy.exists(first.getDescriptor()));
+
+        RegisterEventDef readFirst = copy.getDef(first.getDescriptor());
+        Assert.assertEquals(first.getDescriptor(), readFirst.getDescriptor());
+        Assert.assertEquals(first.getReference(), readFirst.getReference());
+        Assert.assertEquals(first.getParentDescriptor(), readFirst.getParentDescriptor());
+
+        DescriptorFilter all = new DescriptorFilter("*://*:*", "*");
+        Assert.assertEquals(registry.find(all), copy.find(all));
+    }
+
+    @Test
+    public void testDefinitionsAreDecodedOnFirstUseOnly() throws Exception {
+        RegisterEventDef first = createDef("first");
+        RegisterEventDef second = createDef("second");
+        StaticDefRegistryImpl registry = new StaticDefRegistryImpl(Sets.newHashSet(DefType.REGISTEREVENT),
+                Sets.newHashSet("markup"), Sets.newHashSet("test"), Lists.newArrayList(first, second));
+
+        StaticDefRegistryImpl copy = (StaticDefRegistryImpl) BinaryRegistryFormat.read(write(registry)).get(0);
+        BinaryRegistryFormat.LazyDefinitionMap defs = (BinaryRegistryFormat.LazyDefinitionMap) copy.defs;
+
+        Assert.assertEquals(2, defs.size());
+        Assert.assertEquals(0, defs.getDecodedCount());
+        copy.find(new DescriptorFilter("*://*:*", "*"));
+        Assert.assertEquals(0, defs.getDecodedCount());
+
+        RegisterEventDef readFirst = copy.getDef(first.getDescriptor());
+        Assert.assertEquals(1, defs.getDecodedCount());
+        Assert.assertSame(readFirst, copy.getDef(first.getDescriptor()));
+        Assert.assertEquals(1, defs.getDecodedCount());
+    }
+
+    @Test
+    public void testMissingDefinition() throws Exception {
+        StaticDefRegistryImpl registry = new StaticDefRegistryImpl(Sets.newHashSet(DefType.REGISTEREVENT),
+                Sets.newHashSet("markup"), Sets.newHashSet("test"), Lists.newArrayList(createDef("first")));
+
+        DefRegistry copy = BinaryRegistryFormat.read(write(registry)).get(0);
+        DefDescriptor<RegisterEventDef> missing = new DefDescriptorImpl<>("markup", "test", "missing",
+                RegisterEventDef.class);
+        Assert.assertFalse(copy.exists(missing));
+        Assert.assertNull(copy.getDef(missing));
+    }
+
+    @Test
+    public void testFindByTagsDoesNotDecode() throws Exception {
+        DefDescriptor<?> tagged = new DefDescriptorImpl<>("markup", "test", "tagged", ComponentDef.class);
+        DefDescriptor<?> other = new DefDescriptorImpl<>("markup", "test", "other", ComponentDef.class);
+        DefDescriptor<?> plain = new DefDescriptorImpl<>("markup", "test", "plain", RegisterEventDef.class);
+        @SuppressWarnings("unchecked")
+        Set<String>[] tags = new Set[] { Sets.newHashSet("a", "b"), Sets.newHashSet("c"), null };
+        BinaryRegistryFormat.LazyDefinitionMap defs = new BinaryRegistryFormat.LazyDefinitionMap(
+                ByteBuffer.allocate(0), new DefDescriptor<?>[] { tagged, other, plain }, tags, new int[3],
+                new int[3]);
+
+        Assert.assertEquals(Sets.newHashSet(tagged), defs.findByTags(Sets.newHashSet("b")));
+        Assert.assertEquals(Sets.newHashSet(tagged, other), defs.findByTags(Sets.newHashSet("a", "c")));
+        Assert.assertTrue(defs.findByTags(Sets.newHashSet("d")).isEmpty());
+        Assert.assertEquals(0, defs.getDecodedCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMissingBundledDefinitionFails() throws Exception {
+        RegisterEventDef root = createDef("root");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(root);
+        }
+        DefDescriptor<?> bundled = new DefDescriptorImpl<>("markup", "test", "bundled", RegisterEventDef.class);
+        // the second entry claims to be bundled in the first, which is not a bundle.
+        BinaryRegistryFormat.LazyDefinitionMap defs = new BinaryRegistryFormat.LazyDefinitionMap(
+                ByteBuffer.wrap(out.toByteArray()), new DefDescriptor<?>[] { root.getDescriptor(), bundled },
+                new Set[2], new int[] { 0, 0 }, new int[] { out.size(), -1 });
+
+        try {
+            defs.get(bundled);
+            Assert.fail("expected a missing bundled definition to fail");
+        } catch (AuraRuntimeException expected) {
+            Assert.assertTrue(expected.getMessage().contains(bundled.toString()));
+        }
+    }
+
+    @Test
+    public void testLegacyFormatIsNotBinary() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(Lists.newArrayList());
+        }
+        Assert.assertFalse(BinaryRegistryFormat.isBinaryFormat(ByteBuffer.wrap(out.toByteArray())));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownVersionIsRejected() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(12);
+        buffer.putInt(BinaryRegistryFormat.MAGIC).putInt(BinaryRegistryFormat.VERSION + 1).putInt(0);
+        buffer.flip();
+        BinaryRegistryFormat.read(buffer);
+    }
+}
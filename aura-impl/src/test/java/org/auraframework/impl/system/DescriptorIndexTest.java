@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.util.List;
+import java.util.Set;
+
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.ControllerDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.def.TypeDef;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class DescriptorIndexTest {
+    private final List<DefDescriptor<?>> descriptors = Lists.newArrayList(
+            new DefDescriptorImpl<>("markup", "ui", "button", ComponentDef.class),
+            new DefDescriptorImpl<>("markup", "ui", "buttonGroup", ComponentDef.class),
+            new DefDescriptorImpl<>("markup", "ui", "input", ComponentDef.class),
+            new DefDescriptorImpl<>("markup", "UI", "Menu", ComponentDef.class),
+            new DefDescriptorImpl<>("markup", "ui", "button", ApplicationDef.class),
+            new DefDescriptorImpl<>("markup", "aura", "html", ComponentDef.class),
+            new DefDescriptorImpl<>("js", "ui", "button", ControllerDef.class),
+            new DefDescriptorImpl<>("java", "org.auraframework", "Controller", ControllerDef.class),
+            new DefDescriptorImpl<>("aura", null, "String", TypeDef.class));
+
+    private void assertSameAsScan(String filter, String types) {
+        DescriptorFilter matcher = new DescriptorFilter(filter, types);
+        Set<DefDescriptor<?>> expected = Sets.newHashSet();
+        for (DefDescriptor<?> descriptor : descriptors) {
+            if (matcher.matchDescriptor(descriptor)) {
+                expected.add(descriptor);
+            }
+        }
+        Assert.assertEquals("Mismatch for " + matcher, expected, new DescriptorIndex(descriptors).find(matcher));
+    }
+
+    @Test
+    public void testConstantFilter() {
+        assertSameAsScan("markup://ui:button", "COMPONENT");
+        assertSameAsScan("markup://ui:button", "COMPONENT,APPLICATION");
+        assertSameAsScan("markup://ui:nothere", "COMPONENT");
+    }
+
+    @Test
+    public void testConstantFilterIsCaseInsensitive() {
+        assertSameAsScan("markup://UI:BUTTON", "COMPONENT");
+        assertSameAsScan("markup://ui:menu", "COMPONENT");
+    }
+
+    @Test
+    public void testNamePrefixGlob() {
+        assertSameAsScan("markup://ui:button*", "COMPONENT");
+        assertSameAsScan("markup://ui:b*p", "COMPONENT");
+        assertSameAsScan("markup://ui:*", "COMPONENT");
+        assertSameAsScan("markup://ui:*on", "COMPONENT");
+    }
+
+    @Test
+    public void testWildcardBuckets() {
+        assertSameAsScan("*://ui:button", "*");
+        assertSameAsScan("markup://*:*", "COMPONENT");
+        assertSameAsScan("markup://u*:*", "*");
+        assertSameAsScan("*://*:*", "*");
+        assertSameAsScan("java://org.auraframework:*", "CONTROLLER");
+    }
+
+    @Test
+    public void testNullNamespaceOnlyMatchesAllNamespaces() {
+        assertSameAsScan("aura://*:string", "TYPE");
+        assertSameAsScan("aura://foo:string", "TYPE");
+    }
+}
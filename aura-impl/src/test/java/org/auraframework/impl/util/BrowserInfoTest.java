@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.util;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+public class BrowserInfoTest extends UnitTestCase {
+    private static final String CHROME_UA = "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/41.0.2228.0 Safari/537.36";
+    private static final String IPAD_UA = "Mozilla/5.0 (iPad; CPU OS 9_1 like Mac OS X) AppleWebKit/601.1.46 "
+            + "(KHTML, like Gecko) Version/9.0 Mobile/13B143 Safari/601.1";
+
+    @Test
+    public void testGetSharesParsedUserAgent() {
+        long hits = BrowserInfo.getCacheStats().hitCount();
+
+        BrowserInfo first = BrowserInfo.get(CHROME_UA);
+        BrowserInfo second = BrowserInfo.get(CHROME_UA);
+
+        assertSame(first, second);
+        assertTrue(BrowserInfo.getCacheStats().hitCount() > hits);
+        assertSame(BrowserInfo.get(null), BrowserInfo.get(""));
+    }
+
+    @Test
+    public void testGetMatchesConstructor() {
+        for (String ua : new String[] { CHROME_UA, IPAD_UA, "" }) {
+            BrowserInfo cached = BrowserInfo.get(ua);
+            BrowserInfo parsed = new BrowserInfo(ua);
+
+            assertEquals(parsed.getBrowserType(), cached.getBrowserType());
+            assertEquals(parsed.getPlatformType(), cached.getPlatformType());
+            assertEquals(parsed.getFormFactor(), cached.getFormFactor());
+            assertEquals(parsed.getHardwareFormFactor(), cached.getHardwareFormFactor());
+            assertEquals(parsed.isMobileClient(), cached.isMobileClient());
+            assertEquals(parsed.isWebkit(), cached.isWebkit());
+        }
+    }
+
+    @Test
+    public void testBrowserTypeMatchesParseBrowser() {
+        assertEquals(BrowserUserAgent.parseBrowser(CHROME_UA), BrowserInfo.get(CHROME_UA).getBrowserType());
+        assertEquals(BrowserUserAgent.parsePlatform(IPAD_UA), BrowserInfo.get(IPAD_UA).getPlatformType());
+        assertEquals(BrowserInfo.FormFactor.TABLET, BrowserInfo.get(IPAD_UA).getHardwareFormFactor());
+    }
+}
@@ -29,6 +29,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Inject;
 
@@ -241,6 +246,174 @@ public class ConfigAdapterImplTest extends UnitTestCase {
         assertEquals("Framework uid is not correct", uid, "BJTaoiCDxoAF4Wbh0iC9lA");
     }
 
+    /**
+     * In production the framework uid cannot change, so once it is known it should be returned without reading the
+     * groups or regenerating again.
+     */
+    @Test
+    public void testFrameworkUidIsNotRecomputedInProduction() throws Exception {
+        final AuraJavascriptGroup jsGroup = mock(AuraJavascriptGroup.class);
+        Hash jsHash = mock(Hash.class);
+        when(jsHash.toString()).thenReturn("jsGroup");
+        when(jsGroup.isStale()).thenReturn(true);
+        when(jsGroup.getGroupHash()).thenReturn(jsHash);
+
+        final AuraResourcesHashingGroup resourcesGroup = mock(AuraResourcesHashingGroup.class);
+        Hash resourcesHash = mock(Hash.class);
+        when(resourcesHash.toString()).thenReturn("resourcesGroup");
+        when(resourcesGroup.getGroupHash()).thenReturn(resourcesHash);
+
+        ConfigAdapterImpl configAdapter = new ConfigAdapterImpl(IOUtil.newTempDir(getName()), instanceService, contextService, fileMonitor) {
+            @Override
+            protected AuraJavascriptGroup newAuraJavascriptGroup() throws IOException {
+                return jsGroup;
+            }
+
+            @Override
+            protected FileGroup newAuraResourcesHashingGroup() throws IOException {
+                return resourcesGroup;
+            }
+
+            @Override
+            public boolean isProduction() {
+                return true;
+            }
+        };
+        configAdapter.setContextService(mock(AuraContextServiceImpl.class));
+        configAdapter.initialize();
+
+        assertEquals("Framework uid is not correct", "9YifBh-oLwXkDGW3d3qyDQ", configAdapter.getAuraFrameworkNonce());
+        when(jsHash.toString()).thenReturn("MocKitYMuCK");
+        assertEquals("Framework uid should not change in production", "9YifBh-oLwXkDGW3d3qyDQ",
+                configAdapter.getAuraFrameworkNonce());
+
+        verify(jsGroup, Mockito.times(1)).getGroupHash();
+        verify(jsGroup, Mockito.never()).regenerate(Mockito.any());
+    }
+
+    /**
+     * A caller that finds the javascript group fresh while another thread is still regenerating it should wait for
+     * that regeneration to finish, rather than go on to use a framework uid whose javascript is not in place yet.
+     */
+    @Test
+    public void testRegenerateAuraJSWaitsForRunningRegeneration() throws Exception {
+        final AuraJavascriptGroup jsGroup = mock(AuraJavascriptGroup.class);
+        final AtomicBoolean stale = new AtomicBoolean(true);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(jsGroup.isStale()).thenAnswer(invocation -> stale.get());
+        Mockito.doAnswer(invocation -> {
+            // like the real group, the stale flag is cleared before anything is generated
+            stale.set(false);
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(jsGroup).regenerate(Mockito.any());
+
+        ConfigAdapterImpl configAdapter = new ConfigAdapterImpl(IOUtil.newTempDir(getName()), instanceService, contextService, fileMonitor) {
+            @Override
+            protected AuraJavascriptGroup newAuraJavascriptGroup() throws IOException {
+                return jsGroup;
+            }
+
+            @Override
+            public boolean isProduction() {
+                return false;
+            }
+        };
+        configAdapter.setContextService(mock(AuraContextServiceImpl.class));
+        configAdapter.initialize();
+
+        Thread regenerating = new Thread(configAdapter::regenerateAuraJS);
+        regenerating.start();
+        assertTrue("regeneration did not start", started.await(10, TimeUnit.SECONDS));
+
+        Thread waiting = new Thread(configAdapter::regenerateAuraJS);
+        waiting.start();
+        waiting.join(200);
+        assertTrue("caller did not wait for the running regeneration", waiting.isAlive());
+
+        release.countDown();
+        regenerating.join(10000);
+        waiting.join(10000);
+        assertFalse("caller is still waiting after the regeneration finished", waiting.isAlive());
+        verify(jsGroup, Mockito.times(1)).regenerate(Mockito.any());
+    }
+
+    /**
+     * A thread that read the group hashes before they changed should not replace the framework uid made from the new
+     * hashes with one made from the old.
+     */
+    @Test
+    public void testFrameworkUidIsNotReplacedByAnOlderOne() throws Exception {
+        final AuraJavascriptGroup jsGroup = mock(AuraJavascriptGroup.class);
+        Hash jsHash = mock(Hash.class);
+        when(jsGroup.isStale()).thenReturn(false);
+        when(jsGroup.getGroupHash()).thenReturn(jsHash);
+
+        final AuraResourcesHashingGroup resourcesGroup = mock(AuraResourcesHashingGroup.class);
+        Hash resourcesHash = mock(Hash.class);
+        when(resourcesHash.toString()).thenReturn("resourcesGroup");
+        when(resourcesGroup.isStale()).thenReturn(false);
+        when(resourcesGroup.getGroupHash()).thenReturn(resourcesHash);
+
+        // the slow thread reads the old js hash, and then waits until the new one has been published
+        final AtomicReference<String> currentJsHash = new AtomicReference<>("jsGroup");
+        final AtomicReference<Thread> slowThread = new AtomicReference<>();
+        final CountDownLatch readOldHash = new CountDownLatch(1);
+        final CountDownLatch newUidPublished = new CountDownLatch(1);
+        when(jsHash.toString()).thenAnswer(invocation -> {
+            String hash = currentJsHash.get();
+            if (Thread.currentThread() == slowThread.get() && readOldHash.getCount() > 0) {
+                readOldHash.countDown();
+                newUidPublished.await(10, TimeUnit.SECONDS);
+            }
+            return hash;
+        });
+
+        final AtomicInteger hashes = new AtomicInteger();
+        ConfigAdapterImpl configAdapter = new ConfigAdapterImpl(IOUtil.newTempDir(getName()), instanceService, contextService, fileMonitor) {
+            @Override
+            protected AuraJavascriptGroup newAuraJavascriptGroup() throws IOException {
+                return jsGroup;
+            }
+
+            @Override
+            protected FileGroup newAuraResourcesHashingGroup() throws IOException {
+                return resourcesGroup;
+            }
+
+            @Override
+            protected String makeHash(String one, String two) throws IOException {
+                hashes.incrementAndGet();
+                return super.makeHash(one, two);
+            }
+
+            @Override
+            public boolean isProduction() {
+                return false;
+            }
+        };
+        configAdapter.setContextService(mock(AuraContextServiceImpl.class));
+        configAdapter.initialize();
+        assertEquals("Framework uid is not correct", "9YifBh-oLwXkDGW3d3qyDQ", configAdapter.getAuraFrameworkNonce());
+
+        AtomicReference<String> slowUid = new AtomicReference<>();
+        Thread slow = new Thread(() -> slowUid.set(configAdapter.getAuraFrameworkNonce()));
+        slowThread.set(slow);
+        slow.start();
+        assertTrue("slow thread did not read the hashes", readOldHash.await(10, TimeUnit.SECONDS));
+
+        currentJsHash.set("MocKitYMuCK");
+        assertEquals("Framework uid is not correct", "ltz-V8xGPGhXbOiTtfSApQ", configAdapter.getAuraFrameworkNonce());
+        newUidPublished.countDown();
+        slow.join(10000);
+
+        assertEquals("slow thread went back to the older framework uid", "ltz-V8xGPGhXbOiTtfSApQ", slowUid.get());
+        assertEquals("Framework uid is not correct", "ltz-V8xGPGhXbOiTtfSApQ", configAdapter.getAuraFrameworkNonce());
+        assertEquals("framework uid was remade", 2, hashes.get());
+    }
+
     @Test
     public void testIsInternalNamespaceWithBadArguments() {
         ConfigAdapterImpl impl = new ConfigAdapterImpl(IOUtil.newTempDir(getName()), instanceService, contextService, fileMonitor);
@@ -24,6 +24,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.StyleDef;
 import org.auraframework.def.TokensDef;
 import org.auraframework.impl.css.StyleTestCase;
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
 import org.auraframework.impl.validation.ReferenceValidationContextImpl;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
@@ -36,8 +37,10 @@ import org.auraframework.util.json.JsonReader;
 import org.auraframework.validation.ReferenceValidationContext;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.salesforce.omakase.plugin.Plugin;
 
 /**
  * Tests for StyleDefImpl.
@@ -128,6 +131,35 @@ public class StyleDefImplTest extends StyleTestCase {
         assertTrue(tokenNames.contains("margin2"));
     }
 
+    @Test
+    public void testCodeIsReusedForSameTokenValues() throws Exception {
+        addNsTokens(tokens().token("color", "red"));
+        DefDescriptor<StyleDef> style = addStyleDef(".THIS {color: token(color) } @if (IE7) { .THIS {margin: 0} }");
+        StyleDef def = definitionService.getDefinition(style);
+
+        String code = def.getCode();
+        assertTrue(code, code.contains("red"));
+        assertSame(code, def.getCode());
+    }
+
+    @Test
+    public void testCodeWithContextualPluginsMatchesCode() throws Exception {
+        DefDescriptor<StyleDef> style = addStyleDef(
+                "@font-face {font-family: Custom; src: url(/auraFW/resources/custom.woff);} .THIS {display: flex}");
+        StyleDef def = definitionService.getDefinition(style);
+
+        String code = def.getCode();
+        assertEquals(code, def.getCode(ImmutableList.<Plugin>of(new DuplicateFontFacePlugin())));
+    }
+
+    @Test
+    public void testCodeWithoutFontFaceSkipsContextualPass() throws Exception {
+        DefDescriptor<StyleDef> style = addStyleDef(".THIS {display: flex}");
+        StyleDef def = definitionService.getDefinition(style);
+
+        assertSame(def.getCode(), def.getCode(ImmutableList.<Plugin>of(new DuplicateFontFacePlugin())));
+    }
+
     @SuppressWarnings("unchecked")
     private void verifyStyleDefSerialization(DefDescriptor<StyleDef> styleDesc, Boolean expectCode) throws Exception {
         String serialized = JsonEncoder.serialize(definitionService.getDefinition(styleDesc));
@@ -21,22 +21,28 @@ import java.io.PrintWriter;
 import java.util.Set;
 import java.util.HashSet;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.http.HttpHeaders;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.http.AuraComponentDefinitionServlet;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.EncodedContent;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.service.ServerService;
 import org.auraframework.util.test.util.AuraPrivateAccessor;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -202,4 +208,37 @@ public class AuraComponentDefinitionServletTest {
         // Assert
         Mockito.verify(servletUtilAdapter, Mockito.times(1)).setLongCache(response);
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCachedResponseAnswersIfNoneMatch() throws Exception {
+        // Arrange
+        setMockRequestParameters("myApp", "one", "true", "de", "styling", "def", "UID");
+        DefDescriptor<Definition> defDescriptorMock = Mockito.mock(DefDescriptor.class);
+        Mockito.when(defDescriptorMock.getNamespace()).thenReturn("namespace");
+        Mockito.when(defDescriptorMock.getName()).thenReturn("name");
+        Mockito.when(definitionService.getDefDescriptor(Matchers.eq("def"), Matchers.any())).thenReturn(defDescriptorMock);
+        Mockito.when(definitionService.getUid(null, defDescriptorMock)).thenReturn("UID");
+        Mockito.when(contextService.getCurrentContext()).thenReturn(auraContextService);
+        Mockito.when(auraContextService.getRestrictedNamespaces()).thenReturn(new HashSet<String>());
+        Cache<String, EncodedContent> cache = Mockito.mock(Cache.class);
+        Mockito.when(cache.get(Matchers.anyString(), Matchers.any())).thenReturn(EncodedContent.encode("content"));
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.when(cachingService.getComponentDefinitionCache()).thenReturn(cache);
+        auraComponentDefinitionServlet.setCachingService(cachingService);
+        Mockito.when(response.getOutputStream()).thenReturn(Mockito.mock(ServletOutputStream.class));
+
+        // Act
+        AuraPrivateAccessor.invoke(auraComponentDefinitionServlet, "doGet", request, response);
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(response).setHeader(Matchers.eq(HttpHeaders.ETAG), etag.capture());
+        Mockito.when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn(etag.getValue());
+        AuraPrivateAccessor.invoke(auraComponentDefinitionServlet, "doGet", request, response);
+
+        // Assert
+        Mockito.verify(response, Mockito.times(1)).setContentLength("content".length());
+        Mockito.verify(response, Mockito.times(1)).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        Mockito.verify(response, Mockito.never()).getWriter();
+        Mockito.verifyZeroInteractions(serverService);
+    }
 }
@@ -669,4 +669,28 @@ public class AttributeSetImplTest extends AuraImplTestCase {
         assertEquals(expectedIntermediaryB, ((Component)instanceService.getInstance(intermediaryB)).getAttributes().getValue("attribute1"));
         assertEquals(expectedConcrete,      ((Component)instanceService.getInstance(concrete)).getAttributes().getValue("attribute1"));
     }
+
+    @Test
+    public void testLiteralDefaultsAreNotChangedByOtherInstances() throws Exception {
+        final String template = "<aura:component render='server'>"
+                + "<aura:attribute name='label' type='String' default='first'/>"
+                + "<aura:attribute name='visible' type='Boolean' default='true'/>"
+                + "<aura:attribute name='count' type='Integer' default='3'/>"
+                + "</aura:component>";
+        final DefDescriptor<ComponentDef> desc = createComponentDef(template);
+
+        final Component changed = instanceService.getInstance(desc);
+        final Map<String, Object> values = new HashMap<>();
+        values.put("label", "second");
+        values.put("visible", "false");
+        changed.getAttributes().set(values);
+        final Component unchanged = instanceService.getInstance(desc);
+
+        assertEquals("second", changed.getAttributes().getValue("label"));
+        assertEquals(Boolean.FALSE, changed.getAttributes().getValue("visible"));
+        assertEquals("first", unchanged.getAttributes().getValue("label"));
+        assertEquals(Boolean.TRUE, unchanged.getAttributes().getValue("visible"));
+        assertEquals(3, unchanged.getAttributes().getValue("count"));
+        assertEquals(changed.getAttributes().size(), unchanged.getAttributes().size());
+    }
 }
@@ -16,12 +16,8 @@
 package org.auraframework.integration.test.serialization;
 
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
-
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 
 import org.apache.http.HttpHeaders;
 import org.auraframework.def.ApplicationDef;
@@ -33,6 +29,7 @@ import org.auraframework.system.AuraContext;
 import org.junit.Test;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 public class AppJsSerializationGoldFileTest extends AuraImplTestCase {
 
@@ -43,13 +40,12 @@ public class AppJsSerializationGoldFileTest extends AuraImplTestCase {
     public void testAppJsSerializationUpdatedGoldFile() throws Exception {
 
         HttpServletRequest httpRequest = Mockito.mock(HttpServletRequest.class);
-        HttpServletResponse httpResponse = Mockito.mock(HttpServletResponse.class);
+        // captures the content whether it is written encoded, or through the writer.
+        MockHttpServletResponse httpResponse = new MockHttpServletResponse();
+        httpResponse.setCharacterEncoding("UTF-8");
 
         Mockito.when(httpRequest.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE)).thenReturn(-1L);
 
-        StringWriter stringWriter = new StringWriter();
-        Mockito.when(httpResponse.getWriter()).thenReturn(new PrintWriter(stringWriter));
-
         AuraContext auraContext = Mockito.mock(AuraContext.class);
         Mockito.when(auraContext.isAppJsSplitEnabled()).thenReturn(false);
         DefDescriptor<? extends BaseComponentDef> applicationDef = definitionService.getDefDescriptor("auradocs:docs", ApplicationDef.class);
@@ -59,7 +55,7 @@ public class AppJsSerializationGoldFileTest extends AuraImplTestCase {
         appJs.write(httpRequest, httpResponse, auraContext);
 
         try {
-            goldFileText(stringWriter.toString());
+            goldFileText(httpResponse.getContentAsString());
         } catch (Exception e) {
             throw new Exception("App.js serialization gold file mismatch. Please bump the Serialization version in ServerServiceImpl.AURA_SERIALIZATION_VERSION", e);
         }
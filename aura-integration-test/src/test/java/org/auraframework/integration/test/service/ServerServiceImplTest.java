@@ -28,10 +28,13 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.inject.Inject;
+import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.def.ActionDef;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.ComponentDef;
@@ -41,6 +44,7 @@ import org.auraframework.def.DefinitionAccess;
 import org.auraframework.def.TypeDef;
 import org.auraframework.def.ValueDef;
 import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.impl.ServerServiceImpl;
 import org.auraframework.instance.AbstractActionImpl;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.ActionDelegate;
@@ -77,6 +81,9 @@ public class ServerServiceImplTest extends AuraImplTestCase {
     @Inject
     private ServerService serverService;
 
+    @Inject
+    private LoggingAdapter loggingAdapter;
+
     public ServerServiceImplTest() {
         super();
         setShouldSetupContext(false);
@@ -445,6 +452,218 @@ public class ServerServiceImplTest extends AuraImplTestCase {
 
     }
 
+    /**
+     * An independent action that waits, while running, until the given number of actions are running.
+     */
+    private class IndependentAction extends EmptyAction {
+        private final CountDownLatch running;
+        private final RuntimeException failure;
+        private volatile boolean sawOthers;
+        private volatile boolean sawLoggingContext;
+        private volatile boolean sawItself;
+        private volatile Thread thread;
+        private volatile boolean finished;
+        private volatile boolean cleanedUp;
+
+        public IndependentAction(StringWriter sw, String name, CountDownLatch running, RuntimeException failure) {
+            super(sw, name, definitionService);
+            this.running = running;
+            this.failure = failure;
+        }
+
+        @Override
+        public boolean isIndependent() {
+            return true;
+        }
+
+        @Override
+        public void run() throws AuraExecutionException {
+            thread = Thread.currentThread();
+            sawLoggingContext = loggingAdapter.getLoggingContext() != null;
+            sawItself = contextService.getCurrentContext().getCurrentAction() == this;
+            running.countDown();
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                sawOthers = running.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            super.run();
+            finished = true;
+        }
+
+        @Override
+        public void cleanup() {
+            cleanedUp = true;
+        }
+    }
+
+    /**
+     * Create a server service that runs independent actions on a pool of workers.
+     */
+    private ServerService createConcurrentServerService() {
+        System.setProperty("aura.actions.threads", "4");
+        try {
+            return applicationContext.getAutowireCapableBeanFactory().createBean(ServerServiceImpl.class);
+        } finally {
+            System.clearProperty("aura.actions.threads");
+        }
+    }
+
+    /**
+     * Independent actions run at the same time, on workers that see the context and the logging context, and their
+     * results are still written in order.
+     */
+    @ThreadHostileTest("sets aura.actions.threads")
+    @Test
+    public void testIndependentActionsRunConcurrently() throws Exception {
+        ServerService concurrentService = createConcurrentServerService();
+        try {
+            contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+            StringWriter sw = new StringWriter();
+            CountDownLatch running = new CountDownLatch(3);
+            List<IndependentAction> actions = Lists.newArrayList(
+                    new IndependentAction(sw, "first action", running, null),
+                    new IndependentAction(sw, "second action", running, null),
+                    new IndependentAction(sw, "third action", running, null));
+
+            concurrentService.run(new Message(Lists.<Action>newArrayList(actions)),
+                    contextService.getCurrentContext(), sw, null);
+
+            for (IndependentAction action : actions) {
+                assertTrue("actions did not run concurrently", action.sawOthers);
+                assertTrue("no logging context on the worker", action.sawLoggingContext);
+                assertTrue("the worker did not see its action as current", action.sawItself);
+                assertTrue("action was not cleaned up", action.cleanedUp);
+                assertNotSame(Thread.currentThread(), action.thread);
+            }
+            assertNull(contextService.getCurrentContext().getCurrentAction());
+            validateEmptyActionSerialization(sw.toString(), null,
+                    Arrays.asList("first action", "second action", "third action"));
+        } finally {
+            applicationContext.getAutowireCapableBeanFactory().destroyBean(concurrentService);
+        }
+    }
+
+    /**
+     * A failing independent action fails the request only once the others have finished.
+     */
+    @ThreadHostileTest("sets aura.actions.threads")
+    @Test
+    public void testFailedIndependentActionWaitsForOthers() throws Exception {
+        ServerService concurrentService = createConcurrentServerService();
+        try {
+            contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+            StringWriter sw = new StringWriter();
+            CountDownLatch running = new CountDownLatch(2);
+            RuntimeException failure = new RuntimeException("expected failure");
+            IndependentAction failing = new IndependentAction(sw, "failing action", running, failure);
+            IndependentAction other = new IndependentAction(sw, "other action", running, null);
+
+            try {
+                concurrentService.run(new Message(Lists.<Action>newArrayList(failing, other)),
+                        contextService.getCurrentContext(), sw, null);
+                fail("expected the failure of the first action");
+            } catch (RuntimeException expected) {
+                assertSame(failure, expected);
+            }
+            assertTrue("failed before the other action finished", other.finished);
+            assertNull(contextService.getCurrentContext().getCurrentAction());
+        } finally {
+            applicationContext.getAutowireCapableBeanFactory().destroyBean(concurrentService);
+        }
+    }
+
+    /**
+     * An independent action that records what it sees of the context while another runs in system mode.
+     */
+    private class SystemModeAction extends EmptyAction {
+        private final boolean system;
+        private final DefDescriptor<ComponentDef> descriptor;
+        private final CountDownLatch inSystemMode;
+        private final CountDownLatch checked;
+        private volatile boolean sawSystemMode;
+        private volatile boolean sawLocalDef;
+
+        public SystemModeAction(StringWriter sw, String name, boolean system, DefDescriptor<ComponentDef> descriptor,
+                CountDownLatch inSystemMode, CountDownLatch checked) {
+            super(sw, name, definitionService);
+            this.system = system;
+            this.descriptor = descriptor;
+            this.inSystemMode = inSystemMode;
+            this.checked = checked;
+        }
+
+        @Override
+        public boolean isIndependent() {
+            return true;
+        }
+
+        @Override
+        public void run() throws AuraExecutionException {
+            AuraContext context = contextService.getCurrentContext();
+            try {
+                if (system) {
+                    contextService.pushSystemContext();
+                    try {
+                        context.addLocalDef(descriptor, null);
+                        inSystemMode.countDown();
+                        checked.await(10, TimeUnit.SECONDS);
+                        sawSystemMode = context.isSystemMode();
+                        sawLocalDef = context.getLocalDef(descriptor) != null;
+                    } finally {
+                        contextService.popSystemContext();
+                    }
+                } else {
+                    inSystemMode.await(10, TimeUnit.SECONDS);
+                    sawSystemMode = context.isSystemMode();
+                    sawLocalDef = context.getLocalDef(descriptor) != null;
+                    checked.countDown();
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            super.run();
+        }
+    }
+
+    /**
+     * An independent action in system mode neither puts another one running at the same time in system mode, nor
+     * shares its local definitions with it.
+     */
+    @ThreadHostileTest("sets aura.actions.threads")
+    @Test
+    public void testIndependentActionInSystemModeDoesNotAffectOthers() throws Exception {
+        ServerService concurrentService = createConcurrentServerService();
+        try {
+            contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+            AuraContext context = contextService.getCurrentContext();
+            StringWriter sw = new StringWriter();
+            DefDescriptor<ComponentDef> descriptor = definitionService.getDefDescriptor("test:systemModeLocal",
+                    ComponentDef.class);
+            CountDownLatch inSystemMode = new CountDownLatch(1);
+            CountDownLatch checked = new CountDownLatch(1);
+            SystemModeAction system = new SystemModeAction(sw, "system action", true, descriptor, inSystemMode,
+                    checked);
+            SystemModeAction user = new SystemModeAction(sw, "user action", false, descriptor, inSystemMode,
+                    checked);
+
+            concurrentService.run(new Message(Lists.<Action>newArrayList(system, user)), context, sw, null);
+
+            assertTrue("the system action was not in system mode", system.sawSystemMode);
+            assertTrue("the system action lost its local definition", system.sawLocalDef);
+            assertFalse("the user action ran in system mode", user.sawSystemMode);
+            assertFalse("the user action saw a system local definition", user.sawLocalDef);
+            assertFalse(context.isSystemMode());
+            assertNull(context.getLocalDef(descriptor));
+            validateEmptyActionSerialization(sw.toString(), null, Arrays.asList("system action", "user action"));
+        } finally {
+            applicationContext.getAutowireCapableBeanFactory().destroyBean(concurrentService);
+        }
+    }
+
     /**
      * Test a simple action that serializes a specific value.
      *
@@ -50,6 +50,20 @@ public interface Annotations {
     @interface CabooseAction {
     }
 
+    /**
+     * Marks a method as not depending on any other action sent in the same request.
+     *
+     * When parallel action execution is enabled on the server, consecutive independent actions are run
+     * concurrently, with results still returned in order. Such actions must not depend on the side effects of
+     * other actions, nor push a system context.
+     *
+     * The AuraEnabled annotation is still required to use this method as a server action.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface IndependentAction {
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target(ElementType.METHOD)
     @interface AuraEnabled {
@@ -19,7 +19,6 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +37,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.system.BinaryRegistryFormat;
 import org.auraframework.impl.system.StaticDefRegistryImpl;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.RegistryService;
@@ -57,8 +57,8 @@ import com.google.common.collect.Sets;
  * This requires a components directory, an output directory, and optionally can take
  * a set of namespaces to exclude.
  *
- * Note that the output file is a binary object file that is a set of registries,
- * one per namespace, that contain all of the defs that are in the namespaces.
+ * Note that the output file is a binary registries file (see {@link BinaryRegistryFormat}) that is a set of
+ * registries, one per namespace, that contain all of the defs that are in the namespaces.
  */
 public class RegistrySerializer {
     private static final Log log = LogFactory.getLog(RegistrySerializer.class);
@@ -249,11 +249,9 @@ public class RegistrySerializer {
             return;
         }
 
-        ObjectOutputStream objectOut = null;
         try {
             try {
-                objectOut = new ObjectOutputStream(out);
-                objectOut.writeObject(regs);
+                BinaryRegistryFormat.write(regs, out);
             } finally {
                 out.close();
             }
@@ -22,6 +22,7 @@ import com.google.common.collect.ObjectArrays;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -223,6 +224,45 @@ public class AuraTextUtil {
         return true;
     }
 
+    /**
+     * Parses a number from a setting, such as a system property or a servlet context attribute.
+     *
+     * @param value the setting, which may be null.
+     * @return the number, or null if the setting is missing, empty or not a number.
+     */
+    public static Long parseLong(Object value) {
+        if (value != null) {
+            try {
+                return Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException nfe) {
+                // not a number
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a numeric system property.
+     *
+     * @param name the system property.
+     * @param defaultValue the value if the property is not set, or is not a number.
+     */
+    public static long getLongProperty(String name, long defaultValue) {
+        Long value = parseLong(System.getProperty(name));
+        return (value != null) ? value : defaultValue;
+    }
+
+    /**
+     * Reads a numeric system property.
+     *
+     * @param name the system property.
+     * @param defaultValue the value if the property is not set, or is not an int.
+     */
+    public static int getIntProperty(String name, int defaultValue) {
+        Long value = parseLong(System.getProperty(name));
+        return (value != null && value.intValue() == value) ? value.intValue() : defaultValue;
+    }
+
     /**
      * Properly escapes strings to be displayed in Javascript Strings. This means that backslashes and single quotes are
      * escaped. Double quotes also since javascript string may use either single or double. And HTML comment start,
@@ -251,6 +291,96 @@ public class AuraTextUtil {
         }
     }
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Escape a string for JSON and write it in quotes, in a single pass with no intermediate strings.
+     *
+     * The output is the same as {@code JSONObject.quote(escapeForJSONString(in))}: U+2028 becomes a newline, NUL is
+     * dropped, and the rest is quoted as org.json does, including escaping the slash in "&lt;/".
+     *
+     * The string is appended in pieces, so an Appendable that rewrites what it is given, such as
+     * {@link JSONEscapedFunctionStringBuilder}, should be handed the result from a buffer instead.
+     *
+     * @param out where to write the quoted string.
+     * @param in the string to write, must not be null.
+     */
+    public static void appendQuotedJSONString(Appendable out, String in) throws IOException {
+        out.append('"');
+        int length = in.length();
+        int start = 0;
+        // The previous character after NUL and U+2028 are replaced, for the "</" check.
+        char previous = 0;
+        for (int i = 0; i < length; i++) {
+            char c = in.charAt(i);
+            String replacement;
+            switch (c) {
+            case '\\':
+                replacement = "\\\\";
+                break;
+            case '"':
+                replacement = "\\\"";
+                break;
+            case '/':
+                replacement = (previous == '<') ? "\\/" : null;
+                break;
+            case '\b':
+                replacement = "\\b";
+                break;
+            case '\t':
+                replacement = "\\t";
+                break;
+            case '\n':
+            case '\u2028':
+                replacement = "\\n";
+                break;
+            case '\f':
+                replacement = "\\f";
+                break;
+            case '\r':
+                replacement = "\\r";
+                break;
+            case '\u0000':
+                replacement = "";
+                break;
+            default:
+                replacement = null;
+                if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                    appendRun(out, in, start, i);
+                    out.append("\\u").append(HEX_DIGITS[c >> 12]).append(HEX_DIGITS[(c >> 8) & 0xf])
+                            .append(HEX_DIGITS[(c >> 4) & 0xf]).append(HEX_DIGITS[c & 0xf]);
+                    start = i + 1;
+                }
+            }
+            if (replacement != null) {
+                appendRun(out, in, start, i);
+                out.append(replacement);
+                start = i + 1;
+            }
+            if (c == '\u2028') {
+                previous = '\n';
+            } else if (c != '\u0000') {
+                previous = c;
+            }
+        }
+        appendRun(out, in, start, length);
+        out.append('"');
+    }
+
+    /**
+     * Append part of a string, without the substring that Writer.append would make.
+     */
+    private static void appendRun(Appendable out, String in, int start, int end) throws IOException {
+        if (start == end) {
+            return;
+        }
+        if (out instanceof Writer) {
+            ((Writer) out).write(in, start, end - start);
+        } else {
+            out.append(in, start, end);
+        }
+    }
+
     /**
      * Properly escapes string for JSON Function.
      *
@@ -779,7 +909,7 @@ public class AuraTextUtil {
 
         @Override
         public Appendable append(CharSequence csq, int start, int end) throws IOException {
-            return sb.append(replace(csq.toString()), start, end);
+            return sb.append(replace(csq.subSequence(start, end).toString()));
         }
 
         @Override
@@ -32,6 +32,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
@@ -39,6 +41,10 @@ public class DateServiceImpl implements DateService {
 
     private static DateService INSTANCE = new DateServiceImpl();
 
+    // converters only hold an immutable DateTimeFormatter, so they are shared rather than built for every call
+    private final Cache<List<Object>, DateConverter> styleConverters = CacheBuilder.newBuilder().maximumSize(1024).build();
+    private final Cache<List<Object>, DateConverter> patternConverters = CacheBuilder.newBuilder().maximumSize(1024).build();
+
     public static DateService get() {
         return INSTANCE;
 
@@ -127,19 +133,30 @@ public class DateServiceImpl implements DateService {
         FormatStyle dateFormat = date.getFormatStyle();
         FormatStyle timeFormat = time.getFormatStyle();
 
-        DateTimeFormatter formatter;
-
         if (dateFormat == null && timeFormat == null) {
             throw new IllegalArgumentException("Both date style and time style cannot be none");
-        } else if (dateFormat == null) {
+        }
+
+        List<Object> key = ImmutableList.<Object>of(locale, date, time);
+        DateConverter converter = styleConverters.getIfPresent(key);
+        if (converter == null) {
+            converter = new DateServiceConverter(getStyleFormatter(dateFormat, timeFormat).withLocale(locale));
+            styleConverters.put(key, converter);
+        }
+        return converter;
+    }
+
+    private static DateTimeFormatter getStyleFormatter(FormatStyle dateFormat, FormatStyle timeFormat) {
+        DateTimeFormatter formatter;
+
+        if (dateFormat == null) {
             formatter = DateTimeFormatter.ofLocalizedTime(timeFormat);
         } else if (timeFormat == null) {
             formatter = DateTimeFormatter.ofLocalizedDate(dateFormat);
         } else {
             formatter = DateTimeFormatter.ofLocalizedDateTime(dateFormat, timeFormat);
         }
-
-        return new DateServiceConverter(formatter.withLocale(locale));
+        return formatter;
     }
 
     /**
@@ -169,7 +186,13 @@ public class DateServiceImpl implements DateService {
         if (pattern == null) {
             throw new IllegalArgumentException("Pattern must be provided");
         }
-        return new DateServiceConverter(DateTimeFormatter.ofPattern(pattern, locale));
+        List<Object> key = ImmutableList.<Object>of(locale, pattern);
+        DateConverter converter = patternConverters.getIfPresent(key);
+        if (converter == null) {
+            converter = new DateServiceConverter(DateTimeFormatter.ofPattern(pattern, locale));
+            patternConverters.put(key, converter);
+        }
+        return converter;
     }
 
     @Override
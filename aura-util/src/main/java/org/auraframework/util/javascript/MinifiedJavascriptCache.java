@@ -0,0 +1,520 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.javascript;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.auraframework.util.javascript.JavascriptProcessingError.Level;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.javascript.jscomp.Compiler;
+
+/**
+ * A disk cache of minified javascript, reused across restarts and across servers that share the directory.
+ *
+ * Entries are keyed by a hash of the source, the file name (which appears in error messages), the compression level,
+ * the Closure version and the code that sets up Closure in {@link JavascriptWriter}, so an entry is never stale. Errors
+ * and warnings are kept with the output, so that a broken source fails the same way on a hit.
+ *
+ * Each entry is written to a temporary file and linked into place, so readers only ever see whole entries, and of
+ * concurrent writers of the same entry only the first one's identical output is kept. Once the directory grows past
+ * its limit, the least recently used entries are deleted.
+ *
+ * The cache is off unless {@value #DIRECTORY_PROPERTY} is set.
+ */
+public final class MinifiedJavascriptCache {
+    /** System property for the cache directory */
+    public static final String DIRECTORY_PROPERTY = "aura.minifyCache.dir";
+
+    /** System property for the limit on the size of the cache directory, in bytes */
+    public static final String MAX_BYTES_PROPERTY = "aura.minifyCache.maxBytes";
+
+    private static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final int MAGIC = 0x4a534d43;
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".jsmin";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** A hit only updates the entry time once this much has passed, so that most hits do not write */
+    private static final long TOUCH_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    /** Temporary files older than this were left by a writer that died */
+    private static final long TEMP_FILE_AGE = TimeUnit.HOURS.toMillis(1);
+
+    private static final class Holder {
+        private static final MinifiedJavascriptCache INSTANCE = create();
+
+        private static MinifiedJavascriptCache create() {
+            String directory = System.getProperty(DIRECTORY_PROPERTY);
+            if (directory == null || directory.isEmpty()) {
+                return null;
+            }
+            long maxBytes = DEFAULT_MAX_BYTES;
+            String prop = System.getProperty(MAX_BYTES_PROPERTY);
+            if (prop != null && !prop.isEmpty()) {
+                try {
+                    maxBytes = Math.max(0, Long.parseLong(prop));
+                } catch (NumberFormatException nfe) {
+                    // use the default
+                }
+            }
+            return new MinifiedJavascriptCache(Paths.get(directory), maxBytes);
+        }
+    }
+
+    private static final class Entry {
+        private final String code;
+        private final List<JavascriptProcessingError> errors;
+
+        private Entry(String code, List<JavascriptProcessingError> errors) {
+            this.code = code;
+            this.errors = errors;
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final String compilerVersion;
+    private final String writerVersion;
+    private final AtomicLong size = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * @param directory the directory for entries, created as needed.
+     * @param maxBytes the limit on the size of the directory.
+     */
+    public MinifiedJavascriptCache(Path directory, long maxBytes) {
+        this(directory, maxBytes, getWriterVersion());
+    }
+
+    MinifiedJavascriptCache(Path directory, long maxBytes, String writerVersion) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.compilerVersion = Compiler.getReleaseVersion();
+        this.writerVersion = writerVersion;
+        this.size.set(scan());
+    }
+
+    /**
+     * Hash the classes of {@link JavascriptWriter}, which set the compiler options, custom passes and warnings guards
+     * that the output depends on, and which are not covered by the Closure version.
+     *
+     * @return the hash, or a value unique to this JVM if the classes cannot be read.
+     */
+    static String getWriterVersion() {
+        Hasher hasher = Hashing.sha256().newHasher();
+        try {
+            String name = JavascriptWriter.class.getName();
+            putClass(hasher, name, true);
+            putClass(hasher, JavascriptASTCommentSymbolsPass.class.getName(), true);
+            Class<?>[] nested = JavascriptWriter.class.getDeclaredClasses();
+            Arrays.sort(nested, Comparator.comparing(Class::getName));
+            for (Class<?> cls : nested) {
+                putClass(hasher, cls.getName(), true);
+            }
+            // The constants and guards are anonymous classes, numbered from 1.
+            int anonymous = 1;
+            while (putClass(hasher, name + "$" + anonymous, false)) {
+                anonymous++;
+            }
+        } catch (IOException ioe) {
+            return UUID.randomUUID().toString();
+        }
+        return hasher.hash().toString();
+    }
+
+    private static boolean putClass(Hasher hasher, String className, boolean required) throws IOException {
+        String resource = className.replace('.', '/') + ".class";
+        try (InputStream in = JavascriptWriter.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                if (required) {
+                    throw new IOException("Missing " + resource);
+                }
+                return false;
+            }
+            byte[] bytes = ByteStreams.toByteArray(in);
+            hasher.putInt(bytes.length);
+            hasher.putBytes(bytes);
+            return true;
+        }
+    }
+
+    /**
+     * @return the cache configured by system properties, or null if there is none.
+     */
+    public static MinifiedJavascriptCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Compress javascript, using the configured cache if there is one.
+     *
+     * @see JavascriptWriter#compress(String, Writer, String)
+     */
+    public static List<JavascriptProcessingError> compress(JavascriptWriter writer, String in, Writer out,
+            String filename) throws IOException {
+        MinifiedJavascriptCache cache = getInstance();
+        if (cache == null) {
+            return writer.compress(in, out, filename);
+        }
+        return cache.compressCached(writer, in, out, filename);
+    }
+
+    /**
+     * Compress javascript through this cache.
+     *
+     * @see JavascriptWriter#compress(String, Writer, String)
+     */
+    public List<JavascriptProcessingError> compressCached(JavascriptWriter writer, String in, Writer out, String filename)
+            throws IOException {
+        String key = getKey(writer, in, filename);
+        Path path = getPath(key);
+        Entry entry = read(path);
+        if (entry != null) {
+            hits.incrementAndGet();
+            out.write(entry.code);
+            return entry.errors;
+        }
+        misses.incrementAndGet();
+        StringWriter sw = new StringWriter();
+        List<JavascriptProcessingError> errors = writer.compress(in, sw, filename);
+        String code = sw.toString();
+        write(path, new Entry(code, errors));
+        out.write(code);
+        return errors;
+    }
+
+    private String getKey(JavascriptWriter writer, String in, String filename) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putInt(VERSION);
+        putString(hasher, compilerVersion);
+        putString(hasher, writerVersion);
+        putString(hasher, writer.name());
+        putString(hasher, filename);
+        putString(hasher, in);
+        return hasher.hash().toString();
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length());
+            hasher.putString(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private Path getPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    private Entry read(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a cache entry: " + path);
+            }
+            String code = readString(in);
+            int count = in.readInt();
+            List<JavascriptProcessingError> errors = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String message = readString(in);
+                int line = in.readInt();
+                int character = in.readInt();
+                String filename = readString(in);
+                String evidence = readString(in);
+                Level level = Level.valueOf(in.readUTF());
+                errors.add(new JavascriptProcessingError(message, line, character, filename, evidence, level));
+            }
+            touch(path);
+            return new Entry(code, errors);
+        } catch (NoSuchFileException nsfe) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // A damaged entry is just a miss.
+            failures.incrementAndGet();
+            delete(path);
+            return null;
+        }
+    }
+
+    private void write(Path path, Entry entry) {
+        Path temp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), TEMP_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, entry.code);
+                out.writeInt(entry.errors.size());
+                for (JavascriptProcessingError error : entry.errors) {
+                    writeString(out, error.getMessage());
+                    out.writeInt(error.getLine());
+                    out.writeInt(error.getStartColumn());
+                    writeString(out, error.getFilename());
+                    writeString(out, error.getEvidence());
+                    out.writeUTF(error.getLevel().name());
+                }
+            }
+            long length = Files.size(temp);
+            if (!publish(temp, path)) {
+                // Another writer got there first with the same output.
+                return;
+            }
+            writes.incrementAndGet();
+            if (size.addAndGet(length) > maxBytes) {
+                evict();
+            }
+        } catch (IOException ioe) {
+            // The output is still good, it just is not cached.
+            failures.incrementAndGet();
+        } finally {
+            if (temp != null) {
+                delete(temp);
+            }
+        }
+    }
+
+    /**
+     * Put a written entry in place, unless it is there already.
+     *
+     * A hard link fails if the entry exists, so only one of several writers of an entry counts its size. Where links
+     * are not supported, the temporary file is renamed over the entry instead.
+     *
+     * @return true if this call created the entry.
+     */
+    private static boolean publish(Path temp, Path path) throws IOException {
+        try {
+            Files.createLink(path, temp);
+            return true;
+        } catch (FileAlreadyExistsException faee) {
+            return false;
+        } catch (UnsupportedOperationException | IOException e) {
+            // fall back to a rename.
+        }
+        boolean existed = Files.exists(path);
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException amnse) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return !existed;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private void touch(Path path) {
+        try {
+            long now = System.currentTimeMillis();
+            if (now - Files.getLastModifiedTime(path).toMillis() > TOUCH_INTERVAL) {
+                Files.setLastModifiedTime(path, FileTime.fromMillis(now));
+            }
+        } catch (IOException ioe) {
+            // only affects eviction order.
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ioe) {
+            // someone else has it, or it is gone already.
+        }
+    }
+
+    /**
+     * Delete the least recently used entries until the directory is back to nine tenths of its limit.
+     *
+     * Only one thread evicts at a time, the others carry on. The directory is rescanned, so entries written by other
+     * servers are counted too.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            List<EntryFile> files = new ArrayList<>();
+            long total = 0;
+            for (Path path : listEntries()) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    files.add(new EntryFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    total += attributes.size();
+                } catch (IOException ioe) {
+                    // gone already.
+                }
+            }
+            files.sort(Comparator.comparingLong((EntryFile file) -> file.lastModified));
+            long target = maxBytes - maxBytes / 10;
+            for (EntryFile file : files) {
+                if (total <= target) {
+                    break;
+                }
+                delete(file.path);
+                total -= file.size;
+                evictions.incrementAndGet();
+            }
+            size.set(total);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class EntryFile {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        private EntryFile(Path path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Add up the size of the entries, clearing out temporary files that were left behind.
+     */
+    private long scan() {
+        long total = 0;
+        for (Path path : listEntries()) {
+            try {
+                total += Files.size(path);
+            } catch (IOException ioe) {
+                // gone already.
+            }
+        }
+        return total;
+    }
+
+    private List<Path> listEntries() {
+        List<Path> entries = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return entries;
+        }
+        long staleTemp = System.currentTimeMillis() - TEMP_FILE_AGE;
+        try (DirectoryStream<Path> buckets = Files.newDirectoryStream(directory)) {
+            for (Path bucket : buckets) {
+                if (!Files.isDirectory(bucket)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(bucket)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        if (name.endsWith(SUFFIX)) {
+                            entries.add(file);
+                        } else if (name.endsWith(TEMP_SUFFIX)
+                                && Files.getLastModifiedTime(file).toMillis() < staleTemp) {
+                            delete(file);
+                        }
+                    }
+                } catch (IOException ioe) {
+                    // skip this bucket.
+                }
+            }
+        } catch (IOException ioe) {
+            // nothing to list.
+        }
+        return entries;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * @return the approximate size of the cache directory, in bytes.
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    @Override
+    public String toString() {
+        return "minifyCache: dir=" + directory + ", hits=" + hits.get() + ", misses=" + misses.get() + ", writes="
+                + writes.get() + ", evictions=" + evictions.get() + ", failures=" + failures.get() + ", bytes="
+                + size.get();
+    }
+}
@@ -22,6 +22,9 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -29,6 +32,7 @@ import java.util.Date;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TimeZone;
@@ -37,7 +41,6 @@ import javax.annotation.Nonnull;
 
 import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.UncloseableOutputStream;
-import org.json.JSONObject;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
@@ -130,11 +133,14 @@ public class JsonEncoder implements Json {
         
         // the "main" Appendable that is always written to
         private final Appendable all;
+        // whether all can take text in pieces, rather than needing whole values to rewrite
+        private final boolean streamable;
         // the optional/capturing Appendable that is non-empty only if capturing is in progress
         private Deque<StringBuilder> captured = new ArrayDeque<>();
         
         CapturableAppendable(Appendable out) {
             this.all = out;
+            this.streamable = out instanceof StringBuilder || out instanceof Writer;
         }
         
         @Override
@@ -148,7 +154,12 @@ public class JsonEncoder implements Json {
 
         @Override
         public Appendable append(CharSequence csq, int start, int end) throws IOException {
-            all.append(csq, start, end);
+            if (all instanceof Writer && csq instanceof String) {
+                // Writer.append copies the range to a new string first.
+                ((Writer) all).write((String) csq, start, end - start);
+            } else {
+                all.append(csq, start, end);
+            }
             if (!captured.isEmpty()) {
                 captured.getFirst().append(csq, start, end);
             }
@@ -598,7 +609,14 @@ public class JsonEncoder implements Json {
             return;
         }
 
-        cacheableOut.append(JSONObject.quote(AuraTextUtil.escapeForJSONString(value.toString())));
+        String s = value.toString();
+        if (cacheableOut.streamable) {
+            AuraTextUtil.appendQuotedJSONString(cacheableOut, s);
+        } else {
+            StringBuilder quoted = new StringBuilder(s.length() + 2);
+            AuraTextUtil.appendQuotedJSONString(quoted, s);
+            cacheableOut.append(quoted);
+        }
     }
 
     /**
@@ -611,13 +629,32 @@ public class JsonEncoder implements Json {
     @Override
     public void writeDate(Date value) throws IOException {
         cacheableOut.append('"');
-        // Use the ISO DateTime format to write the date.
+        cacheableOut.append(formatDate(value));
+        cacheableOut.append('"');
+    }
+
+    /**
+     * Format a date as ISO-8601 in GMT, to the second.
+     *
+     * java.time formats the dates we see in practice without locking. It uses the proleptic Gregorian calendar and
+     * signs years past 9999, where SimpleDateFormat switches to the Julian calendar and does not, so dates outside
+     * {@link #ISO8601_MIN} and {@link #ISO8601_MAX} still go through the shared SimpleDateFormat.
+     */
+    static String formatDate(Date value) {
+        long time = value.getTime();
+        if (time >= ISO8601_MIN && time < ISO8601_MAX) {
+            return ISO8601_FORMATTER.format(Instant.ofEpochMilli(time));
+        }
         synchronized (ISO8601FORMAT) {
-            cacheableOut.append(ISO8601FORMAT.format(value));
+            return ISO8601FORMAT.format(value);
         }
-        cacheableOut.append('"');
     }
 
+    private static final DateTimeFormatter ISO8601_FORMATTER = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.ROOT).withZone(ZoneOffset.UTC);
+    static final long ISO8601_MIN = Instant.parse("1600-01-01T00:00:00Z").toEpochMilli();
+    static final long ISO8601_MAX = Instant.parse("+10000-01-01T00:00:00Z").toEpochMilli();
+
     private static final SimpleDateFormat ISO8601FORMAT;
     static {
         ISO8601FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
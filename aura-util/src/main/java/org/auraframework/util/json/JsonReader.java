@@ -17,7 +17,6 @@ package org.auraframework.util.json;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 
 /**
  * Parses a single top-level object and returns it as an Object. See the class
@@ -35,21 +34,27 @@ public class JsonReader {
      * boolean
      */
     public Object read(Reader reader) {
-        JsonStreamReader jsonStreamReader = new JsonStreamReader(reader);
-        try {
-            jsonStreamReader.next();
-        } catch (IOException e) {
-            throw new JsonStreamReader.JsonParseException(e);
-        }
-        return jsonStreamReader.getValue();
+        return read(new JsonStreamReader(reader));
     }
 
     /**
      * Public entry point for reading a Json String. This will return an Object
      * that could be any of the acceptable JSON structures: List, Map, null,
      * String, BigDouble, boolean
+     *
+     * The string is scanned in place, which is a good deal cheaper than
+     * reading it through a Reader.
      */
     public Object read(String string) {
-        return this.read(new StringReader(string));
+        return read(new JsonStreamReader(string));
+    }
+
+    private Object read(JsonStreamReader jsonStreamReader) {
+        try {
+            jsonStreamReader.next();
+        } catch (IOException e) {
+            throw new JsonStreamReader.JsonParseException(e);
+        }
+        return jsonStreamReader.getValue();
     }
 }
@@ -43,8 +43,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackReader;
 import java.io.Reader;
-import java.io.StringReader;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Map;
@@ -104,7 +106,13 @@ import javax.annotation.Nonnull;
  * pass in your own implementation of JsonHandlerProvider, and then your
  * JsonHandlers will be used. This allows you to skip the intermediate step of
  * parsing into Maps and Lists, and lets you put the primitives directly into
- * your objects as they are parsed.
+ * your objects as they are parsed.<br>
+ * <br>
+ * When constructed from a String or a buffer, the input is scanned in place
+ * rather than through a Reader. Strings without escapes and plain decimal
+ * numbers are read straight from the buffer, short map keys are shared across
+ * readers, and line and column numbers are only worked out for errors. The
+ * values produced are the same either way.
  */
 public class JsonStreamReader {
 
@@ -113,6 +121,15 @@ public class JsonStreamReader {
     // 4mb seems to be industry standard here.
     private static final int MAX_LENGTH = 4194304;
     private static JsonHandlerProvider defaultProvider = new JsonHandlerProviderImpl();
+
+    // Map keys repeat a lot (think 'descriptor', 'params', 'callingDescriptor'), so readers share the strings for
+    // short ones. This is a simple direct mapped table, a race only costs a miss, as strings are immutable.
+    private static final int MAX_SHARED_KEY_LENGTH = 32;
+    private static final String [] sharedKeys = new String[1024];
+
+    // Plain decimals with at most this many digits fit in a long.
+    private static final int MAX_FAST_NUMBER_DIGITS = 18;
+
     private static Map<Character, Character> escapes = Maps.newHashMapWithExpectedSize(13);
     static {
         escapes.put('"', '"');
@@ -130,6 +147,14 @@ public class JsonStreamReader {
 
     private final PushbackReader reader;
 
+    // When reading from a buffer, these replace the reader, and the line and column for a token are only worked
+    // out from its offset (lastPos) when asked for.
+    private final char [] buffer;
+    private final int bufferStart;
+    private final int bufferEnd;
+    private int pos;
+    private int lastPos;
+
     private JsonConstant currentToken;
     private Object current;
     private int charNum = 0;
@@ -156,10 +181,57 @@ public class JsonStreamReader {
                 : (binaryInput instanceof DataInputStream ? (DataInputStream) binaryInput : new DataInputStream(
                         binaryInput));
         this.provider = provider;
+        this.buffer = null;
+        this.bufferStart = 0;
+        this.bufferEnd = 0;
     }
 
     public JsonStreamReader(String string, JsonHandlerProvider provider) {
-        this(createStringReader(string), null, provider);
+        this(toCharArray(string), provider);
+    }
+
+    private JsonStreamReader(char [] chars, JsonHandlerProvider provider) {
+        this(chars, 0, chars.length, provider);
+    }
+
+    /**
+     * Creates a JSON stream reader that scans a buffer of characters in place.
+     *
+     * The buffer is not copied, so it must not be changed while it is being
+     * read.
+     *
+     * @param buffer the characters to read.
+     * @param offset the offset of the first character to read.
+     * @param length the number of characters to read.
+     * @param provider the handler provider, or null for the default.
+     */
+    public JsonStreamReader(char [] buffer, int offset, int length, JsonHandlerProvider provider) {
+        if (buffer == null) {
+            throw new JsonParseException("Buffer cannot be null");
+        }
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new JsonParseException("Invalid buffer range");
+        }
+        this.reader = null;
+        this.binaryInput = null;
+        this.provider = provider;
+        this.buffer = buffer;
+        this.bufferStart = offset;
+        this.bufferEnd = offset + length;
+        this.pos = offset;
+        this.lastPos = offset;
+    }
+
+    /**
+     * Creates a JSON stream reader over UTF-8 encoded bytes.
+     *
+     * The bytes are decoded in one go, and the result is scanned in place.
+     *
+     * @param utf8 the bytes to read.
+     * @param provider the handler provider, or null for the default.
+     */
+    public JsonStreamReader(byte [] utf8, JsonHandlerProvider provider) {
+        this(decodeUtf8(utf8), provider);
     }
 
     /**
@@ -216,11 +288,25 @@ public class JsonStreamReader {
         lengthLimitsEnabled = false;
     }
 
-    private static StringReader createStringReader(String string) {
+    private static char [] toCharArray(String string) {
         if (string == null) {
             throw new JsonParseException("String cannot be null");
         }
-        return new StringReader(string);
+        return string.toCharArray();
+    }
+
+    private static char [] decodeUtf8(byte [] utf8) {
+        if (utf8 == null) {
+            throw new JsonParseException("Buffer cannot be null");
+        }
+        CharBuffer chars = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(utf8));
+        if (chars.hasArray() && chars.arrayOffset() == 0 && chars.position() == 0
+                && chars.remaining() == chars.array().length) {
+            return chars.array();
+        }
+        char [] result = new char[chars.remaining()];
+        chars.get(result);
+        return result;
     }
 
     public JsonStreamReader(Reader reader) {
@@ -345,6 +431,9 @@ public class JsonStreamReader {
     }
 
     public int getCharNum() {
+        if (buffer != null) {
+            return pos - bufferStart;
+        }
         return charNum;
     }
 
@@ -369,6 +458,21 @@ public class JsonStreamReader {
         }
     }
 
+    /**
+     * Get the next token where an object key is expected, so that a bare
+     * literal is read as a string.
+     *
+     * This is only useful with recursive reading disabled, when the caller is
+     * walking an object itself.
+     */
+    public JsonConstant nextKey() throws IOException {
+        try {
+            return next(STRING);
+        } catch (JsonEndOfStreamException e) {
+            throw new JsonParseException(e);
+        }
+    }
+
     /**
      * get the next token.
      *
@@ -396,8 +500,9 @@ public class JsonStreamReader {
             return WHITESPACE;
         }
         markPosition(0);
-        int startLine = getLineNum();
-        int startCol = getColNum();
+        int startLine = lastLineNum;
+        int startCol = lastColNum;
+        int startPos = lastPos;
 
         // Read and dispatch the next character
         char c = readChar();
@@ -480,7 +585,7 @@ public class JsonStreamReader {
             break;
         case QUOTE_SINGLE:
         case QUOTE_DOUBLE:
-            current = readString(token, false);
+            current = readString(token, false, hint == STRING);
             token = STRING;
             break;
         case BINARY_STREAM: {
@@ -494,7 +599,7 @@ public class JsonStreamReader {
         default:
         }
 
-        setPosition(startLine, startCol);
+        setPosition(startLine, startCol, startPos);
         currentToken = token;
         return token;
     }
@@ -693,9 +798,33 @@ public class JsonStreamReader {
     }
 
     private String readString(JsonConstant delim, boolean keepEscapers) throws IOException, JsonEndOfStreamException {
+        return readString(delim, keepEscapers, false);
+    }
+
+    private String readString(JsonConstant delim, boolean keepEscapers, boolean isKey)
+            throws IOException, JsonEndOfStreamException {
         StringBuilder sb = new StringBuilder();
         boolean isEscaped = false;
         markPosition(1);
+        if (buffer != null && !keepEscapers) {
+            char end = delim.getToken();
+            int start = pos;
+            int limit = getScanLimit();
+            int i = start;
+            for (; i < limit; i++) {
+                char c = buffer[i];
+                if (c == end) {
+                    pos = i + 1;
+                    return isKey ? getSharedKey(buffer, start, i - start) : new String(buffer, start, i - start);
+                }
+                if (c == '\\' || c == '\n') {
+                    break;
+                }
+            }
+            // Escapes, bad line breaks and the end of input take the long way round.
+            sb.append(buffer, start, i - start);
+            pos = i;
+        }
         try {
             while (true) {
                 char c = readChar();
@@ -778,8 +907,8 @@ public class JsonStreamReader {
     }
 
     private JsFunction readFunction() throws IOException, JsonEndOfStreamException {
-        int line = lineNum;
-        int col = colNum;
+        int line = (buffer != null) ? getLineAt(pos) : lineNum;
+        int col = (buffer != null) ? getColAt(pos) : colNum;
         // We hint 'literal' to let the parser know that arbitrary literals are ok.
         JsonConstant next = next(LITERAL);
         String functionName = null;
@@ -865,6 +994,12 @@ public class JsonStreamReader {
     }
 
     private Number readNumber() throws IOException, JsonEndOfStreamException {
+        if (buffer != null) {
+            BigDecimal plain = readPlainNumber();
+            if (plain != null) {
+                return plain;
+            }
+        }
         StringBuilder sb = new StringBuilder();
         while (hasNext()) {
             char c = readChar();
@@ -895,6 +1030,59 @@ public class JsonStreamReader {
         return ret;
     }
 
+    /**
+     * Read a plain decimal ([-]digits[.digits]) straight from the buffer.
+     *
+     * This gives exactly the value that BigDecimal gives for the same text,
+     * without building the text first. Anything else, such as exponents, too
+     * many digits, or whitespace followed by more of the number (which
+     * readNumber joins up), returns null and leaves the buffer where it was.
+     */
+    private BigDecimal readPlainNumber() {
+        int limit = getScanLimit();
+        int i = pos;
+        boolean negative = false;
+        boolean fraction = false;
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+
+        if (i < limit && buffer[i] == '-') {
+            negative = true;
+            i++;
+        }
+        for (; i < limit; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_FAST_NUMBER_DIGITS) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (fraction) {
+                    scale++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (JsonConstant.valueOf(c) == LITERAL_START) {
+                return null;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0 || (i == limit && limit < bufferEnd)) {
+            return null;
+        }
+        int next = i;
+        while (next < bufferEnd && Character.isWhitespace(buffer[next])) {
+            next++;
+        }
+        if (next > i && next < bufferEnd && JsonConstant.valueOf(buffer[next]) == LITERAL_START) {
+            return null;
+        }
+        pos = i;
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
     /**
      * Literal Strings can only be used as keys in maps, so the entry separator
      * and whitespace chars are treated as the delimiters.
@@ -903,6 +1091,20 @@ public class JsonStreamReader {
      * @throws IOException
      */
     private String readLiteralString() throws IOException, JsonEndOfStreamException {
+        if (buffer != null) {
+            int limit = getScanLimit();
+            for (int i = pos; i < limit; i++) {
+                char c = buffer[i];
+                if (c == '\\') {
+                    break;
+                }
+                if (JsonConstant.valueOf(c) != LITERAL_START) {
+                    String literal = getSharedKey(buffer, pos, i - pos);
+                    pos = i;
+                    return literal;
+                }
+            }
+        }
         StringBuilder sb = new StringBuilder();
         try {
             while (true) {
@@ -922,7 +1124,54 @@ public class JsonStreamReader {
         return sb.toString();
     }
 
+    /**
+     * Get a string for a map key from the buffer, sharing short ones.
+     */
+    private static String getSharedKey(char [] chars, int start, int length) {
+        if (length > MAX_SHARED_KEY_LENGTH) {
+            return new String(chars, start, length);
+        }
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (sharedKeys.length - 1);
+        String key = sharedKeys[slot];
+        if (key != null && key.length() == length && key.hashCode() == hash) {
+            int i = 0;
+            while (i < length && key.charAt(i) == chars[start + i]) {
+                i++;
+            }
+            if (i == length) {
+                return key;
+            }
+        }
+        key = new String(chars, start, length);
+        sharedKeys[slot] = key;
+        return key;
+    }
+
+    /**
+     * The end of what the fast paths may scan, anything past this has to go
+     * through readChar() to get the length check.
+     */
+    private int getScanLimit() {
+        if (lengthLimitsEnabled && bufferEnd - bufferStart > MAX_LENGTH) {
+            return bufferStart + MAX_LENGTH;
+        }
+        return bufferEnd;
+    }
+
     private char readChar() throws IOException, JsonEndOfStreamException {
+        if (buffer != null) {
+            if (pos >= bufferEnd) {
+                throw new JsonEndOfStreamException("End of stream unexpectedly reached.");
+            }
+            if (pos - bufferStart >= MAX_LENGTH && lengthLimitsEnabled) {
+                throw new JsonStreamParseException("Input too long.");
+            }
+            return buffer[pos++];
+        }
         int i = reader.read();
 
         if (i == -1) {
@@ -954,6 +1203,11 @@ public class JsonStreamReader {
     }
 
     private void unreadChar(char c) throws IOException {
+        if (buffer != null) {
+            // We only ever unread what we just read.
+            pos--;
+            return;
+        }
         reader.unread(c);
         charNum--;
         if (c == '\n') {
@@ -985,6 +1239,7 @@ public class JsonStreamReader {
         // Read the next 4 hex digits.
         int line = lineNum;
         int col = colNum;
+        int start = pos;
         StringBuilder sb = new StringBuilder(4);
         for (int i = 0; i < 4; i++) {
             sb.append(readChar());
@@ -993,13 +1248,19 @@ public class JsonStreamReader {
         try {
             c = (char) Integer.parseInt(sb.toString(), 16);
         } catch (NumberFormatException e) {
+            if (buffer != null) {
+                line = getLineAt(start);
+                col = getColAt(start);
+            }
             throw new JsonStreamParseException(e.getMessage(), sb.toString(), line, col, e);
         }
         return c;
     }
 
     public void close() throws IOException {
-        reader.close();
+        if (reader != null) {
+            reader.close();
+        }
     }
 
     private void assertTokenType(JsonConstant expected, JsonConstant actual) {
@@ -1014,24 +1275,62 @@ public class JsonStreamReader {
         }
     }
 
-    private void setPosition(int line, int col) {
+    private void setPosition(int line, int col, int offset) {
         lastLineNum = line;
         lastColNum = col;
+        lastPos = offset;
     }
 
     private void markPosition(int offset) {
-        lastLineNum = lineNum;
-        lastColNum = colNum-offset;
+        if (buffer != null) {
+            // worked out when needed.
+            lastPos = pos-offset;
+            lastLineNum = -1;
+            lastColNum = -1;
+        } else {
+            lastLineNum = lineNum;
+            lastColNum = colNum-offset;
+        }
     }
 
     public int getLineNum() {
+        if (lastLineNum < 0) {
+            lastLineNum = getLineAt(lastPos);
+        }
         return lastLineNum;
     }
 
     private int getColNum() {
+        if (lastColNum < 0) {
+            lastColNum = getColAt(lastPos);
+        }
         return lastColNum;
     }
 
+    /**
+     * The line number at an offset in the buffer, counting from 1.
+     */
+    private int getLineAt(int offset) {
+        int line = 1;
+        for (int i = bufferStart; i < offset; i++) {
+            if (buffer[i] == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * The column number at an offset in the buffer, counting from 1.
+     */
+    private int getColAt(int offset) {
+        int lineStart = offset;
+        while (lineStart > bufferStart && buffer[lineStart-1] != '\n') {
+            lineStart--;
+        }
+        return 1 + offset - lineStart;
+    }
+
     /**
      * Runtime exception used to indicate improperly formatted json input. All
      * messages will be decorated with the line and column numbers of the
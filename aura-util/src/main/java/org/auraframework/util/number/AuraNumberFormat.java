@@ -15,12 +15,189 @@
  */
 package org.auraframework.util.number;
 
+import java.math.BigDecimal;
 import java.text.ParseException;
 import java.text.ParsePosition;
+import java.util.Locale;
+import java.util.Objects;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.ibm.icu.text.DecimalFormat;
 import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.util.Currency;
 
 public class AuraNumberFormat {
+    /**
+     * The kinds of format that can be requested from {@link #getInstance(Locale, Style)}.
+     */
+    public enum Style {
+        /** {@link NumberFormat#getInstance(Locale)} */
+        DEFAULT,
+        /** {@link NumberFormat#getNumberInstance(Locale)} */
+        NUMBER,
+        /** {@link NumberFormat#getPercentInstance(Locale)} */
+        PERCENT,
+        /** {@link NumberFormat#getCurrencyInstance(Locale)} */
+        CURRENCY;
+
+        private NumberFormat create(Locale locale) {
+            switch (this) {
+            case NUMBER:
+                return NumberFormat.getNumberInstance(locale);
+            case PERCENT:
+                return NumberFormat.getPercentInstance(locale);
+            case CURRENCY:
+                return NumberFormat.getCurrencyInstance(locale);
+            default:
+                return NumberFormat.getInstance(locale);
+            }
+        }
+    }
+
+    /**
+     * Used for fraction digits that are left at the locale default.
+     */
+    public static final int DEFAULT_FRACTION_DIGITS = -1;
+
+    // looking up a format reads locale data every time, so configured formats are kept here and cloned for each use,
+    // as they are not thread safe.
+    private static final Cache<FormatKey, NumberFormat> PROTOTYPES = CacheBuilder.newBuilder().maximumSize(1024).build();
+
+    private static final class FormatKey {
+        private final Locale locale;
+        private final Style style;
+        private final int minFractionDigits;
+        private final int maxFractionDigits;
+        private final Currency currency;
+        private final boolean parseBigDecimal;
+        private final int hashCode;
+
+        FormatKey(Locale locale, Style style, int minFractionDigits, int maxFractionDigits, Currency currency,
+                boolean parseBigDecimal) {
+            this.locale = locale;
+            this.style = style;
+            this.minFractionDigits = minFractionDigits;
+            this.maxFractionDigits = maxFractionDigits;
+            this.currency = currency;
+            this.parseBigDecimal = parseBigDecimal;
+            this.hashCode = Objects.hash(locale, style, minFractionDigits, maxFractionDigits, currency,
+                    parseBigDecimal);
+        }
+
+        NumberFormat create() {
+            NumberFormat format = style.create(locale);
+            if (parseBigDecimal) {
+                ((DecimalFormat) format).setParseBigDecimal(true);
+            }
+            // setCurrency will set fraction digits based on locale so that statement needs to happen before if we
+            // want to set fraction digits ourselves
+            if (currency != null) {
+                format.setCurrency(currency);
+            }
+            if (minFractionDigits != DEFAULT_FRACTION_DIGITS) {
+                format.setMinimumFractionDigits(minFractionDigits);
+            }
+            if (maxFractionDigits != DEFAULT_FRACTION_DIGITS) {
+                format.setMaximumFractionDigits(maxFractionDigits);
+            }
+            return format;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FormatKey)) {
+                return false;
+            }
+            FormatKey other = (FormatKey) obj;
+            return style == other.style && minFractionDigits == other.minFractionDigits
+                    && maxFractionDigits == other.maxFractionDigits && parseBigDecimal == other.parseBigDecimal
+                    && locale.equals(other.locale) && Objects.equals(currency, other.currency);
+        }
+    }
+
+    /**
+     * Get a number format for a locale.
+     *
+     * @param locale the locale, must not be null.
+     * @param style the kind of format.
+     * @return a new format, owned by the caller.
+     */
+    public static NumberFormat getInstance(Locale locale, Style style) {
+        return getInstance(locale, style, DEFAULT_FRACTION_DIGITS, DEFAULT_FRACTION_DIGITS, null, false);
+    }
+
+    /**
+     * Get a number format for a locale, with the given fraction digits.
+     *
+     * @param locale the locale, must not be null.
+     * @param style the kind of format.
+     * @param minFractionDigits the minimum fraction digits, or {@link #DEFAULT_FRACTION_DIGITS}.
+     * @param maxFractionDigits the maximum fraction digits, or {@link #DEFAULT_FRACTION_DIGITS}.
+     * @return a new format, owned by the caller.
+     */
+    public static NumberFormat getInstance(Locale locale, Style style, int minFractionDigits, int maxFractionDigits) {
+        return getInstance(locale, style, minFractionDigits, maxFractionDigits, null, false);
+    }
+
+    /**
+     * Get a number format for a locale.
+     *
+     * Formats are built once for each distinct set of arguments and cloned for each call, rather than looked up from
+     * the locale data each time. NumberFormatBenchmark compares the two.
+     *
+     * @param locale the locale, must not be null.
+     * @param style the kind of format.
+     * @param minFractionDigits the minimum fraction digits, or {@link #DEFAULT_FRACTION_DIGITS}.
+     * @param maxFractionDigits the maximum fraction digits, or {@link #DEFAULT_FRACTION_DIGITS}.
+     * @param currency the currency to use, or null to leave the locale default.
+     * @param parseBigDecimal whether parsing should return BigDecimal values.
+     * @return a new format, owned by the caller.
+     */
+    public static NumberFormat getInstance(Locale locale, Style style, int minFractionDigits, int maxFractionDigits,
+            Currency currency, boolean parseBigDecimal) {
+        if (locale == null) {
+            throw new IllegalArgumentException("Locale must be provided");
+        }
+        FormatKey key = new FormatKey(locale, style, minFractionDigits, maxFractionDigits, currency,
+                parseBigDecimal);
+        NumberFormat prototype = PROTOTYPES.getIfPresent(key);
+        if (prototype == null) {
+            prototype = key.create();
+            PROTOTYPES.put(key, prototype);
+        }
+        return (NumberFormat) prototype.clone();
+    }
+
+    /**
+     * Strictly parse a number with a format for the locale.
+     *
+     * @see #parseStrict(String, NumberFormat)
+     */
+    public static Number parseStrict(String input, Locale locale, Style style) throws ParseException {
+        return parseStrict(input, getInstance(locale, style));
+    }
+
+    /**
+     * Parse a number to a BigDecimal with a format for the locale.
+     *
+     * @see #parse(String, NumberFormat, boolean)
+     */
+    public static BigDecimal parseBigDecimal(String input, Locale locale, Style style, boolean strict)
+            throws ParseException {
+        NumberFormat numberFormat = getInstance(locale, style, DEFAULT_FRACTION_DIGITS, DEFAULT_FRACTION_DIGITS, null,
+                true);
+        // icu BigDecimal to java BigDecimal
+        return ((com.ibm.icu.math.BigDecimal) parse(input, numberFormat, strict)).toBigDecimal();
+    }
 
     /**
      * Ensures strict parsing of a number. Throws ParseException if the input
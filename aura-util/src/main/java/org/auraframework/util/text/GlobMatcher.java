@@ -69,6 +69,21 @@ public class GlobMatcher implements Serializable {
         return this.all;
     }
 
+    /**
+     * The constant text before the first wildcard.
+     *
+     * @return the whole pattern if it is constant, the empty string if it matches everything.
+     */
+    public String getLiteralPrefix() {
+        if (this.all) {
+            return "";
+        }
+        if (this.constant) {
+            return this.original;
+        }
+        return this.original.substring(0, this.original.indexOf('*'));
+    }
+
     public boolean match(String toMatch) {
         if (this.all) {
             return true;
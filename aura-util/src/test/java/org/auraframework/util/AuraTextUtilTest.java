@@ -17,10 +17,13 @@ package org.auraframework.util;
 
 import org.auraframework.util.AuraTextUtil.JSONEscapedFunctionStringBuilder;
 import org.auraframework.util.test.util.UnitTestCase;
+import org.json.JSONObject;
 import org.junit.Test;
 
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 public class AuraTextUtilTest extends UnitTestCase {
     /**
@@ -158,6 +161,33 @@ public class AuraTextUtilTest extends UnitTestCase {
         assertEquals(false, AuraTextUtil.isNullOrEmpty("\t\n a"));
     }
 
+    @Test
+    public void testParseLong() {
+        assertEquals(Long.valueOf(42), AuraTextUtil.parseLong("42"));
+        assertEquals(Long.valueOf(-1), AuraTextUtil.parseLong(" -1 "));
+        assertEquals(Long.valueOf(7), AuraTextUtil.parseLong(Integer.valueOf(7)));
+        assertNull(AuraTextUtil.parseLong(null));
+        assertNull(AuraTextUtil.parseLong(""));
+        assertNull(AuraTextUtil.parseLong("many"));
+    }
+
+    @Test
+    public void testGetIntProperty() {
+        String name = "aura.test.AuraTextUtilTest.intProperty";
+        try {
+            assertEquals(3, AuraTextUtil.getIntProperty(name, 3));
+            System.setProperty(name, "8");
+            assertEquals(8, AuraTextUtil.getIntProperty(name, 3));
+            System.setProperty(name, "eight");
+            assertEquals(3, AuraTextUtil.getIntProperty(name, 3));
+            System.setProperty(name, "8589934592");
+            assertEquals(3, AuraTextUtil.getIntProperty(name, 3));
+            assertEquals(8589934592L, AuraTextUtil.getLongProperty(name, 3));
+        } finally {
+            System.clearProperty(name);
+        }
+    }
+
     @Test
     public void testIsEmptyOrWhitespace() {
         assertEquals(false, AuraTextUtil.isEmptyOrWhitespace(null));
@@ -206,6 +236,50 @@ public class AuraTextUtilTest extends UnitTestCase {
         }
     }
 
+    private static String quoteWithJSONObject(String s) {
+        return JSONObject.quote(AuraTextUtil.escapeForJSONString(s));
+    }
+
+    private static String appendQuoted(String s) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        AuraTextUtil.appendQuotedJSONString(sb, s);
+        return sb.toString();
+    }
+
+    @Test
+    public void testAppendQuotedJSONString() throws Exception {
+        String[] inputs = { "", "plain", "\\", "\"quoted\"", "</script>", "<\u0000/", "<\u2028/", "a/b", "\b\t\n\f\r",
+                "\u0001\u001f", "\u007f\u0080\u009f\u00a0", "\u1fff\u2000\u2028\u2029\u20ff\u2100", "\u0000",
+                "\u2028", "\ud83d\ude00", "\u00e9\u4e2d", "*/" };
+        for (String input : inputs) {
+            assertEquals(quoteWithJSONObject(input), appendQuoted(input));
+        }
+    }
+
+    @Test
+    public void testAppendQuotedJSONStringRandom() throws Exception {
+        char[] alphabet = "ab</\\\"*\b\t\n\f\r\u0000\u0001\u001f\u007f\u0080\u00ff\u2028\u2029\u20ff\u2100\ud83d"
+                .toCharArray();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            char[] chars = new char[random.nextInt(20)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = random.nextBoolean() ? alphabet[random.nextInt(alphabet.length)]
+                        : (char) random.nextInt(Character.MAX_VALUE + 1);
+            }
+            String input = new String(chars);
+            assertEquals(quoteWithJSONObject(input), appendQuoted(input));
+        }
+    }
+
+    @Test
+    public void testAppendQuotedJSONStringToWriter() throws Exception {
+        String input = "say \"</hi>\"\n";
+        StringWriter writer = new StringWriter();
+        AuraTextUtil.appendQuotedJSONString(writer, input);
+        assertEquals(quoteWithJSONObject(input), writer.toString());
+    }
+
     @Test
     public void testJSONEscapedFunctionStringBuilder() throws Exception {
         StringBuilder sb = new StringBuilder();
@@ -395,6 +395,20 @@ public class DateServiceTest extends UnitTestCase {
         }
     }
 
+    @Test
+    public void testConvertersAreReused() {
+        DateService service = DateServiceImpl.get();
+
+        assertSame(service.getDateTimeStyleConverter(Locale.US, DateFormat.SHORT, DateFormat.LONG),
+                service.getDateTimeStyleConverter(Locale.US, DateFormat.SHORT, DateFormat.LONG));
+        assertNotSame(service.getDateTimeStyleConverter(Locale.US, DateFormat.SHORT, DateFormat.LONG),
+                service.getDateTimeStyleConverter(Locale.FRANCE, DateFormat.SHORT, DateFormat.LONG));
+        assertSame(service.getPatternConverter(Locale.US, "yyyy/MM/dd"),
+                service.getPatternConverter(Locale.US, "yyyy/MM/dd"));
+        assertNotSame(service.getPatternConverter(Locale.US, "yyyy/MM/dd"),
+                service.getPatternConverter(Locale.US, "dd/MM/yyyy"));
+    }
+
     @Test
     public void testNullDataForConverters() {
         try {
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.javascript;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.auraframework.util.IOUtil;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+public class MinifiedJavascriptCacheTest extends UnitTestCase {
+    private static final String SCRIPT = "function test(longName) { var other = longName + 1; return other; }";
+
+    private Path directory;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("minifyCache");
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        IOUtil.delete(directory.toFile());
+        super.tearDown();
+    }
+
+    private List<Path> getEntries() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testHitMatchesCompress() throws Exception {
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(directory, Long.MAX_VALUE);
+        StringWriter expected = new StringWriter();
+        JavascriptWriter.CLOSURE_SIMPLE.compress(SCRIPT, expected, "test.js");
+
+        StringWriter first = new StringWriter();
+        cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, first, "test.js");
+        StringWriter second = new StringWriter();
+        cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, second, "test.js");
+
+        assertEquals(expected.toString(), first.toString());
+        assertEquals(expected.toString(), second.toString());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getWriteCount());
+    }
+
+    @Test
+    public void testEntriesAreSharedAcrossInstances() throws Exception {
+        new MinifiedJavascriptCache(directory, Long.MAX_VALUE).compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT,
+                new StringWriter(), "test.js");
+
+        MinifiedJavascriptCache restarted = new MinifiedJavascriptCache(directory, Long.MAX_VALUE);
+        restarted.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, new StringWriter(), "test.js");
+
+        assertEquals(1, restarted.getHitCount());
+        assertEquals(0, restarted.getMissCount());
+        assertTrue(restarted.getSize() > 0);
+    }
+
+    @Test
+    public void testKeyIncludesLevelAndFilename() throws Exception {
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(directory, Long.MAX_VALUE);
+
+        cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, new StringWriter(), "test.js");
+        cache.compressCached(JavascriptWriter.CLOSURE_LIBRARY, SCRIPT, new StringWriter(), "test.js");
+        cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, new StringWriter(), "other.js");
+
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, getEntries().size());
+    }
+
+    @Test
+    public void testKeyIncludesWriterVersion() throws Exception {
+        new MinifiedJavascriptCache(directory, Long.MAX_VALUE, "before").compressCached(
+                JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, new StringWriter(), "test.js");
+
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(directory, Long.MAX_VALUE, "after");
+        cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, new StringWriter(), "test.js");
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, getEntries().size());
+    }
+
+    @Test
+    public void testWriterVersionIsStable() throws Exception {
+        assertEquals(MinifiedJavascriptCache.getWriterVersion(), MinifiedJavascriptCache.getWriterVersion());
+    }
+
+    @Test
+    public void testConcurrentWritersCountEntryOnce() throws Exception {
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(directory, Long.MAX_VALUE);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, new StringWriter(), "test.js");
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Path> entries = getEntries();
+        assertEquals(1, entries.size());
+        assertEquals(1, cache.getWriteCount());
+        assertEquals(Files.size(entries.get(0)), cache.getSize());
+    }
+
+    @Test
+    public void testErrorsAreCached() throws Exception {
+        String broken = "function test( { return 1; }";
+        List<JavascriptProcessingError> expected = JavascriptWriter.CLOSURE_SIMPLE.compress(broken,
+                new StringWriter(), "broken.js");
+        assertFalse("Expected errors from broken source", expected.isEmpty());
+
+        new MinifiedJavascriptCache(directory, Long.MAX_VALUE).compressCached(JavascriptWriter.CLOSURE_SIMPLE, broken,
+                new StringWriter(), "broken.js");
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(directory, Long.MAX_VALUE);
+        List<JavascriptProcessingError> actual = cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, broken,
+                new StringWriter(), "broken.js");
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+            assertEquals(expected.get(i).getLevel(), actual.get(i).getLevel());
+        }
+    }
+
+    @Test
+    public void testDamagedEntryIsAMiss() throws Exception {
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(directory, Long.MAX_VALUE);
+        cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, new StringWriter(), "test.js");
+        Path entry = getEntries().get(0);
+        Files.write(entry, new byte[] { 1, 2, 3 });
+
+        StringWriter out = new StringWriter();
+        cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, out, "test.js");
+
+        StringWriter expected = new StringWriter();
+        JavascriptWriter.CLOSURE_SIMPLE.compress(SCRIPT, expected, "test.js");
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getFailureCount());
+    }
+
+    @Test
+    public void testSizeIsCapped() throws Exception {
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(directory, 1);
+
+        for (int i = 0; i < 5; i++) {
+            cache.compressCached(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT + i, new StringWriter(), "test.js");
+        }
+
+        assertEquals(5, cache.getWriteCount());
+        assertEquals(5, cache.getEvictionCount());
+        assertEquals(0, getEntries().size());
+        assertEquals(0, cache.getSize());
+    }
+}
@@ -21,6 +21,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -1046,6 +1047,113 @@ public class JsonStreamReaderTest extends UnitTestCase {
         reader.disableLengthLimitsBecauseIAmStreamingAndMyMemoryUseIsNotProportionalToTheStreamLength();
     }
 
+    private static final String ACTION_PAYLOAD = "{\"actions\":[{\"id\":\"123;a\",\"descriptor\":"
+            + "\"serviceComponent://ui.force.components.controllers.recordGlobalValueProvider."
+            + "RecordGvpController/ACTION$getRecord\",\"callingDescriptor\":\"UNKNOWN\",\"params\":"
+            + "{\"recordDescriptor\":\"001xx000003DGb2AAG.undefined.null.null.null.Id,Name.VIEW.false.null\","
+            + "\"count\":25,\"ratio\":-0.50,\"big\":12345678901234567890,\"exp\":1.5e3,\"flag\":true,"
+            + "\"none\":null,\"escaped\":\"tab\\there \\u00e9\",\"list\":[1, 2.25, 'three']},"
+            + "\"storable\":true},\n{\"id\":\"124;a\",\"descriptor\":\"aura://ComponentController/"
+            + "ACTION$getComponent\",\"params\":{name:\"ui:button\",\"attributes\":{}}}]}";
+
+    private Object readWithReader(String input) throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(input));
+        reader.next();
+        return reader.getValue();
+    }
+
+    /**
+     * Scanning a buffer gives exactly what reading through a Reader does.
+     */
+    @Test
+    public void testBufferedMatchesReader() throws Exception {
+        Object expected = readWithReader(ACTION_PAYLOAD);
+
+        assertEquals(expected, parseAndRetrieve(ACTION_PAYLOAD));
+
+        JsonStreamReader bytes = new JsonStreamReader(ACTION_PAYLOAD.getBytes(Charsets.UTF_8), null);
+        bytes.next();
+        assertEquals(expected, bytes.getValue());
+
+        String padded = "xx" + ACTION_PAYLOAD + "yy";
+        JsonStreamReader chars = new JsonStreamReader(padded.toCharArray(), 2, ACTION_PAYLOAD.length(), null);
+        chars.next();
+        assertEquals(expected, chars.getValue());
+    }
+
+    /**
+     * Numbers read straight from the buffer must have the same value and scale as BigDecimal gives.
+     */
+    @Test
+    public void testBufferedNumbersMatchBigDecimal() throws Exception {
+        String [] numbers = { "0", "-0", "-0.0", "7", "30", "-30", "1.", ".5", "-.5", "123.456", "-0.50",
+                "000120", "999999999999999999", "-999999999999999999", "9999999999999999999", "1.5E3" };
+        for (String number : numbers) {
+            Object value = parseAndRetrieve("[" + number + "]");
+            assertEquals(number, Lists.newArrayList(new BigDecimal(number)), value);
+            assertEquals(number, Lists.newArrayList(new BigDecimal(number)), readWithReader("[" + number + "]"));
+        }
+        // whitespace inside a number is joined up, just as it is with a Reader.
+        assertEquals(readWithReader("[1 2]"), parseAndRetrieve("[1 2]"));
+    }
+
+    @Test
+    public void testBufferedKeysAreShared() throws Exception {
+        Map<?, ?> first = (Map<?, ?>) parseAndRetrieve("{\"descriptor\":1, callingDescriptor:2}");
+        Map<?, ?> second = (Map<?, ?>) parseAndRetrieve("{\"descriptor\":3, callingDescriptor:4}");
+        for (Object key : first.keySet()) {
+            boolean found = false;
+            for (Object other : second.keySet()) {
+                found |= (key == other);
+            }
+            assertTrue("Key not shared: " + key, found);
+        }
+    }
+
+    @Test
+    public void testNextKeyReadsLiteralAsString() throws Exception {
+        JsonStreamReader jsr = new JsonStreamReader(new StringReader("{actions:[1], 'other':true}"));
+        jsr.setRecursiveReadEnabled(false);
+        assertEquals(JsonConstant.OBJECT_START, jsr.next());
+        assertEquals(JsonConstant.STRING, jsr.nextKey());
+        assertEquals("actions", jsr.getString());
+        assertEquals(JsonConstant.OBJECT_SEPARATOR, jsr.next());
+        assertEquals(JsonConstant.ARRAY_START, jsr.next());
+        assertEquals(Arrays.asList(new BigDecimal(1)), jsr.getList());
+        assertEquals(JsonConstant.ENTRY_SEPARATOR, jsr.nextKey());
+        assertEquals(JsonConstant.STRING, jsr.nextKey());
+        assertEquals("other", jsr.getString());
+        assertEquals(JsonConstant.OBJECT_SEPARATOR, jsr.next());
+        assertEquals(JsonConstant.BOOLEAN, jsr.next());
+        assertEquals(JsonConstant.OBJECT_END, jsr.nextKey());
+    }
+
+    /**
+     * Line and column numbers for errors are worked out lazily when scanning a buffer, they must still match.
+     */
+    @Test
+    public void testBufferedErrorPositionsMatchReader() throws Exception {
+        String [] inputs = { "{\n  \"a\" : 1,\n  \"b\" : 'x\n'}", "[1,\n 2\n 3]", "{\n a : 1\n b : 2}",
+                "[\n'ok',\n\"\\u00zz\"]", "[1,\n 30xyz]", "[\n1,\n" };
+        for (String input : inputs) {
+            JsonStreamParseException expected = null;
+            try {
+                readWithReader(input);
+            } catch (JsonStreamParseException jspe) {
+                expected = jspe;
+            }
+            assertNotNull("Reader should have failed on " + input, expected);
+            try {
+                parseAndRetrieve(input);
+                fail("Buffer should have failed on " + input);
+            } catch (JsonStreamParseException jspe) {
+                assertEquals(input, expected.getMessage(), jspe.getMessage());
+                assertEquals(input, expected.line, jspe.line);
+                assertEquals(input, expected.col, jspe.col);
+            }
+        }
+    }
+
     /**
      * A convenience method to verify the functioning of JsonStreamReader. All
      * this method does is accepts a String, creates a stream with this and
@@ -28,11 +28,15 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
 import java.util.TreeMap;
 import java.util.UUID;
 
@@ -340,6 +344,31 @@ public class JsonTest extends UnitTestCase {
                 json.getAppendable().toString());
     }
 
+    @Test
+    public void testWriteStringToWriter() throws IOException {
+        StringWriter writer = new StringWriter();
+        JsonEncoder json = new JsonEncoder(writer, false);
+        json.writeString("a \"</b>\"\u0000\u2028");
+        assertEquals("\"a \\\"<\\/b>\\\"\\n\"", writer.toString());
+    }
+
+    @Test
+    public void testWriteDate() throws IOException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        long[] times = { 0L, -1L, 1476601234567L, JsonEncoder.ISO8601_MIN, JsonEncoder.ISO8601_MIN - 1,
+                JsonEncoder.ISO8601_MAX, JsonEncoder.ISO8601_MAX - 1, -12219292800000L, -62135596800000L,
+                -62135596800001L, 253402300800000L * 2 };
+        for (long time : times) {
+            Date date = new Date(time);
+            assertEquals("Wrong format for " + time, format.format(date), JsonEncoder.formatDate(date));
+        }
+
+        JsonEncoder json = new JsonEncoder(new StringBuilder(), false);
+        json.writeDate(new java.sql.Date(1476601234567L));
+        assertEquals("\"2016-10-16T07:00:34Z\"", json.getAppendable().toString());
+    }
+
     @Test
     public void testWriteArrayEntry() throws IOException {
         JsonEncoder json = new JsonEncoder(new StringBuilder(), false);
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.number;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.Locale;
+
+import org.auraframework.util.number.AuraNumberFormat.Style;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.util.Currency;
+
+public class AuraNumberFormatTest extends UnitTestCase {
+
+    @Test
+    public void testGetInstanceMatchesLocaleFormats() {
+        assertEquals(NumberFormat.getNumberInstance(Locale.GERMANY).format(1234.5),
+                AuraNumberFormat.getInstance(Locale.GERMANY, Style.NUMBER).format(1234.5));
+        assertEquals(NumberFormat.getPercentInstance(Locale.FRANCE).format(0.25),
+                AuraNumberFormat.getInstance(Locale.FRANCE, Style.PERCENT).format(0.25));
+        assertEquals(NumberFormat.getCurrencyInstance(Locale.JAPAN).format(1234),
+                AuraNumberFormat.getInstance(Locale.JAPAN, Style.CURRENCY).format(1234));
+    }
+
+    @Test
+    public void testGetInstanceReturnsNewFormats() {
+        NumberFormat first = AuraNumberFormat.getInstance(Locale.US, Style.NUMBER);
+        first.setMaximumFractionDigits(0);
+
+        NumberFormat second = AuraNumberFormat.getInstance(Locale.US, Style.NUMBER);
+
+        assertNotSame(first, second);
+        assertEquals("1.5", second.format(1.5));
+    }
+
+    @Test
+    public void testFractionDigitsAndCurrency() {
+        assertEquals("1.50", AuraNumberFormat.getInstance(Locale.US, Style.NUMBER, 2, 2).format(1.5));
+        assertEquals("1.5", AuraNumberFormat.getInstance(Locale.US, Style.NUMBER).format(1.5));
+
+        NumberFormat euros = AuraNumberFormat.getInstance(Locale.US, Style.CURRENCY, 0, 0,
+                Currency.getInstance("EUR"), false);
+        assertEquals("€2", euros.format(1.6));
+    }
+
+    @Test
+    public void testParseStrictWithLocale() throws Exception {
+        assertEquals(1234.5, AuraNumberFormat.parseStrict("1.234,5", Locale.GERMANY, Style.DEFAULT).doubleValue());
+        try {
+            AuraNumberFormat.parseStrict("1.234,5x", Locale.GERMANY, Style.DEFAULT);
+            fail("Expected a ParseException");
+        } catch (ParseException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testParseBigDecimalWithLocale() throws Exception {
+        assertEquals(new BigDecimal("1234.56"),
+                AuraNumberFormat.parseBigDecimal("1,234.56", Locale.US, Style.DEFAULT, true));
+        assertEquals(new BigDecimal("1234.56"),
+                AuraNumberFormat.parseBigDecimal("$1,234.56", Locale.US, Style.CURRENCY, false));
+    }
+}
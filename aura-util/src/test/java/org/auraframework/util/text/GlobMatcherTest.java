@@ -124,4 +124,13 @@ public class GlobMatcherTest {
     public void testCaseInsensitive() {
         matchCheck(INSENSITIVE);
     }
+
+    @Test
+    public void testLiteralPrefix() {
+        Assert.assertEquals("", new GlobMatcher("*").getLiteralPrefix());
+        Assert.assertEquals("bah", new GlobMatcher("bah").getLiteralPrefix());
+        Assert.assertEquals("bah", new GlobMatcher("bah*").getLiteralPrefix());
+        Assert.assertEquals("b", new GlobMatcher("b*ah").getLiteralPrefix());
+        Assert.assertEquals("", new GlobMatcher("*bah").getLiteralPrefix());
+    }
 }
@@ -55,6 +55,16 @@ public interface ContextAdapter extends AuraAdapter {
             Map<String, GlobalValueProvider> globalProviders,
             DefDescriptor<? extends BaseComponentDef> appDesc);
 
+    /**
+     * Make an existing context current in this thread.
+     *
+     * This is used to run work for a request on another thread, the context must have been established on the
+     * request thread, and remains owned by it. Call {@link #release()} when done.
+     *
+     * @param context the context to use.
+     */
+    void attach(AuraContext context);
+
     /**
      * is a context established in this thread?.
      *
@@ -27,5 +27,15 @@ public interface LoggingAdapter extends AuraAdapter {
 
     void release();
 
+    /**
+     * Make a logging context established on another thread current on this one, for work handed off from that
+     * thread. Release it with {@link #release()} when the work is done. Adapters that cannot share a context leave
+     * the thread as it is, and anything logged there is dropped.
+     *
+     * @param loggingContext the context to make current.
+     */
+    default void attach(LoggingContext loggingContext) {
+    }
+
     LoggingContext getLoggingContext();
 }
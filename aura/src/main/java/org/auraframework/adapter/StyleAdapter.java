@@ -135,6 +135,24 @@ public interface StyleAdapter extends AuraAdapter {
      */
     List<Plugin> getRuntimePlugins();
 
+    /**
+     * Gets a key for what {@link #getRuntimePlugins()} does in the current context.
+     * <p>
+     * The output of the runtime phase is kept for each {@link StyleDef}, and is only reused when this key is the same.
+     * By default the key is the class names of the runtime plugins. Override this to add whatever else the plugins'
+     * output depends on, or to return null if that cannot be told apart, which makes every runtime phase parse the CSS
+     * again.
+     *
+     * @return The key, or null to not reuse the output of the runtime phase.
+     */
+    default String getRuntimePluginsCacheKey() {
+        StringBuilder key = new StringBuilder();
+        for (Plugin plugin : getRuntimePlugins()) {
+            key.append(plugin.getClass().getName()).append(',');
+        }
+        return key.toString();
+    }
+
     /**
      * Gets <em> additional</em> CSS {@link Plugin}s to run during the runtime parsing phase <b>only</b>.
      * <p>
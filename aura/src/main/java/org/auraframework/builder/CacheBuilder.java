@@ -15,6 +15,8 @@
  */
 package org.auraframework.builder;
 
+import java.util.function.ToIntFunction;
+
 import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.cache.Cache;
 
@@ -44,6 +46,16 @@ public interface CacheBuilder<K, T> {
 	 */
 	CacheBuilder<K, T> setMaximumSize(long maximumSize);
 
+	/**
+	 * Bound the cache by the total weight of its values instead of their number, for values whose size varies
+	 * widely. This replaces the maximum size, and values are then held strongly, as the bound already limits them.
+	 *
+	 * @param maximumWeight the maximum total weight, before evictions occur
+	 * @param weigher the weight of a value, such as its size in bytes
+	 * @return the same CacheBuilder with this property set
+	 */
+	CacheBuilder<K, T> setMaximumWeight(long maximumWeight, ToIntFunction<? super T> weigher);
+
 	/**
 	 * Set true to hint the cache to use a non-memory storage strategy,
 	 * typically for large, stable objects.
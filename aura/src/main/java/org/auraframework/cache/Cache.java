@@ -34,12 +34,25 @@ public interface Cache<K,T> {
 
 	void invalidate(Iterable<K> keys);
 
+	/**
+	 * Invalidate a key only if it is still mapped to the given value, as one atomic step, so that a value loaded
+	 * by someone else in the meantime is kept.
+	 *
+	 * @param key the key to invalidate
+	 * @param value the value it must map to
+	 * @return true if the entry was invalidated
+	 */
+	boolean invalidate(K key, T value);
+
 	void invalidateAll();
 
 	/**
 	 * Invalidate those keys whose toString beginsWith the provided partial string
 	 * @param partial - target keys will be invalidated if their toString representation beginsWith partial
+	 * @deprecated this walks every key in the cache. Source changes are evicted through the caching service's
+	 *             dependency index instead, and nothing in the framework calls this any more.
 	 */
+	@Deprecated
 	void invalidatePartial(String partial);
 
 	/**
@@ -19,6 +19,7 @@ import org.apache.commons.io.output.StringBuilderWriter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
@@ -29,18 +30,26 @@ import org.auraframework.def.module.ModuleDef;
 import org.auraframework.http.RequestParam.StringParam;
 import org.auraframework.instance.AuraValueProviderType;
 import org.auraframework.instance.GlobalValueProvider;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.service.ServerService;
 import org.auraframework.service.ServerService.HYDRATION_TYPE;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.EncodedContent;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
 import org.auraframework.util.json.JsonEncoder;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import javax.inject.Inject;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -48,6 +57,8 @@ import javax.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -59,6 +70,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 
 public class AuraComponentDefinitionServlet extends AuraBaseServlet {
@@ -79,6 +91,7 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
     private LoggingService loggingService;
     private ServerService serverService;
     private ContextService contextService;
+    private CachingService cachingService;
     protected ConfigAdapter configAdapter;
 
     @Override
@@ -95,6 +108,8 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
         response.setCharacterEncoding(AuraBaseServlet.UTF_ENCODING);
         
         StringBuilderWriter responseStringWriter = new StringBuilderWriter();
+        String cacheKey = null;
+        EncodedContent cached = null;
         
         AuraContext context = contextService.getCurrentContext();
 
@@ -155,62 +170,21 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
                 setLocale(new Locale(locale));
             }
 
-            serverService.writeDefinitions(descriptors.keySet(), responseStringWriter, false, 0, hydrationType, false);
-
-            try {
-                definitionService.populateGlobalValues(AuraValueProviderType.LABEL.getPrefix(),
-                        mapDescriptorToDefinition(descriptors.keySet()));
-            } catch (QuickFixException qfe) {
-                // this should not throw a QFE
-                loggingService.warn("attempting to populate labels for requested definitions: " + StringUtils.join(requestedDescriptors, ","), qfe);
-            }
-
-            Set<DefDescriptor<?>> dependencies = new HashSet<>();
-            descriptors.entrySet().stream().forEach((entry)->{
-                dependencies.addAll(definitionService.getDependencies(entry.getValue()));
-            });
-            dependencies.removeAll(descriptors.keySet());
-
-            DefDescriptor<ApplicationDef> appDescriptor = definitionService.getDefDescriptor(appReferrrer, ApplicationDef.class);
-            String appUID;
-            try {
-                appUID = definitionService.getUid(null, appDescriptor);
-            } catch (DefinitionNotFoundException dnfe) {
-                // mainly tests directly access components as top level without an app.
-                // if neither exist, let the error bubble up
-                appUID = definitionService.getUid(null, definitionService.getDefDescriptor(appReferrrer, ComponentDef.class));
-            }
-            dependencies.removeAll(definitionService.getDependencies(appUID));
-
-            if (hydrationType == HYDRATION_TYPE.one) {
-                hydrationType = HYDRATION_TYPE.all;
-            }
-            serverService.writeDefinitions(dependencies, responseStringWriter, false, 0, hydrationType, false);
-
-            if (dependencies.size() > 0) {
-                try {
-                    definitionService.populateGlobalValues(AuraValueProviderType.LABEL.getPrefix(),
-                            mapDescriptorToDefinition(dependencies));
-                } catch (QuickFixException qfe) {
-                    // this should not throw a QFE
-                    loggingService.warn("attempting to populate labels for requested definitions: " + StringUtils.join(requestedDescriptors, ","), qfe);
-                }
-            }
-
-            // write Labels
-            String labels = serializeLabels(context);
-            if (StringUtils.isNotEmpty(labels)) {
-                responseStringWriter.write("$A.getContext().mergeLabels(");
-                responseStringWriter.write(labels);
-                responseStringWriter.write(");");
-            }
-
             if(containsRestrictedDefs(context, descriptors)) {
                 servletUtilAdapter.setLongCachePrivate(response);
             } else {
                 servletUtilAdapter.setLongCache(response);
             }
 
+            Cache<String, EncodedContent> cache = (cachingService != null)
+                    ? cachingService.getComponentDefinitionCache() : null;
+            if (cache == null) {
+                writeDefinitions(descriptors, hydrationType, appReferrrer, requestedDescriptors, responseStringWriter);
+            } else {
+                cacheKey = getResponseKey(context, computedUID, getAppUID(appReferrrer), hydrationType,
+                        configAdapter.isLockerServiceEnabled());
+                cached = getResponse(cache, cacheKey, descriptors, hydrationType, appReferrrer, requestedDescriptors);
+            }
         } catch (Exception e) {
             PrintWriter out = response.getWriter();
             if (requestedUID!=null) {
@@ -222,9 +196,107 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
             servletUtilAdapter.setNoCache(response);
             response.setStatus(HttpStatus.SC_OK);
         } finally {
-            response.getWriter().print(responseStringWriter.toString());
+            if (cached == null) {
+                response.getWriter().print(responseStringWriter.toString());
+            }
             responseStringWriter.close();
         }
+        if (cached != null) {
+            String hash = Hashing.sha256().hashString(cacheKey, StandardCharsets.UTF_8).toString();
+            cached.writeTo(request, response, hash);
+        }
+    }
+
+    /**
+     * Write the requested definitions, the dependencies that the app does not already have, and their labels.
+     */
+    private void writeDefinitions(Map<DefDescriptor<?>, String> descriptors, HYDRATION_TYPE hydrationType,
+            String appReferrrer, List<String> requestedDescriptors, Writer out) throws IOException, QuickFixException {
+        AuraContext context = contextService.getCurrentContext();
+
+        serverService.writeDefinitions(descriptors.keySet(), out, false, 0, hydrationType, false);
+
+        try {
+            definitionService.populateGlobalValues(AuraValueProviderType.LABEL.getPrefix(),
+                    mapDescriptorToDefinition(descriptors.keySet()));
+        } catch (QuickFixException qfe) {
+            // this should not throw a QFE
+            loggingService.warn("attempting to populate labels for requested definitions: " + StringUtils.join(requestedDescriptors, ","), qfe);
+        }
+
+        Set<DefDescriptor<?>> dependencies = new HashSet<>();
+        descriptors.entrySet().stream().forEach((entry)->{
+            dependencies.addAll(definitionService.getDependencies(entry.getValue()));
+        });
+        dependencies.removeAll(descriptors.keySet());
+        dependencies.removeAll(definitionService.getDependencies(getAppUID(appReferrrer)));
+
+        if (hydrationType == HYDRATION_TYPE.one) {
+            hydrationType = HYDRATION_TYPE.all;
+        }
+        serverService.writeDefinitions(dependencies, out, false, 0, hydrationType, false);
+
+        if (dependencies.size() > 0) {
+            try {
+                definitionService.populateGlobalValues(AuraValueProviderType.LABEL.getPrefix(),
+                        mapDescriptorToDefinition(dependencies));
+            } catch (QuickFixException qfe) {
+                // this should not throw a QFE
+                loggingService.warn("attempting to populate labels for requested definitions: " + StringUtils.join(requestedDescriptors, ","), qfe);
+            }
+        }
+
+        // write Labels
+        String labels = serializeLabels(context);
+        if (StringUtils.isNotEmpty(labels)) {
+            out.write("$A.getContext().mergeLabels(");
+            out.write(labels);
+            out.write(");");
+        }
+    }
+
+    private String getAppUID(String appReferrrer) throws QuickFixException {
+        DefDescriptor<ApplicationDef> appDescriptor = definitionService.getDefDescriptor(appReferrrer, ApplicationDef.class);
+        try {
+            return definitionService.getUid(null, appDescriptor);
+        } catch (DefinitionNotFoundException dnfe) {
+            // mainly tests directly access components as top level without an app.
+            // if neither exist, let the error bubble up
+            return definitionService.getUid(null, definitionService.getDefDescriptor(appReferrrer, ComponentDef.class));
+        }
+    }
+
+    /**
+     * Get the response from the cache, building it if this is the first request for it.
+     *
+     * Concurrent requests for the same key wait for the one that builds it.
+     */
+    private EncodedContent getResponse(Cache<String, EncodedContent> cache, String key,
+            Map<DefDescriptor<?>, String> descriptors, HYDRATION_TYPE hydrationType, String appReferrrer,
+            List<String> requestedDescriptors) throws IOException, QuickFixException {
+        try {
+            return cache.get(key, () -> {
+                StringBuilderWriter out = new StringBuilderWriter();
+                writeDefinitions(descriptors, hydrationType, appReferrrer, requestedDescriptors, out);
+                return EncodedContent.encode(out.getBuilder());
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            Throwables.propagateIfPossible(cause, IOException.class, QuickFixException.class);
+            throw new AuraRuntimeException(cause);
+        }
+    }
+
+    /**
+     * Get the key for a response.
+     *
+     * The UIDs make the output content addressed, the rest is what the context adds to it.
+     */
+    static String getResponseKey(AuraContext context, String computedUID, String appUID,
+            HYDRATION_TYPE hydrationType, boolean lockerServiceEnabled) {
+        return Joiner.on('|').useForNull("").join(computedUID, appUID, hydrationType, context.getMode(),
+                lockerServiceEnabled ? "ls" : "", context.useCompatSource() ? "c" : "",
+                context.getRequestedLocales());
     }
 
     protected void setLocale(Locale locale) {
@@ -400,4 +472,9 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
     public void setConfigAdapter(ConfigAdapter configAdapter) {
         this.configAdapter = configAdapter;
     }
+
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
 }
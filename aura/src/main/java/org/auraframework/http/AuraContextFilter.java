@@ -150,6 +150,12 @@ public class AuraContextFilter implements Filter {
             return;
         }
 
+        if (StreamingFormRequest.isStreamable((HttpServletRequest) req)) {
+            // The action message is parsed straight from the body, after the other parameters.
+            req = new StreamingFormRequest((HttpServletRequest) req, "message", contextConfig.name,
+                    StreamingFormRequest.getMaxBodyLength(req.getServletContext()));
+        }
+
         try {
             AuraContext context = startContext(req, res, chain);
             HttpServletRequest request = (HttpServletRequest) req;
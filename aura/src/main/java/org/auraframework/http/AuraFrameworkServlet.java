@@ -15,8 +15,10 @@
  */
 package org.auraframework.http;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,11 +31,18 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.http.HttpHeaders;
 import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.http.resource.FileStaticResource;
+import org.auraframework.service.CachingService;
+import org.auraframework.system.CachedStaticResource;
+import org.auraframework.system.EncodedContent;
 import org.auraframework.system.StaticResource;
 import org.auraframework.util.IOUtil;
 import org.auraframework.util.resource.ResourceLoader;
 
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
 public class AuraFrameworkServlet extends AuraBaseServlet {
 
     private static final long serialVersionUID = 6034969764380397480L;
@@ -46,10 +55,15 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
 
     public static final String RESOURCES_FORMAT = "%s/auraFW/resources/%s/%s";
 
+    /** Resources larger than this are served, but not held in the static resource cache */
+    private static final int MAX_CACHED_RESOURCE_SIZE = 16 * 1024 * 1024;
+
     private ConfigAdapter configAdapter;
 
+    private CachingService cachingService;
+
     private MimetypesFileTypeMap mimeTypesMap = new MimetypesFileTypeMap();
-    
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         ResourceLoader resourceLoader = configAdapter.getResourceLoader();
@@ -139,49 +153,75 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
             }
 
             boolean isProduction = configAdapter.isProduction();
-            StaticResource staticResource = new FileStaticResource(file, format, nonceUid, isProduction, resourceLoader);
+            Cache<String, CachedStaticResource> cache = (cachingService != null)
+                    ? cachingService.getStaticResourceCache() : null;
+            // The cache holds what is found at the path without a nonce, so requests under any nonce share an entry,
+            // and the headers below still come from this request's nonce.
+            String cacheKey = getCacheKey(root, file, isProduction, currentUid);
+            CachedStaticResource cached = (cache != null) ? cache.getIfPresent(cacheKey) : null;
+            StaticResource staticResource = null;
+            String mimeType = getMimeType(path);
 
             //
             // Check whether path has wrong nonce or the path contains no nonce
             //
             if (nonceUid != null && !matchedUid) {
+                if (cached != null) {
+                    // the resource exists without the nonce, so the nonce is just out of date.
+                    haveUid = true;
+                } else {
+                    staticResource = new FileStaticResource(file, format, nonceUid, isProduction, resourceLoader);
+                    Boolean hasUid = staticResource.hasUid();
 
-                Boolean hasUid = staticResource.hasUid();
+                    if (hasUid == null) {
+                        // no resource found
+                        response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                        return;
+                    }
 
-                if (hasUid == null) {
-                    // no resource found
-                    response.sendError(HttpServletResponse.SC_NOT_FOUND);
-                    return;
+                    haveUid = hasUid;
+                    if (!haveUid) {
+                        // what looked like a nonce is a folder in the path.
+                        cacheKey = getCacheKey(root, "/" + nonceUid + file, isProduction, currentUid);
+                        cached = (cache != null) ? cache.getIfPresent(cacheKey) : null;
+                    }
                 }
-
-                haveUid = hasUid;
             }
 
-            in = staticResource.getResourceStream();
-
-            //
-            // Check if it exists. DANGER: if there is a nonce, this is really an
-            // 'out-of-date' problem, and we may break the browser by telling it a
-            // lie here.
-            //
-            if (in == null) {
-                response.sendError(HttpServletResponse.SC_NOT_FOUND);
-                return;
-            }
+            if (cached == null) {
+                if (staticResource == null) {
+                    staticResource = new FileStaticResource(file, format, nonceUid, isProduction, resourceLoader);
+                }
+                in = staticResource.getResourceStream();
 
-            // handle any MIME content type, using only file name (not contents)
-            String mimeType = mimeTypesMap.getContentType(path);
+                //
+                // Check if it exists. DANGER: if there is a nonce, this is really an
+                // 'out-of-date' problem, and we may break the browser by telling it a
+                // lie here.
+                //
+                if (in == null) {
+                    response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+                }
 
-            if (mimeType.equals("application/octet-stream") || mimeType.equals(JAVASCRIPT_CONTENT_TYPE)) /* unidentified */{
-                mimeType = JAVASCRIPT_CONTENT_TYPE;
+                if (cache != null) {
+                    byte[] bytes = ByteStreams.toByteArray(ByteStreams.limit(in, MAX_CACHED_RESOURCE_SIZE + 1));
+                    if (bytes.length <= MAX_CACHED_RESOURCE_SIZE) {
+                        cached = new CachedStaticResource(EncodedContent.encode(bytes, isCompressible(mimeType)),
+                                mimeType, Hashing.sha256().hashBytes(bytes).toString());
+                        cache.put(cacheKey, cached);
+                    } else {
+                        // too large to hold, so send what has been read and stream the rest.
+                        in = new SequenceInputStream(new ByteArrayInputStream(bytes), in);
+                    }
+                }
             }
+
             response.setContentType(mimeType);
             if (mimeType.startsWith("text/")) {
                 response.setCharacterEncoding(AuraBaseServlet.UTF_ENCODING);
             }
 
-            response.setBufferSize(10240);// 10kb
-
             boolean js = JAVASCRIPT_CONTENT_TYPE.equals(mimeType);
             if ((haveUid && !matchedUid) || (!haveUid && js)) {
                 //
@@ -205,7 +245,12 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
                 servletUtilAdapter.setShortCache(response);
             }
 
-            IOUtil.copyStream(in, response.getOutputStream());
+            if (cached != null) {
+                cached.getContent().writeTo(request, response, cached.getHash());
+            } else {
+                response.setBufferSize(10240);// 10kb
+                IOUtil.copyStream(in, response.getOutputStream());
+            }
         } finally {
             if (in != null) {
                 try {
@@ -217,10 +262,39 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
         }
     }
 
+    private static String getCacheKey(String root, String file, boolean isProduction, String currentUid) {
+        return String.format("%s|%s|%s|%s", root, file, isProduction, currentUid);
+    }
+
+    /**
+     * Handle any MIME content type, using only file name (not contents).
+     */
+    private String getMimeType(String path) {
+        String mimeType = mimeTypesMap.getContentType(path);
+
+        if (mimeType.equals("application/octet-stream") || mimeType.equals(JAVASCRIPT_CONTENT_TYPE)) /* unidentified */{
+            mimeType = JAVASCRIPT_CONTENT_TYPE;
+        }
+        return mimeType;
+    }
+
+    /**
+     * Images and fonts are already compressed, so only text is worth holding as gzip.
+     */
+    private static boolean isCompressible(String mimeType) {
+        return mimeType.startsWith("text/") || mimeType.endsWith("javascript") || mimeType.endsWith("json")
+                || mimeType.endsWith("xml") || mimeType.endsWith("svg+xml");
+    }
+
     @Inject
     public void setConfigAdapter(ConfigAdapter configAdapter) {
         this.configAdapter = configAdapter;
     }
+
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
     
     public boolean isAuthenticatedAppRequest(HttpServletRequest request) {
         Cookie[] requestCookies = request.getCookies();
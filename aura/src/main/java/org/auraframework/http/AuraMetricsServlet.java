@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.inject.Inject;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.service.MetricsService;
+import org.springframework.web.context.support.SpringBeanAutowiringSupport;
+
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Endpoint for scraping the aggregated server metrics, in the Prometheus text exposition format.
+ *
+ * The metrics name actions and timers, so in production this answers 404 unless the {@value #ENABLED_PROPERTY} system
+ * property is true, and then it should only be mapped where the path is not publicly reachable.
+ */
+@SuppressWarnings("serial")
+public class AuraMetricsServlet extends HttpServlet {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** System property that serves metrics in production */
+    public static final String ENABLED_PROPERTY = "aura.metrics.enabled";
+
+    private MetricsService metricsService;
+    private ConfigAdapter configAdapter;
+
+    @Override
+    public void init(ServletConfig config) throws ServletException {
+        super.init(config);
+        processInjection(config);
+    }
+
+    public void processInjection(ServletConfig config) {
+        SpringBeanAutowiringSupport.processInjectionBasedOnServletContext(this, config.getServletContext());
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (!isEnabled()) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        StringBuilder out = new StringBuilder(8192);
+        metricsService.writeAggregateMetrics(out);
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(CONTENT_TYPE);
+        resp.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, no-store");
+        Writer writer = resp.getWriter();
+        writer.append(out);
+        writer.flush();
+    }
+
+    private boolean isEnabled() {
+        return !configAdapter.isProduction() || Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    @Inject
+    public void setMetricsService(MetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
+    @Inject
+    public void setConfigAdapter(ConfigAdapter configAdapter) {
+        this.configAdapter = configAdapter;
+    }
+}
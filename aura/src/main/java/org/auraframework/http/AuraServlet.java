@@ -15,9 +15,10 @@
  */
 package org.auraframework.http;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.io.StringReader;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URI;
@@ -25,6 +26,9 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import javax.inject.Inject;
 import javax.servlet.ServletConfig;
@@ -37,6 +41,7 @@ import org.apache.http.HttpHeaders;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ExceptionAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ActionDef;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
@@ -50,6 +55,7 @@ import org.auraframework.http.RequestParam.MissingParamException;
 import org.auraframework.http.RequestParam.StringParam;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.AuraValueProviderType;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.InstanceService;
@@ -59,17 +65,24 @@ import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.CachedActionResponse;
+import org.auraframework.system.EncodedContent;
 import org.auraframework.system.Message;
 import org.auraframework.throwable.AuraHandledException;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.SystemErrorException;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.JsonConstant;
+import org.auraframework.util.json.JsonEncoder;
 import org.auraframework.util.json.JsonReader;
+import org.auraframework.util.json.JsonStreamReader;
 import org.auraframework.util.json.JsonStreamReader.JsonParseException;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * The servlet for initialization and actions in Aura.
@@ -141,6 +154,7 @@ public class AuraServlet extends AuraBaseServlet {
     private LoggingService loggingService;
     private ServerService serverService;
     private InstanceService instanceService;
+    private CachingService cachingService;
 
     @Override
     public void init(ServletConfig config) throws ServletException {
@@ -223,7 +237,7 @@ public class AuraServlet extends AuraBaseServlet {
             return null;
         }
         // this throws a json parse exception if it can't read.
-        Map<?, ?> message = (Map<?, ?>) new JsonReader().read(new StringReader(input));
+        Map<?, ?> message = (Map<?, ?>) new JsonReader().read(input);
         if (message == null) {
             return null;
         }
@@ -231,56 +245,161 @@ public class AuraServlet extends AuraBaseServlet {
         List<Action> actionList = Lists.newArrayList();
         if (actions != null) {
             for (Object action : actions) {
-                Map<?, ?> map = (Map<?, ?>) action;
-
-                // FIXME: ints are getting translated into BigDecimals here.
-                @SuppressWarnings("unchecked")
-                Map<String, Object> params = (Map<String, Object>) map.get("params");
-                String qualifiedName = (String)map.get("descriptor");
-                if (qualifiedName == null) {
-                    // this should never happen, we should not get an empty descriptor.
-                    // If we do, just ignore it, and continue;
-                    continue;
+                Action instance = readAction((Map<?, ?>) action);
+                if (instance != null) {
+                    actionList.add(instance);
                 }
-                ActionDef def;
-                try {
-                    def = definitionService.getDefinition(qualifiedName, ActionDef.class);
-                } catch (QuickFixException qfe) {
-                    // If this fails, it means either we have incompatible versions, or the client
-                    // has been compromised, or the data is just messed up. In that case just drop
-                    // it on the floor and continue.
+            }
+        }
+
+        return new Message(actionList);
+    }
+
+    /**
+     * Read a message incrementally, creating each action as soon as it has been read.
+     *
+     * Only one action is held in its parsed form at a time, the message as a whole is never materialized.
+     *
+     * @param input the input from the customer (unsanitized) to read into a message.
+     * @return a message, or null.
+     * @throws QuickFixException if there is an error instantiating the action (not action not found).
+     */
+    public Message readMessageStream(Reader input) throws QuickFixException {
+        if (input == null) {
+            return null;
+        }
+        // the reader is read a character at a time, which is only cheap from a buffer.
+        JsonStreamReader reader = new JsonStreamReader(
+                (input instanceof BufferedReader) ? input : new BufferedReader(input));
+        reader.setRecursiveReadEnabled(false);
+        List<Action> actionList = Lists.newArrayList();
+        try {
+            JsonConstant token = reader.next();
+            if (token == JsonConstant.NULL || token == JsonConstant.WHITESPACE) {
+                return null;
+            }
+            if (token != JsonConstant.OBJECT_START) {
+                throw new JsonParseException("Message must be an object");
+            }
+            while ((token = reader.nextKey()) != JsonConstant.OBJECT_END) {
+                if (token == JsonConstant.ENTRY_SEPARATOR) {
                     continue;
                 }
-                Action instance;
-                try {
-                    instance = (Action) instanceService.getInstance(def, params);
-                } catch (QuickFixException qfe) {
-                    // Don't ignore this. In this case, we have a broken server. It should never really
-                    // happen in production, but it will likely occur during development. In that case
-                    // we'd rather break and let someone figure the breakage out. Note that this is the
-                    // _only_ place we can throw a QFE.
-                    throw qfe;
+                if (token != JsonConstant.STRING) {
+                    throw new JsonParseException("Unexpected " + token + " in message");
                 }
-                instance.setId((String) map.get("id"));
-                String cd = (String) map.get("callingDescriptor");
-                if (cd != null && !cd.equals("UNKNOWN")) {
-                    DefDescriptor<ComponentDef> callingDescriptor = definitionService.getDefDescriptor(cd, ComponentDef.class);
-                    instance.setCallingDescriptor(callingDescriptor);
+                String key = reader.getString();
+                if (reader.next() != JsonConstant.OBJECT_SEPARATOR) {
+                    throw new JsonParseException("Expected ':' after " + key);
                 }
-                String v = (String) map.get("version");
-                if (v != null) {
-                    instance.setCallerVersion(v);
+                token = reader.next();
+                if ("actions".equals(key) && token == JsonConstant.ARRAY_START) {
+                    readActions(reader, actionList);
+                } else {
+                    skipValue(reader, token);
                 }
+            }
+        } catch (IOException ioe) {
+            throw new JsonParseException(ioe);
+        }
+        return new Message(actionList);
+    }
 
-                if (map.get("storable") != null) {
-                    instance.setStorable();
+    private void readActions(JsonStreamReader reader, List<Action> actionList)
+            throws IOException, QuickFixException {
+        JsonConstant token;
+        while ((token = reader.next()) != JsonConstant.ARRAY_END) {
+            if (token == JsonConstant.OBJECT_START) {
+                Action instance = readAction(reader.getObject());
+                if (instance != null) {
+                    actionList.add(instance);
                 }
-
-                actionList.add(instance);
+            } else if (token != JsonConstant.ENTRY_SEPARATOR) {
+                skipValue(reader, token);
             }
         }
+    }
 
-        return new Message(actionList);
+    private void skipValue(JsonStreamReader reader, JsonConstant token) {
+        if (token == JsonConstant.OBJECT_START) {
+            reader.getObject();
+        } else if (token == JsonConstant.ARRAY_START) {
+            reader.getList();
+        } else if (token == JsonConstant.WHITESPACE) {
+            // next() hands back whitespace at the end of the input.
+            throw new JsonParseException("Message ended unexpectedly");
+        } else if (token == JsonConstant.OBJECT_END || token == JsonConstant.ARRAY_END
+                || token == JsonConstant.OBJECT_SEPARATOR || token == JsonConstant.ENTRY_SEPARATOR) {
+            throw new JsonParseException("Unexpected " + token + " in message");
+        }
+    }
+
+    /**
+     * Read the message for a request, streaming it from the body when it can be.
+     *
+     * @param request the request to read.
+     * @return a message, or null.
+     * @throws QuickFixException if there is an error instantiating the action (not action not found).
+     */
+    private Message readRequestMessage(HttpServletRequest request) throws QuickFixException {
+        StreamingFormRequest streaming = StreamingFormRequest.unwrap(request);
+        if (streaming != null) {
+            return readMessageStream(streaming.getStreamedReader());
+        }
+        return readMessage(messageParam.get(request));
+    }
+
+    /**
+     * Create an action from its serialized form.
+     *
+     * @param map the serialized action.
+     * @return the action, or null if it should be ignored.
+     * @throws QuickFixException if there is an error instantiating the action (not action not found).
+     */
+    private Action readAction(Map<?, ?> map) throws QuickFixException {
+        // FIXME: ints are getting translated into BigDecimals here.
+        @SuppressWarnings("unchecked")
+        Map<String, Object> params = (Map<String, Object>) map.get("params");
+        String qualifiedName = (String)map.get("descriptor");
+        if (qualifiedName == null) {
+            // this should never happen, we should not get an empty descriptor.
+            // If we do, just ignore it, and continue;
+            return null;
+        }
+        ActionDef def;
+        try {
+            def = definitionService.getDefinition(qualifiedName, ActionDef.class);
+        } catch (QuickFixException qfe) {
+            // If this fails, it means either we have incompatible versions, or the client
+            // has been compromised, or the data is just messed up. In that case just drop
+            // it on the floor and continue.
+            return null;
+        }
+        Action instance;
+        try {
+            instance = (Action) instanceService.getInstance(def, params);
+        } catch (QuickFixException qfe) {
+            // Don't ignore this. In this case, we have a broken server. It should never really
+            // happen in production, but it will likely occur during development. In that case
+            // we'd rather break and let someone figure the breakage out. Note that this is the
+            // _only_ place we can throw a QFE.
+            throw qfe;
+        }
+        instance.setId((String) map.get("id"));
+        String cd = (String) map.get("callingDescriptor");
+        if (cd != null && !cd.equals("UNKNOWN")) {
+            DefDescriptor<ComponentDef> callingDescriptor = definitionService.getDefDescriptor(cd, ComponentDef.class);
+            instance.setCallingDescriptor(callingDescriptor);
+        }
+        String v = (String) map.get("version");
+        if (v != null) {
+            instance.setCallerVersion(v);
+        }
+
+        if (map.get("storable") != null) {
+            instance.setStorable();
+        }
+        return instance;
     }
 
     /**
@@ -517,7 +636,7 @@ public class AuraServlet extends AuraBaseServlet {
             QuickFixException messageError = null;
             loggingService.startTimer(LoggingService.TIMER_DESERIALIZATION);
             try {
-                message = readMessage(messageParam.get(request));
+                message = readRequestMessage(request);
             } catch (QuickFixException qfe) {
                 messageError = qfe;
             } finally {
@@ -600,10 +719,29 @@ public class AuraServlet extends AuraBaseServlet {
             // some of the CSP headers depend on the app, so pass in the app descriptor here
             servletUtilAdapter.setCSPHeaders(applicationDescriptor, request, response);
 
-            PrintWriter servletOut = response.getWriter();
-            Writer out = servletOut;
             boolean publiclyCacheable = isGet && context.getActionPublicCacheKey() != null
                     && context.getActionPublicCacheKey().equals(configAdapter.getActionPublicCacheKey());
+            Cache<String, CachedActionResponse> responseCache = null;
+            if (publiclyCacheable && cachingService != null) {
+                responseCache = cachingService.getActionResponseCache();
+            }
+            if (responseCache != null) {
+                // Remove the Browser GVP as we don't want browser-specific in the cache.
+                context.getGlobalProviders().remove(AuraValueProviderType.BROWSER.getPrefix());
+
+                CachedActionResponse cached = getActionResponse(responseCache, message, context, attributes,
+                        request.getParameter(AuraResourceRewriteFilter.CONTEXT_PARAM));
+                long remaining = cached.getExpires() - System.currentTimeMillis();
+                if (remaining > 0) {
+                    servletUtilAdapter.setCacheTimeout(response, remaining, false);
+                }
+                written = true;
+                cached.getContent().writeTo(request, response, null);
+                return;
+            }
+
+            PrintWriter servletOut = response.getWriter();
+            Writer out = servletOut;
             if (publiclyCacheable) {
                 // We will set cache headers to allow caching for publicly cacheable action if
                 // the action public cache key sent in the context is the same as the current value
@@ -644,6 +782,107 @@ public class AuraServlet extends AuraBaseServlet {
         }
     }
 
+    /**
+     * Get the response to a publicly cacheable action, running it only if there is no unexpired response cached.
+     *
+     * Loading is single-flight: concurrent requests for the same action wait for one of them to run it, including
+     * when an entry expires. A response with errors is never kept, and the requests that waited for it run the
+     * action themselves rather than being handed another request's error.
+     */
+    CachedActionResponse getActionResponse(Cache<String, CachedActionResponse> cache, Message message,
+            AuraContext context, Map<String, Object> attributes, String rawContext)
+            throws IOException, QuickFixException {
+        String key = getActionResponseKey(message.getActions().get(0), context, rawContext);
+        CachedActionResponse[] built = new CachedActionResponse[1];
+        Callable<CachedActionResponse> loader = () -> {
+            built[0] = buildActionResponse(message, context, attributes);
+            return built[0];
+        };
+        try {
+            // Two tries: the first may find an expired entry, or a response with errors that another request just
+            // built, and the second may wait for yet another request's load.
+            for (int i = 0; i < 2; i++) {
+                CachedActionResponse cached = cache.get(key, loader);
+                if (cached == built[0]) {
+                    if (cached.isExpired(System.currentTimeMillis())) {
+                        cache.invalidate(key, cached);
+                    }
+                    return cached;
+                }
+                if (!cached.isExpired(System.currentTimeMillis())) {
+                    return cached;
+                }
+                // only drops the entry if no other request has replaced it in the meantime.
+                cache.invalidate(key, cached);
+            }
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            Throwables.propagateIfPossible(cause, IOException.class, QuickFixException.class);
+            throw new AuraRuntimeException(cause);
+        }
+        return buildActionResponse(message, context, attributes);
+    }
+
+    private CachedActionResponse buildActionResponse(Message message, AuraContext context,
+            Map<String, Object> attributes) throws IOException, QuickFixException {
+        StringWriter out = new StringWriter();
+        out.write(CSRF_PROTECT);
+        serverService.run(message, context, out, attributes);
+
+        // Only cache if there are no errors.
+        long expires = 0;
+        Action action = message.getActions().get(0);
+        if (action.getErrors() == null || action.getErrors().size() == 0) {
+            expires = System.currentTimeMillis()
+                    + servletUtilAdapter.getPubliclyCacheableActionExpiration(message) * 1000;
+        }
+        return new CachedActionResponse(EncodedContent.encode(out.getBuffer()), expires);
+    }
+
+    /**
+     * The key for a publicly cacheable action response.
+     *
+     * This covers everything the response depends on: the action and its params, in a canonical order, and the
+     * context that is serialized with it. The client sends that context whole, as the raw aura.context parameter,
+     * so loaded definitions, compat, test and similar flags are all part of the key. The requested locales, which
+     * global values such as $Locale are derived from, come from the request headers, and are added separately. The
+     * framework UID and the action public cache key are included so that changing either one misses all existing
+     * entries.
+     */
+    static String getActionResponseKey(Action action, AuraContext context, String rawContext) {
+        StringBuilder key = new StringBuilder();
+        key.append(rawContext).append('|');
+        key.append(context.getFrameworkUID()).append('|');
+        key.append(context.getActionPublicCacheKey()).append('|');
+        key.append(context.getMode()).append('|');
+        key.append(context.getApplicationDescriptor()).append('|');
+        key.append(context.getRequestedLocales()).append('|');
+        key.append(action.getDescriptor().getQualifiedName()).append('|');
+        JsonEncoder.serialize(canonicalize(action.getParams()), key);
+        return key.toString();
+    }
+
+    /**
+     * Copy a JSON value with all maps sorted by key.
+     */
+    private static Object canonicalize(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), canonicalize(entry.getValue()));
+            }
+            return sorted;
+        }
+        if (value instanceof List) {
+            List<Object> copy = Lists.newArrayListWithCapacity(((List<?>) value).size());
+            for (Object item : (List<?>) value) {
+                copy.add(canonicalize(item));
+            }
+            return copy;
+        }
+        return value;
+    }
+
     /**
      * @see javax.servlet.http.HttpServlet#doPost(javax.servlet.http.HttpServletRequest,
      *      javax.servlet.http.HttpServletResponse)
@@ -715,4 +954,9 @@ public class AuraServlet extends AuraBaseServlet {
     public void setInstanceService(InstanceService instanceService) {
         this.instanceService = instanceService;
     }
+
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
 }
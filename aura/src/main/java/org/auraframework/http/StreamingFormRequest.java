@@ -0,0 +1,536 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletRequestWrapper;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+import org.auraframework.http.RequestParam.InvalidParamException;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.util.AuraTextUtil;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A form encoded POST whose body is read only as far as parameters are asked for, so that one large parameter, the
+ * action message, can be parsed straight from the body instead of being held as a String.
+ *
+ * The client sends the streamed parameter last, after {@code precedingName}. When the body reaches the streamed
+ * parameter and {@code precedingName} has already been read, the rest of the body is left unread for
+ * {@link #getStreamedReader()}, and any other parameter not yet seen comes from the query string only. A body in
+ * any other order, e.g. from an older client, still works: the streamed value is then buffered as decoded bytes
+ * while the rest of the body is read.
+ *
+ * As the container does not parse the body, its limit on form content does not apply, so the same kind of limit is
+ * applied here to the whole body, see {@link #getMaxBodyLength(ServletContext)}. The other limits can be set with
+ * system properties.
+ *
+ * If the container has already consumed the body, everything is delegated to the wrapped request.
+ */
+public class StreamingFormRequest extends HttpServletRequestWrapper {
+    /** Limit on the length of a parameter name, in bytes */
+    private static final int MAX_NAME_LENGTH = 256;
+
+    /** Limit on the length of each parameter value other than the streamed one, in bytes */
+    private static final int MAX_VALUE_LENGTH = Integer.getInteger("aura.form.maxValueLength", 1024 * 1024);
+
+    /** Limit on the length of the streamed value, in bytes */
+    private static final int MAX_STREAMED_LENGTH = Integer.getInteger("aura.form.maxStreamedLength",
+            16 * 1024 * 1024);
+
+    /** Limit on the number of parameters in the body */
+    private static final int MAX_PARAMETERS = Integer.getInteger("aura.form.maxParameters", 1000);
+
+    /** System property for the limit on the whole body, in bytes */
+    public static final String MAX_BODY_LENGTH_PROPERTY = "aura.form.maxBodyLength";
+
+    /** The attribute or system property that sets the limit on form content in Jetty */
+    public static final String CONTAINER_MAX_FORM_CONTENT_SIZE = "org.eclipse.jetty.server.Request.maxFormContentSize";
+
+    /** Limit on the whole body, in bytes, if neither Aura nor the container sets one */
+    private static final long DEFAULT_MAX_BODY_LENGTH = MAX_STREAMED_LENGTH + MAX_VALUE_LENGTH;
+
+    private enum State {
+        /** Nothing has been read yet */
+        START,
+        /** Reading parameters before the streamed one */
+        READING,
+        /** The body is positioned at the start of the streamed value, which is last */
+        AT_STREAMED,
+        /** The streamed value has been handed out */
+        STREAMED,
+        /** The whole body has been read */
+        DONE,
+        /** The body was not available, delegate to the wrapped request */
+        DELEGATE
+    }
+
+    private final String streamedName;
+    private final String precedingName;
+    private final Charset charset;
+    private final long maxBodyLength;
+    private final Map<String, List<String>> parameters = new LinkedHashMap<>();
+    private InputStream body;
+    private State state = State.START;
+    private byte[] bufferedValue;
+    private boolean hasBufferedValue;
+
+    /**
+     * @param request the request to wrap, which must not have had its parameters or body read.
+     * @param streamedName the name of the parameter to stream.
+     * @param precedingName a parameter that the client sends before the streamed one when the latter is last.
+     * @param maxBodyLength the limit on the length of the whole body, in bytes.
+     */
+    public StreamingFormRequest(HttpServletRequest request, String streamedName, String precedingName,
+            long maxBodyLength) {
+        super(request);
+        this.streamedName = streamedName;
+        this.precedingName = precedingName;
+        this.charset = getCharset(request);
+        this.maxBodyLength = maxBodyLength;
+    }
+
+    /**
+     * Get the limit on the length of a form body.
+     *
+     * This is the {@value #MAX_BODY_LENGTH_PROPERTY} system property if it is set, otherwise the container's limit
+     * on form content, if it can be found, otherwise 17MB, enough for the largest streamed value and one other.
+     *
+     * @param servletContext the context of the request, may be null.
+     * @return the limit in bytes.
+     */
+    public static long getMaxBodyLength(ServletContext servletContext) {
+        Long limit = parseLimit(System.getProperty(MAX_BODY_LENGTH_PROPERTY));
+        if (limit == null && servletContext != null) {
+            limit = parseLimit(servletContext.getAttribute(CONTAINER_MAX_FORM_CONTENT_SIZE));
+        }
+        if (limit == null) {
+            limit = parseLimit(System.getProperty(CONTAINER_MAX_FORM_CONTENT_SIZE));
+        }
+        return (limit != null) ? limit : DEFAULT_MAX_BODY_LENGTH;
+    }
+
+    /**
+     * @return the limit, or null if it is not set, or is not a limit, such as Jetty's -1 for none.
+     */
+    private static Long parseLimit(Object value) {
+        Long limit = AuraTextUtil.parseLong(value);
+        return (limit != null && limit >= 0) ? limit : null;
+    }
+
+    private static Charset getCharset(HttpServletRequest request) {
+        String encoding = request.getCharacterEncoding();
+        if (encoding != null) {
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalArgumentException iae) {
+                // ne'ermind, use the default
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * @return true if the request is a form encoded POST, whose body can be streamed.
+     */
+    public static boolean isStreamable(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return "POST".equals(request.getMethod()) && contentType != null
+                && contentType.toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded");
+    }
+
+    /**
+     * Find the streaming request under any other wrappers.
+     *
+     * @return the streaming request, or null if there is none.
+     */
+    public static StreamingFormRequest unwrap(ServletRequest request) {
+        while (request != null) {
+            if (request instanceof StreamingFormRequest) {
+                return (StreamingFormRequest) request;
+            }
+            if (!(request instanceof ServletRequestWrapper)) {
+                break;
+            }
+            request = ((ServletRequestWrapper) request).getRequest();
+        }
+        return null;
+    }
+
+    /**
+     * Get a reader for the value of the streamed parameter.
+     *
+     * This can only be called once, after which the value is gone.
+     *
+     * @return a reader for the decoded value, or null if the parameter is not present.
+     */
+    public Reader getStreamedReader() {
+        readBody(streamedName);
+        switch (state) {
+        case AT_STREAMED:
+            state = State.STREAMED;
+            return new InputStreamReader(new ValueInputStream(streamedName, MAX_STREAMED_LENGTH), charset);
+        case STREAMED:
+            throw new AuraRuntimeException(getStreamedMessage());
+        case DELEGATE:
+            String delegated = super.getParameter(streamedName);
+            return (delegated == null) ? null : new StringReader(delegated);
+        default:
+            if (!hasBufferedValue) {
+                return null;
+            }
+            byte[] buffered = bufferedValue;
+            bufferedValue = null;
+            hasBufferedValue = false;
+            return new InputStreamReader(new ByteArrayInputStream(buffered), charset);
+        }
+    }
+
+    private String getStreamedMessage() {
+        return "The " + streamedName + " parameter was streamed from the request body, and cannot be read again";
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = getParameterValues(name);
+        return (values == null) ? null : values[0];
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        readBody(name);
+        if (state == State.DELEGATE) {
+            return super.getParameterValues(name);
+        }
+        List<String> values = Lists.newArrayList();
+        String[] query = super.getParameterValues(name);
+        if (query != null) {
+            Collections.addAll(values, query);
+        }
+        if (streamedName.equals(name)) {
+            if (state == State.AT_STREAMED) {
+                // Someone wants it as a String after all.
+                try {
+                    readBufferedValue();
+                } catch (IOException ioe) {
+                    throw new AuraRuntimeException(ioe);
+                }
+                state = State.DONE;
+            }
+            if (state == State.STREAMED) {
+                throw new AuraRuntimeException(getStreamedMessage());
+            }
+            if (hasBufferedValue) {
+                values.add(new String(bufferedValue, charset));
+            }
+        } else if (parameters.containsKey(name)) {
+            values.addAll(parameters.get(name));
+        }
+        return values.isEmpty() ? null : values.toArray(new String[values.size()]);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        readBody(null);
+        if (state == State.DELEGATE) {
+            return super.getParameterMap();
+        }
+        Map<String, String[]> map = new LinkedHashMap<>();
+        for (String name : Collections.list(getParameterNames())) {
+            map.put(name, getParameterValues(name));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        readBody(null);
+        if (state == State.DELEGATE) {
+            return super.getParameterNames();
+        }
+        List<String> names = Collections.list(super.getParameterNames());
+        for (String name : parameters.keySet()) {
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+        if ((hasBufferedValue || state == State.AT_STREAMED) && !names.contains(streamedName)) {
+            names.add(streamedName);
+        }
+        return Collections.enumeration(names);
+    }
+
+    /**
+     * Read parameters from the body until the wanted one has been seen, or no more can be read.
+     *
+     * @param wanted the parameter that is wanted, or null to read as far as possible.
+     */
+    private void readBody(String wanted) {
+        try {
+            if (state == State.START) {
+                if (getContentLength() > maxBodyLength) {
+                    throw new BodyTooLargeException(maxBodyLength);
+                }
+                body = new BufferedInputStream(new LimitedInputStream(super.getInputStream(), maxBodyLength));
+                body.mark(1);
+                if (body.read() < 0) {
+                    state = State.DELEGATE;
+                    return;
+                }
+                body.reset();
+                state = State.READING;
+            }
+            while (state == State.READING && !isRead(wanted)) {
+                String name = readName();
+                if (name == null) {
+                    state = State.DONE;
+                } else if (name.equals(streamedName)) {
+                    if (precedingName != null && parameters.containsKey(precedingName)) {
+                        state = State.AT_STREAMED;
+                    } else {
+                        readBufferedValue();
+                    }
+                } else {
+                    ByteArrayOutputStream value = new ByteArrayOutputStream();
+                    copy(new ValueInputStream(name, MAX_VALUE_LENGTH), value);
+                    addValue(name, value.toString(charset.name()));
+                }
+            }
+        } catch (IOException ioe) {
+            throw new AuraRuntimeException(ioe);
+        }
+    }
+
+    private boolean isRead(String name) {
+        if (name == null) {
+            return false;
+        }
+        return streamedName.equals(name) ? hasBufferedValue : parameters.containsKey(name);
+    }
+
+    /**
+     * Read the name of the next parameter that has a value, leaving the body at the start of that value.
+     *
+     * Names without a value are recorded with an empty value as they are passed.
+     *
+     * @return the name, or null at the end of the body.
+     */
+    private String readName() throws IOException {
+        ByteArrayOutputStream name = new ByteArrayOutputStream();
+        int c;
+        while ((c = body.read()) >= 0) {
+            if (c == '=') {
+                return decode(name.toByteArray());
+            }
+            if (c == '&') {
+                if (name.size() > 0) {
+                    addEmpty(decode(name.toByteArray()));
+                    name.reset();
+                }
+                continue;
+            }
+            if (name.size() >= MAX_NAME_LENGTH) {
+                throw new InvalidParamException(name.toString("ISO-8859-1"));
+            }
+            name.write(c);
+        }
+        if (name.size() > 0) {
+            addEmpty(decode(name.toByteArray()));
+        }
+        return null;
+    }
+
+    private void addEmpty(String name) {
+        if (name.equals(streamedName)) {
+            if (!hasBufferedValue) {
+                bufferedValue = new byte[0];
+                hasBufferedValue = true;
+            }
+        } else {
+            addValue(name, "");
+        }
+    }
+
+    private void addValue(String name, String value) {
+        List<String> values = parameters.get(name);
+        if (values == null) {
+            if (parameters.size() >= MAX_PARAMETERS) {
+                throw new InvalidParamException(name);
+            }
+            values = Lists.newArrayListWithCapacity(1);
+            parameters.put(name, values);
+        }
+        values.add(value);
+    }
+
+    private String decode(byte[] encoded) throws IOException {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(encoded.length);
+        copy(new ValueInputStream(new ByteArrayInputStream(encoded), "name", MAX_NAME_LENGTH), decoded);
+        return decoded.toString(charset.name());
+    }
+
+    private void readBufferedValue() throws IOException {
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        copy(new ValueInputStream(streamedName, MAX_STREAMED_LENGTH), value);
+        // the first value wins, as with getParameter.
+        if (!hasBufferedValue) {
+            bufferedValue = value.toByteArray();
+            hasBufferedValue = true;
+        }
+    }
+
+    private static void copy(InputStream in, ByteArrayOutputStream out) throws IOException {
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+    /**
+     * Thrown when the body is longer than allowed.
+     */
+    public static class BodyTooLargeException extends InvalidParamException {
+        private static final long serialVersionUID = 1L;
+
+        public BodyTooLargeException(long maxBodyLength) {
+            super("the request body, which is over the limit of " + maxBodyLength + " bytes");
+        }
+    }
+
+    /**
+     * Fails once more than a given number of bytes have been read.
+     */
+    private static class LimitedInputStream extends InputStream {
+        private final InputStream in;
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            this.in = in;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = in.read();
+            if (c >= 0) {
+                count(1);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) {
+            count += read;
+            if (count > limit) {
+                throw new BodyTooLargeException(limit);
+            }
+        }
+    }
+
+    /**
+     * Decodes one form encoded value from the body, ending at the next '&amp;' or the end of the body.
+     */
+    private class ValueInputStream extends InputStream {
+        private final InputStream in;
+        private final String name;
+        private final int limit;
+        private int length;
+        private boolean ended;
+
+        ValueInputStream(String name, int limit) {
+            this(body, name, limit);
+        }
+
+        ValueInputStream(InputStream in, String name, int limit) {
+            this.in = in;
+            this.name = name;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (ended) {
+                return -1;
+            }
+            int c = in.read();
+            if (c < 0 || c == '&') {
+                ended = true;
+                return -1;
+            }
+            if (++length > limit) {
+                throw new InvalidParamException(name);
+            }
+            if (c == '+') {
+                return ' ';
+            }
+            if (c == '%') {
+                int high = Character.digit(in.read(), 16);
+                int low = Character.digit(in.read(), 16);
+                if (high < 0 || low < 0) {
+                    throw new InvalidParamException(name);
+                }
+                return (high << 4) | low;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int count = 0;
+            while (count < len) {
+                int c = read();
+                if (c < 0) {
+                    break;
+                }
+                b[off + count++] = (byte) c;
+            }
+            return (count == 0) ? -1 : count;
+        }
+    }
+}
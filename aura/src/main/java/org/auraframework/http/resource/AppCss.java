@@ -26,6 +26,7 @@ import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.EncodedContent;
 
 @ServiceComponent
 public class AppCss extends AuraResourceImpl {
@@ -42,6 +43,11 @@ public class AppCss extends AuraResourceImpl {
         }
 
         try {
+            EncodedContent content = serverService.getEncodedAppCss(dependencies);
+            if (content != null) {
+                content.writeTo(request, response, null);
+                return;
+            }
             serverService.writeAppCss(dependencies, response.getWriter());
         } catch (Throwable t) {
             servletUtilAdapter.handleServletException(t, false, context, request, response, false);
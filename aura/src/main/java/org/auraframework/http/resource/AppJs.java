@@ -22,6 +22,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.service.ServerService.HYDRATION_TYPE;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.EncodedContent;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
@@ -50,6 +51,17 @@ public class AppJs extends AuraResourceImpl {
         }
 
         try {
+            String suffix = isSplitEnabled
+                    ? AppJsUtilAdapter.APPJS_APPEND
+                    : AppJsUtilAdapter.APPJS_APPEND + AppJsUtilAdapter.APPCOREJS_READY;
+            suffix += AppJsUtilAdapter.APPJS_READY + AppJsUtilAdapter.EXECUTE_APPDEFSREADY;
+            EncodedContent content = serverService.getEncodedDefinitions(dependencies, isSplitEnabled,
+                    isSplitEnabled ? 1 : -1, HYDRATION_TYPE.all, AppJsUtilAdapter.APPJS_PREREQ, suffix);
+            if (content != null) {
+                content.writeTo(request, response, null);
+                return;
+            }
+
             PrintWriter writer = response.getWriter();
             writer.append(AppJsUtilAdapter.APPJS_PREREQ);
 
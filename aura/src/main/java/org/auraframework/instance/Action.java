@@ -135,6 +135,15 @@ public interface Action extends Instance<ActionDef> {
 
     void setStorable();
 
+    /**
+     * Can this action be run concurrently with the other actions in its request?
+     *
+     * @return true if the action does not depend on any other action in the request.
+     */
+    default boolean isIndependent() {
+        return false;
+    }
+
     Map<String, Object> getParams();
 
     /**
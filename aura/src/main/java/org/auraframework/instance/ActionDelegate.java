@@ -106,6 +106,11 @@ public abstract class ActionDelegate implements Action {
         original.setStorable();
     }
 
+    @Override
+    public boolean isIndependent() {
+        return original.isIndependent();
+    }
+
     @Override
     public String toString() {
         return original.toString();
@@ -17,6 +17,7 @@ package org.auraframework.service;
 
 import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
@@ -24,7 +25,10 @@ import org.auraframework.builder.CacheBuilder;
 import org.auraframework.cache.Cache;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
+import org.auraframework.system.CachedActionResponse;
+import org.auraframework.system.CachedStaticResource;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.EncodedContent;
 import org.auraframework.system.RegistrySet;
 import org.auraframework.system.SourceListener;
 import org.auraframework.system.SourceListener.SourceMonitorEvent;
@@ -70,6 +74,53 @@ public interface CachingService extends AuraService {
         return null; // FIXME remove default method...
     }
 
+    /**
+     * Gets the cache for encoded (UTF-8 and compressed) responses, e.g., app.js and app.css.
+     * <p>
+     * Keys are derived from the strings cache keys, so entries are evicted along with them.
+     */
+    default Cache<String, EncodedContent> getEncodedContentCache() {
+        return null;
+    }
+
+    /**
+     * Gets the cache for per-definition fragments of app.js.
+     * <p>
+     * Fragments are shared between apps, and keyed by descriptor, own hash and the context flags that affect them.
+     */
+    default Cache<String, String> getDefinitionFragmentCache() {
+        return null;
+    }
+
+    /**
+     * Gets the cache for responses to publicly cacheable GET actions.
+     * <p>
+     * Keys include the framework UID and the action public cache key, so entries for an old framework or key are
+     * never hit again. Entries carry their own expiration.
+     */
+    default Cache<String, CachedActionResponse> getActionResponseCache() {
+        return null;
+    }
+
+    /**
+     * Gets the cache for /auraCmpDef responses.
+     * <p>
+     * Keys include the UIDs of the requested definitions and of the referring app, so entries are never stale, they
+     * just stop being hit.
+     */
+    default Cache<String, EncodedContent> getComponentDefinitionCache() {
+        return null;
+    }
+
+    /**
+     * Gets the cache for framework static resources served by AuraFrameworkServlet.
+     * <p>
+     * Keys include the framework nonce, and the cache is cleared when the nonce changes.
+     */
+    default Cache<String, CachedStaticResource> getStaticResourceCache() {
+        return null;
+    }
+
     Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache();
 
     Cache<String, DependencyEntry> getDepsCache();
@@ -80,6 +131,26 @@ public interface CachingService extends AuraService {
 
     Cache<RegistrySet.RegistrySetKey, RegistrySet> getRegistrySetCache();
     
+    /**
+     * Records a dependency entry stored in the deps cache, so that a later source change can evict only the entries
+     * that depend on the changed source.
+     *
+     * @param key the key under which the entry was stored in the deps cache.
+     * @param de the dependency entry.
+     */
+    default void addDependencyEntry(String key, DependencyEntry de) {
+    }
+
+    /**
+     * Records a strings cache key that was derived from a dependency entry uid, so that it can be evicted along with
+     * the dependency entry.
+     *
+     * @param uid the uid of the dependency entry.
+     * @param key the strings cache key.
+     */
+    default void addUidDerivedKey(String uid, String key) {
+    }
+
     Lock getReadLock();
 
     Lock getWriteLock();
@@ -87,4 +158,15 @@ public interface CachingService extends AuraService {
     void notifyDependentSourceChange(
             Collection<WeakReference<SourceListener>> listeners,
             SourceMonitorEvent event, String filePath);
+
+    /**
+     * Invalidate caches for a batch of source changes, and pass the batch on to the listeners, all under a single
+     * acquisition of the write lock.
+     *
+     * @param listeners the listeners to notify.
+     * @param changes what happened to each file, by path, or null if changes were missed and everything is affected.
+     */
+    void notifyDependentSourceChanges(
+            Collection<WeakReference<SourceListener>> listeners,
+            Map<String, SourceMonitorEvent> changes);
 }
@@ -74,6 +74,21 @@ public interface ContextService extends AuraService {
      */
     void endContext();
 
+    /**
+     * Run with a context established on another thread.
+     *
+     * The context stays owned by the thread that started it, and is not released or logged here. This must always
+     * be paired with {@link #detachContext()} (i.e. with a try {} finally {}).
+     *
+     * @param context the context to attach to this thread.
+     */
+    void attachContext(AuraContext context);
+
+    /**
+     * Detach a context previously attached with {@link #attachContext(AuraContext)}.
+     */
+    void detachContext();
+
     /**
      * Push a 'system-only' context used for private rendering.
      *
@@ -77,6 +77,11 @@ public interface LoggingService extends AuraService {
      */
     void stopAction(String actionName);
 
+    /**
+     * Stop all timers for an action, timing it by the instance that was started.
+     */
+    void stopAction(String actionName, Action action);
+
     /**
      * Start a timer.
      *
@@ -15,6 +15,8 @@
  */
 package org.auraframework.service;
 
+import java.io.IOException;
+
 import org.auraframework.util.json.Json;
 
 
@@ -29,4 +31,10 @@ import org.auraframework.util.json.Json;
 public interface MetricsService extends AuraService {
 	void serializeMetrics (Json json);
 	void serializeMetricsSummary (Json json);
+
+	/**
+	 * Write the metrics aggregated across all requests, in the Prometheus text exposition format.
+	 */
+	default void writeAggregateMetrics(Appendable out) throws IOException {
+	}
 }
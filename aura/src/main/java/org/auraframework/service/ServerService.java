@@ -21,6 +21,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.SVGDef;
 import org.auraframework.instance.Component;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.EncodedContent;
 import org.auraframework.system.Message;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
@@ -105,4 +106,24 @@ public interface ServerService extends AuraService {
 
     void writeDefinitions(Set<DefDescriptor<?>> dependencies, Writer out, boolean hasParts, int partIndex,
             HYDRATION_TYPE hydrationType, boolean preloading) throws IOException, QuickFixException;
+
+    /**
+     * Get the CSS for the preloads + app, encoded once and cached along with the CSS string.
+     *
+     * @return the encoded CSS, or null if it cannot be cached, in which case use {@link #writeAppCss}.
+     */
+    default EncodedContent getEncodedAppCss(Set<DefDescriptor<?>> dependencies) throws IOException, QuickFixException {
+        return null;
+    }
+
+    /**
+     * Get the complete set of definitions in JS, wrapped in a fixed prefix and suffix, encoded once and cached
+     * along with the definitions string.
+     *
+     * @return the encoded JS, or null if it cannot be cached, in which case use {@link #writeDefinitions}.
+     */
+    default EncodedContent getEncodedDefinitions(Set<DefDescriptor<?>> dependencies, boolean hasParts, int partIndex,
+            HYDRATION_TYPE hydrationType, String prefix, String suffix) throws IOException, QuickFixException {
+        return null;
+    }
 }
@@ -244,6 +244,14 @@ public interface AuraContext {
      */
     Action setCurrentAction(Action nextAction);
 
+    /**
+     * Drop whatever this context keeps for the current thread, such as the current action and component.
+     *
+     * Call this on threads that outlive the work they do for the context, such as pooled workers.
+     */
+    default void releaseCurrentThread() {
+    }
+
     void pushCallingDescriptor(DefDescriptor<?> descriptor);
 
     void popCallingDescriptor();
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+/**
+ * The response to a publicly cacheable action, held on the server until it expires.
+ */
+public final class CachedActionResponse {
+    private final EncodedContent content;
+    private final long expires;
+
+    /**
+     * @param content the complete response body.
+     * @param expires the time, in milliseconds since the epoch, after which the response must be rebuilt. A
+     *        response that should not be cached at all, such as one with errors, expires immediately.
+     */
+    public CachedActionResponse(EncodedContent content, long expires) {
+        this.content = content;
+        this.expires = expires;
+    }
+
+    public EncodedContent getContent() {
+        return content;
+    }
+
+    /**
+     * @return the expiration time in milliseconds since the epoch.
+     */
+    public long getExpires() {
+        return expires;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expires;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+/**
+ * A framework static resource, such as aura_prod.js or a CSS or image file, held encoded on the server.
+ */
+public final class CachedStaticResource {
+    private final EncodedContent content;
+    private final String contentType;
+    private final String hash;
+
+    /**
+     * @param content the resource.
+     * @param contentType the MIME type to send it with.
+     * @param hash a hash of the resource bytes, for the ETag.
+     */
+    public CachedStaticResource(EncodedContent content, String contentType, String hash) {
+        this.content = content;
+        this.contentType = contentType;
+        this.hash = hash;
+    }
+
+    public EncodedContent getContent() {
+        return content;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the hash of the resource bytes, for the ETag.
+     */
+    public String getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.HttpHeaders;
+
+/**
+ * Text content encoded once, as UTF-8 bytes and as gzip, for writing straight to a response.
+ *
+ * Only one variant is held, in a direct buffer, so that large responses such as app.js do not need to be re-encoded
+ * or recompressed per request, and do not sit on the heap. Compressible content is held only as gzip, which nearly
+ * every client accepts, and is inflated while writing for the few that do not.
+ */
+public final class EncodedContent {
+    public enum Encoding {
+        IDENTITY(null),
+        GZIP("gzip");
+
+        private final String contentEncoding;
+
+        private Encoding(String contentEncoding) {
+            this.contentEncoding = contentEncoding;
+        }
+
+        /**
+         * @return the value for the Content-Encoding header, or null if none should be sent.
+         */
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        /**
+         * Choose an encoding from an Accept-Encoding header.
+         *
+         * gzip is used if it is acceptable, either by name or by wildcard, with a non-zero quality.
+         *
+         * @param acceptEncoding the header value, may be null.
+         * @return the encoding to use.
+         */
+        public static Encoding negotiate(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return IDENTITY;
+            }
+            Boolean gzip = null;
+            boolean wildcard = false;
+            for (String part : acceptEncoding.split(",")) {
+                String[] params = part.split(";");
+                String coding = params[0].trim().toLowerCase(Locale.ENGLISH);
+                boolean acceptable = true;
+                for (int i = 1; i < params.length; i++) {
+                    String param = params[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            acceptable = Double.parseDouble(param.substring(2).trim()) > 0;
+                        } catch (NumberFormatException nfe) {
+                            acceptable = false;
+                        }
+                    }
+                }
+                if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                    gzip = acceptable;
+                } else if ("*".equals(coding)) {
+                    wildcard = acceptable;
+                }
+            }
+            if (gzip != null) {
+                return gzip ? GZIP : IDENTITY;
+            }
+            return wildcard ? GZIP : IDENTITY;
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final boolean compressed;
+    private final int identityLength;
+
+    private EncodedContent(ByteBuffer buffer, boolean compressed, int identityLength) {
+        this.buffer = buffer;
+        this.compressed = compressed;
+        this.identityLength = identityLength;
+    }
+
+    /**
+     * Encode content.
+     *
+     * @param content the text to encode.
+     * @return the encoded content.
+     */
+    public static EncodedContent encode(CharSequence content) throws IOException {
+        return encode(content.toString().getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    /**
+     * Encode content that is already bytes, such as a static resource.
+     *
+     * @param bytes the content, which is copied.
+     * @param compress whether to hold a gzip variant. Content that is already compressed, such as images and fonts,
+     *        gains nothing from it, and is then always written as is.
+     * @return the encoded content.
+     */
+    public static EncodedContent encode(byte[] bytes, boolean compress) throws IOException {
+        if (!compress) {
+            return new EncodedContent(toDirectBuffer(bytes), false, bytes.length);
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(compressed)) {
+            gzipOut.write(bytes);
+        }
+        return new EncodedContent(toDirectBuffer(compressed.toByteArray()), true, bytes.length);
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return whether there is a compressed variant, if not, only {@link Encoding#IDENTITY} should be negotiated.
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * @return the number of bytes in the given encoding, suitable for Content-Length.
+     */
+    public int getLength(Encoding encoding) {
+        return (compressed && encoding == Encoding.GZIP) ? buffer.remaining() : identityLength;
+    }
+
+    /**
+     * @return the number of bytes held.
+     */
+    public long getByteSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Write the content in the given encoding, streaming it from the direct buffer.
+     *
+     * @param encoding the encoding to write.
+     * @param out the stream to write to, which is not closed.
+     */
+    public void writeTo(Encoding encoding, OutputStream out) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        if (compressed && encoding == Encoding.IDENTITY) {
+            try (InputStream in = new GZIPInputStream(new ByteBufferInputStream(source))) {
+                byte[] chunk = new byte[8192];
+                int read;
+                while ((read = in.read(chunk)) != -1) {
+                    out.write(chunk, 0, read);
+                }
+            }
+            return;
+        }
+        // Not closed, as that would close the underlying stream.
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Write the content to a response, in the encoding negotiated from the request, with its Vary, Content-Encoding
+     * and Content-Length headers.
+     *
+     * This writes to the output stream, so nothing may have been written to the response writer.
+     *
+     * @param request the request, for its Accept-Encoding and If-None-Match headers.
+     * @param response the response to write to.
+     * @param hash a hash of the content to send as a strong ETag, so that a client that already has the content gets
+     *        a 304 with no body. May be null to send no ETag.
+     */
+    public void writeTo(HttpServletRequest request, HttpServletResponse response, String hash) throws IOException {
+        Encoding encoding = Encoding.IDENTITY;
+        if (compressed) {
+            encoding = Encoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (hash != null) {
+            String etag = getETag(hash, encoding);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        if (encoding.getContentEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.getContentEncoding());
+        }
+        response.setContentLength(getLength(encoding));
+        writeTo(encoding, response.getOutputStream());
+    }
+
+    /**
+     * The ETag is strong, so it differs between the identity and gzip bodies.
+     *
+     * @param hash a hash of the content.
+     * @param encoding the encoding being sent.
+     * @return the quoted ETag.
+     */
+    public static String getETag(String hash, Encoding encoding) {
+        StringBuilder etag = new StringBuilder("\"").append(hash);
+        if (encoding.getContentEncoding() != null) {
+            etag.append('-').append(encoding.getContentEncoding());
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Check an If-None-Match header against an ETag, using the weak comparison that RFC 7232 asks for.
+     */
+    public static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || etag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a buffer without copying it to the heap first.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -16,6 +16,9 @@
 package org.auraframework.system;
 
 import java.io.File;
+import java.util.Set;
+
+import org.auraframework.def.DefDescriptor.DefType;
 
 /**
  * An interface defining a class to convert a directory into a bundle.
@@ -37,6 +40,37 @@ public interface FileBundleSourceBuilder {
         return false;
     }
 
+    /**
+     * Check whether a bundle matches from the names of the files directly in its folder, without reading any of
+     * them, as for bundles that are still packed in a jar. This must agree with {@link #isBundleMatch(File)}.
+     *
+     * Builders that cannot tell from the names alone should return true, so that the bundle is copied out and checked
+     * with {@link #isBundleMatch(File)}.
+     *
+     * @param name the name of the bundle folder.
+     * @param fileNames the names of the files in the bundle folder.
+     */
+    default boolean isBundleMatch(String name, Set<String> fileNames) {
+        if (getExtension() == null) {
+            return true;
+        }
+        // a name that only differs by case fails in isBundleMatch(File), so it has to be read to report that.
+        String bundleFile = name + getExtension();
+        for (String fileName : fileNames) {
+            if (bundleFile.equalsIgnoreCase(fileName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the type of the bundles this builds, or null if it is not known before they are built.
+     */
+    default DefType getBundleType() {
+        return null;
+    }
+
     default String getExtension() {
         return null;
     }
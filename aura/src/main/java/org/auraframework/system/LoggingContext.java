@@ -32,6 +32,8 @@ public interface LoggingContext {
 
     void stopAction(String actionName);
 
+    void stopAction(String actionName, Action action);
+
     void startTimer(String name);
 
     void startTimer(String name, Map<String, String> context);
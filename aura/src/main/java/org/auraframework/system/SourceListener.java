@@ -15,6 +15,8 @@
  */
 package org.auraframework.system;
 
+import java.util.Map;
+
 /**
  * Used as the message for changes to the source of a Definition
  */
@@ -34,4 +36,22 @@ public interface SourceListener {
      */
     public void onSourceChanged(SourceMonitorEvent event, String filePath);
 
+    /**
+     * A batch of changes, one per file, in the order they were first seen.
+     *
+     * By default each change is passed to {@link #onSourceChanged(SourceMonitorEvent, String)} in turn, listeners
+     * that do expensive work per change should handle the batch at once.
+     *
+     * @param changes - what happened to each file, by path, or null if changes were missed and everything is affected
+     */
+    default void onSourcesChanged(Map<String, SourceMonitorEvent> changes) {
+        if (changes == null) {
+            onSourceChanged(null, null);
+            return;
+        }
+        for (Map.Entry<String, SourceMonitorEvent> change : changes.entrySet()) {
+            onSourceChanged(change.getValue(), change.getKey());
+        }
+    }
+
 }
@@ -16,6 +16,11 @@
 
 package org.auraframework.util;
 
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
+
 /**
  * Listens for changes to a file.  Similar interface to apache vfs2
  *
@@ -42,4 +47,32 @@ public interface FileListener
      * @throws Exception if an error occurs.
      */
     void fileChanged(FileChangeEvent event) throws Exception;
+
+    /**
+     * Called with a batch of changes, one per file, in the order they were first seen.
+     *
+     * By default each change is passed to the matching single file method. If changes were missed, there is nothing
+     * to pass on.
+     *
+     * @param changes What happened to each file, by path, or null if changes were missed.
+     * @throws Exception if an error occurs.
+     */
+    default void filesChanged(Map<String, SourceMonitorEvent> changes) throws Exception {
+        if (changes == null) {
+            return;
+        }
+        for (Map.Entry<String, SourceMonitorEvent> change : changes.entrySet()) {
+            FileChangeEvent event = new FileChangeEvent(Paths.get(change.getKey()));
+            switch (change.getValue()) {
+            case CREATED:
+                fileCreated(event);
+                break;
+            case DELETED:
+                fileDeleted(event);
+                break;
+            default:
+                fileChanged(event);
+            }
+        }
+    }
 }
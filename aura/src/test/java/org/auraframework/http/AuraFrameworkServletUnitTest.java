@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.HttpHeaders;
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.cache.Cache;
+import org.auraframework.service.CachingService;
+import org.auraframework.system.CachedStaticResource;
+import org.auraframework.util.resource.ResourceLoader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Simple (non-integration) test case for the static resource cache in {@link AuraFrameworkServlet}.
+ */
+public class AuraFrameworkServletUnitTest {
+
+    private static final String UID = "currentUid";
+
+    private static final String RESOURCE_PATH = "/aura/javascript/aura_prod.js";
+
+    @Mock
+    ConfigAdapter configAdapter;
+
+    @Mock
+    CachingService cachingService;
+
+    @Mock
+    ServletUtilAdapter servletUtilAdapter;
+
+    @Mock
+    ResourceLoader resourceLoader;
+
+    private final Cache<String, CachedStaticResource> cache = new GuavaCache<>();
+
+    private AuraFrameworkServlet servlet;
+
+    private byte[] contents = "var aura = {};".getBytes(StandardCharsets.UTF_8);
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(configAdapter.getAuraFrameworkNonce()).thenReturn(UID);
+        Mockito.when(configAdapter.getResourceLoader()).thenReturn(resourceLoader);
+        Mockito.when(cachingService.getStaticResourceCache()).thenReturn(cache);
+        Mockito.when(resourceLoader.getResource(RESOURCE_PATH)).thenReturn(new URL("file:" + RESOURCE_PATH));
+        Mockito.when(resourceLoader.getResourceAsStream(RESOURCE_PATH))
+                .thenAnswer(invocation -> new ByteArrayInputStream(contents));
+
+        servlet = new AuraFrameworkServlet();
+        servlet.setConfigAdapter(configAdapter);
+        servlet.setCachingService(cachingService);
+        servlet.setServletUtilAdapter(servletUtilAdapter);
+    }
+
+    private HttpServletRequest mockRequest(String pathInfo) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getPathInfo()).thenReturn(pathInfo);
+        Mockito.when(request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE)).thenReturn(-1L);
+        return request;
+    }
+
+    private HttpServletResponse mockResponse(ByteArrayOutputStream body) throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                body.write(b);
+            }
+        });
+        return response;
+    }
+
+    @Test
+    public void testResourceIsCachedAcrossNonces() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+        servlet.doGet(mockRequest("/javascript/" + UID + "/aura_prod.js"), response);
+
+        Assert.assertArrayEquals(contents, body.toByteArray());
+        Mockito.verify(response).setContentType(AuraFrameworkServlet.JAVASCRIPT_CONTENT_TYPE);
+        Mockito.verify(servletUtilAdapter).setLongCache(response);
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(response).setHeader(Mockito.eq(HttpHeaders.ETAG), etag.capture());
+
+        ByteArrayOutputStream staleBody = new ByteArrayOutputStream();
+        HttpServletResponse staleResponse = mockResponse(staleBody);
+        servlet.doGet(mockRequest("/javascript/staleUid/aura_prod.js"), staleResponse);
+
+        Assert.assertArrayEquals(contents, staleBody.toByteArray());
+        Mockito.verify(servletUtilAdapter).setNoCache(staleResponse);
+        Mockito.verify(staleResponse).setHeader(HttpHeaders.ETAG, etag.getValue());
+        Mockito.verify(resourceLoader, Mockito.times(1)).getResourceAsStream(RESOURCE_PATH);
+    }
+
+    @Test
+    public void testMatchingNonceWithIfModifiedSinceIsNotModified() throws Exception {
+        HttpServletRequest request = mockRequest("/javascript/" + UID + "/aura_prod.js");
+        Mockito.when(request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE)).thenReturn(1000L);
+        HttpServletResponse response = mockResponse(new ByteArrayOutputStream());
+
+        servlet.doGet(request, response);
+
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_MODIFIED);
+        Mockito.verify(resourceLoader, Mockito.never()).getResourceAsStream(RESOURCE_PATH);
+    }
+
+    @Test
+    public void testMatchingETagIsNotModified() throws Exception {
+        HttpServletResponse response = mockResponse(new ByteArrayOutputStream());
+        servlet.doGet(mockRequest("/javascript/" + UID + "/aura_prod.js"), response);
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(response).setHeader(Mockito.eq(HttpHeaders.ETAG), etag.capture());
+
+        HttpServletRequest request = mockRequest("/javascript/" + UID + "/aura_prod.js");
+        Mockito.when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn(etag.getValue());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse notModified = mockResponse(body);
+        servlet.doGet(request, notModified);
+
+        Mockito.verify(notModified).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        Assert.assertEquals(0, body.size());
+    }
+
+    @Test
+    public void testLargeResourceIsStreamedAndNotCached() throws Exception {
+        contents = new byte[16 * 1024 * 1024 + 1];
+        Arrays.fill(contents, (byte) 'a');
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+        servlet.doGet(mockRequest("/javascript/" + UID + "/aura_prod.js"), response);
+
+        Assert.assertArrayEquals(contents, body.toByteArray());
+        Mockito.verify(response, Mockito.never()).setHeader(Mockito.eq(HttpHeaders.ETAG), Mockito.anyString());
+        Assert.assertTrue(cache.getKeySet().isEmpty());
+    }
+}
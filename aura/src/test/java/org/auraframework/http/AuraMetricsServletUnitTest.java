@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.service.MetricsService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Simple (non-integration) test case for {@link AuraMetricsServlet}.
+ */
+public class AuraMetricsServletUnitTest {
+
+    @Mock
+    HttpServletRequest request;
+
+    @Mock
+    HttpServletResponse response;
+
+    @Mock
+    MetricsService metricsService;
+
+    @Mock
+    ConfigAdapter configAdapter;
+
+    private final StringWriter body = new StringWriter();
+
+    @Before
+    public void initMocks() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(body));
+        Mockito.doAnswer(invocation -> ((Appendable) invocation.getArguments()[0]).append("aura_counter_total 1\n"))
+                .when(metricsService).writeAggregateMetrics(Matchers.any(Appendable.class));
+    }
+
+    @After
+    public void clearProperty() {
+        System.clearProperty(AuraMetricsServlet.ENABLED_PROPERTY);
+    }
+
+    @SuppressWarnings("serial")
+    private class AuraMetricsServletExtender extends AuraMetricsServlet {
+        AuraMetricsServletExtender() {
+            setMetricsService(metricsService);
+            setConfigAdapter(configAdapter);
+        }
+
+        public void testDoGet() throws Exception {
+            doGet(request, response);
+        }
+    }
+
+    @Test
+    public void testServedOutsideProduction() throws Exception {
+        Mockito.when(configAdapter.isProduction()).thenReturn(false);
+
+        new AuraMetricsServletExtender().testDoGet();
+
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_OK);
+        Assert.assertEquals("aura_counter_total 1\n", body.toString());
+    }
+
+    @Test
+    public void testNotFoundInProduction() throws Exception {
+        Mockito.when(configAdapter.isProduction()).thenReturn(true);
+
+        new AuraMetricsServletExtender().testDoGet();
+
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+        Mockito.verify(metricsService, Mockito.never()).writeAggregateMetrics(Matchers.any(Appendable.class));
+        Assert.assertEquals("", body.toString());
+    }
+
+    @Test
+    public void testServedInProductionWhenEnabled() throws Exception {
+        Mockito.when(configAdapter.isProduction()).thenReturn(true);
+        System.setProperty(AuraMetricsServlet.ENABLED_PROPERTY, "true");
+
+        new AuraMetricsServletExtender().testDoGet();
+
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_OK);
+        Assert.assertEquals("aura_counter_total 1\n", body.toString());
+    }
+}
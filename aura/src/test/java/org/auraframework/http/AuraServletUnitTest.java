@@ -16,20 +16,45 @@
 package org.auraframework.http;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.cache.Cache;
+import org.auraframework.def.ActionDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.instance.Action;
 import org.auraframework.service.ContextService;
+import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.CachedActionResponse;
+import org.auraframework.system.EncodedContent;
+import org.auraframework.system.Message;
 import org.auraframework.throwable.AuraHandledException;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
 public class AuraServletUnitTest {
 
     @Test
@@ -59,4 +84,151 @@ public class AuraServletUnitTest {
         // The text is part of our API, because it hits customers.
         assertEquals("Invalid request, post must use JSON", exceptionCaptor.getValue().getMessage());
     }
+
+    private Action mockAction(Map<String, Object> params) {
+        Action action = Mockito.mock(Action.class);
+        @SuppressWarnings("unchecked")
+        DefDescriptor<ActionDef> descriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.doReturn("java://test.Controller/ACTION$get").when(descriptor).getQualifiedName();
+        Mockito.doReturn(descriptor).when(action).getDescriptor();
+        Mockito.doReturn(params).when(action).getParams();
+        return action;
+    }
+
+    private AuraContext mockContext(Locale locale) {
+        AuraContext context = Mockito.mock(AuraContext.class);
+        Mockito.doReturn("fwuid").when(context).getFrameworkUID();
+        Mockito.doReturn("apck").when(context).getActionPublicCacheKey();
+        Mockito.doReturn(Lists.newArrayList(locale)).when(context).getRequestedLocales();
+        return context;
+    }
+
+    @Test
+    public void testActionResponseKeyIgnoresParamOrder() {
+        AuraContext context = mockContext(Locale.US);
+        Action first = mockAction(ImmutableMap.<String, Object>of("a", 1, "b",
+                ImmutableMap.of("x", "1", "y", Lists.newArrayList(ImmutableMap.of("p", 1, "q", 2)))));
+        Action second = mockAction(ImmutableMap.<String, Object>of("b",
+                ImmutableMap.of("y", Lists.newArrayList(ImmutableMap.of("q", 2, "p", 1)), "x", "1"), "a", 1));
+
+        assertEquals(AuraServlet.getActionResponseKey(first, context, CONTEXT),
+                AuraServlet.getActionResponseKey(second, context, CONTEXT));
+    }
+
+    @Test
+    public void testActionResponseKeyIncludesParamsAndLocale() {
+        Action action = mockAction(ImmutableMap.<String, Object>of("a", 1));
+        Action other = mockAction(ImmutableMap.<String, Object>of("a", 2));
+        String key = AuraServlet.getActionResponseKey(action, mockContext(Locale.US), CONTEXT);
+
+        assertNotEquals(key, AuraServlet.getActionResponseKey(other, mockContext(Locale.US), CONTEXT));
+        assertNotEquals(key, AuraServlet.getActionResponseKey(action, mockContext(Locale.FRANCE), CONTEXT));
+    }
+
+    @Test
+    public void testActionResponseKeyIncludesClientContext() {
+        Action action = mockAction(ImmutableMap.<String, Object>of("a", 1));
+        AuraContext context = mockContext(Locale.US);
+        String key = AuraServlet.getActionResponseKey(action, context, CONTEXT);
+
+        assertNotEquals(key, AuraServlet.getActionResponseKey(action, context,
+                "{\"mode\":\"PROD\",\"loaded\":{\"APPLICATION@markup://test:app\":\"other\"}}"));
+        assertNotEquals(key, AuraServlet.getActionResponseKey(action, context,
+                "{\"mode\":\"PROD\",\"loaded\":{\"APPLICATION@markup://test:app\":\"uid\"},\"c\":1}"));
+    }
+
+    private static final String CONTEXT = "{\"mode\":\"PROD\",\"loaded\":{\"APPLICATION@markup://test:app\":\"uid\"}}";
+
+    /**
+     * A servlet whose actions count their runs, and wait for the given latch while running.
+     */
+    private AuraServlet createActionServlet(AtomicInteger runs, CountDownLatch started, CountDownLatch release)
+            throws Exception {
+        AuraServlet auraServlet = new AuraServlet();
+        ServerService serverService = Mockito.mock(ServerService.class);
+        Mockito.doAnswer(invocation -> {
+            runs.incrementAndGet();
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            ((Writer) invocation.getArguments()[2]).write("{\"actions\":[]}");
+            return null;
+        }).when(serverService).run(Matchers.any(Message.class), Matchers.any(AuraContext.class),
+                Matchers.any(Writer.class), Matchers.any());
+        auraServlet.setServerService(serverService);
+        ServletUtilAdapter servletUtilAdapter = Mockito.mock(ServletUtilAdapter.class);
+        Mockito.doReturn(60L).when(servletUtilAdapter).getPubliclyCacheableActionExpiration(Matchers.any());
+        auraServlet.setServletUtilAdapter(servletUtilAdapter);
+        return auraServlet;
+    }
+
+    @Test
+    public void testActionResponseIsLoadedOnceForConcurrentRequests() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AuraServlet auraServlet = createActionServlet(runs, started, release);
+        Cache<String, CachedActionResponse> cache = new GuavaCache<>();
+        Message message = new Message(Lists.newArrayList(mockAction(ImmutableMap.<String, Object>of("a", 1))));
+        AuraContext context = mockContext(Locale.US);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CachedActionResponse> first = executor.submit(
+                    () -> auraServlet.getActionResponse(cache, message, context, null, CONTEXT));
+            started.await(10, TimeUnit.SECONDS);
+            Future<CachedActionResponse> second = executor.submit(
+                    () -> auraServlet.getActionResponse(cache, message, context, null, CONTEXT));
+            release.countDown();
+
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExpiredActionResponseIsRebuilt() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        AuraServlet auraServlet = createActionServlet(runs, new CountDownLatch(1), new CountDownLatch(0));
+        Cache<String, CachedActionResponse> cache = new GuavaCache<>();
+        Action action = mockAction(ImmutableMap.<String, Object>of("a", 1));
+        AuraContext context = mockContext(Locale.US);
+        String key = AuraServlet.getActionResponseKey(action, context, CONTEXT);
+        CachedActionResponse expired = new CachedActionResponse(EncodedContent.encode("old"),
+                System.currentTimeMillis() - 1);
+        cache.put(key, expired);
+
+        CachedActionResponse response = auraServlet.getActionResponse(cache, new Message(Lists.newArrayList(action)),
+                context, null, CONTEXT);
+
+        assertNotSame(expired, response);
+        assertEquals(1, runs.get());
+        assertSame(response, cache.getIfPresent(key));
+        // a fresh response is served from the cache.
+        assertSame(response, auraServlet.getActionResponse(cache, new Message(Lists.newArrayList(action)), context,
+                null, CONTEXT));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testActionResponseWithErrorsIsNotKeptOrShared() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        AuraServlet auraServlet = createActionServlet(runs, new CountDownLatch(1), new CountDownLatch(0));
+        Cache<String, CachedActionResponse> cache = new GuavaCache<>();
+        Action action = mockAction(ImmutableMap.<String, Object>of("a", 1));
+        Mockito.doReturn(Lists.newArrayList("error")).when(action).getErrors();
+        AuraContext context = mockContext(Locale.US);
+        String key = AuraServlet.getActionResponseKey(action, context, CONTEXT);
+        // as left by another request, which had errors.
+        CachedActionResponse othersError = new CachedActionResponse(EncodedContent.encode("error"), 0);
+        cache.put(key, othersError);
+
+        CachedActionResponse response = auraServlet.getActionResponse(cache, new Message(Lists.newArrayList(action)),
+                context, null, CONTEXT);
+
+        assertNotSame(othersError, response);
+        assertEquals(1, runs.get());
+        assertNull(cache.getIfPresent(key));
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.auraframework.cache.Cache;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A cache straight on top of guava, as the implementations are not available here.
+ */
+class GuavaCache<K, T> implements Cache<K, T> {
+    private final com.google.common.cache.Cache<K, T> cache = CacheBuilder.newBuilder().build();
+
+    @Override
+    public T getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public T get(K key, Callable<T> loader) throws ExecutionException {
+        return cache.get(key, loader);
+    }
+
+    @Override
+    public void put(K key, T data) {
+        cache.put(key, data);
+    }
+
+    @Override
+    public Set<K> getKeySet() {
+        return cache.asMap().keySet();
+    }
+
+    @Override
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidate(Iterable<K> keys) {
+        cache.invalidateAll(keys);
+    }
+
+    @Override
+    public boolean invalidate(K key, T value) {
+        return cache.asMap().remove(key, value);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Deprecated
+    @Override
+    public void invalidatePartial(String partial) {
+        cache.asMap().keySet().removeIf(key -> partial == null || key.toString().startsWith(partial));
+    }
+
+    @Override
+    public Object getPrivateUnderlyingCache() {
+        return cache;
+    }
+
+    @Override
+    public void logCacheStatus(String extraMessage) {
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+import org.auraframework.http.RequestParam.InvalidParamException;
+import org.auraframework.http.StreamingFormRequest.BodyTooLargeException;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.base.Strings;
+import com.google.common.io.CharStreams;
+
+/**
+ * Simple (non-integration) test case for {@link StreamingFormRequest}.
+ */
+public class StreamingFormRequestUnitTest {
+    private static final String MESSAGE = "{\"actions\":[{\"id\":\"1;a\",\"params\":{\"s\":\"a+b & é中\"}}]}";
+
+    @Mock
+    HttpServletRequest request;
+
+    @Before
+    public void initMocks() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(request.getMethod()).thenReturn("POST");
+        Mockito.when(request.getContentType()).thenReturn("application/x-www-form-urlencoded; charset=UTF-8");
+        Mockito.when(request.getParameterNames()).thenReturn(Collections.<String>emptyEnumeration());
+    }
+
+    private StreamingFormRequest wrap(String body) throws IOException {
+        return wrap(body, StreamingFormRequest.getMaxBodyLength(null));
+    }
+
+    private StreamingFormRequest wrap(String body, long maxBodyLength) throws IOException {
+        final ByteArrayInputStream in = new ByteArrayInputStream(body.getBytes(StandardCharsets.ISO_8859_1));
+        Mockito.when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return in.read();
+            }
+        });
+        return new StreamingFormRequest(request, "message", "aura.context", maxBodyLength);
+    }
+
+    private static String encode(String value) throws Exception {
+        return URLEncoder.encode(value, "UTF-8");
+    }
+
+    private static String read(Reader reader) throws IOException {
+        return CharStreams.toString(reader);
+    }
+
+    @Test
+    public void testIsStreamable() {
+        Assert.assertTrue(StreamingFormRequest.isStreamable(request));
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Assert.assertFalse(StreamingFormRequest.isStreamable(request));
+        Mockito.when(request.getMethod()).thenReturn("POST");
+        Mockito.when(request.getContentType()).thenReturn("multipart/form-data; boundary=x");
+        Assert.assertFalse(StreamingFormRequest.isStreamable(request));
+        Mockito.when(request.getContentType()).thenReturn("Application/X-WWW-Form-UrlEncoded");
+        Assert.assertTrue(StreamingFormRequest.isStreamable(request));
+    }
+
+    @Test
+    public void testMessageLastIsStreamed() throws Exception {
+        StreamingFormRequest streaming = wrap("aura.context=" + encode("{\"mode\":\"PROD\"}") + "&aura.token=abc&message="
+                + encode(MESSAGE));
+
+        Assert.assertEquals("{\"mode\":\"PROD\"}", streaming.getParameter("aura.context"));
+        Assert.assertEquals("abc", streaming.getParameter("aura.token"));
+        Assert.assertNull(streaming.getParameter("aura.format"));
+        Assert.assertEquals(MESSAGE, read(streaming.getStreamedReader()));
+        try {
+            streaming.getParameter("message");
+            Assert.fail("message should not be available once streamed");
+        } catch (AuraRuntimeException expected) {
+            Assert.assertEquals("The message parameter was streamed from the request body, and cannot be read again",
+                    expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testMessageFirstIsBuffered() throws Exception {
+        StreamingFormRequest streaming = wrap("message=" + encode(MESSAGE) + "&aura.context=ctx&aura.token=abc");
+
+        Assert.assertEquals("ctx", streaming.getParameter("aura.context"));
+        Assert.assertEquals("abc", streaming.getParameter("aura.token"));
+        Assert.assertEquals(MESSAGE, read(streaming.getStreamedReader()));
+    }
+
+    @Test
+    public void testMessageAsParameter() throws Exception {
+        StreamingFormRequest streaming = wrap("aura.context=ctx&message=" + encode(MESSAGE));
+
+        Assert.assertEquals("ctx", streaming.getParameter("aura.context"));
+        Assert.assertEquals(MESSAGE, streaming.getParameter("message"));
+        Assert.assertEquals(MESSAGE, read(streaming.getStreamedReader()));
+    }
+
+    @Test
+    public void testMissingMessage() throws Exception {
+        StreamingFormRequest streaming = wrap("aura.context=ctx&empty&other=");
+
+        Assert.assertNull(streaming.getStreamedReader());
+        Assert.assertEquals("", streaming.getParameter("empty"));
+        Assert.assertEquals("", streaming.getParameter("other"));
+    }
+
+    @Test
+    public void testQueryParametersAreIncluded() throws Exception {
+        Mockito.when(request.getParameterValues("aura.format")).thenReturn(new String[] { "JSON" });
+        StreamingFormRequest streaming = wrap("aura.context=ctx&message=" + encode(MESSAGE));
+
+        Assert.assertEquals("JSON", streaming.getParameter("aura.format"));
+        Assert.assertEquals(MESSAGE, read(streaming.getStreamedReader()));
+    }
+
+    @Test
+    public void testConsumedBodyIsDelegated() throws Exception {
+        Mockito.when(request.getParameter("message")).thenReturn(MESSAGE);
+        Mockito.when(request.getParameterValues("aura.context")).thenReturn(new String[] { "ctx" });
+        StreamingFormRequest streaming = wrap("");
+
+        Assert.assertEquals("ctx", streaming.getParameter("aura.context"));
+        Assert.assertEquals(MESSAGE, read(streaming.getStreamedReader()));
+    }
+
+    @Test(expected = InvalidParamException.class)
+    public void testValueTooLong() throws Exception {
+        StreamingFormRequest streaming = wrap("aura.context=" + Strings.repeat("x", 1024 * 1024 + 1));
+
+        streaming.getParameter("aura.context");
+    }
+
+    @Test(expected = BodyTooLargeException.class)
+    public void testDeclaredBodyTooLong() throws Exception {
+        Mockito.when(request.getContentLength()).thenReturn(101);
+        StreamingFormRequest streaming = wrap("aura.context=ctx", 100);
+
+        streaming.getParameter("aura.context");
+    }
+
+    @Test
+    public void testStreamedBodyTooLong() throws Exception {
+        StreamingFormRequest streaming = wrap("aura.context=ctx&message=" + Strings.repeat("x", 100), 100);
+
+        Assert.assertEquals("ctx", streaming.getParameter("aura.context"));
+        try {
+            read(streaming.getStreamedReader());
+            Assert.fail("body over the limit should not be read");
+        } catch (BodyTooLargeException expected) {
+        }
+    }
+
+    @Test
+    public void testBodyAtLimit() throws Exception {
+        String body = "aura.context=ctx&message=" + Strings.repeat("x", 75);
+        StreamingFormRequest streaming = wrap(body, body.length());
+
+        Assert.assertEquals("ctx", streaming.getParameter("aura.context"));
+        Assert.assertEquals(Strings.repeat("x", 75), read(streaming.getStreamedReader()));
+    }
+
+    @Test
+    public void testMaxBodyLengthFromContainer() {
+        ServletContext servletContext = Mockito.mock(ServletContext.class);
+        Mockito.when(servletContext.getAttribute(StreamingFormRequest.CONTAINER_MAX_FORM_CONTENT_SIZE))
+                .thenReturn(200000);
+
+        Assert.assertEquals(200000, StreamingFormRequest.getMaxBodyLength(servletContext));
+
+        Mockito.when(servletContext.getAttribute(StreamingFormRequest.CONTAINER_MAX_FORM_CONTENT_SIZE))
+                .thenReturn("-1");
+        Assert.assertEquals(StreamingFormRequest.getMaxBodyLength(null),
+                StreamingFormRequest.getMaxBodyLength(servletContext));
+    }
+
+    @Test(expected = InvalidParamException.class)
+    public void testBadEscape() throws Exception {
+        StreamingFormRequest streaming = wrap("aura.context=%zz");
+
+        streaming.getParameter("aura.context");
+    }
+
+    @Test
+    public void testUnwrap() throws Exception {
+        StreamingFormRequest streaming = wrap("");
+
+        Assert.assertSame(streaming, StreamingFormRequest.unwrap(new HttpServletRequestWrapper(streaming)));
+        Assert.assertNull(StreamingFormRequest.unwrap(request));
+    }
+}
@@ -40,10 +40,13 @@ import org.auraframework.http.resource.AuraResourceImpl.AuraResourceException;
 import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.EncodedContent;
+import org.auraframework.system.EncodedContent.Encoding;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 /**
@@ -94,15 +97,17 @@ public class AppCssTest {
         Throwable t = new RuntimeException();
         doThrow(t).when(serverService).writeAppCss(eq(dependencies), any(Writer.class));
 
+        MockHttpServletRequest request = new MockHttpServletRequest();
         MockHttpServletResponse response = new MockHttpServletResponse();
 
         // Act
-        appCss.write(null, response, null);
+        appCss.write(request, response, null);
 
         // Assert
         // Knock off the known calls. These are mocked above, and are internal implementation dependent.
         verify(servletUtilAdapter, times(1)).verifyTopLevel(any(HttpServletRequest.class),
                 any(HttpServletResponse.class), any(AuraContext.class));
+        verify(serverService, times(1)).getEncodedAppCss(dependencies);
         verify(serverService, times(1)).writeAppCss(eq(dependencies), any(Writer.class));
 
         // And this is the expected call. This must stay.
@@ -117,6 +122,37 @@ public class AppCssTest {
         verifyNoMoreInteractions(exceptionAdapter);
     }
 
+    /**
+     * Check that cached, encoded CSS is written to the output stream in the negotiated encoding.
+     */
+    @Test
+    public void testWritesEncodedContent() throws Exception {
+        ServletUtilAdapter servletUtilAdapter = mock(ServletUtilAdapter.class);
+        ServerService serverService = mock(ServerService.class);
+
+        AppCss appCss = new AppCss();
+        appCss.setServletUtilAdapter(servletUtilAdapter);
+        appCss.setServerService(serverService);
+
+        Set<DefDescriptor<?>> dependencies = new HashSet<>();
+        when(servletUtilAdapter.verifyTopLevel(any(HttpServletRequest.class), any(HttpServletResponse.class), any(AuraContext.class)))
+                .thenReturn(dependencies);
+        EncodedContent content = EncodedContent.encode(".a{color:red}");
+        when(serverService.getEncodedAppCss(dependencies)).thenReturn(content);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        appCss.write(request, response, null);
+
+        Assert.assertEquals("gzip", response.getHeader("Content-Encoding"));
+        Assert.assertEquals(content.getLength(Encoding.GZIP), response.getContentAsByteArray().length);
+        Assert.assertEquals(content.getLength(Encoding.GZIP), response.getContentLength());
+        verify(serverService, times(1)).getEncodedAppCss(dependencies);
+        verifyNoMoreInteractions(serverService);
+    }
+
     /**
      * Check that null dependencies doesn't call anything.
      *
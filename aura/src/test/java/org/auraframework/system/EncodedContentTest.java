@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.HttpHeaders;
+import org.auraframework.system.EncodedContent.Encoding;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.io.ByteStreams;
+
+public class EncodedContentTest {
+    private static final String CONTENT = "var x = 'é中';\n";
+
+    @Test
+    public void testNegotiate() {
+        Assert.assertEquals(Encoding.IDENTITY, Encoding.negotiate(null));
+        Assert.assertEquals(Encoding.IDENTITY, Encoding.negotiate(""));
+        Assert.assertEquals(Encoding.IDENTITY, Encoding.negotiate("identity"));
+        Assert.assertEquals(Encoding.GZIP, Encoding.negotiate("gzip, deflate, br"));
+        Assert.assertEquals(Encoding.GZIP, Encoding.negotiate("deflate;q=1.0, GZIP;q=0.5"));
+        Assert.assertEquals(Encoding.GZIP, Encoding.negotiate("*"));
+        Assert.assertEquals(Encoding.IDENTITY, Encoding.negotiate("gzip;q=0"));
+        Assert.assertEquals(Encoding.IDENTITY, Encoding.negotiate("*, gzip;q=0"));
+        Assert.assertEquals(Encoding.IDENTITY, Encoding.negotiate("gzip;q=abc"));
+    }
+
+    @Test
+    public void testIdentityIsUtf8() throws Exception {
+        EncodedContent content = EncodedContent.encode(CONTENT);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        content.writeTo(Encoding.IDENTITY, out);
+
+        byte[] expected = CONTENT.getBytes(StandardCharsets.UTF_8);
+        Assert.assertArrayEquals(expected, out.toByteArray());
+        Assert.assertEquals(expected.length, content.getLength(Encoding.IDENTITY));
+    }
+
+    @Test
+    public void testGzipRoundTrips() throws Exception {
+        EncodedContent content = EncodedContent.encode(CONTENT);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        content.writeTo(Encoding.GZIP, out);
+
+        Assert.assertEquals(out.size(), content.getLength(Encoding.GZIP));
+        byte[] decoded = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+        Assert.assertEquals(CONTENT, new String(decoded, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteIsRepeatable() throws Exception {
+        EncodedContent content = EncodedContent.encode(CONTENT);
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        content.writeTo(Encoding.GZIP, first);
+        content.writeTo(Encoding.GZIP, second);
+
+        Assert.assertArrayEquals(first.toByteArray(), second.toByteArray());
+    }
+
+    @Test
+    public void testUncompressedBytesAreWrittenAsIs() throws Exception {
+        byte[] bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+        EncodedContent content = EncodedContent.encode(bytes, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        content.writeTo(Encoding.GZIP, out);
+
+        Assert.assertFalse(content.isCompressed());
+        Assert.assertArrayEquals(bytes, out.toByteArray());
+        Assert.assertEquals(bytes.length, content.getLength(Encoding.GZIP));
+        Assert.assertEquals(bytes.length, content.getByteSize());
+    }
+
+    @Test
+    public void testCompressedBytes() throws Exception {
+        EncodedContent content = EncodedContent.encode(CONTENT.getBytes(StandardCharsets.UTF_8), true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        content.writeTo(Encoding.GZIP, out);
+
+        Assert.assertTrue(content.isCompressed());
+        byte[] decoded = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+        Assert.assertEquals(CONTENT, new String(decoded, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testOnlyCompressedBytesAreHeld() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append(CONTENT);
+        }
+        EncodedContent content = EncodedContent.encode(sb);
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        ByteArrayOutputStream identity = new ByteArrayOutputStream();
+
+        content.writeTo(Encoding.GZIP, gzip);
+        content.writeTo(Encoding.IDENTITY, identity);
+
+        Assert.assertEquals(gzip.size(), content.getByteSize());
+        Assert.assertEquals(sb.toString(), new String(identity.toByteArray(), StandardCharsets.UTF_8));
+        Assert.assertEquals(identity.size(), content.getLength(Encoding.IDENTITY));
+    }
+
+    @Test
+    public void testETagDependsOnEncoding() {
+        Assert.assertEquals("\"abc\"", EncodedContent.getETag("abc", Encoding.IDENTITY));
+        Assert.assertEquals("\"abc-gzip\"", EncodedContent.getETag("abc", Encoding.GZIP));
+    }
+
+    @Test
+    public void testMatchesETag() {
+        Assert.assertFalse(EncodedContent.matchesETag(null, "\"abc\""));
+        Assert.assertTrue(EncodedContent.matchesETag("\"abc\"", "\"abc\""));
+        Assert.assertTrue(EncodedContent.matchesETag("\"xyz\", W/\"abc\"", "\"abc\""));
+        Assert.assertTrue(EncodedContent.matchesETag("*", "\"abc\""));
+        Assert.assertFalse(EncodedContent.matchesETag("\"abc-gzip\"", "\"abc\""));
+    }
+
+    @Test
+    public void testWriteToResponseNegotiatesGzip() throws Exception {
+        EncodedContent content = EncodedContent.encode(CONTENT);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+
+        content.writeTo(request, response, "abc");
+
+        Mockito.verify(response).setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        Mockito.verify(response).setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        Mockito.verify(response).setHeader(HttpHeaders.ETAG, "\"abc-gzip\"");
+        Mockito.verify(response).setContentLength(body.size());
+        byte[] inflated = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())));
+        Assert.assertEquals(CONTENT, new String(inflated, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteToResponseIsNotModifiedForMatchingETag() throws Exception {
+        EncodedContent content = EncodedContent.encode(CONTENT);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"abc\"");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+
+        content.writeTo(request, response, "abc");
+
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        Mockito.verify(response, Mockito.never()).getOutputStream();
+        Assert.assertEquals(0, body.size());
+    }
+
+    @Test
+    public void testWriteToResponseSendsUncompressedContentAsIs() throws Exception {
+        byte[] bytes = new byte[] { 1, 2, 3 };
+        EncodedContent content = EncodedContent.encode(bytes, false);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = mockResponse(body);
+
+        content.writeTo(request, response, null);
+
+        Mockito.verify(response, Mockito.never()).setHeader(Mockito.eq(HttpHeaders.CONTENT_ENCODING),
+                Mockito.anyString());
+        Mockito.verify(response, Mockito.never()).setHeader(Mockito.eq(HttpHeaders.ETAG), Mockito.anyString());
+        Assert.assertArrayEquals(bytes, body.toByteArray());
+    }
+
+    private HttpServletResponse mockResponse(ByteArrayOutputStream body) throws IOException {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                body.write(b);
+            }
+        });
+        return response;
+    }
+}
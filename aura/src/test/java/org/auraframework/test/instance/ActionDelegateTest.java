@@ -86,6 +86,7 @@ public class ActionDelegateTest {
         oneCall(methodMap, calledMap, "logParams", (Object)null);
         oneCall(methodMap, calledMap, "isStorable");
         oneCall(methodMap, calledMap, "setStorable");
+        oneCall(methodMap, calledMap, "isIndependent");
         oneCall(methodMap, calledMap, "getParams");
 
         oneCall(methodMap, calledMap, "getInstanceStack");